@@ -0,0 +1,679 @@
+package ru.yandex.practicum.benchmarks;
+
+// region imports
+
+import com.google.gson.Gson;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+import com.sun.net.httpserver.HttpServer;
+import ru.yandex.practicum.HttpTaskServer;
+import ru.yandex.practicum.api.dto.EpicDto;
+import ru.yandex.practicum.api.dto.SubTaskDto;
+import ru.yandex.practicum.api.dto.TaskDto;
+import ru.yandex.practicum.utils.json.GsonFactory;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.TreeMap;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+// endregion
+
+/**
+ * Генератор нагрузки на API задач на основе {@link HttpClient}.
+ * <p>
+ * Поддерживаются два режима:
+ * <ul>
+ *     <li>closed - замкнутый цикл: каждый клиент отправляет следующий запрос только после ответа на предыдущий.
+ *     Показывает предельную пропускную способность при заданном числе одновременных клиентов;</li>
+ *     <li>open - постоянная интенсивность поступления запросов: запросы отправляются по расписанию независимо от
+ *     ответов сервера, а задержка считается от запланированного момента отправки, а не от фактического. Поэтому
+ *     отставание генератора и очередь на стороне сервера попадают в замер (поправка на coordinated omission).</li>
+ * </ul>
+ * Смесь запросов задаётся долями GET, POST и DELETE. GET равномерно распределяется между /tasks/{id}, /tasks,
+ * /subtasks, /epics, /history и /prioritized; POST - между созданием задачи, подзадачи и эпика; DELETE удаляет задачи
+ * и подзадачи, созданные генератором при подготовке данных.
+ * <p>
+ * Запуск: {@code java ru.yandex.practicum.benchmarks.HttpLoadGenerator [closed|open] [клиенты|запросов в секунду]
+ * [секунды] [смесь, например get:70,post:20,delete:10] [адрес сервера]}. Если адрес не указан, запускается встроенный
+ * сервер на свободном порту.
+ */
+public final class HttpLoadGenerator {
+    /**
+     * Количество задач, создаваемых при подготовке данных.
+     */
+    private static final int SEED_TASKS = 1_000;
+
+    /**
+     * Количество эпиков, создаваемых при подготовке данных.
+     */
+    private static final int SEED_EPICS = 100;
+
+    /**
+     * Количество подзадач в каждом эпике, создаваемом при подготовке данных.
+     */
+    private static final int SEED_SUBTASKS_PER_EPIC = 10;
+
+    /**
+     * Наибольшее количество одновременно выполняющихся запросов в режиме open.
+     */
+    private static final int MAX_IN_FLIGHT = 4_096;
+
+    /**
+     * Длительность прогрева в секундах.
+     */
+    private static final int WARMUP_SECONDS = 2;
+
+    public static void main(String[] args) throws Exception {
+        String mode = args.length > 0 ? args[0] : "closed";
+        int load = args.length > 1 ? Integer.parseInt(args[1]) : ("open".equals(mode) ? 2_000 : 32);
+        int seconds = args.length > 2 ? Integer.parseInt(args[2]) : 10;
+        Mix mix = Mix.parse(args.length > 3 ? args[3] : "get:70,post:20,delete:10");
+
+        HttpServer httpServer = null;
+        URI baseUri;
+        if (args.length > 4) {
+            baseUri = URI.create(args[4]);
+        } else {
+            httpServer = HttpTaskServer.createHttpServer(new InetSocketAddress("localhost", 0));
+            httpServer.start();
+            baseUri = URI.create("http://localhost:" + httpServer.getAddress().getPort());
+        }
+
+        HttpClient httpClient = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(Duration.ofSeconds(5))
+                .build();
+
+        try {
+            Workload workload = Workload.seed(httpClient, baseUri);
+
+            System.out.printf("%s %s, %s, %d s, %s%n", mode, "open".equals(mode) ? load + " req/s" : load + " clients", mix, seconds, baseUri);
+
+            switch (mode) {
+                case "closed":
+                    runClosedLoop(workload, mix, load, WARMUP_SECONDS).print("warmup", WARMUP_SECONDS);
+                    runClosedLoop(workload, mix, load, seconds).print("closed", seconds);
+                    break;
+                case "open":
+                    runOpenLoop(workload, mix, load, WARMUP_SECONDS).print("warmup", WARMUP_SECONDS);
+                    runOpenLoop(workload, mix, load, seconds).print("open", seconds);
+                    break;
+                default:
+                    throw new IllegalArgumentException("Неизвестный режим: " + mode);
+            }
+        } finally {
+            if (httpServer != null) {
+                httpServer.stop(0);
+            }
+        }
+    }
+
+    /**
+     * Выполнить прогон в замкнутом цикле.
+     *
+     * @param workload    генератор запросов.
+     * @param mix         смесь запросов.
+     * @param clientCount количество клиентов.
+     * @param seconds     длительность прогона в секундах.
+     * @return результаты прогона.
+     */
+    private static Stats runClosedLoop(Workload workload, Mix mix, int clientCount, int seconds) throws InterruptedException {
+        long deadline = System.nanoTime() + seconds * 1_000_000_000L;
+
+        List<Thread> clients = new ArrayList<>();
+        List<Stats> clientStats = new ArrayList<>();
+        for (int i = 0; i < clientCount; i++) {
+            Stats stats = new Stats();
+            clientStats.add(stats);
+
+            Thread client = new Thread(() -> {
+                Random random = ThreadLocalRandom.current();
+                while (System.nanoTime() < deadline) {
+                    Request request = workload.next(mix, random);
+
+                    long startedAt = System.nanoTime();
+                    try {
+                        HttpResponse<Void> response = workload.httpClient.send(request.httpRequest, HttpResponse.BodyHandlers.discarding());
+                        stats.record(request, response.statusCode(), System.nanoTime() - startedAt);
+                    } catch (IOException ex) {
+                        stats.record(request, -1, System.nanoTime() - startedAt);
+                    } catch (InterruptedException ex) {
+                        Thread.currentThread().interrupt();
+                        return;
+                    }
+                }
+            }, "load-client-" + i);
+            clients.add(client);
+            client.start();
+        }
+
+        Stats total = new Stats();
+        for (int i = 0; i < clients.size(); i++) {
+            clients.get(i).join();
+            total.recordAll(clientStats.get(i));
+        }
+
+        return total;
+    }
+
+    /**
+     * Выполнить прогон с постоянной интенсивностью поступления запросов.
+     *
+     * @param workload          генератор запросов.
+     * @param mix               смесь запросов.
+     * @param requestsPerSecond интенсивность в запросах в секунду.
+     * @param seconds           длительность прогона в секундах.
+     * @return результаты прогона.
+     */
+    private static Stats runOpenLoop(Workload workload, Mix mix, int requestsPerSecond, int seconds) throws InterruptedException {
+        Stats stats = new Stats();
+        Semaphore inFlight = new Semaphore(MAX_IN_FLIGHT);
+        Random random = new Random();
+
+        double intervalNanos = 1_000_000_000.0 / requestsPerSecond;
+        long startedAt = System.nanoTime();
+        long deadline = startedAt + seconds * 1_000_000_000L;
+
+        for (long i = 0; ; i++) {
+            long intendedAt = startedAt + (long) (i * intervalNanos);
+            if (intendedAt >= deadline) {
+                break;
+            }
+
+            long delay = intendedAt - System.nanoTime();
+            if (delay > 0) {
+                LockSupport.parkNanos(delay);
+            }
+
+            Request request = workload.next(mix, random);
+
+            // Если сервер не успевает, генератор ждёт здесь, но задержка всё равно отсчитывается от intendedAt.
+            inFlight.acquire();
+            stats.recordLag(System.nanoTime() - intendedAt);
+
+            workload.httpClient.sendAsync(request.httpRequest, HttpResponse.BodyHandlers.discarding())
+                    .whenComplete((response, ex) -> {
+                        long latency = System.nanoTime() - intendedAt;
+                        synchronized (stats) {
+                            stats.record(request, ex == null ? response.statusCode() : -1, latency);
+                        }
+                        inFlight.release();
+                    });
+        }
+
+        inFlight.acquire(MAX_IN_FLIGHT);
+
+        return stats;
+    }
+
+    // region Nested Types
+
+    /**
+     * Доли запросов по HTTP-методам.
+     */
+    private static final class Mix {
+        /**
+         * Доля GET.
+         */
+        private final int get;
+
+        /**
+         * Доля POST.
+         */
+        private final int post;
+
+        /**
+         * Доля DELETE.
+         */
+        private final int delete;
+
+        /**
+         * Конструктор.
+         */
+        private Mix(int get, int post, int delete) {
+            if (get < 0 || post < 0 || delete < 0 || get + post + delete == 0) {
+                throw new IllegalArgumentException("Доли запросов должны быть неотрицательными и не все равны нулю");
+            }
+
+            this.get = get;
+            this.post = post;
+            this.delete = delete;
+        }
+
+        /**
+         * Разобрать смесь вида {@code get:70,post:20,delete:10}.
+         *
+         * @param value строка со смесью.
+         * @return смесь запросов.
+         */
+        static Mix parse(String value) {
+            int get = 0;
+            int post = 0;
+            int delete = 0;
+
+            for (String part : value.split(",")) {
+                String[] pair = part.trim().split(":");
+                if (pair.length != 2) {
+                    throw new IllegalArgumentException("Некорректная смесь запросов: " + value);
+                }
+
+                int weight = Integer.parseInt(pair[1].trim());
+                switch (pair[0].trim().toLowerCase()) {
+                    case "get":
+                        get = weight;
+                        break;
+                    case "post":
+                        post = weight;
+                        break;
+                    case "delete":
+                        delete = weight;
+                        break;
+                    default:
+                        throw new IllegalArgumentException("Неизвестный метод в смеси запросов: " + pair[0]);
+                }
+            }
+
+            return new Mix(get, post, delete);
+        }
+
+        @Override
+        public String toString() {
+            return String.format("get:%d,post:%d,delete:%d", this.get, this.post, this.delete);
+        }
+    }
+
+    /**
+     * Запрос вместе с названием его вида для отчёта.
+     */
+    private static final class Request {
+        /**
+         * Вид запроса, например {@code GET /tasks/{id}}.
+         */
+        private final String kind;
+
+        /**
+         * Запрос.
+         */
+        private final HttpRequest httpRequest;
+
+        /**
+         * Признак того, что запрос адресует конкретную сущность, которую мог удалить параллельный запрос,
+         * поэтому ответ 404 для него не считается ошибкой.
+         */
+        private final boolean addressed;
+
+        /**
+         * Конструктор.
+         */
+        Request(String kind, HttpRequest httpRequest, boolean addressed) {
+            this.kind = kind;
+            this.httpRequest = httpRequest;
+            this.addressed = addressed;
+        }
+    }
+
+    /**
+     * Генератор запросов по данным, созданным при подготовке.
+     */
+    private static final class Workload {
+        /**
+         * Виды GET-запросов к спискам.
+         */
+        private static final String[] LIST_PATHS = {"/tasks", "/subtasks", "/epics", "/history", "/prioritized"};
+
+        /**
+         * HTTP-клиент.
+         */
+        private final HttpClient httpClient;
+
+        /**
+         * Адрес сервера.
+         */
+        private final URI baseUri;
+
+        /**
+         * Сериализатор запросов.
+         */
+        private final Gson gson;
+
+        /**
+         * Префикс названий сущностей этого запуска, чтобы не задеть чужие данные на сервере.
+         */
+        private final String prefix;
+
+        /**
+         * Идентификаторы созданных при подготовке задач.
+         */
+        private final int[] taskIds;
+
+        /**
+         * Количество задач, отданных на удаление (удаляются с начала массива).
+         */
+        private final AtomicInteger deletedTasks = new AtomicInteger();
+
+        /**
+         * Идентификаторы созданных при подготовке подзадач.
+         */
+        private final int[] subTaskIds;
+
+        /**
+         * Количество подзадач, отданных на удаление.
+         */
+        private final AtomicInteger deletedSubTasks = new AtomicInteger();
+
+        /**
+         * Идентификаторы созданных при подготовке эпиков.
+         */
+        private final int[] epicIds;
+
+        /**
+         * Номер следующего свободного интервала времени для новой задачи или подзадачи.
+         */
+        private final AtomicLong nextSlot = new AtomicLong();
+
+        /**
+         * Начало времени, с которого генератор размещает задачи.
+         */
+        private final LocalDateTime baseTime;
+
+        /**
+         * Конструктор.
+         */
+        private Workload(HttpClient httpClient, URI baseUri, String prefix, LocalDateTime baseTime, int[] taskIds, int[] subTaskIds, int[] epicIds, long nextSlot) {
+            this.httpClient = httpClient;
+            this.baseUri = baseUri;
+            this.gson = GsonFactory.getDefault();
+            this.prefix = prefix;
+            this.baseTime = baseTime;
+            this.taskIds = taskIds;
+            this.subTaskIds = subTaskIds;
+            this.epicIds = epicIds;
+            this.nextSlot.set(nextSlot);
+        }
+
+        /**
+         * Подготовить данные на сервере: задачи, эпики и подзадачи.
+         *
+         * @param httpClient HTTP-клиент.
+         * @param baseUri    адрес сервера.
+         * @return генератор запросов.
+         */
+        static Workload seed(HttpClient httpClient, URI baseUri) throws IOException, InterruptedException {
+            String prefix = "load-" + Long.toString(System.currentTimeMillis(), 36) + "-";
+            // Задачи не должны пересекаться по времени ни между собой, ни с данными предыдущих запусков.
+            LocalDateTime baseTime = LocalDateTime.of(2100, 1, 1, 0, 0).plusHours(ThreadLocalRandom.current().nextInt(1_000_000));
+
+            Workload seeding = new Workload(httpClient, baseUri, prefix, baseTime, new int[0], new int[0], new int[0], 0);
+
+            for (int i = 0; i < SEED_TASKS; i++) {
+                seeding.send(seeding.createTaskRequest().httpRequest);
+            }
+            for (int i = 0; i < SEED_EPICS; i++) {
+                seeding.send(seeding.createEpicRequest().httpRequest);
+            }
+
+            int[] epicIds = seeding.listIds("/epics");
+            for (int epicId : epicIds) {
+                for (int i = 0; i < SEED_SUBTASKS_PER_EPIC; i++) {
+                    seeding.send(seeding.createSubTaskRequest(epicId).httpRequest);
+                }
+            }
+
+            return new Workload(httpClient, baseUri, prefix, baseTime, seeding.listIds("/tasks"), seeding.listIds("/subtasks"), epicIds, seeding.nextSlot.get());
+        }
+
+        /**
+         * Сформировать следующий запрос согласно смеси.
+         *
+         * @param mix    смесь запросов.
+         * @param random генератор случайных чисел.
+         * @return запрос.
+         */
+        Request next(Mix mix, Random random) {
+            int value = random.nextInt(mix.get + mix.post + mix.delete);
+
+            if (value >= mix.get + mix.post) {
+                Request request = this.nextDelete(random);
+                if (request != null) {
+                    return request;
+                }
+            } else if (value >= mix.get) {
+                return this.nextPost(random);
+            }
+
+            return this.nextGet(random);
+        }
+
+        /**
+         * Сформировать GET-запрос к одной задаче или к одному из списков.
+         */
+        private Request nextGet(Random random) {
+            int choice = random.nextInt(LIST_PATHS.length + 1);
+            if (choice == LIST_PATHS.length) {
+                int deleted = Math.min(this.deletedTasks.get(), this.taskIds.length - 1);
+                int id = this.taskIds[deleted + random.nextInt(this.taskIds.length - deleted)];
+
+                return new Request("GET /tasks/{id}", this.get("/tasks/" + id), true);
+            }
+
+            return new Request("GET " + LIST_PATHS[choice], this.get(LIST_PATHS[choice]), false);
+        }
+
+        /**
+         * Сформировать POST-запрос на создание задачи, подзадачи или эпика.
+         */
+        private Request nextPost(Random random) {
+            switch (random.nextInt(3)) {
+                case 0:
+                    return this.createTaskRequest();
+                case 1:
+                    return this.createSubTaskRequest(this.epicIds[random.nextInt(this.epicIds.length)]);
+                default:
+                    return this.createEpicRequest();
+            }
+        }
+
+        /**
+         * Сформировать DELETE-запрос для ещё не удалённой задачи или подзадачи.
+         *
+         * @return запрос или null, если удалять больше нечего.
+         */
+        private Request nextDelete(Random random) {
+            if (random.nextBoolean()) {
+                int index = this.deletedTasks.getAndIncrement();
+                if (index < this.taskIds.length - 1) {
+                    return new Request("DELETE /tasks/{id}", this.delete("/tasks/" + this.taskIds[index]), true);
+                }
+            } else {
+                int index = this.deletedSubTasks.getAndIncrement();
+                if (index < this.subTaskIds.length) {
+                    return new Request("DELETE /subtasks/{id}", this.delete("/subtasks/" + this.subTaskIds[index]), true);
+                }
+            }
+
+            return null;
+        }
+
+        private Request createTaskRequest() {
+            TaskDto taskDto = new TaskDto();
+            this.fill(taskDto);
+
+            return new Request("POST /tasks", this.post("/tasks", this.gson.toJson(taskDto)), false);
+        }
+
+        private Request createSubTaskRequest(int epicId) {
+            SubTaskDto subTaskDto = new SubTaskDto();
+            this.fill(subTaskDto);
+            subTaskDto.epicId = epicId;
+
+            return new Request("POST /subtasks", this.post("/subtasks", this.gson.toJson(subTaskDto)), false);
+        }
+
+        private Request createEpicRequest() {
+            EpicDto epicDto = new EpicDto();
+            epicDto.name = this.prefix + "epic";
+            epicDto.description = "Эпик генератора нагрузки";
+
+            return new Request("POST /epics", this.post("/epics", this.gson.toJson(epicDto)), false);
+        }
+
+        /**
+         * Заполнить задачу: каждая получает собственный непересекающийся интервал времени.
+         */
+        private void fill(TaskDto taskDto) {
+            taskDto.name = this.prefix + "task";
+            taskDto.description = "Задача генератора нагрузки";
+            taskDto.startTime = this.baseTime.plusMinutes(2 * this.nextSlot.getAndIncrement());
+            taskDto.duration = Duration.ofMinutes(1);
+        }
+
+        private HttpRequest get(String path) {
+            return HttpRequest.newBuilder(this.baseUri.resolve(path)).GET().build();
+        }
+
+        private HttpRequest post(String path, String body) {
+            return HttpRequest.newBuilder(this.baseUri.resolve(path))
+                    .header("Content-Type", "application/json")
+                    .POST(HttpRequest.BodyPublishers.ofString(body))
+                    .build();
+        }
+
+        private HttpRequest delete(String path) {
+            return HttpRequest.newBuilder(this.baseUri.resolve(path)).DELETE().build();
+        }
+
+        /**
+         * Отправить запрос подготовки данных и проверить, что он выполнен.
+         */
+        private String send(HttpRequest httpRequest) throws IOException, InterruptedException {
+            HttpResponse<String> response = this.httpClient.send(httpRequest, HttpResponse.BodyHandlers.ofString());
+            if (response.statusCode() >= 300) {
+                throw new IllegalStateException("Не удалось подготовить данные: " + httpRequest.method() + " " + httpRequest.uri() + " вернул " + response.statusCode());
+            }
+
+            return response.body();
+        }
+
+        /**
+         * Получить идентификаторы сущностей этого запуска из списка.
+         *
+         * @param path путь списка.
+         * @return идентификаторы.
+         */
+        private int[] listIds(String path) throws IOException, InterruptedException {
+            List<Integer> ids = new ArrayList<>();
+            for (JsonElement element : JsonParser.parseString(this.send(this.get(path))).getAsJsonArray()) {
+                JsonObject object = element.getAsJsonObject();
+                if (object.get("name").getAsString().startsWith(this.prefix)) {
+                    ids.add(object.get("id").getAsInt());
+                }
+            }
+
+            if (ids.isEmpty()) {
+                throw new IllegalStateException("Сервер не вернул созданные данные: " + path);
+            }
+
+            return ids.stream().mapToInt(Integer::intValue).toArray();
+        }
+    }
+
+    /**
+     * Результаты прогона по видам запросов.
+     */
+    private static final class Stats {
+        /**
+         * Задержки всех запросов.
+         */
+        private final LatencyRecorder total = new LatencyRecorder(1 << 16);
+
+        /**
+         * Задержки по видам запросов.
+         */
+        private final Map<String, LatencyRecorder> byKind = new TreeMap<>();
+
+        /**
+         * Отставание момента отправки от запланированного (только в режиме open).
+         */
+        private final LatencyRecorder lag = new LatencyRecorder(1 << 16);
+
+        /**
+         * Количество ошибок.
+         */
+        private long errors;
+
+        /**
+         * Добавить результат запроса.
+         *
+         * @param request    запрос.
+         * @param statusCode HTTP-код ответа или -1, если ответ не получен.
+         * @param nanos      задержка в наносекундах.
+         */
+        void record(Request request, int statusCode, long nanos) {
+            this.total.record(nanos);
+            this.byKind.computeIfAbsent(request.kind, kind -> new LatencyRecorder(1 << 12)).record(nanos);
+
+            boolean success = statusCode >= 200 && statusCode < 300 || statusCode == 404 && request.addressed;
+            if (!success) {
+                this.errors++;
+            }
+        }
+
+        /**
+         * Добавить отставание момента отправки.
+         *
+         * @param nanos отставание в наносекундах.
+         */
+        void recordLag(long nanos) {
+            this.lag.record(nanos);
+        }
+
+        /**
+         * Добавить все результаты другого прогона.
+         *
+         * @param other результаты прогона.
+         */
+        void recordAll(Stats other) {
+            this.total.recordAll(other.total);
+            for (Map.Entry<String, LatencyRecorder> entry : other.byKind.entrySet()) {
+                this.byKind.computeIfAbsent(entry.getKey(), kind -> new LatencyRecorder(1 << 12)).recordAll(entry.getValue());
+            }
+            this.lag.recordAll(other.lag);
+            this.errors += other.errors;
+        }
+
+        /**
+         * Вывести отчёт.
+         *
+         * @param name    название прогона.
+         * @param seconds длительность прогона в секундах.
+         */
+        void print(String name, int seconds) {
+            System.out.printf("  %-24s %,.0f req/s errors=%d %s%n", name, this.total.getCount() / (double) seconds, this.errors, this.total.summary());
+            for (Map.Entry<String, LatencyRecorder> entry : this.byKind.entrySet()) {
+                System.out.printf("    %-22s %s%n", entry.getKey(), entry.getValue().summary());
+            }
+
+            if (this.lag.getCount() > 0) {
+                System.out.printf("    %-22s %s%n", "send lag", this.lag.summary());
+            }
+        }
+    }
+
+    // endregion
+}
@@ -0,0 +1,238 @@
+package ru.yandex.practicum.benchmarks;
+
+// region imports
+
+import com.sun.net.httpserver.HttpServer;
+import ru.yandex.practicum.HttpTaskServer;
+import ru.yandex.practicum.Managers;
+import ru.yandex.practicum.abstractions.TaskManager;
+import ru.yandex.practicum.api.http.nio.NioHttpServer;
+import ru.yandex.practicum.models.Task;
+
+import java.io.BufferedInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+// endregion
+
+/**
+ * Нагрузочное сравнение HttpServer и неблокирующего {@link NioHttpServer} на одних и тех же обработчиках.
+ * <p>
+ * Каждый клиент держит одно keep-alive соединение и отправляет запросы GET /tasks/{id} пачками заданной глубины
+ * конвейера, не дожидаясь ответов на предыдущие запросы пачки. Задержка запроса считается от отправки пачки до
+ * получения его ответа.
+ * <p>
+ * Запуск: {@code java ru.yandex.practicum.benchmarks.HttpServerLoadTest [клиенты] [глубина конвейера] [секунды]}.
+ */
+public final class HttpServerLoadTest {
+    public static void main(String[] args) throws Exception {
+        int clientCount = args.length > 0 ? Integer.parseInt(args[0]) : 64;
+        int depth = args.length > 1 ? Integer.parseInt(args[1]) : 8;
+        int seconds = args.length > 2 ? Integer.parseInt(args[2]) : 10;
+
+        TaskManager taskManager = Managers.getDefault();
+        LocalDateTime startTime = LocalDateTime.of(2024, 1, 1, 0, 0);
+        for (int i = 0; i < 1_000; i++) {
+            taskManager.createTask(new Task("Задача №" + i, "Описание задачи №" + i, startTime.plusHours(i), Duration.ofMinutes(30)));
+        }
+
+        List<Integer> ids = taskManager.getAllTasks().stream().map(Task::getId).toList();
+
+        System.out.printf("GET /tasks/{id}, %d clients, pipeline depth %d, %d s%n", clientCount, depth, seconds);
+
+        HttpServer httpServer = HttpTaskServer.createHttpServer(new InetSocketAddress("localhost", 0));
+        httpServer.start();
+        try {
+            run("HttpServer warmup", httpServer.getAddress().getPort(), ids, clientCount, depth, 2);
+            run("HttpServer", httpServer.getAddress().getPort(), ids, clientCount, depth, seconds);
+        } finally {
+            httpServer.stop(0);
+        }
+
+        NioHttpServer nioHttpServer = HttpTaskServer.createNioHttpServer(new InetSocketAddress("localhost", 0));
+        nioHttpServer.start();
+        try {
+            run("NioHttpServer warmup", nioHttpServer.getAddress().getPort(), ids, clientCount, depth, 2);
+            run("NioHttpServer", nioHttpServer.getAddress().getPort(), ids, clientCount, depth, seconds);
+        } finally {
+            nioHttpServer.stop();
+        }
+    }
+
+    /**
+     * Выполнить прогон.
+     *
+     * @param name        название сервера.
+     * @param port        порт сервера.
+     * @param ids         идентификаторы задач.
+     * @param clientCount количество клиентов.
+     * @param depth       глубина конвейера.
+     * @param seconds     длительность прогона в секундах.
+     */
+    private static void run(String name, int port, List<Integer> ids, int clientCount, int depth, int seconds) throws InterruptedException {
+        long deadline = System.nanoTime() + seconds * 1_000_000_000L;
+
+        List<Client> clients = new ArrayList<>();
+        for (int i = 0; i < clientCount; i++) {
+            Client client = new Client(port, ids, depth, deadline, i);
+            clients.add(client);
+            client.start();
+        }
+
+        LatencyRecorder latency = new LatencyRecorder(1 << 16);
+        long errors = 0;
+        for (Client client : clients) {
+            client.join();
+
+            latency.recordAll(client.latency);
+
+            errors += client.errors;
+        }
+
+        System.out.printf("  %-20s %,.0f req/s errors=%d %s%n", name, latency.getCount() / (double) seconds, errors, latency.summary());
+    }
+
+    // region Nested Types
+
+    /**
+     * Клиент с одним keep-alive соединением.
+     */
+    private static final class Client extends Thread {
+        /**
+         * Порт сервера.
+         */
+        private final int port;
+
+        /**
+         * Идентификаторы задач.
+         */
+        private final List<Integer> ids;
+
+        /**
+         * Глубина конвейера.
+         */
+        private final int depth;
+
+        /**
+         * Момент окончания прогона (System.nanoTime).
+         */
+        private final long deadline;
+
+        /**
+         * Замеры задержки.
+         */
+        private final LatencyRecorder latency;
+
+        /**
+         * Номер следующего запрашиваемого идентификатора.
+         */
+        private int cursor;
+
+        /**
+         * Количество ошибок.
+         */
+        private long errors;
+
+        /**
+         * Конструктор.
+         */
+        Client(int port, List<Integer> ids, int depth, long deadline, int seed) {
+            super("load-client-" + seed);
+
+            this.port = port;
+            this.ids = ids;
+            this.depth = depth;
+            this.deadline = deadline;
+            this.latency = new LatencyRecorder(1 << 12);
+            this.cursor = seed * 31;
+        }
+
+        @Override
+        public void run() {
+            try (Socket socket = new Socket("localhost", this.port)) {
+                socket.setTcpNoDelay(true);
+
+                OutputStream outputStream = socket.getOutputStream();
+                InputStream inputStream = new BufferedInputStream(socket.getInputStream());
+
+                while (System.nanoTime() < this.deadline) {
+                    StringBuilder batch = new StringBuilder();
+                    for (int i = 0; i < this.depth; i++) {
+                        int id = this.ids.get(this.cursor++ % this.ids.size());
+                        batch.append("GET /tasks/").append(id).append(" HTTP/1.1\r\nHost: localhost\r\n\r\n");
+                    }
+
+                    long sentAt = System.nanoTime();
+                    outputStream.write(batch.toString().getBytes(StandardCharsets.ISO_8859_1));
+                    outputStream.flush();
+
+                    for (int i = 0; i < this.depth; i++) {
+                        if (readResponse(inputStream) != 200) {
+                            this.errors++;
+                        }
+
+                        this.latency.record(System.nanoTime() - sentAt);
+                    }
+                }
+            } catch (IOException ex) {
+                this.errors++;
+            }
+        }
+
+        /**
+         * Прочитать ответ.
+         *
+         * @param inputStream поток соединения.
+         * @return HTTP-код ответа.
+         */
+        private static int readResponse(InputStream inputStream) throws IOException {
+            String statusLine = readLine(inputStream);
+            int contentLength = 0;
+
+            String line;
+            while (!(line = readLine(inputStream)).isEmpty()) {
+                int separator = line.indexOf(':');
+                if (separator > 0 && line.substring(0, separator).trim().equalsIgnoreCase("Content-Length")) {
+                    contentLength = Integer.parseInt(line.substring(separator + 1).trim());
+                }
+            }
+
+            inputStream.skipNBytes(contentLength);
+
+            return Integer.parseInt(statusLine.split(" ")[1]);
+        }
+
+        /**
+         * Прочитать строку до \r\n.
+         *
+         * @param inputStream поток соединения.
+         * @return строка без перевода строки.
+         */
+        private static String readLine(InputStream inputStream) throws IOException {
+            StringBuilder builder = new StringBuilder();
+
+            int b;
+            while ((b = inputStream.read()) != '\n') {
+                if (b == -1) {
+                    throw new IOException("Соединение закрыто");
+                }
+
+                if (b != '\r') {
+                    builder.append((char) b);
+                }
+            }
+
+            return builder.toString();
+        }
+    }
+
+    // endregion
+}
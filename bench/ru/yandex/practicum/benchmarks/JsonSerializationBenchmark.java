@@ -0,0 +1,95 @@
+package ru.yandex.practicum.benchmarks;
+
+// region imports
+
+import com.google.gson.*;
+import ru.yandex.practicum.api.dto.SubTaskDto;
+import ru.yandex.practicum.models.Epic;
+import ru.yandex.practicum.models.SubTask;
+import ru.yandex.practicum.models.Task;
+import ru.yandex.practicum.utils.json.GsonFactory;
+
+import java.lang.reflect.Type;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+// endregion
+
+/**
+ * Сравнение прежней настройки Gson (рефлективная сериализация моделей и адаптеры JsonSerializer/JsonDeserializer,
+ * создающие JsonPrimitive на каждое поле) с общим экземпляром из {@link GsonFactory} на потоковых адаптерах.
+ * <p>
+ * Запуск: {@code java ru.yandex.practicum.benchmarks.JsonSerializationBenchmark [количество задач в списке]}.
+ */
+public final class JsonSerializationBenchmark {
+    public static void main(String[] args) {
+        int listSize = args.length > 0 ? Integer.parseInt(args[0]) : 100;
+
+        Gson legacyGson = new GsonBuilder()
+                .registerTypeAdapter(Duration.class, new LegacyDurationAdapter())
+                .registerTypeAdapter(LocalDateTime.class, new LegacyLocalDateTimeAdapter())
+                .create();
+        Gson gson = GsonFactory.getDefault();
+
+        LocalDateTime startTime = LocalDateTime.of(2024, 1, 1, 0, 0);
+        List<Task> tasks = new ArrayList<>();
+        for (int i = 0; i < listSize; i++) {
+            tasks.add(new Task("Задача №" + i, "Описание задачи №" + i, startTime.plusHours(i), Duration.ofMinutes(30)));
+        }
+
+        Epic epic = new Epic("Эпик", "Эпик с подзадачами");
+        for (int i = 0; i < 10; i++) {
+            epic.addSubTask(new SubTask("Подзадача №" + i, "Описание подзадачи №" + i, startTime.minusHours(i + 1), Duration.ofMinutes(30), epic.getId()));
+        }
+
+        Task task = tasks.get(0);
+        String subTaskJson = gson.toJson(epic.getAllSubTasks().get(0));
+
+        MicroBenchmark benchmark = MicroBenchmark.defaults();
+        for (Object[] setup : new Object[][]{{"legacy", legacyGson}, {"streaming", gson}}) {
+            String name = (String) setup[0];
+            Gson current = (Gson) setup[1];
+
+            benchmark.run(name + ": toJson(Task)", i -> current.toJson(task));
+            benchmark.run(name + ": toJson(Epic with 10 subtasks)", i -> current.toJson(epic));
+            benchmark.run(name + ": toJson(List<Task> of " + listSize + ")", i -> current.toJson(tasks));
+            benchmark.run(name + ": fromJson(SubTaskDto)", i -> current.fromJson(subTaskJson, SubTaskDto.class));
+        }
+    }
+
+    // region Nested Types
+
+    /**
+     * Прежний адаптер продолжительности на основе дерева JSON.
+     */
+    private static final class LegacyDurationAdapter implements JsonSerializer<Duration>, JsonDeserializer<Duration> {
+        @Override
+        public Duration deserialize(JsonElement json, Type typeOfT, JsonDeserializationContext context) throws JsonParseException {
+            return Duration.parse(json.getAsString());
+        }
+
+        @Override
+        public JsonElement serialize(Duration duration, Type type, JsonSerializationContext context) {
+            return new JsonPrimitive(duration.toString());
+        }
+    }
+
+    /**
+     * Прежний адаптер даты и времени на основе дерева JSON.
+     */
+    private static final class LegacyLocalDateTimeAdapter implements JsonSerializer<LocalDateTime>, JsonDeserializer<LocalDateTime> {
+        @Override
+        public LocalDateTime deserialize(JsonElement json, Type typeOfT, JsonDeserializationContext context) throws JsonParseException {
+            return LocalDateTime.parse(json.getAsString());
+        }
+
+        @Override
+        public JsonElement serialize(LocalDateTime dateTime, Type type, JsonSerializationContext context) {
+            return new JsonPrimitive(dateTime.toString());
+        }
+    }
+
+    // endregion
+}
@@ -0,0 +1,115 @@
+package ru.yandex.practicum.benchmarks;
+
+// region imports
+
+import java.util.Arrays;
+
+// endregion
+
+/**
+ * Накопитель замеров задержки (в наносекундах) с подсчётом процентилей.
+ */
+public final class LatencyRecorder {
+    /**
+     * Замеры.
+     */
+    private long[] samples;
+
+    /**
+     * Количество замеров.
+     */
+    private int count;
+
+    /**
+     * Конструктор.
+     *
+     * @param expectedCount ожидаемое количество замеров.
+     */
+    public LatencyRecorder(int expectedCount) {
+        this.samples = new long[Math.max(expectedCount, 16)];
+    }
+
+    /**
+     * Добавить замер.
+     *
+     * @param nanos задержка в наносекундах.
+     */
+    public void record(long nanos) {
+        if (this.count == this.samples.length) {
+            this.samples = Arrays.copyOf(this.samples, this.samples.length << 1);
+        }
+
+        this.samples[this.count++] = nanos;
+    }
+
+    /**
+     * Добавить все замеры другого накопителя.
+     *
+     * @param other накопитель замеров.
+     */
+    public void recordAll(LatencyRecorder other) {
+        for (int i = 0; i < other.count; i++) {
+            this.record(other.samples[i]);
+        }
+    }
+
+    /**
+     * Получить количество замеров.
+     *
+     * @return количество замеров.
+     */
+    public int getCount() {
+        return this.count;
+    }
+
+    /**
+     * Получить значение процентиля.
+     *
+     * @param percentile процентиль (от 0 до 100).
+     * @return значение процентиля в наносекундах.
+     */
+    public long getPercentile(double percentile) {
+        if (this.count == 0) {
+            return 0;
+        }
+
+        long[] sorted = Arrays.copyOf(this.samples, this.count);
+        Arrays.sort(sorted);
+
+        int index = (int) Math.ceil(percentile / 100.0 * sorted.length) - 1;
+        return sorted[Math.max(0, Math.min(index, sorted.length - 1))];
+    }
+
+    /**
+     * Получить среднее значение.
+     *
+     * @return среднее значение в наносекундах.
+     */
+    public double getMean() {
+        if (this.count == 0) {
+            return 0;
+        }
+
+        double sum = 0;
+        for (int i = 0; i < this.count; i++) {
+            sum += this.samples[i];
+        }
+
+        return sum / this.count;
+    }
+
+    /**
+     * Сформировать строку со сводкой замеров в микросекундах.
+     *
+     * @return строка со сводкой.
+     */
+    public String summary() {
+        return String.format("n=%d mean=%.1fus p50=%.1fus p99=%.1fus p99.9=%.1fus max=%.1fus",
+                this.count,
+                this.getMean() / 1_000.0,
+                this.getPercentile(50) / 1_000.0,
+                this.getPercentile(99) / 1_000.0,
+                this.getPercentile(99.9) / 1_000.0,
+                this.getPercentile(100) / 1_000.0);
+    }
+}
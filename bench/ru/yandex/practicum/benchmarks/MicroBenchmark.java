@@ -0,0 +1,212 @@
+package ru.yandex.practicum.benchmarks;
+
+// region imports
+
+import java.lang.management.ManagementFactory;
+import java.util.function.IntFunction;
+
+// endregion
+
+/**
+ * Простейший стенд для микробенчмарков: прогрев, затем несколько измерительных итераций с подсчётом среднего времени
+ * и объёма выделенной памяти на операцию.
+ * <p>
+ * Результат каждой операции передаётся в {@link #consume(Object)}, чтобы JIT не мог выбросить вычисления.
+ */
+public final class MicroBenchmark {
+    /**
+     * Получатель результатов операций.
+     */
+    private static volatile int sink;
+
+    /**
+     * Количество итераций прогрева.
+     */
+    private final int warmupIterations;
+
+    /**
+     * Количество измерительных итераций.
+     */
+    private final int measurementIterations;
+
+    /**
+     * Минимальная продолжительность одной итерации в наносекундах.
+     */
+    private final long iterationNanos;
+
+    /**
+     * Конструктор.
+     *
+     * @param warmupIterations      количество итераций прогрева.
+     * @param measurementIterations количество измерительных итераций.
+     * @param iterationMillis       минимальная продолжительность одной итерации в миллисекундах.
+     */
+    public MicroBenchmark(int warmupIterations, int measurementIterations, long iterationMillis) {
+        this.warmupIterations = warmupIterations;
+        this.measurementIterations = measurementIterations;
+        this.iterationNanos = iterationMillis * 1_000_000L;
+    }
+
+    /**
+     * Стенд с настройками по умолчанию: 3 итерации прогрева и 5 измерительных итераций по 500 мс.
+     *
+     * @return стенд.
+     */
+    public static MicroBenchmark defaults() {
+        return new MicroBenchmark(3, 5, 500);
+    }
+
+    /**
+     * Передать результат операции получателю, чтобы JIT не мог выбросить вычисления.
+     *
+     * @param value результат операции.
+     */
+    public static void consume(Object value) {
+        sink += System.identityHashCode(value);
+    }
+
+    /**
+     * Измерить операцию.
+     *
+     * @param name      название операции.
+     * @param operation операция; аргумент - порядковый номер вызова.
+     * @return результат измерения.
+     */
+    public Result run(String name, IntFunction<?> operation) {
+        for (int i = 0; i < this.warmupIterations; i++) {
+            this.iteration(operation);
+        }
+
+        double bestNanosPerOp = Double.MAX_VALUE;
+        double totalNanosPerOp = 0;
+        double totalBytesPerOp = 0;
+
+        for (int i = 0; i < this.measurementIterations; i++) {
+            long[] measurement = this.iteration(operation);
+            double nanosPerOp = (double) measurement[1] / measurement[0];
+
+            bestNanosPerOp = Math.min(bestNanosPerOp, nanosPerOp);
+            totalNanosPerOp += nanosPerOp;
+            totalBytesPerOp += (double) measurement[2] / measurement[0];
+        }
+
+        Result result = new Result(name, totalNanosPerOp / this.measurementIterations, bestNanosPerOp, totalBytesPerOp / this.measurementIterations);
+        System.out.println(result);
+        return result;
+    }
+
+    /**
+     * Измерить дорогую операцию, выполняя её по одному разу: подготовка перед каждым вызовом в замер не входит.
+     *
+     * @param name        название операции.
+     * @param repetitions количество измерений (первое считается прогревом).
+     * @param setup       подготовка перед каждым вызовом.
+     * @param operation   операция.
+     * @return результат измерения.
+     */
+    public static Result runSingleShot(String name, int repetitions, Runnable setup, Runnable operation) {
+        com.sun.management.ThreadMXBean threadMXBean = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+
+        double bestNanos = Double.MAX_VALUE;
+        double totalNanos = 0;
+        double totalBytes = 0;
+        int measured = 0;
+
+        for (int i = 0; i < repetitions; i++) {
+            setup.run();
+
+            long allocatedBefore = threadMXBean.getCurrentThreadAllocatedBytes();
+            long start = System.nanoTime();
+            operation.run();
+            long elapsed = System.nanoTime() - start;
+            long allocated = threadMXBean.getCurrentThreadAllocatedBytes() - allocatedBefore;
+
+            if (i == 0 && repetitions > 1) {
+                continue;
+            }
+
+            bestNanos = Math.min(bestNanos, elapsed);
+            totalNanos += elapsed;
+            totalBytes += allocated;
+            measured++;
+        }
+
+        Result result = new Result(name, totalNanos / measured, bestNanos, totalBytes / measured);
+        System.out.println(result);
+        return result;
+    }
+
+    /**
+     * Выполнить одну итерацию.
+     *
+     * @param operation операция.
+     * @return количество операций, затраченное время в наносекундах и объём выделенной памяти в байтах.
+     */
+    private long[] iteration(IntFunction<?> operation) {
+        com.sun.management.ThreadMXBean threadMXBean = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+
+        long operations = 0;
+        long allocatedBefore = threadMXBean.getCurrentThreadAllocatedBytes();
+        long start = System.nanoTime();
+        long elapsed;
+
+        do {
+            for (int i = 0; i < 64; i++) {
+                consume(operation.apply((int) operations++));
+            }
+            elapsed = System.nanoTime() - start;
+        } while (elapsed < this.iterationNanos);
+
+        long allocated = threadMXBean.getCurrentThreadAllocatedBytes() - allocatedBefore;
+        return new long[]{operations, elapsed, allocated};
+    }
+
+    // region Nested Types
+
+    /**
+     * Результат измерения.
+     */
+    public static final class Result {
+        /**
+         * Название операции.
+         */
+        public final String name;
+
+        /**
+         * Среднее время операции в наносекундах.
+         */
+        public final double nanosPerOp;
+
+        /**
+         * Лучшее время операции среди итераций в наносекундах.
+         */
+        public final double bestNanosPerOp;
+
+        /**
+         * Средний объём памяти, выделяемой на операцию, в байтах.
+         */
+        public final double bytesPerOp;
+
+        /**
+         * Конструктор.
+         *
+         * @param name           название операции.
+         * @param nanosPerOp     среднее время операции в наносекундах.
+         * @param bestNanosPerOp лучшее время операции среди итераций в наносекундах.
+         * @param bytesPerOp     средний объём памяти, выделяемой на операцию, в байтах.
+         */
+        public Result(String name, double nanosPerOp, double bestNanosPerOp, double bytesPerOp) {
+            this.name = name;
+            this.nanosPerOp = nanosPerOp;
+            this.bestNanosPerOp = bestNanosPerOp;
+            this.bytesPerOp = bytesPerOp;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("%-60s %12.1f ns/op (best %.1f) %12.1f B/op", this.name, this.nanosPerOp, this.bestNanosPerOp, this.bytesPerOp);
+        }
+    }
+
+    // endregion
+}
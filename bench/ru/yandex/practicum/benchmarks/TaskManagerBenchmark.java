@@ -0,0 +1,194 @@
+package ru.yandex.practicum.benchmarks;
+
+// region imports
+
+import ru.yandex.practicum.abstractions.TaskManager;
+import ru.yandex.practicum.managers.tasks.FileBackedTaskManager;
+import ru.yandex.practicum.managers.tasks.InMemoryTaskManager;
+import ru.yandex.practicum.managers.tasks.ShardedTaskManager;
+import ru.yandex.practicum.models.Epic;
+import ru.yandex.practicum.models.Operation;
+import ru.yandex.practicum.models.SubTask;
+import ru.yandex.practicum.models.Task;
+
+import java.io.File;
+import java.io.IOException;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Supplier;
+
+// endregion
+
+/**
+ * Базовые замеры операций InMemoryTaskManager, FileBackedTaskManager и ShardedTaskManager (8 сегментов в памяти)
+ * в зависимости от размера доски.
+ * <p>
+ * Доска заполняется одним пакетом: половина элементов - задачи, остальное - эпики по 10 подзадач, все элементы
+ * не пересекаются по времени. Дешёвые операции измеряются {@link MicroBenchmark}, дорогие (удаление всех эпиков,
+ * изменения FileBackedTaskManager, сохраняющие весь файл) - по одному вызову на заново заполненной доске.
+ * <p>
+ * Запуск: {@code java -Xmx4g ru.yandex.practicum.benchmarks.TaskManagerBenchmark [размеры через запятую] [memory,file,sharded]},
+ * по умолчанию {@code 1000,10000,100000,1000000 memory,file}.
+ */
+public final class TaskManagerBenchmark {
+    /**
+     * Количество подзадач в эпике.
+     */
+    private static final int SUBTASKS_PER_EPIC = 10;
+
+    /**
+     * Начало расписания доски.
+     */
+    private static final LocalDateTime START_TIME = LocalDateTime.of(2024, 1, 1, 0, 0);
+
+    /**
+     * Шаг расписания доски, мин.
+     */
+    private static final int SLOT_MINUTES = 10;
+
+    public static void main(String[] args) throws IOException {
+        String[] sizes = (args.length > 0 ? args[0] : "1000,10000,100000,1000000").split(",");
+        List<String> kinds = List.of((args.length > 1 ? args[1] : "memory,file").split(","));
+
+        for (String value : sizes) {
+            int size = Integer.parseInt(value.trim());
+
+            if (kinds.contains("memory")) {
+                run("InMemoryTaskManager", size, InMemoryTaskManager::new);
+            }
+
+            if (kinds.contains("sharded")) {
+                run("ShardedTaskManager", size, () -> new ShardedTaskManager(8));
+            }
+
+            if (kinds.contains("file")) {
+                File storage = File.createTempFile("kanban-benchmark", ".csv");
+                storage.deleteOnExit();
+
+                run("FileBackedTaskManager", size, () -> new FileBackedTaskManager(storage));
+            }
+        }
+    }
+
+    /**
+     * Выполнить замеры для одного менеджера задач и размера доски.
+     *
+     * @param kind    название менеджера задач.
+     * @param size    размер доски.
+     * @param factory фабрика менеджера задач.
+     */
+    private static void run(String kind, int size, Supplier<TaskManager> factory) {
+        System.out.printf("%n%s, %,d items%n", kind, size);
+
+        TaskManager taskManager = factory.get();
+        Board board = populate(taskManager, size);
+
+        MicroBenchmark benchmark = size >= 100_000 ? new MicroBenchmark(2, 3, 300) : MicroBenchmark.defaults();
+        String prefix = kind + "[" + size + "].";
+
+        int[] taskIds = board.taskIds;
+        benchmark.run(prefix + "getTaskById", i -> taskManager.getTaskById(taskIds[Math.floorMod(i * 7919, taskIds.length)]));
+        benchmark.run(prefix + "getAllSubTasks", i -> taskManager.getAllSubTasks());
+        benchmark.run(prefix + "getSubTasksByEpic", i -> taskManager.getSubTasksByEpic(board.epics.get(i % board.epics.size())));
+        benchmark.run(prefix + "getPrioritizedTasks", i -> taskManager.getPrioritizedTasks());
+        benchmark.run(prefix + "Epic.getStatus", i -> board.epics.get(i % board.epics.size()).getStatus());
+
+        // Новая задача ставится после всех существующих, поэтому проверка пересечений проходит все задачи доски.
+        LocalDateTime freeTime = START_TIME.plusMinutes((long) (size + 1) * SLOT_MINUTES);
+        if (taskManager instanceof FileBackedTaskManager) {
+            Task[] created = new Task[1];
+            MicroBenchmark.runSingleShot(prefix + "createTask", 4,
+                    () -> {
+                        if (created[0] != null) {
+                            taskManager.removeTaskById(created[0].getId());
+                        }
+                        created[0] = new Task("Новая задача", "Описание", freeTime, Duration.ofMinutes(5));
+                    },
+                    () -> taskManager.createTask(created[0]));
+        } else {
+            benchmark.run(prefix + "createTask+removeTaskById", i -> {
+                Task task = new Task("Новая задача", "Описание", freeTime, Duration.ofMinutes(5));
+                taskManager.createTask(task);
+                taskManager.removeTaskById(task.getId());
+                return task;
+            });
+        }
+
+        TaskManager[] target = {taskManager};
+        MicroBenchmark.runSingleShot(prefix + "removeAllEpics", 3,
+                () -> {
+                    if (target[0].getAllEpics().isEmpty()) {
+                        target[0] = factory.get();
+                        populate(target[0], size);
+                    }
+                },
+                () -> target[0].removeAllEpics());
+    }
+
+    /**
+     * Заполнить доску одним пакетом.
+     *
+     * @param taskManager менеджер задач.
+     * @param size        количество элементов.
+     * @return созданные элементы.
+     */
+    private static Board populate(TaskManager taskManager, int size) {
+        int epicCount = Math.max(1, size / (2 * (SUBTASKS_PER_EPIC + 1)));
+        int taskCount = Math.max(1, size - epicCount * (SUBTASKS_PER_EPIC + 1));
+
+        List<Operation> operations = new ArrayList<>(size + 1);
+        Board board = new Board(taskCount);
+        long slot = 0;
+
+        for (int i = 0; i < taskCount; i++) {
+            Task task = new Task("Задача №" + i, "Описание задачи №" + i, START_TIME.plusMinutes(slot++ * SLOT_MINUTES), Duration.ofMinutes(5));
+            board.taskIds[i] = task.getId();
+            operations.add(Operation.create(task));
+        }
+
+        for (int i = 0; i < epicCount; i++) {
+            Epic epic = new Epic("Эпик №" + i, "Описание эпика №" + i);
+            board.epics.add(epic);
+            operations.add(Operation.create(epic));
+
+            for (int j = 0; j < SUBTASKS_PER_EPIC; j++) {
+                SubTask subTask = new SubTask("Подзадача №" + j, "Описание подзадачи №" + j, START_TIME.plusMinutes(slot++ * SLOT_MINUTES), Duration.ofMinutes(5), epic.getId());
+                operations.add(Operation.create(subTask));
+            }
+        }
+
+        taskManager.applyBatch(operations);
+        return board;
+    }
+
+    // region Nested Types
+
+    /**
+     * Созданные элементы доски.
+     */
+    private static final class Board {
+        /**
+         * Идентификаторы задач.
+         */
+        private final int[] taskIds;
+
+        /**
+         * Эпики.
+         */
+        private final List<Epic> epics;
+
+        /**
+         * Конструктор.
+         *
+         * @param taskCount количество задач.
+         */
+        Board(int taskCount) {
+            this.taskIds = new int[taskCount];
+            this.epics = new ArrayList<>();
+        }
+    }
+
+    // endregion
+}
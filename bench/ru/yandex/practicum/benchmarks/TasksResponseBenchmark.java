@@ -0,0 +1,134 @@
+package ru.yandex.practicum.benchmarks;
+
+// region imports
+
+import com.sun.net.httpserver.HttpServer;
+import ru.yandex.practicum.HttpTaskServer;
+import ru.yandex.practicum.Managers;
+import ru.yandex.practicum.abstractions.TaskManager;
+import ru.yandex.practicum.models.Task;
+
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpHeaders;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+
+// endregion
+
+/**
+ * Замер объёма переданных данных и задержки GET /tasks при разных значениях Accept-Encoding.
+ * <p>
+ * Запуск: {@code java ru.yandex.practicum.benchmarks.TasksResponseBenchmark [количество задач] [количество запросов]}.
+ */
+public final class TasksResponseBenchmark {
+    public static void main(String[] args) throws Exception {
+        int taskCount = args.length > 0 ? Integer.parseInt(args[0]) : 1_000;
+        int requestCount = args.length > 1 ? Integer.parseInt(args[1]) : 2_000;
+
+        TaskManager taskManager = Managers.getDefault();
+        LocalDateTime startTime = LocalDateTime.of(2024, 1, 1, 0, 0);
+        for (int i = 0; i < taskCount; i++) {
+            taskManager.createTask(new Task("Задача №" + i, "Описание задачи №" + i, startTime.plusHours(i), Duration.ofMinutes(30)));
+        }
+
+        HttpServer httpServer = HttpTaskServer.createHttpServer(new InetSocketAddress("localhost", 0));
+        httpServer.start();
+
+        try {
+            HttpClient httpClient = HttpClient.newHttpClient();
+            URI uri = URI.create("http://localhost:" + httpServer.getAddress().getPort() + "/tasks");
+
+            System.out.printf("GET /tasks, %d tasks, %d requests%n", taskCount, requestCount);
+            for (String acceptEncoding : List.of("identity", "gzip", "deflate")) {
+                run(httpClient, uri, acceptEncoding, requestCount / 5);
+
+                Result result = run(httpClient, uri, acceptEncoding, requestCount);
+                System.out.printf("  Accept-Encoding: %-8s bytes-on-wire=%d (headers=%d, body=%d) %s%n",
+                        acceptEncoding,
+                        result.headerBytes + result.bodyBytes,
+                        result.headerBytes,
+                        result.bodyBytes,
+                        result.latency.summary());
+            }
+        } finally {
+            httpServer.stop(0);
+        }
+    }
+
+    /**
+     * Выполнить серию запросов.
+     *
+     * @param httpClient     HTTP-клиент.
+     * @param uri            адрес запроса.
+     * @param acceptEncoding значение заголовка Accept-Encoding.
+     * @param requestCount   количество запросов.
+     * @return результат замера.
+     */
+    private static Result run(HttpClient httpClient, URI uri, String acceptEncoding, int requestCount) throws Exception {
+        HttpRequest httpRequest = HttpRequest.newBuilder(uri).header("Accept-Encoding", acceptEncoding).GET().build();
+
+        Result result = new Result(requestCount);
+        for (int i = 0; i < requestCount; i++) {
+            long start = System.nanoTime();
+            HttpResponse<byte[]> httpResponse = httpClient.send(httpRequest, HttpResponse.BodyHandlers.ofByteArray());
+            result.latency.record(System.nanoTime() - start);
+
+            result.headerBytes = headerBytes(httpResponse.headers());
+            result.bodyBytes = httpResponse.body().length;
+        }
+
+        return result;
+    }
+
+    /**
+     * Оценить размер заголовков ответа в байтах (строка статуса не учитывается).
+     *
+     * @param headers заголовки ответа.
+     * @return размер заголовков в байтах.
+     */
+    private static int headerBytes(HttpHeaders headers) {
+        int size = 2;
+        for (Map.Entry<String, List<String>> header : headers.map().entrySet()) {
+            for (String value : header.getValue()) {
+                size += header.getKey().length() + 2 + value.length() + 2;
+            }
+        }
+
+        return size;
+    }
+
+    /**
+     * Результат замера.
+     */
+    private static final class Result {
+        /**
+         * Задержки запросов.
+         */
+        private final LatencyRecorder latency;
+
+        /**
+         * Размер заголовков ответа в байтах.
+         */
+        private int headerBytes;
+
+        /**
+         * Размер тела ответа в байтах.
+         */
+        private int bodyBytes;
+
+        /**
+         * Конструктор.
+         *
+         * @param requestCount количество запросов.
+         */
+        private Result(int requestCount) {
+            this.latency = new LatencyRecorder(requestCount);
+        }
+    }
+}
@@ -0,0 +1,65 @@
+package ru.yandex.practicum;
+
+// region imports
+
+import ru.yandex.practicum.api.http.InstrumentedHttpHandler;
+import ru.yandex.practicum.api.http.Router;
+import ru.yandex.practicum.api.http.handlers.MetricsHttpHandler;
+import ru.yandex.practicum.api.http.handlers.ProxyHttpHandler;
+import ru.yandex.practicum.utils.metrics.MetricsRegistry;
+import ru.yandex.practicum.utils.routing.ConsistentHashRing;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.util.Arrays;
+
+// endregion
+
+/**
+ * Маршрутизатор API: принимает запросы и распределяет их между несколькими экземплярами {@link HttpTaskServer}
+ * на локальных портах.
+ * <p>
+ * Пример запуска: {@code HttpTaskRouter --port=8080 --backends=8081,8082}. Серверы запускаются с тем же списком портов:
+ * {@code HttpTaskServer --port=8081 --ring=8081,8082}, чтобы каждый выдавал только идентификаторы, за которые
+ * он отвечает.
+ */
+public class HttpTaskRouter {
+    public static void main(String[] args) {
+        String port = "8080";
+        String backends = null;
+        for (String arg : args) {
+            if (arg.startsWith("--port=")) {
+                port = arg.substring("--port=".length());
+            } else if (arg.startsWith("--backends=")) {
+                backends = arg.substring("--backends=".length());
+            }
+        }
+
+        if (backends == null) {
+            throw new IllegalArgumentException("Не задан список серверов: --backends=порт,порт,...");
+        }
+
+        try {
+            InetSocketAddress address = new InetSocketAddress(Integer.parseInt(port));
+            HttpTaskServer.createHttpServer(address, createRouter(new ConsistentHashRing(Arrays.asList(backends.split(","))))).start();
+        } catch (IOException e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+    /**
+     * Создать таблицу маршрутов маршрутизатора: собственные метрики по GET /metrics, остальные запросы передаются
+     * серверам.
+     *
+     * @param ring кольцо согласованного хеширования серверов.
+     * @return таблица маршрутов.
+     */
+    public static Router createRouter(ConsistentHashRing ring) {
+        MetricsRegistry metricsRegistry = MetricsRegistry.getDefault();
+
+        Router router = new Router();
+        router.add("/", new InstrumentedHttpHandler("/", new ProxyHttpHandler(ring, metricsRegistry), metricsRegistry));
+        router.add("/metrics", new InstrumentedHttpHandler("/metrics", new MetricsHttpHandler(metricsRegistry), metricsRegistry));
+        return router;
+    }
+}
@@ -2,26 +2,184 @@ package ru.yandex.practicum;
 
 // region imports
 
+import com.sun.net.httpserver.HttpHandler;
 import com.sun.net.httpserver.HttpServer;
+import ru.yandex.practicum.api.http.InstrumentedHttpHandler;
+import ru.yandex.practicum.api.http.Router;
 import ru.yandex.practicum.api.http.handlers.*;
+import ru.yandex.practicum.api.http.nio.NioHttpServer;
+import ru.yandex.practicum.managers.replication.ReplicationFollower;
+import ru.yandex.practicum.managers.tasks.ReplicaTaskManager;
+import ru.yandex.practicum.utils.ids.IdAllocator;
+import ru.yandex.practicum.utils.metrics.MetricsRegistry;
+import ru.yandex.practicum.utils.routing.ConsistentHashRing;
 
 import java.io.IOException;
 import java.net.InetSocketAddress;
+import java.util.Arrays;
+import java.util.Map;
 
 // endregion
 
 public class HttpTaskServer {
     public static void main(String[] args) {
         try {
-            HttpServer httpServer = HttpServer.create(new InetSocketAddress(8080), 0);
-            httpServer.createContext("/epics", new EpicsHttpHandler());
-            httpServer.createContext("/history", new HistoryHttpHandler());
-            httpServer.createContext("/prioritized", new PrioritizedTasksHttpHandler());
-            httpServer.createContext("/subtasks", new SubTasksHttpHandler());
-            httpServer.createContext("/tasks", new TasksHttpHandler());
-            httpServer.start();
+            String port = getOption(args, "--port=", "8080");
+            InetSocketAddress address = new InetSocketAddress(Integer.parseInt(port));
+
+            // Некорректный возраст архивации сообщается при запуске, а не при первом обращении к архиву.
+            Managers.getArchiveAge();
+
+            // За маршрутизатором сервер выдаёт только идентификаторы своей доли кольца, чтобы маршрутизатор находил
+            // задачу по идентификатору.
+            String ringNodes = getOption(args, "--ring=", null);
+            if (ringNodes != null) {
+                ConsistentHashRing ring = new ConsistentHashRing(Arrays.asList(ringNodes.split(",")));
+                if (!ring.getNodes().contains(port)) {
+                    throw new IllegalArgumentException("Порт сервера " + port + " отсутствует в списке --ring");
+                }
+                IdAllocator.getDefault().restrictTo(id -> ring.locate(id).equals(port));
+            }
+
+            Router router;
+            String primaryPort = getOption(args, "--replica-of=", null);
+            if (primaryPort != null) {
+                ReplicaTaskManager replica = new ReplicaTaskManager();
+                new ReplicationFollower(replica, Integer.parseInt(primaryPort), MetricsRegistry.getDefault()).start();
+                router = createReplicaRouter(replica);
+            } else {
+                String replicationPort = getOption(args, "--replication-port=", null);
+                if (replicationPort != null) {
+                    Managers.createReplicationPublisher(Integer.parseInt(replicationPort)).start();
+                }
+                router = createRouter();
+            }
+
+            if (Arrays.asList(args).contains("--nio")) {
+                NioHttpServer.create(address, router).start();
+            } else {
+                createHttpServer(address, router).start();
+            }
         } catch (IOException e) {
             throw new RuntimeException(e);
         }
     }
+
+    /**
+     * Создать таблицу маршрутов со всеми обработчиками API. Каждый обработчик оборачивается в
+     * {@link InstrumentedHttpHandler}, метрики доступны по GET /metrics.
+     *
+     * @return таблица маршрутов.
+     */
+    public static Router createRouter() {
+        MetricsRegistry metricsRegistry = MetricsRegistry.getDefault();
+
+        Router router = new Router();
+        addRoute(router, "/archive", new ArchiveHttpHandler(Managers.getArchiver()), metricsRegistry);
+        addRoute(router, "/batch", new BatchHttpHandler(), metricsRegistry);
+        addRoute(router, "/boards", new BoardsHttpHandler(Managers.getBoards()), metricsRegistry);
+        addRoute(router, "/debug/jfr", new JfrHttpHandler(), metricsRegistry);
+        addRoute(router, "/epics", new EpicsHttpHandler(), metricsRegistry);
+        addRoute(router, "/events", new EventsHttpHandler(), metricsRegistry);
+        addRoute(router, "/history", new HistoryHttpHandler(), metricsRegistry);
+        addRoute(router, "/import", new ImportHttpHandler(), metricsRegistry);
+        addRoute(router, "/metrics", new MetricsHttpHandler(metricsRegistry), metricsRegistry);
+        addRoute(router, "/prioritized", new PrioritizedTasksHttpHandler(), metricsRegistry);
+        addRoute(router, "/recurring", new RecurringTasksHttpHandler(), metricsRegistry);
+        addRoute(router, "/subtasks", new SubTasksHttpHandler(), metricsRegistry);
+        addRoute(router, "/sync", new SyncHttpHandler(), metricsRegistry);
+        addRoute(router, "/tasks", new TasksHttpHandler(), metricsRegistry);
+        return router;
+    }
+
+    /**
+     * Создать таблицу маршрутов реплики: только чтение задач, подзадач, эпиков и ленты изменений. Попытки изменения
+     * через оставшиеся обработчики отклоняются менеджером задач реплики.
+     *
+     * @param replica менеджер задач реплики.
+     * @return таблица маршрутов.
+     */
+    public static Router createReplicaRouter(ReplicaTaskManager replica) {
+        MetricsRegistry metricsRegistry = MetricsRegistry.getDefault();
+
+        Router router = new Router();
+        addRoute(router, "/epics", new EpicsHttpHandler(replica), metricsRegistry);
+        addRoute(router, "/events", new EventsHttpHandler(replica), metricsRegistry);
+        addRoute(router, "/history", new HistoryHttpHandler(replica), metricsRegistry);
+        addRoute(router, "/metrics", new MetricsHttpHandler(metricsRegistry), metricsRegistry);
+        addRoute(router, "/prioritized", new PrioritizedTasksHttpHandler(replica), metricsRegistry);
+        addRoute(router, "/subtasks", new SubTasksHttpHandler(replica), metricsRegistry);
+        addRoute(router, "/sync", new SyncHttpHandler(replica), metricsRegistry);
+        addRoute(router, "/tasks", new TasksHttpHandler(replica), metricsRegistry);
+        return router;
+    }
+
+    /**
+     * Создать HTTP-сервер со всеми обработчиками API.
+     *
+     * @param address адрес, на котором сервер принимает соединения.
+     * @return HTTP-сервер (не запущенный).
+     */
+    public static HttpServer createHttpServer(InetSocketAddress address) throws IOException {
+        return createHttpServer(address, createRouter());
+    }
+
+    /**
+     * Создать HTTP-сервер с заданной таблицей маршрутов.
+     *
+     * @param address адрес, на котором сервер принимает соединения.
+     * @param router  таблица маршрутов.
+     * @return HTTP-сервер (не запущенный).
+     */
+    public static HttpServer createHttpServer(InetSocketAddress address, Router router) throws IOException {
+        // Без TCP_NODELAY небольшой ответ, записанный после заголовков, ждёт подтверждения от клиента (алгоритм Нейгла),
+        // что добавляет к задержке до 40 мс.
+        System.setProperty("sun.net.httpserver.nodelay", "true");
+
+        HttpServer httpServer = HttpServer.create(address, 0);
+        for (Map.Entry<String, HttpHandler> route : router.getRoutes().entrySet()) {
+            httpServer.createContext(route.getKey(), route.getValue());
+        }
+        return httpServer;
+    }
+
+    /**
+     * Создать неблокирующий HTTP-сервер со всеми обработчиками API.
+     *
+     * @param address адрес, на котором сервер принимает соединения.
+     * @return HTTP-сервер (не запущенный).
+     */
+    public static NioHttpServer createNioHttpServer(InetSocketAddress address) throws IOException {
+        return NioHttpServer.create(address, createRouter());
+    }
+
+    /**
+     * Получить значение параметра командной строки вида {@code --name=value}.
+     *
+     * @param args         параметры командной строки.
+     * @param prefix       начало параметра вместе со знаком равенства.
+     * @param defaultValue значение по умолчанию.
+     * @return значение параметра или значение по умолчанию, если параметр не задан.
+     */
+    private static String getOption(String[] args, String prefix, String defaultValue) {
+        for (String arg : args) {
+            if (arg.startsWith(prefix)) {
+                return arg.substring(prefix.length());
+            }
+        }
+
+        return defaultValue;
+    }
+
+    /**
+     * Добавить маршрут с замером метрик обработчика.
+     *
+     * @param router          таблица маршрутов.
+     * @param prefix          префикс пути.
+     * @param handler         обработчик.
+     * @param metricsRegistry реестр метрик.
+     */
+    private static void addRoute(Router router, String prefix, HttpHandler handler, MetricsRegistry metricsRegistry) {
+        router.add(prefix, new InstrumentedHttpHandler(prefix, handler, metricsRegistry));
+    }
 }
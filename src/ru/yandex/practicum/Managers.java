@@ -4,19 +4,123 @@ package ru.yandex.practicum;
 
 import ru.yandex.practicum.abstractions.HistoryManager;
 import ru.yandex.practicum.abstractions.TaskManager;
+import ru.yandex.practicum.managers.archive.TaskArchive;
+import ru.yandex.practicum.managers.archive.TaskArchiver;
+import ru.yandex.practicum.managers.boards.BoardRegistry;
 import ru.yandex.practicum.managers.history.InMemoryHistoryManager;
+import ru.yandex.practicum.managers.replication.ReplicationPublisher;
 import ru.yandex.practicum.managers.tasks.InMemoryTaskManager;
+import ru.yandex.practicum.managers.tasks.InstrumentedTaskManager;
 import ru.yandex.practicum.models.Task;
+import ru.yandex.practicum.utils.metrics.MetricsRegistry;
+
+import java.io.File;
+import java.time.Duration;
+import java.time.format.DateTimeParseException;
 
 // endregion
 
 public class Managers {
-    private static final TaskManager taskManagerInstance = new InMemoryTaskManager();
+    /**
+     * Системное свойство с каталогом хранилища досок.
+     */
+    public static final String BOARDS_DIRECTORY_PROPERTY = "kanban.boards.dir";
+
+    /**
+     * Системное свойство с бюджетом памяти загруженных досок, МБ.
+     */
+    public static final String BOARDS_MEMORY_PROPERTY = "kanban.boards.memory.mb";
+
+    /**
+     * Системное свойство с каталогом архива завершённых задач.
+     */
+    public static final String ARCHIVE_DIRECTORY_PROPERTY = "kanban.archive.dir";
+
+    /**
+     * Системное свойство с возрастом, после которого завершённые задачи переносятся в архив (ISO-8601, например P90D).
+     */
+    public static final String ARCHIVE_AGE_PROPERTY = "kanban.archive.age";
+
+    private static final InMemoryTaskManager taskManagerInstance = new InMemoryTaskManager();
+
+    private static final TaskManager instrumentedTaskManagerInstance = new InstrumentedTaskManager(taskManagerInstance, MetricsRegistry.getDefault());
+
+    private static final BoardRegistry boardRegistryInstance = new BoardRegistry(
+            new File(System.getProperty(BOARDS_DIRECTORY_PROPERTY, "boards")),
+            Long.getLong(BOARDS_MEMORY_PROPERTY, 256) * 1024 * 1024,
+            MetricsRegistry.getDefault());
+
+    /**
+     * Архиватор менеджера задач по умолчанию. Создаётся при первом обращении: загрузка архива читает каталог на диске
+     * и может завершиться ошибкой, которая не должна ломать инициализацию остальных менеджеров.
+     */
+    private static TaskArchiver archiverInstance;
 
     public static TaskManager getDefault() {
         return taskManagerInstance;
     }
 
+    /**
+     * Получить менеджер задач по умолчанию, замеряющий длительность своих операций в реестре метрик по умолчанию.
+     *
+     * @return менеджер задач по умолчанию с замером метрик.
+     */
+    public static TaskManager getInstrumented() {
+        return instrumentedTaskManagerInstance;
+    }
+
+    /**
+     * Создать ведущую сторону репликации менеджера задач по умолчанию.
+     *
+     * @param port порт, на котором принимаются подключения реплик.
+     * @return ведущая сторона репликации (не запущенная).
+     */
+    public static ReplicationPublisher createReplicationPublisher(int port) {
+        return new ReplicationPublisher(taskManagerInstance, port, MetricsRegistry.getDefault());
+    }
+
+    /**
+     * Получить реестр досок по умолчанию.
+     *
+     * @return реестр досок по умолчанию.
+     */
+    public static BoardRegistry getBoards() {
+        return boardRegistryInstance;
+    }
+
+    /**
+     * Получить архиватор менеджера задач по умолчанию.
+     *
+     * @return архиватор менеджера задач по умолчанию.
+     */
+    public static synchronized TaskArchiver getArchiver() {
+        if (archiverInstance == null) {
+            archiverInstance = new TaskArchiver(
+                    instrumentedTaskManagerInstance,
+                    new TaskArchive(new File(System.getProperty(ARCHIVE_DIRECTORY_PROPERTY, "archive")), MetricsRegistry.getDefault()),
+                    getArchiveAge());
+        }
+
+        return archiverInstance;
+    }
+
+    /**
+     * Получить возраст, после которого завершённые задачи переносятся в архив, из системного свойства
+     * {@link #ARCHIVE_AGE_PROPERTY}.
+     *
+     * @return возраст переноса в архив (по умолчанию 90 дней).
+     * @throws IllegalArgumentException если значение свойства не является длительностью ISO-8601.
+     */
+    public static Duration getArchiveAge() {
+        String value = System.getProperty(ARCHIVE_AGE_PROPERTY, "P90D");
+        try {
+            return Duration.parse(value);
+        } catch (DateTimeParseException ex) {
+            throw new IllegalArgumentException("Некорректное значение свойства " + ARCHIVE_AGE_PROPERTY + ": '" + value
+                    + "', ожидается длительность ISO-8601, например P90D", ex);
+        }
+    }
+
     public static HistoryManager<Integer, Task> getDefaultHistory() {
         return new InMemoryHistoryManager<>();
     }
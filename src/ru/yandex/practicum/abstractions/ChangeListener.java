@@ -0,0 +1,19 @@
+package ru.yandex.practicum.abstractions;
+
+// region imports
+
+import ru.yandex.practicum.models.ChangeEvent;
+
+// endregion
+
+/**
+ * Получатель событий изменения задач, подзадач и эпиков.
+ */
+public interface ChangeListener {
+    /**
+     * Обработать событие изменения. Вызывается синхронно в потоке, изменившем задачу, поэтому должен завершаться быстро.
+     *
+     * @param event событие изменения.
+     */
+    void onChange(ChangeEvent event);
+}
@@ -3,10 +3,15 @@ package ru.yandex.practicum.abstractions;
 // region imports
 
 import ru.yandex.practicum.models.AbstractTask;
+import ru.yandex.practicum.models.ChangeSet;
 import ru.yandex.practicum.models.Epic;
+import ru.yandex.practicum.models.Operation;
+import ru.yandex.practicum.models.RecurringTask;
 import ru.yandex.practicum.models.SubTask;
 import ru.yandex.practicum.models.Task;
 
+import java.time.Duration;
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
 import java.util.TreeSet;
@@ -23,6 +28,15 @@ public interface TaskManager {
      */
     void createTask(Task task);
 
+    /**
+     * Создать задачу в самом раннем свободном промежутке, который начинается не раньше её времени начала и вмещает
+     * её продолжительность.
+     *
+     * @param task задача.
+     * @return созданная задача с назначенным временем начала.
+     */
+    Task createTaskInEarliestSlot(Task task);
+
     /**
      * Получить задачу по её идентификатору.
      *
@@ -119,6 +133,26 @@ public interface TaskManager {
      */
     TreeSet<Task> getPrioritizedTasks();
 
+    /**
+     * Найти самое раннее время не раньше заданного, начиная с которого промежуток заданной длины не пересекается
+     * ни с одной задачей или подзадачей.
+     *
+     * @param from     время, раньше которого начинать нельзя.
+     * @param duration продолжительность.
+     * @return время начала свободного промежутка.
+     */
+    LocalDateTime findEarliestSlot(LocalDateTime from, Duration duration);
+
+    /**
+     * Получить задачи, подзадачи и повторения повторяющихся задач, время выполнения которых пересекается
+     * с промежутком. Повторения строятся только для этого промежутка.
+     *
+     * @param from начало промежутка.
+     * @param to   окончание промежутка.
+     * @return задачи, упорядоченные по времени начала.
+     */
+    List<Task> getSchedule(LocalDateTime from, LocalDateTime to);
+
     // region Эпики
 
     /**
@@ -164,6 +198,161 @@ public interface TaskManager {
 
     //endregion
 
+    // region Повторяющиеся задачи
+
+    /**
+     * Создать повторяющуюся задачу. Ни одно её повторение не должно пересекаться с другими задачами.
+     *
+     * @param recurringTask повторяющаяся задача.
+     */
+    void createRecurringTask(RecurringTask recurringTask);
+
+    /**
+     * Получить повторяющуюся задачу по её идентификатору.
+     *
+     * @param recurringTaskId идентификатор повторяющейся задачи.
+     * @return повторяющаяся задача.
+     */
+    Optional<RecurringTask> getRecurringTaskById(int recurringTaskId);
+
+    /**
+     * Получить все повторяющиеся задачи.
+     *
+     * @return коллекция повторяющихся задач.
+     */
+    List<RecurringTask> getAllRecurringTasks();
+
+    /**
+     * Удалить повторяющуюся задачу вместе со всеми повторениями.
+     *
+     * @param recurringTaskId идентификатор повторяющейся задачи.
+     */
+    void removeRecurringTaskById(int recurringTaskId);
+
+    /**
+     * Изменить одно повторение повторяющейся задачи.
+     *
+     * @param recurringTaskId     идентификатор повторяющейся задачи.
+     * @param occurrenceStartTime исходное время начала повторения.
+     * @param occurrence          новые название, описание, статус и время повторения.
+     */
+    void overrideOccurrence(int recurringTaskId, LocalDateTime occurrenceStartTime, Task occurrence);
+
+    /**
+     * Отменить одно повторение повторяющейся задачи.
+     *
+     * @param recurringTaskId     идентификатор повторяющейся задачи.
+     * @param occurrenceStartTime исходное время начала повторения.
+     */
+    void cancelOccurrence(int recurringTaskId, LocalDateTime occurrenceStartTime);
+
+    // endregion
+
+    // region Зависимости подзадач
+
+    /**
+     * Добавить зависимость «окончание - начало»: подзадача начинается не раньше окончания другой подзадачи того же
+     * эпика. Зависимость, образующая цикл, отклоняется.
+     *
+     * @param subTaskId          идентификатор зависимой подзадачи.
+     * @param dependsOnSubTaskId идентификатор подзадачи, окончания которой нужно дождаться.
+     */
+    void addDependency(int subTaskId, int dependsOnSubTaskId);
+
+    /**
+     * Удалить зависимость подзадачи от другой подзадачи.
+     *
+     * @param subTaskId          идентификатор зависимой подзадачи.
+     * @param dependsOnSubTaskId идентификатор подзадачи, окончания которой нужно было дождаться.
+     */
+    void removeDependency(int subTaskId, int dependsOnSubTaskId);
+
+    /**
+     * Получить подзадачи, от которых зависит подзадача.
+     *
+     * @param subTaskId идентификатор подзадачи.
+     * @return подзадачи, окончания которых нужно дождаться.
+     */
+    List<SubTask> getDependencies(int subTaskId);
+
+    /**
+     * Получить критический путь эпика: цепочку подзадач, задержка любой из которых сдвигает окончание эпика.
+     *
+     * @param epicId идентификатор эпика.
+     * @return подзадачи критического пути от первой к последней.
+     */
+    List<SubTask> getCriticalPath(int epicId);
+
+    /**
+     * Получить самое раннее возможное окончание эпика с учётом зависимостей подзадач.
+     *
+     * @param epicId идентификатор эпика.
+     * @return самое раннее окончание, если у эпика есть подзадачи.
+     */
+    Optional<LocalDateTime> getEarliestEndTime(int epicId);
+
+    // endregion
+
+    // region Пакетные изменения
+
+    /**
+     * Атомарно применить пакет операций создания, обновления и удаления задач, подзадач и эпиков.
+     * Операции применяются в порядке следования; если хотя бы одна из них некорректна, не применяется ни одна.
+     *
+     * @param operations операции.
+     */
+    void applyBatch(List<Operation> operations);
+
+    // endregion
+
+    // region Версии
+
+    /**
+     * Получить текущую версию менеджера задач.
+     * Версия монотонно увеличивается при каждом изменении задач, подзадач или эпиков.
+     *
+     * @return текущая версия.
+     */
+    long getVersion();
+
+    /**
+     * Получить версию задачи, подзадачи или эпика - версию менеджера задач на момент последнего изменения.
+     * Версия эпика меняется также при изменении его подзадач.
+     *
+     * @param id идентификатор задачи, подзадачи или эпика.
+     * @return версия или 0, если задача не найдена.
+     */
+    long getVersion(int id);
+
+    /**
+     * Получить задачи, подзадачи и эпики, изменённые после заданной версии, и отметки об удалении.
+     * Если часть изменений уже вытеснена из журнала изменений, возвращается признак необходимости полной синхронизации.
+     *
+     * @param version версия, известная клиенту.
+     * @return изменения.
+     */
+    ChangeSet getChangesSince(long version);
+
+    // endregion
+
+    // region События изменения
+
+    /**
+     * Подписаться на события изменения задач, подзадач и эпиков.
+     *
+     * @param listener получатель событий.
+     */
+    void addChangeListener(ChangeListener listener);
+
+    /**
+     * Отписаться от событий изменения задач, подзадач и эпиков.
+     *
+     * @param listener получатель событий.
+     */
+    void removeChangeListener(ChangeListener listener);
+
+    // endregion
+
     // region История просмотра
 
     /**
@@ -0,0 +1,27 @@
+package ru.yandex.practicum.api.dto;
+
+// region imports
+
+import ru.yandex.practicum.models.SubTask;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+// endregion
+
+public class CriticalPathDto {
+    /**
+     * Идентификатор эпика.
+     */
+    public Integer epicId;
+
+    /**
+     * Самое раннее возможное окончание эпика с учётом зависимостей подзадач.
+     */
+    public LocalDateTime earliestEndTime;
+
+    /**
+     * Подзадачи критического пути от первой к последней.
+     */
+    public List<SubTask> subTasks;
+}
@@ -0,0 +1,8 @@
+package ru.yandex.practicum.api.dto;
+
+public class DependencyDto {
+    /**
+     * Идентификатор подзадачи, окончания которой нужно дождаться.
+     */
+    public Integer dependsOn;
+}
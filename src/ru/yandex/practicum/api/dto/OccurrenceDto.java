@@ -0,0 +1,42 @@
+package ru.yandex.practicum.api.dto;
+
+// region imports
+
+import ru.yandex.practicum.constants.TaskStatus;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+
+// endregion
+
+public class OccurrenceDto {
+    /**
+     * Исходное время начала повторения по расписанию.
+     */
+    public LocalDateTime occurrenceStartTime;
+
+    /**
+     * Название повторения или null, чтобы оставить название повторяющейся задачи.
+     */
+    public String name;
+
+    /**
+     * Описание повторения или null, чтобы оставить описание повторяющейся задачи.
+     */
+    public String description;
+
+    /**
+     * Статус повторения или null, чтобы оставить статус повторяющейся задачи.
+     */
+    public TaskStatus status;
+
+    /**
+     * Новое время начала или null, чтобы оставить время по расписанию.
+     */
+    public LocalDateTime startTime;
+
+    /**
+     * Новая продолжительность или null, чтобы оставить продолжительность повторяющейся задачи.
+     */
+    public Duration duration;
+}
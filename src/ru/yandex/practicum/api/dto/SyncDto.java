@@ -0,0 +1,44 @@
+package ru.yandex.practicum.api.dto;
+
+// region imports
+
+import ru.yandex.practicum.models.ChangeEvent;
+import ru.yandex.practicum.models.Epic;
+import ru.yandex.practicum.models.SubTask;
+import ru.yandex.practicum.models.Task;
+
+import java.util.List;
+
+// endregion
+
+public class SyncDto {
+    /**
+     * Текущая версия менеджера задач - значение since для следующего запроса.
+     */
+    public long version;
+
+    /**
+     * Признак того, что клиенту нужно заново загрузить все данные.
+     */
+    public boolean fullResync;
+
+    /**
+     * Созданные или изменённые задачи.
+     */
+    public List<Task> tasks;
+
+    /**
+     * Созданные или изменённые подзадачи.
+     */
+    public List<SubTask> subtasks;
+
+    /**
+     * Созданные или изменённые эпики.
+     */
+    public List<Epic> epics;
+
+    /**
+     * Отметки об удалении задач, подзадач и эпиков.
+     */
+    public List<ChangeEvent> removed;
+}
@@ -0,0 +1,235 @@
+package ru.yandex.practicum.api.http;
+
+// region imports
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpHandler;
+import ru.yandex.practicum.api.http.response.CountingOutputStream;
+import ru.yandex.practicum.constants.HttpMethod;
+import ru.yandex.practicum.utils.jfr.HttpRequestEvent;
+import ru.yandex.practicum.utils.logging.AsyncLogger;
+import ru.yandex.practicum.utils.logging.Logging;
+import ru.yandex.practicum.utils.metrics.LatencyHistogram;
+import ru.yandex.practicum.utils.metrics.MetricsRegistry;
+
+import java.io.FilterOutputStream;
+import java.io.IOException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAdder;
+
+// endregion
+
+/**
+ * Обработчик, замеряющий длительность, количество запросов по кодам ответа, количество ошибок и объём тела ответов
+ * другого обработчика.
+ * <p>
+ * Ошибкой считается исключение обработчика или ответ с кодом 5xx. Запрос учитывается при закрытии обмена, поэтому
+ * для обработчиков, отвечающих в своём потоке (например, /events и /debug/jfr), код, длительность и объём ответа
+ * известны только после завершения ответа. Каждый запрос также записывается событием JFR {@link HttpRequestEvent}
+ * и строкой журнала доступа.
+ */
+public final class InstrumentedHttpHandler implements HttpHandler {
+    /**
+     * Журнал доступа.
+     */
+    private static final AsyncLogger accessLog = Logging.getAccessLog();
+
+    /**
+     * Обработчик запросов.
+     */
+    private final HttpHandler handler;
+
+    /**
+     * Маршрут (префикс пути) обработчика.
+     */
+    private final String route;
+
+    /**
+     * Реестр метрик.
+     */
+    private final MetricsRegistry metricsRegistry;
+
+    /**
+     * Объём тела ответов.
+     */
+    private final LongAdder bytesOut;
+
+    /**
+     * Конструктор.
+     *
+     * @param route           маршрут (префикс пути) обработчика.
+     * @param handler         обработчик запросов.
+     * @param metricsRegistry реестр метрик.
+     */
+    public InstrumentedHttpHandler(String route, HttpHandler handler, MetricsRegistry metricsRegistry) {
+        if (route == null) {
+            throw new IllegalArgumentException("Parameter 'route' can't be null");
+        }
+
+        if (handler == null) {
+            throw new IllegalArgumentException("Parameter 'handler' can't be null");
+        }
+
+        if (metricsRegistry == null) {
+            throw new IllegalArgumentException("Parameter 'metricsRegistry' can't be null");
+        }
+
+        this.route = route;
+        this.handler = handler;
+        this.metricsRegistry = metricsRegistry;
+        this.bytesOut = metricsRegistry.counter("http_response_bytes_total", "Объём тела HTTP-ответов", "route", route);
+    }
+
+    @Override
+    public void handle(HttpExchange httpExchange) throws IOException {
+        HttpRequestEvent event = new HttpRequestEvent();
+        event.begin();
+
+        CountingOutputStream countingOutputStream = new CountingOutputStream(httpExchange.getResponseBody(), this.bytesOut);
+        RecordingOutputStream responseBody = new RecordingOutputStream(httpExchange, countingOutputStream, event);
+        httpExchange.setStreams(null, responseBody);
+
+        boolean failed = true;
+
+        try {
+            this.handler.handle(httpExchange);
+            failed = false;
+        } finally {
+            // Если обработчик вернул управление, не закрыв обмен, ответ отправляется в другом потоке и будет учтён
+            // при закрытии обмена.
+            if (failed) {
+                responseBody.record(true);
+            }
+        }
+    }
+
+    /**
+     * Получить гистограмму длительности запросов.
+     *
+     * @param method HTTP-метод.
+     * @return гистограмма длительности запросов.
+     */
+    private LatencyHistogram getDuration(String method) {
+        return this.metricsRegistry.histogram("http_request_duration_seconds", "Длительность обработки HTTP-запросов",
+                "route", this.route, "method", method);
+    }
+
+    /**
+     * Привести HTTP-метод к одному из известных значений, чтобы произвольные методы не порождали новые метрики.
+     *
+     * @param method HTTP-метод запроса.
+     * @return HTTP-метод или OTHER.
+     */
+    private static String normalizeMethod(String method) {
+        return switch (method) {
+            case HttpMethod.GET, HttpMethod.POST, HttpMethod.DELETE -> method;
+            default -> "OTHER";
+        };
+    }
+
+    // region Nested Types
+
+    /**
+     * Поток тела ответа, считающий переданные байты и учитывающий запрос при закрытии обмена.
+     */
+    private final class RecordingOutputStream extends FilterOutputStream {
+        /**
+         * HTTP-обмен.
+         */
+        private final HttpExchange httpExchange;
+
+        /**
+         * Событие JFR запроса.
+         */
+        private final HttpRequestEvent event;
+
+        /**
+         * Поток, считающий переданные байты.
+         */
+        private final CountingOutputStream countingOutputStream;
+
+        /**
+         * Время начала обработки запроса, нс.
+         */
+        private final long start;
+
+        /**
+         * Признак того, что запрос уже учтён.
+         */
+        private final AtomicBoolean recorded;
+
+        /**
+         * Конструктор.
+         *
+         * @param httpExchange         HTTP-обмен.
+         * @param countingOutputStream поток тела ответа, считающий переданные байты.
+         * @param event                событие JFR запроса.
+         */
+        RecordingOutputStream(HttpExchange httpExchange, CountingOutputStream countingOutputStream, HttpRequestEvent event) {
+            super(countingOutputStream);
+
+            this.httpExchange = httpExchange;
+            this.event = event;
+            this.countingOutputStream = countingOutputStream;
+            this.start = System.nanoTime();
+            this.recorded = new AtomicBoolean();
+        }
+
+        @Override
+        public void write(byte[] bytes, int offset, int length) throws IOException {
+            this.out.write(bytes, offset, length);
+        }
+
+        @Override
+        public void close() throws IOException {
+            try {
+                this.out.close();
+            } finally {
+                this.record(false);
+            }
+        }
+
+        /**
+         * Учесть запрос в метриках, журнале доступа и JFR, если он ещё не учтён.
+         *
+         * @param failed признак того, что обработчик завершился исключением.
+         */
+        void record(boolean failed) {
+            if (!this.recorded.compareAndSet(false, true)) {
+                return;
+            }
+
+            long elapsed = System.nanoTime() - this.start;
+            int statusCode = this.httpExchange.getResponseCode();
+            long bytes = this.countingOutputStream.getCount();
+            String method = normalizeMethod(this.httpExchange.getRequestMethod());
+
+            accessLog.info("request",
+                    "method", this.httpExchange.getRequestMethod(),
+                    "path", this.httpExchange.getRequestURI().getPath(),
+                    "status", statusCode,
+                    "latencyMicros", elapsed / 1_000,
+                    "bytes", bytes,
+                    "remote", this.httpExchange.getRemoteAddress() == null ? null : this.httpExchange.getRemoteAddress().getAddress().getHostAddress());
+
+            if (this.event.shouldCommit()) {
+                this.event.method = this.httpExchange.getRequestMethod();
+                this.event.path = this.httpExchange.getRequestURI().getPath();
+                this.event.status = statusCode;
+                this.event.responseBytes = bytes;
+                this.event.commit();
+            }
+
+            InstrumentedHttpHandler.this.getDuration(method).record(elapsed);
+            InstrumentedHttpHandler.this.metricsRegistry.counter("http_requests_total", "Количество HTTP-запросов",
+                    "route", InstrumentedHttpHandler.this.route, "method", method, "code", statusCode < 0 ? "none" : Integer.toString(statusCode)).increment();
+
+            if (failed || statusCode >= 500) {
+                InstrumentedHttpHandler.this.metricsRegistry.counter("http_request_errors_total", "Количество HTTP-запросов, завершившихся ошибкой",
+                        "route", InstrumentedHttpHandler.this.route, "method", method).increment();
+            }
+        }
+    }
+
+    // endregion
+}
@@ -0,0 +1,139 @@
+package ru.yandex.practicum.api.http;
+
+// region imports
+
+import com.sun.net.httpserver.Headers;
+import com.sun.net.httpserver.HttpContext;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpPrincipal;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.URI;
+
+// endregion
+
+/**
+ * HTTP-обмен с другим путём запроса: позволяет передать запрос {@code /boards/{id}/tasks/5} обработчику,
+ * который ожидает путь {@code /tasks/5}. Всё, кроме пути запроса, делегируется исходному обмену, в том числе
+ * подмена потоков, поэтому обёртки исходного обмена (например, подсчёт байтов ответа) продолжают работать.
+ */
+public final class RebasedHttpExchange extends HttpExchange {
+    /**
+     * Исходный HTTP-обмен.
+     */
+    private final HttpExchange httpExchange;
+
+    /**
+     * Адрес запроса с новым путём.
+     */
+    private final URI requestUri;
+
+    /**
+     * Конструктор.
+     *
+     * @param httpExchange исходный HTTP-обмен.
+     * @param rawPath      новый путь запроса (в закодированном виде); строка запроса сохраняется.
+     */
+    public RebasedHttpExchange(HttpExchange httpExchange, String rawPath) {
+        if (httpExchange == null) {
+            throw new IllegalArgumentException("Parameter 'httpExchange' can't be null");
+        }
+
+        if (rawPath == null || !rawPath.startsWith("/")) {
+            throw new IllegalArgumentException("Parameter 'rawPath' should start with '/'");
+        }
+
+        String rawQuery = httpExchange.getRequestURI().getRawQuery();
+
+        this.httpExchange = httpExchange;
+        this.requestUri = URI.create(rawQuery == null ? rawPath : rawPath + "?" + rawQuery);
+    }
+
+    @Override
+    public Headers getRequestHeaders() {
+        return this.httpExchange.getRequestHeaders();
+    }
+
+    @Override
+    public Headers getResponseHeaders() {
+        return this.httpExchange.getResponseHeaders();
+    }
+
+    @Override
+    public URI getRequestURI() {
+        return this.requestUri;
+    }
+
+    @Override
+    public String getRequestMethod() {
+        return this.httpExchange.getRequestMethod();
+    }
+
+    @Override
+    public HttpContext getHttpContext() {
+        return this.httpExchange.getHttpContext();
+    }
+
+    @Override
+    public void close() {
+        this.httpExchange.close();
+    }
+
+    @Override
+    public InputStream getRequestBody() {
+        return this.httpExchange.getRequestBody();
+    }
+
+    @Override
+    public OutputStream getResponseBody() {
+        return this.httpExchange.getResponseBody();
+    }
+
+    @Override
+    public void sendResponseHeaders(int responseCode, long responseLength) throws IOException {
+        this.httpExchange.sendResponseHeaders(responseCode, responseLength);
+    }
+
+    @Override
+    public InetSocketAddress getRemoteAddress() {
+        return this.httpExchange.getRemoteAddress();
+    }
+
+    @Override
+    public int getResponseCode() {
+        return this.httpExchange.getResponseCode();
+    }
+
+    @Override
+    public InetSocketAddress getLocalAddress() {
+        return this.httpExchange.getLocalAddress();
+    }
+
+    @Override
+    public String getProtocol() {
+        return this.httpExchange.getProtocol();
+    }
+
+    @Override
+    public Object getAttribute(String name) {
+        return this.httpExchange.getAttribute(name);
+    }
+
+    @Override
+    public void setAttribute(String name, Object value) {
+        this.httpExchange.setAttribute(name, value);
+    }
+
+    @Override
+    public void setStreams(InputStream requestBody, OutputStream responseBody) {
+        this.httpExchange.setStreams(requestBody, responseBody);
+    }
+
+    @Override
+    public HttpPrincipal getPrincipal() {
+        return this.httpExchange.getPrincipal();
+    }
+}
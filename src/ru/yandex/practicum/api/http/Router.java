@@ -0,0 +1,89 @@
+package ru.yandex.practicum.api.http;
+
+// region imports
+
+import com.sun.net.httpserver.HttpHandler;
+
+import java.util.Collections;
+import java.util.Map;
+import java.util.TreeMap;
+
+// endregion
+
+/**
+ * Таблица маршрутов: префикс пути - обработчик. Одна и та же таблица используется для регистрации контекстов
+ * {@link com.sun.net.httpserver.HttpServer} и для диспетчеризации запросов в неблокирующем сервере, поэтому оба сервера
+ * обслуживают запросы одними и теми же обработчиками.
+ * <p>
+ * Как и у HttpServer, запрос направляется обработчику с самым длинным префиксом, совпадающим с началом пути
+ * по границе сегмента.
+ */
+public final class Router {
+    /**
+     * Обработчики по префиксу пути.
+     */
+    private final TreeMap<String, HttpHandler> routes;
+
+    /**
+     * Конструктор.
+     */
+    public Router() {
+        this.routes = new TreeMap<>();
+    }
+
+    /**
+     * Добавить маршрут.
+     *
+     * @param prefix  префикс пути (например, /tasks).
+     * @param handler обработчик.
+     * @return таблица маршрутов.
+     */
+    public Router add(String prefix, HttpHandler handler) {
+        if (prefix == null || !prefix.startsWith("/")) {
+            throw new IllegalArgumentException("Parameter 'prefix' should start with '/'");
+        }
+
+        if (handler == null) {
+            throw new IllegalArgumentException("Parameter 'handler' can't be null");
+        }
+
+        if (this.routes.putIfAbsent(prefix, handler) != null) {
+            throw new IllegalStateException("Маршрут " + prefix + " уже зарегистрирован");
+        }
+
+        return this;
+    }
+
+    /**
+     * Найти обработчик пути.
+     *
+     * @param path путь запроса.
+     * @return обработчик или null, если подходящего маршрута нет.
+     */
+    public HttpHandler find(String path) {
+        if (path == null) {
+            return null;
+        }
+
+        Map.Entry<String, HttpHandler> entry = this.routes.floorEntry(path);
+        while (entry != null) {
+            String prefix = entry.getKey();
+            if (path.startsWith(prefix) && (path.length() == prefix.length() || prefix.endsWith("/") || path.charAt(prefix.length()) == '/')) {
+                return entry.getValue();
+            }
+
+            entry = this.routes.lowerEntry(prefix);
+        }
+
+        return null;
+    }
+
+    /**
+     * Получить все маршруты.
+     *
+     * @return неизменяемая таблица маршрутов.
+     */
+    public Map<String, HttpHandler> getRoutes() {
+        return Collections.unmodifiableMap(this.routes);
+    }
+}
@@ -0,0 +1,112 @@
+package ru.yandex.practicum.api.http.events;
+
+// region imports
+
+import ru.yandex.practicum.abstractions.ChangeListener;
+import ru.yandex.practicum.abstractions.TaskManager;
+import ru.yandex.practicum.models.ChangeEvent;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+// endregion
+
+/**
+ * Подписка на события изменения с ограниченным буфером.
+ * <p>
+ * События складываются в очередь фиксированного размера в потоке, изменившем задачу, и забираются потоком,
+ * отправляющим их клиенту. Если клиент не успевает читать и очередь заполняется, подписка считается переполненной:
+ * она отписывается от менеджера задач и очищает очередь, поэтому медленный клиент не удерживает память, а клиенту
+ * остаётся только переподключиться.
+ */
+public final class EventSubscription implements ChangeListener {
+    /**
+     * Менеджер задач.
+     */
+    private final TaskManager taskManager;
+
+    /**
+     * Очередь неотправленных событий.
+     */
+    private final ArrayBlockingQueue<ChangeEvent> queue;
+
+    /**
+     * Признак переполнения очереди.
+     */
+    private volatile boolean overflowed;
+
+    /**
+     * Конструктор.
+     *
+     * @param taskManager менеджер задач.
+     * @param capacity    максимальное количество неотправленных событий.
+     */
+    public EventSubscription(TaskManager taskManager, int capacity) {
+        if (taskManager == null) {
+            throw new IllegalArgumentException("Parameter 'taskManager' can't be null");
+        }
+
+        this.taskManager = taskManager;
+        this.queue = new ArrayBlockingQueue<>(capacity);
+    }
+
+    /**
+     * Подписаться на события менеджера задач.
+     */
+    public void open() {
+        this.taskManager.addChangeListener(this);
+    }
+
+    /**
+     * Отписаться от событий менеджера задач.
+     */
+    public void close() {
+        this.taskManager.removeChangeListener(this);
+        this.queue.clear();
+    }
+
+    /**
+     * Получить следующее событие, ожидая его не дольше заданного времени.
+     *
+     * @param timeout время ожидания.
+     * @param unit    единица измерения времени ожидания.
+     * @return событие или null, если событий не было либо подписка переполнена.
+     */
+    public ChangeEvent poll(long timeout, TimeUnit unit) throws InterruptedException {
+        return this.overflowed ? null : this.queue.poll(timeout, unit);
+    }
+
+    /**
+     * Получить следующее событие без ожидания.
+     *
+     * @return событие или null, если событий нет либо подписка переполнена.
+     */
+    public ChangeEvent poll() {
+        return this.overflowed ? null : this.queue.poll();
+    }
+
+    /**
+     * Проверить, переполнена ли подписка.
+     *
+     * @return признак переполнения.
+     */
+    public boolean isOverflowed() {
+        return this.overflowed;
+    }
+
+    // region Overrides of ChangeListener
+
+    @Override
+    public void onChange(ChangeEvent event) {
+        if (this.overflowed) {
+            return;
+        }
+
+        if (!this.queue.offer(event)) {
+            this.overflowed = true;
+            this.close();
+        }
+    }
+
+    // endregion
+}
@@ -0,0 +1,112 @@
+package ru.yandex.practicum.api.http.handlers;
+
+// region imports
+
+import com.sun.net.httpserver.HttpExchange;
+import ru.yandex.practicum.constants.HttpMethod;
+import ru.yandex.practicum.managers.archive.TaskArchiver;
+import ru.yandex.practicum.models.AbstractTask;
+
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Map;
+import java.util.Optional;
+
+// endregion
+
+/**
+ * Обработчик архива завершённых задач.
+ * <p>
+ * POST /archive переносит в архив задачи, завершённые раньше заданного возраста; GET /archive/{id} возвращает
+ * задачу, подзадачу или эпик из архива; GET /archive?from=...&amp;to=... - задачи и подзадачи архива, время выполнения
+ * которых пересекается с промежутком.
+ */
+public final class ArchiveHttpHandler extends BaseHttpHandler {
+    /**
+     * Архиватор.
+     */
+    private final TaskArchiver archiver;
+
+    /**
+     * Конструктор.
+     *
+     * @param archiver архиватор.
+     */
+    public ArchiveHttpHandler(TaskArchiver archiver) {
+        if (archiver == null) {
+            throw new IllegalArgumentException("Parameter 'archiver' can't be null");
+        }
+
+        this.archiver = archiver;
+    }
+
+    @Override
+    public void handle(HttpExchange httpExchange) throws IOException {
+        switch (httpExchange.getRequestMethod()) {
+            case HttpMethod.GET:
+                this.handleGet(httpExchange);
+                break;
+            case HttpMethod.POST:
+                this.handlePost(httpExchange);
+                break;
+            default:
+                this.sendNotFound(httpExchange);
+                break;
+        }
+    }
+
+    private void handleGet(HttpExchange httpExchange) throws IOException {
+        String path = httpExchange.getRequestURI().getPath();
+
+        if (path.equals("/archive")) {
+            String from = getQueryParameter(httpExchange, "from");
+            String to = getQueryParameter(httpExchange, "to");
+            if (from == null || to == null) {
+                this.sendBadRequest(httpExchange, "Параметры from и to обязательны");
+                return;
+            }
+
+            try {
+                this.sendJsonList(httpExchange, this.archiver.getArchive().findByTime(LocalDateTime.parse(from), LocalDateTime.parse(to)));
+            } catch (DateTimeParseException ex) {
+                this.logWarning(httpExchange, ex);
+                this.sendBadRequest(httpExchange);
+            }
+            return;
+        }
+
+        String[] pathParts = path.split("/");
+        if (pathParts.length != 3) {
+            this.sendNotFound(httpExchange);
+            return;
+        }
+
+        int id;
+        try {
+            id = Integer.parseInt(pathParts[2]);
+        } catch (Exception ex) {
+            this.logWarning(httpExchange, ex);
+            this.sendBadRequest(httpExchange);
+            return;
+        }
+
+        Optional<AbstractTask> item = this.archiver.getArchive().findById(id);
+        if (item.isEmpty()) {
+            this.sendNotFound(httpExchange);
+            return;
+        }
+
+        this.sendJson(httpExchange, item.get());
+    }
+
+    private void handlePost(HttpExchange httpExchange) throws IOException {
+        if (!httpExchange.getRequestURI().getPath().equals("/archive")) {
+            this.sendNotFound(httpExchange);
+            return;
+        }
+
+        int archived = this.archiver.archive(LocalDateTime.now());
+        this.sendJson(httpExchange, Map.of("archived", archived));
+    }
+}
@@ -3,68 +3,395 @@ package ru.yandex.practicum.api.http.handlers;
 // region imports
 
 import com.google.gson.Gson;
-import com.google.gson.GsonBuilder;
+import com.google.gson.stream.JsonWriter;
 import com.sun.net.httpserver.HttpExchange;
 import com.sun.net.httpserver.HttpHandler;
 import ru.yandex.practicum.Managers;
 import ru.yandex.practicum.abstractions.TaskManager;
-import ru.yandex.practicum.utils.json.DurationTypeAdapter;
-import ru.yandex.practicum.utils.json.LocalDateTimeTypeAdapter;
+import ru.yandex.practicum.api.http.response.ResponseOutputStream;
+import ru.yandex.practicum.api.http.response.ResponsePool;
+import ru.yandex.practicum.constants.ContentEncoding;
+import ru.yandex.practicum.models.AbstractTask;
+import ru.yandex.practicum.utils.logging.AsyncLogger;
+import ru.yandex.practicum.utils.logging.Logging;
+import ru.yandex.practicum.utils.json.GsonFactory;
+import ru.yandex.practicum.utils.json.JsonFragmentCache;
 
+import java.io.BufferedWriter;
 import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.net.URLDecoder;
 import java.nio.charset.StandardCharsets;
-import java.time.Duration;
-import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
 
 // endregion
 
 public abstract class BaseHttpHandler implements HttpHandler {
+    /**
+     * Тип содержимого ответа в формате JSON.
+     */
+    protected static final String JSON_CONTENT_TYPE = "application/json;charset=utf-8";
+
+    /**
+     * Тип содержимого ответа в формате NDJSON (один JSON-объект на строку).
+     */
+    protected static final String NDJSON_CONTENT_TYPE = "application/x-ndjson;charset=utf-8";
+
+    /**
+     * Тип содержимого текстового ответа.
+     */
+    protected static final String TEXT_CONTENT_TYPE = "text/plain;charset=utf-8";
+
+    /**
+     * Размер буфера, через который текст пишется в тело ответа.
+     */
+    private static final int WRITER_BUFFER_SIZE = 8192;
+
+    /**
+     * Минимальный размер тела ответа, начиная с которого оно сжимается.
+     */
+    private static final int COMPRESSION_THRESHOLD = 1024;
+
+    /**
+     * Максимальный размер тела ответа, для которого передаётся точный Content-Length.
+     * Ответы большего размера передаются по частям, чтобы не держать их целиком в памяти.
+     */
+    private static final int MAX_BUFFERED_RESPONSE_SIZE = 1024 * 1024;
+
+    /**
+     * Журнал диагностики обработчиков.
+     */
+    private static final AsyncLogger log = Logging.getLog();
+
     protected final TaskManager taskManager;
     protected final Gson gson;
 
+    /**
+     * Кэш JSON-представлений задач, общий для всех обработчиков менеджера задач.
+     */
+    protected final JsonFragmentCache jsonCache;
+
     protected BaseHttpHandler() {
-        this.taskManager = Managers.getDefault();
-        this.gson = new GsonBuilder()
-                .registerTypeAdapter(Duration.class, new DurationTypeAdapter())
-                .registerTypeAdapter(LocalDateTime.class, new LocalDateTimeTypeAdapter())
-                .create();
+        this(Managers.getInstrumented());
+    }
+
+    /**
+     * Конструктор обработчика, работающего с заданным менеджером задач.
+     *
+     * @param taskManager менеджер задач.
+     */
+    protected BaseHttpHandler(TaskManager taskManager) {
+        if (taskManager == null) {
+            throw new IllegalArgumentException("Parameter 'taskManager' can't be null");
+        }
+
+        this.taskManager = taskManager;
+        this.gson = GsonFactory.getDefault();
+        this.jsonCache = JsonFragmentCache.forManager(this.taskManager, this.gson);
     }
 
     protected void sendText(HttpExchange httpExchange, String text) throws IOException {
-        httpExchange.getResponseHeaders().add("Content-Type", "application/json;charset=utf-8");
-        httpExchange.sendResponseHeaders(200, 0);
-        httpExchange.getResponseBody().write(text.getBytes(StandardCharsets.UTF_8));
-        httpExchange.close();
+        this.sendText(httpExchange, 200, JSON_CONTENT_TYPE, text);
+    }
+
+    /**
+     * Отправить объект в формате JSON, сериализуя его напрямую в тело ответа.
+     *
+     * @param httpExchange HTTP-обмен.
+     * @param value        объект.
+     */
+    protected void sendJson(HttpExchange httpExchange, Object value) throws IOException {
+        this.sendJson(httpExchange, 200, value);
+    }
+
+    /**
+     * Отправить коллекцию объектов напрямую в тело ответа.
+     * Задачи, подзадачи и эпики берутся из кэша JSON-представлений, поэтому неизменившиеся элементы не сериализуются
+     * повторно. Если клиент принимает NDJSON, каждый элемент пишется отдельной строкой и сразу уходит клиенту,
+     * иначе коллекция отправляется как JSON-массив.
+     *
+     * @param httpExchange HTTP-обмен.
+     * @param items        коллекция объектов.
+     */
+    protected void sendJsonList(HttpExchange httpExchange, Collection<?> items) throws IOException {
+        boolean ndJson = this.isNdJsonAccepted(httpExchange);
+        httpExchange.getResponseHeaders().add("Content-Type", ndJson ? NDJSON_CONTENT_TYPE : JSON_CONTENT_TYPE);
+
+        try (OutputStream outputStream = this.openResponseStream(httpExchange, 200, ndJson)) {
+            if (!ndJson) {
+                outputStream.write('[');
+            }
+
+            boolean first = true;
+            for (Object item : items) {
+                if (!ndJson && !first) {
+                    outputStream.write(',');
+                }
+
+                outputStream.write(this.toJsonBytes(item));
+
+                if (ndJson) {
+                    outputStream.write('\n');
+                }
+
+                first = false;
+            }
+
+            if (!ndJson) {
+                outputStream.write(']');
+            }
+        }
+    }
+
+    /**
+     * Проверить, принимает ли клиент ответ в формате NDJSON.
+     *
+     * @param httpExchange HTTP-обмен.
+     * @return признак того, что клиент принимает ответ в формате NDJSON.
+     */
+    protected boolean isNdJsonAccepted(HttpExchange httpExchange) {
+        for (String accept : httpExchange.getRequestHeaders().getOrDefault("Accept", List.of())) {
+            if (accept.contains("application/x-ndjson")) {
+                return true;
+            }
+        }
+
+        return false;
+    }
+
+    /**
+     * Установить заголовок ETag и, если у клиента уже актуальная версия ресурса (If-None-Match), ответить
+     * 304 Not Modified.
+     *
+     * @param httpExchange HTTP-обмен.
+     * @param eTag         ETag текущей версии ресурса.
+     * @return признак того, что ответ 304 Not Modified уже отправлен.
+     */
+    protected boolean checkNotModified(HttpExchange httpExchange, String eTag) throws IOException {
+        httpExchange.getResponseHeaders().set("ETag", eTag);
+
+        String ifNoneMatch = httpExchange.getRequestHeaders().getFirst("If-None-Match");
+        if (ifNoneMatch == null) {
+            return false;
+        }
+
+        String opaqueTag = stripWeakPrefix(eTag);
+        for (String candidate : ifNoneMatch.split(",")) {
+            String tag = candidate.trim();
+            if (tag.equals("*") || stripWeakPrefix(tag).equals(opaqueTag)) {
+                this.sendEmpty(httpExchange, 304);
+                return true;
+            }
+        }
+
+        return false;
+    }
+
+    /**
+     * Получить ETag списка, зависящий от текущей версии менеджера задач.
+     *
+     * @return ETag списка.
+     */
+    protected String getListETag() {
+        return "W/\"" + this.taskManager.getVersion() + "\"";
+    }
+
+    /**
+     * Получить ETag задачи, подзадачи или эпика, зависящий от его версии.
+     *
+     * @param id идентификатор задачи, подзадачи или эпика.
+     * @return ETag задачи, подзадачи или эпика.
+     */
+    protected String getEntityETag(int id) {
+        return "W/\"" + id + "-" + this.taskManager.getVersion(id) + "\"";
+    }
+
+    /**
+     * Получить значение параметра строки запроса.
+     *
+     * @param httpExchange HTTP-обмен.
+     * @param name         название параметра.
+     * @return значение параметра или null, если параметр не передан.
+     */
+    protected static String getQueryParameter(HttpExchange httpExchange, String name) {
+        String query = httpExchange.getRequestURI().getRawQuery();
+        if (query == null) {
+            return null;
+        }
+
+        for (String pair : query.split("&")) {
+            int separator = pair.indexOf('=');
+            String key = separator < 0 ? pair : pair.substring(0, separator);
+
+            if (URLDecoder.decode(key, StandardCharsets.UTF_8).equals(name)) {
+                return separator < 0 ? "" : URLDecoder.decode(pair.substring(separator + 1), StandardCharsets.UTF_8);
+            }
+        }
+
+        return null;
+    }
+
+    /**
+     * Записать в журнал предупреждение об ошибке запроса клиента.
+     *
+     * @param httpExchange HTTP-обмен.
+     * @param ex           исключение.
+     */
+    protected void logWarning(HttpExchange httpExchange, Throwable ex) {
+        log.warn(ex.getMessage(), "handler", this.getClass().getSimpleName(),
+                "method", httpExchange.getRequestMethod(), "path", httpExchange.getRequestURI().getPath());
+    }
+
+    /**
+     * Записать в журнал ошибку обработки запроса со стеком вызова.
+     *
+     * @param httpExchange HTTP-обмен.
+     * @param ex           исключение.
+     */
+    protected void logError(HttpExchange httpExchange, Throwable ex) {
+        log.error("Ошибка обработки запроса", ex, "handler", this.getClass().getSimpleName(),
+                "method", httpExchange.getRequestMethod(), "path", httpExchange.getRequestURI().getPath());
     }
 
     protected void sendOk(HttpExchange httpExchange) throws IOException {
-        httpExchange.sendResponseHeaders(200, 0);
-        httpExchange.close();
+        this.sendEmpty(httpExchange, 200);
     }
 
     protected void sendCreated(HttpExchange httpExchange) throws IOException {
-        httpExchange.sendResponseHeaders(201, 0);
-        httpExchange.close();
+        this.sendEmpty(httpExchange, 201);
+    }
+
+    /**
+     * Отправить ответ 201 с телом в формате JSON.
+     *
+     * @param httpExchange HTTP-обмен.
+     * @param value        объект.
+     */
+    protected void sendCreated(HttpExchange httpExchange, Object value) throws IOException {
+        this.sendJson(httpExchange, 201, value);
     }
 
     protected void sendBadRequest(HttpExchange httpExchange) throws IOException {
-        httpExchange.sendResponseHeaders(400, 0);
-        httpExchange.close();
+        this.sendEmpty(httpExchange, 400);
     }
 
     protected void sendBadRequest(HttpExchange httpExchange, String text) throws IOException {
-        httpExchange.sendResponseHeaders(400, 0);
-        httpExchange.getResponseBody().write(text.getBytes(StandardCharsets.UTF_8));
-        httpExchange.close();
+        this.sendText(httpExchange, 400, TEXT_CONTENT_TYPE, text);
     }
 
     protected void sendNotFound(HttpExchange httpExchange) throws IOException {
-        httpExchange.sendResponseHeaders(404, 0);
-        httpExchange.close();
+        this.sendEmpty(httpExchange, 404);
     }
 
     protected void sendInternalServerError(HttpExchange httpExchange) throws IOException {
-        httpExchange.sendResponseHeaders(500, 0);
+        this.sendEmpty(httpExchange, 500);
+    }
+
+    protected void sendServiceUnavailable(HttpExchange httpExchange) throws IOException {
+        this.sendEmpty(httpExchange, 503);
+    }
+
+    /**
+     * Открыть поток тела ответа: данные сжимаются, если клиент это допускает, а Content-Length передаётся точно,
+     * если тело помещается в буфер.
+     *
+     * @param httpExchange HTTP-обмен.
+     * @param statusCode   HTTP-код ответа.
+     * @param streaming    признак того, что данные нужно сразу отправлять клиенту по мере записи.
+     * @return поток тела ответа.
+     */
+    protected ResponseOutputStream openResponseStream(HttpExchange httpExchange, int statusCode, boolean streaming) throws IOException {
+        ContentEncoding encoding = ContentEncoding.negotiate(httpExchange.getRequestHeaders().getFirst("Accept-Encoding"));
+        int maxBufferedSize = streaming ? 0 : MAX_BUFFERED_RESPONSE_SIZE;
+
+        return new ResponseOutputStream(httpExchange, statusCode, encoding, COMPRESSION_THRESHOLD, maxBufferedSize, ResponsePool.getDefault());
+    }
+
+    /**
+     * Открыть буферизованный поток записи текста в тело ответа.
+     *
+     * @param httpExchange HTTP-обмен.
+     * @param statusCode   HTTP-код ответа.
+     * @param streaming    признак того, что данные нужно сразу отправлять клиенту по мере записи.
+     * @return поток записи текста в тело ответа.
+     */
+    private Writer openResponseWriter(HttpExchange httpExchange, int statusCode, boolean streaming) throws IOException {
+        return new BufferedWriter(new OutputStreamWriter(this.openResponseStream(httpExchange, statusCode, streaming), StandardCharsets.UTF_8), WRITER_BUFFER_SIZE);
+    }
+
+    /**
+     * Отправить объект в формате JSON, сериализуя его напрямую в тело ответа.
+     *
+     * @param httpExchange HTTP-обмен.
+     * @param statusCode   HTTP-код ответа.
+     * @param value        объект.
+     */
+    private void sendJson(HttpExchange httpExchange, int statusCode, Object value) throws IOException {
+        httpExchange.getResponseHeaders().add("Content-Type", JSON_CONTENT_TYPE);
+
+        if (value instanceof AbstractTask task) {
+            try (OutputStream outputStream = this.openResponseStream(httpExchange, statusCode, false)) {
+                outputStream.write(this.jsonCache.get(task));
+            }
+            return;
+        }
+
+        try (JsonWriter jsonWriter = new JsonWriter(this.openResponseWriter(httpExchange, statusCode, false))) {
+            this.gson.toJson(value, value.getClass(), jsonWriter);
+        }
+    }
+
+    /**
+     * Отправить текстовый ответ.
+     *
+     * @param httpExchange HTTP-обмен.
+     * @param statusCode   HTTP-код ответа.
+     * @param contentType  тип содержимого ответа.
+     * @param text         текст.
+     */
+    protected void sendText(HttpExchange httpExchange, int statusCode, String contentType, String text) throws IOException {
+        httpExchange.getResponseHeaders().add("Content-Type", contentType);
+
+        try (Writer writer = this.openResponseWriter(httpExchange, statusCode, false)) {
+            writer.write(text);
+        }
+    }
+
+    /**
+     * Получить JSON-представление объекта в UTF-8.
+     *
+     * @param item объект.
+     * @return JSON-представление объекта в UTF-8.
+     */
+    private byte[] toJsonBytes(Object item) {
+        if (item instanceof AbstractTask task) {
+            return this.jsonCache.get(task);
+        }
+
+        return this.gson.toJson(item, item.getClass()).getBytes(StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Отбросить у ETag признак слабой проверки (W/).
+     *
+     * @param eTag ETag.
+     * @return ETag без признака слабой проверки.
+     */
+    private static String stripWeakPrefix(String eTag) {
+        return eTag.startsWith("W/") ? eTag.substring(2) : eTag;
+    }
+
+    /**
+     * Отправить ответ без тела.
+     *
+     * @param httpExchange HTTP-обмен.
+     * @param statusCode   HTTP-код ответа.
+     */
+    private void sendEmpty(HttpExchange httpExchange, int statusCode) throws IOException {
+        httpExchange.sendResponseHeaders(statusCode, -1);
         httpExchange.close();
     }
 }
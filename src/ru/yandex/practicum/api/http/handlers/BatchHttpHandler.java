@@ -0,0 +1,218 @@
+package ru.yandex.practicum.api.http.handlers;
+
+// region imports
+
+import com.google.gson.JsonElement;
+import com.google.gson.JsonParseException;
+import com.google.gson.JsonParser;
+import com.google.gson.stream.JsonReader;
+import com.sun.net.httpserver.HttpExchange;
+import ru.yandex.practicum.abstractions.TaskManager;
+import ru.yandex.practicum.api.dto.EpicDto;
+import ru.yandex.practicum.api.dto.SubTaskDto;
+import ru.yandex.practicum.api.dto.TaskDto;
+import ru.yandex.practicum.constants.HttpMethod;
+import ru.yandex.practicum.constants.OperationType;
+import ru.yandex.practicum.constants.TaskType;
+import ru.yandex.practicum.models.Epic;
+import ru.yandex.practicum.models.Operation;
+import ru.yandex.practicum.models.SubTask;
+import ru.yandex.practicum.models.Task;
+
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+
+// endregion
+
+/**
+ * Обработчик пакетных изменений: {@code POST /batch} принимает JSON-массив операций и применяет их атомарно.
+ * <p>
+ * Операция - объект с полями {@code operation} (create, update или remove), {@code type} (task, subtask или epic),
+ * {@code id} (для update и remove), {@code data} (задача, подзадача или эпик в том же виде, что и в остальных
+ * обработчиках) и {@code epicRef} - порядковый номер (с нуля) операции создания эпика в этом же пакете, к которому
+ * относится создаваемая подзадача. В ответ отправляются идентификаторы задач в порядке следования операций.
+ */
+public final class BatchHttpHandler extends BaseHttpHandler {
+    public BatchHttpHandler() {
+        super();
+    }
+
+    /**
+     * Конструктор обработчика, работающего с заданным менеджером задач.
+     *
+     * @param taskManager менеджер задач.
+     */
+    public BatchHttpHandler(TaskManager taskManager) {
+        super(taskManager);
+    }
+
+    @Override
+    public void handle(HttpExchange httpExchange) throws IOException {
+        if (!httpExchange.getRequestMethod().equals(HttpMethod.POST) || !httpExchange.getRequestURI().getPath().equals("/batch")) {
+            this.sendNotFound(httpExchange);
+            return;
+        }
+
+        List<Operation> operations = new ArrayList<>();
+
+        try (JsonReader jsonReader = new JsonReader(new InputStreamReader(httpExchange.getRequestBody(), StandardCharsets.UTF_8))) {
+            jsonReader.beginArray();
+            while (jsonReader.hasNext()) {
+                operations.add(this.readOperation(jsonReader, operations));
+            }
+            jsonReader.endArray();
+        } catch (IOException | JsonParseException | IllegalArgumentException | IllegalStateException ex) {
+            this.logWarning(httpExchange, ex);
+            this.sendBadRequest(httpExchange, "Operation #" + (operations.size() + 1) + ": " + ex.getMessage());
+            return;
+        }
+
+        try {
+            this.taskManager.applyBatch(operations);
+        } catch (IllegalArgumentException | IllegalStateException ex) {
+            this.logWarning(httpExchange, ex);
+            this.sendBadRequest(httpExchange, ex.getMessage());
+            return;
+        } catch (Exception ex) {
+            this.logError(httpExchange, ex);
+            this.sendInternalServerError(httpExchange);
+            return;
+        }
+
+        List<Integer> ids = new ArrayList<>(operations.size());
+        for (Operation operation : operations) {
+            ids.add(operation.getId());
+        }
+
+        this.sendCreated(httpExchange, ids);
+    }
+
+    /**
+     * Прочитать операцию пакета.
+     *
+     * @param jsonReader поток чтения JSON.
+     * @param previous   ранее прочитанные операции пакета.
+     * @return операция.
+     */
+    private Operation readOperation(JsonReader jsonReader, List<Operation> previous) throws IOException {
+        OperationType operationType = null;
+        TaskType taskType = null;
+        Integer id = null;
+        Integer epicRef = null;
+        JsonElement data = null;
+
+        jsonReader.beginObject();
+        while (jsonReader.hasNext()) {
+            switch (jsonReader.nextName()) {
+                case "operation":
+                    operationType = OperationType.valueOf(jsonReader.nextString().toUpperCase(Locale.ROOT));
+                    break;
+                case "type":
+                    taskType = TaskType.valueOf(jsonReader.nextString().toUpperCase(Locale.ROOT));
+                    break;
+                case "id":
+                    id = jsonReader.nextInt();
+                    break;
+                case "epicRef":
+                    epicRef = jsonReader.nextInt();
+                    break;
+                case "data":
+                    data = JsonParser.parseReader(jsonReader);
+                    break;
+                default:
+                    jsonReader.skipValue();
+                    break;
+            }
+        }
+        jsonReader.endObject();
+
+        if (operationType == null) {
+            throw new IllegalArgumentException("Property 'operation' can't be null");
+        }
+
+        if (taskType == null) {
+            throw new IllegalArgumentException("Property 'type' can't be null");
+        }
+
+        if (operationType == OperationType.REMOVE) {
+            if (id == null) {
+                throw new IllegalArgumentException("Property 'id' can't be null");
+            }
+
+            return Operation.remove(taskType, id);
+        }
+
+        if (data == null || data.isJsonNull()) {
+            throw new IllegalArgumentException("Property 'data' can't be null");
+        }
+
+        switch (taskType) {
+            case TASK: {
+                TaskDto taskDto = this.gson.fromJson(data, TaskDto.class);
+                if (operationType == OperationType.CREATE) {
+                    return Operation.create(new Task(taskDto.name, taskDto.description, taskDto.startTime, taskDto.duration));
+                }
+
+                int taskId = getEntityId(id, taskDto.id);
+                return Operation.update(new Task(taskId, taskDto.name, taskDto.description, taskDto.status, taskDto.startTime, taskDto.duration));
+            }
+            case SUBTASK: {
+                SubTaskDto subTaskDto = this.gson.fromJson(data, SubTaskDto.class);
+
+                Integer epicId = subTaskDto.epicId;
+                if (epicRef != null) {
+                    if (epicRef < 0 || epicRef >= previous.size() || previous.get(epicRef).getTaskType() != TaskType.EPIC || previous.get(epicRef).getType() != OperationType.CREATE) {
+                        throw new IllegalArgumentException("Property 'epicRef' should point to an earlier epic creation");
+                    }
+
+                    epicId = previous.get(epicRef).getId();
+                }
+
+                if (epicId == null) {
+                    throw new IllegalArgumentException("Property 'epicId' can't be null");
+                }
+
+                if (operationType == OperationType.CREATE) {
+                    return Operation.create(new SubTask(subTaskDto.name, subTaskDto.description, subTaskDto.startTime, subTaskDto.duration, epicId));
+                }
+
+                int subTaskId = getEntityId(id, subTaskDto.id);
+                return Operation.update(new SubTask(subTaskId, subTaskDto.name, subTaskDto.description, subTaskDto.status, subTaskDto.startTime, subTaskDto.duration, epicId));
+            }
+            default: {
+                EpicDto epicDto = this.gson.fromJson(data, EpicDto.class);
+                if (operationType == OperationType.CREATE) {
+                    return Operation.create(new Epic(epicDto.name, epicDto.description));
+                }
+
+                int epicId = getEntityId(id, epicDto.id);
+                return Operation.update(new Epic(epicId, epicDto.name, epicDto.description, new HashMap<>()));
+            }
+        }
+    }
+
+    /**
+     * Получить идентификатор обновляемой задачи из операции или из её данных.
+     *
+     * @param operationId идентификатор, указанный в операции.
+     * @param dataId      идентификатор, указанный в данных.
+     * @return идентификатор задачи.
+     */
+    private static int getEntityId(Integer operationId, Integer dataId) {
+        if (operationId != null && dataId != null && !operationId.equals(dataId)) {
+            throw new IllegalArgumentException("Properties 'id' and 'data.id' don't match");
+        }
+
+        Integer id = operationId != null ? operationId : dataId;
+        if (id == null) {
+            throw new IllegalArgumentException("Property 'id' can't be null");
+        }
+
+        return id;
+    }
+}
@@ -0,0 +1,107 @@
+package ru.yandex.practicum.api.http.handlers;
+
+// region imports
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpHandler;
+import ru.yandex.practicum.abstractions.TaskManager;
+import ru.yandex.practicum.api.http.RebasedHttpExchange;
+import ru.yandex.practicum.managers.boards.BoardRegistry;
+
+import java.io.IOException;
+import java.util.Map;
+import java.util.function.Function;
+
+// endregion
+
+/**
+ * Обработчик запросов к отдельной доске: {@code /boards/{id}/tasks}, {@code /boards/{id}/epics} и т.д.
+ * <p>
+ * Запрос передаётся тому же обработчику, что и запрос к доске по умолчанию, но с менеджером задач выбранной доски
+ * и путём без префикса {@code /boards/{id}}. На время обработки доска удерживается в реестре, чтобы её не выгрузили.
+ * Подписка на события ({@code /events}) для досок не поддерживается: она живёт дольше одного запроса и не дала бы
+ * выгрузить доску.
+ */
+public final class BoardsHttpHandler extends BaseHttpHandler {
+    /**
+     * Префикс пути.
+     */
+    private static final String PREFIX = "/boards/";
+
+    /**
+     * Фабрики обработчиков по первому сегменту пути внутри доски.
+     */
+    private static final Map<String, Function<TaskManager, HttpHandler>> handlerFactories = Map.of(
+            "batch", BatchHttpHandler::new,
+            "epics", EpicsHttpHandler::new,
+            "history", HistoryHttpHandler::new,
+            "import", ImportHttpHandler::new,
+            "prioritized", PrioritizedTasksHttpHandler::new,
+            "subtasks", SubTasksHttpHandler::new,
+            "sync", SyncHttpHandler::new,
+            "tasks", TasksHttpHandler::new
+    );
+
+    /**
+     * Реестр досок.
+     */
+    private final BoardRegistry boardRegistry;
+
+    /**
+     * Конструктор.
+     *
+     * @param boardRegistry реестр досок.
+     */
+    public BoardsHttpHandler(BoardRegistry boardRegistry) {
+        if (boardRegistry == null) {
+            throw new IllegalArgumentException("Parameter 'boardRegistry' can't be null");
+        }
+
+        this.boardRegistry = boardRegistry;
+    }
+
+    @Override
+    public void handle(HttpExchange httpExchange) throws IOException {
+        String rawPath = httpExchange.getRequestURI().getRawPath();
+        if (!rawPath.startsWith(PREFIX)) {
+            this.sendNotFound(httpExchange);
+            return;
+        }
+
+        int boardIdEnd = rawPath.indexOf('/', PREFIX.length());
+        if (boardIdEnd < 0) {
+            this.sendNotFound(httpExchange);
+            return;
+        }
+
+        String boardId = rawPath.substring(PREFIX.length(), boardIdEnd);
+        if (!BoardRegistry.isValidId(boardId)) {
+            this.sendBadRequest(httpExchange, "Некорректный идентификатор доски: " + boardId);
+            return;
+        }
+
+        String innerPath = rawPath.substring(boardIdEnd);
+        int segmentEnd = innerPath.indexOf('/', 1);
+
+        Function<TaskManager, HttpHandler> handlerFactory = handlerFactories.get(segmentEnd < 0 ? innerPath.substring(1) : innerPath.substring(1, segmentEnd));
+        if (handlerFactory == null) {
+            this.sendNotFound(httpExchange);
+            return;
+        }
+
+        BoardRegistry.Board board;
+        try {
+            board = this.boardRegistry.acquire(boardId);
+        } catch (RuntimeException ex) {
+            this.logError(httpExchange, ex);
+            this.sendServiceUnavailable(httpExchange);
+            return;
+        }
+
+        try {
+            handlerFactory.apply(board.getTaskManager()).handle(new RebasedHttpExchange(httpExchange, innerPath));
+        } finally {
+            this.boardRegistry.release(board);
+        }
+    }
+}
@@ -3,6 +3,8 @@ package ru.yandex.practicum.api.http.handlers;
 // region imports
 
 import com.sun.net.httpserver.HttpExchange;
+import ru.yandex.practicum.abstractions.TaskManager;
+import ru.yandex.practicum.api.dto.CriticalPathDto;
 import ru.yandex.practicum.api.dto.EpicDto;
 import ru.yandex.practicum.constants.HttpMethod;
 import ru.yandex.practicum.models.Epic;
@@ -14,6 +16,19 @@ import java.util.Optional;
 // endregion
 
 public final class EpicsHttpHandler extends BaseHttpHandler {
+    public EpicsHttpHandler() {
+        super();
+    }
+
+    /**
+     * Конструктор обработчика, работающего с заданным менеджером задач.
+     *
+     * @param taskManager менеджер задач.
+     */
+    public EpicsHttpHandler(TaskManager taskManager) {
+        super(taskManager);
+    }
+
     @Override
     public void handle(HttpExchange httpExchange) throws IOException {
         switch (httpExchange.getRequestMethod()) {
@@ -41,16 +56,25 @@ public final class EpicsHttpHandler extends BaseHttpHandler {
 
         if (path.equals("/epics")) {
             try {
-                this.sendText(httpExchange, this.gson.toJson(this.taskManager.getAllEpics()));
+                if (this.checkNotModified(httpExchange, this.getListETag())) {
+                    return;
+                }
+
+                this.sendJsonList(httpExchange, this.taskManager.getAllEpics());
                 return;
             } catch (Exception ex) {
-                System.out.println(ex.getMessage());
+                this.logError(httpExchange, ex);
                 this.sendInternalServerError(httpExchange);
                 return;
             }
         }
 
         String[] pathParts = path.split("/");
+        if (pathParts.length == 4 && pathParts[3].equals("critical-path")) {
+            this.handleGetCriticalPath(httpExchange, pathParts[2]);
+            return;
+        }
+
         if (pathParts.length != 3) {
             this.sendNotFound(httpExchange);
             return;
@@ -70,7 +94,39 @@ public final class EpicsHttpHandler extends BaseHttpHandler {
             return;
         }
 
-        this.sendText(httpExchange, this.gson.toJson(epic.get()));
+        if (this.checkNotModified(httpExchange, this.getEntityETag(epicId))) {
+            return;
+        }
+
+        this.sendJson(httpExchange, epic.get());
+    }
+
+    /**
+     * Обработать GET /epics/{id}/critical-path: критический путь эпика и его самое раннее возможное окончание.
+     *
+     * @param httpExchange HTTP-обмен.
+     * @param idPart       сегмент пути с идентификатором эпика.
+     */
+    private void handleGetCriticalPath(HttpExchange httpExchange, String idPart) throws IOException {
+        int epicId;
+        try {
+            epicId = Integer.parseInt(idPart);
+        } catch (Exception ex) {
+            this.sendBadRequest(httpExchange);
+            return;
+        }
+
+        if (this.taskManager.getVersion(epicId) == 0) {
+            this.sendNotFound(httpExchange);
+            return;
+        }
+
+        CriticalPathDto criticalPathDto = new CriticalPathDto();
+        criticalPathDto.epicId = epicId;
+        criticalPathDto.earliestEndTime = this.taskManager.getEarliestEndTime(epicId).orElse(null);
+        criticalPathDto.subTasks = this.taskManager.getCriticalPath(epicId);
+
+        this.sendJson(httpExchange, criticalPathDto);
     }
 
     private void handlePost(HttpExchange httpExchange) throws IOException {
@@ -97,10 +153,10 @@ public final class EpicsHttpHandler extends BaseHttpHandler {
             }
             this.sendCreated(httpExchange);
         } catch (IllegalArgumentException | IllegalStateException ex) {
-            System.out.println(ex.getMessage());
+            this.logWarning(httpExchange, ex);
             this.sendBadRequest(httpExchange, ex.getMessage());
         } catch (Exception ex) {
-            System.out.println(ex.getMessage());
+            this.logError(httpExchange, ex);
             this.sendInternalServerError(httpExchange);
         }
     }
@@ -122,7 +178,7 @@ public final class EpicsHttpHandler extends BaseHttpHandler {
         try {
             epicId = Integer.parseInt(pathParts[2]);
         } catch (Exception ex) {
-            System.out.println(ex.getMessage());
+            this.logWarning(httpExchange, ex);
             this.sendBadRequest(httpExchange);
             return;
         }
@@ -130,7 +186,7 @@ public final class EpicsHttpHandler extends BaseHttpHandler {
         try {
             this.taskManager.removeEpicById(epicId);
         } catch (IllegalStateException ex) {
-            System.out.println(ex.getMessage());
+            this.logWarning(httpExchange, ex);
             this.sendNotFound(httpExchange);
             return;
         }
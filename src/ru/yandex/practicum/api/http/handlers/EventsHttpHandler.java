@@ -0,0 +1,267 @@
+package ru.yandex.practicum.api.http.handlers;
+
+// region imports
+
+import com.sun.net.httpserver.HttpExchange;
+import ru.yandex.practicum.Managers;
+import ru.yandex.practicum.abstractions.TaskManager;
+import ru.yandex.practicum.api.http.events.EventSubscription;
+import ru.yandex.practicum.constants.HttpMethod;
+import ru.yandex.practicum.models.ChangeEvent;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+// endregion
+
+/**
+ * Обработчик ленты изменений: {@code GET /events} отправляет события изменения задач, подзадач и эпиков в формате
+ * text/event-stream. Идентификатор события - версия менеджера задач, присвоенная изменению.
+ * <p>
+ * Каждый клиент обслуживается отдельным потоком, чтобы долгоживущие соединения не занимали поток HTTP-сервера.
+ * События клиента копятся в ограниченном буфере; если клиент не успевает их читать, ему отправляется событие
+ * {@code overflow} (если соединение ещё позволяет) и соединение закрывается. Если клиент совсем перестал читать и
+ * запись заблокирована дольше допустимого, поток клиента прерывается: прерывание закрывает канал соединения, поэтому
+ * поток и место среди подключённых клиентов освобождаются.
+ */
+public final class EventsHttpHandler extends BaseHttpHandler {
+    /**
+     * Тип содержимого ответа.
+     */
+    private static final String EVENT_STREAM_CONTENT_TYPE = "text/event-stream;charset=utf-8";
+
+    /**
+     * Максимальное количество неотправленных событий одного клиента.
+     */
+    private static final int SUBSCRIPTION_CAPACITY = 1024;
+
+    /**
+     * Максимальное количество одновременно подключённых клиентов.
+     */
+    private static final int MAX_SUBSCRIBERS = 256;
+
+    /**
+     * Интервал отправки комментария для поддержания соединения, мс.
+     */
+    private static final long KEEP_ALIVE_INTERVAL_MILLIS = 15_000;
+
+    /**
+     * Время, дольше которого запись клиенту не может быть заблокирована, мс.
+     */
+    private static final long WRITE_TIMEOUT_MILLIS = 10_000;
+
+    /**
+     * Интервал проверки заблокированных записей, мс.
+     */
+    private static final long WATCHDOG_INTERVAL_MILLIS = 1_000;
+
+    /**
+     * Потоки, обслуживающие клиентов.
+     */
+    private final ExecutorService executor;
+
+    /**
+     * Количество подключённых клиентов.
+     */
+    private final AtomicInteger subscribers;
+
+    /**
+     * Время, дольше которого запись клиенту не может быть заблокирована, нс.
+     */
+    private final long writeTimeoutNanos;
+
+    /**
+     * Время начала текущей записи по потоку, обслуживающему клиента, нс.
+     */
+    private final ConcurrentHashMap<Thread, Long> writes;
+
+    /**
+     * Поток, прерывающий заблокированные записи.
+     */
+    private final ScheduledExecutorService watchdog;
+
+    /**
+     * Конструктор.
+     */
+    public EventsHttpHandler() {
+        this(Managers.getInstrumented());
+    }
+
+    /**
+     * Конструктор обработчика, работающего с заданным менеджером задач.
+     *
+     * @param taskManager менеджер задач.
+     */
+    public EventsHttpHandler(TaskManager taskManager) {
+        this(taskManager, WRITE_TIMEOUT_MILLIS);
+    }
+
+    /**
+     * Конструктор обработчика, работающего с заданным менеджером задач.
+     *
+     * @param taskManager        менеджер задач.
+     * @param writeTimeoutMillis время, дольше которого запись клиенту не может быть заблокирована, мс.
+     */
+    EventsHttpHandler(TaskManager taskManager, long writeTimeoutMillis) {
+        super(taskManager);
+
+        if (writeTimeoutMillis <= 0) {
+            throw new IllegalArgumentException("Parameter 'writeTimeoutMillis' should be positive number");
+        }
+
+        this.executor = Executors.newCachedThreadPool(runnable -> {
+            Thread thread = new Thread(runnable, "events-subscriber");
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.subscribers = new AtomicInteger();
+        this.writeTimeoutNanos = TimeUnit.MILLISECONDS.toNanos(writeTimeoutMillis);
+        this.writes = new ConcurrentHashMap<>();
+
+        this.watchdog = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "events-watchdog");
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.watchdog.scheduleWithFixedDelay(this::interruptBlockedWrites, WATCHDOG_INTERVAL_MILLIS, WATCHDOG_INTERVAL_MILLIS, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Получить количество подключённых клиентов.
+     *
+     * @return количество подключённых клиентов.
+     */
+    int getSubscriberCount() {
+        return this.subscribers.get();
+    }
+
+    @Override
+    public void handle(HttpExchange httpExchange) throws IOException {
+        if (!httpExchange.getRequestMethod().equals(HttpMethod.GET) || !httpExchange.getRequestURI().getPath().equals("/events")) {
+            this.sendNotFound(httpExchange);
+            return;
+        }
+
+        if (this.subscribers.incrementAndGet() > MAX_SUBSCRIBERS) {
+            this.subscribers.decrementAndGet();
+            this.sendServiceUnavailable(httpExchange);
+            return;
+        }
+
+        EventSubscription subscription = new EventSubscription(this.taskManager, SUBSCRIPTION_CAPACITY);
+        subscription.open();
+
+        httpExchange.getResponseHeaders().add("Content-Type", EVENT_STREAM_CONTENT_TYPE);
+        httpExchange.getResponseHeaders().add("Cache-Control", "no-cache");
+        httpExchange.sendResponseHeaders(200, 0);
+
+        this.executor.execute(() -> {
+            try {
+                this.stream(httpExchange, subscription);
+            } finally {
+                subscription.close();
+                this.subscribers.decrementAndGet();
+            }
+        });
+    }
+
+    /**
+     * Отправлять события клиенту, пока соединение открыто и подписка не переполнена.
+     *
+     * @param httpExchange HTTP-обмен.
+     * @param subscription подписка на события.
+     */
+    private void stream(HttpExchange httpExchange, EventSubscription subscription) {
+        try (Writer writer = new BufferedWriter(new OutputStreamWriter(httpExchange.getResponseBody(), StandardCharsets.UTF_8))) {
+            this.beginWrite();
+            writer.write(": connected\n\n");
+            writer.flush();
+            this.endWrite();
+
+            while (!subscription.isOverflowed()) {
+                ChangeEvent event = subscription.poll(KEEP_ALIVE_INTERVAL_MILLIS, TimeUnit.MILLISECONDS);
+                if (event == null) {
+                    if (!subscription.isOverflowed()) {
+                        this.beginWrite();
+                        writer.write(":\n\n");
+                        writer.flush();
+                        this.endWrite();
+                    }
+                    continue;
+                }
+
+                // Накопившиеся события отправляются одной порцией.
+                this.beginWrite();
+                do {
+                    this.writeEvent(writer, event);
+                } while ((event = subscription.poll()) != null);
+
+                writer.flush();
+                this.endWrite();
+            }
+
+            // Запись продолжается до закрытия соединения.
+            this.beginWrite();
+            writer.write("event: overflow\ndata: {}\n\n");
+        } catch (IOException ex) {
+            this.logWarning(httpExchange, ex);
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        } finally {
+            httpExchange.close();
+            this.endWrite();
+        }
+    }
+
+    /**
+     * Отметить начало записи клиенту в текущем потоке.
+     */
+    private void beginWrite() {
+        this.writes.put(Thread.currentThread(), System.nanoTime());
+    }
+
+    /**
+     * Отметить окончание записи клиенту в текущем потоке.
+     */
+    private void endWrite() {
+        this.writes.remove(Thread.currentThread());
+    }
+
+    /**
+     * Прервать потоки, запись которых заблокирована дольше допустимого. Поток, ожидающий записи в канал соединения,
+     * при прерывании закрывает канал и получает исключение ввода-вывода.
+     */
+    private void interruptBlockedWrites() {
+        long now = System.nanoTime();
+        for (Map.Entry<Thread, Long> write : this.writes.entrySet()) {
+            // Запись удаляется перед прерыванием, чтобы не прервать поток, уже завершивший запись.
+            if (now - write.getValue() > this.writeTimeoutNanos && this.writes.remove(write.getKey(), write.getValue())) {
+                write.getKey().interrupt();
+            }
+        }
+    }
+
+    /**
+     * Записать событие в формате text/event-stream.
+     *
+     * @param writer поток записи.
+     * @param event  событие изменения.
+     */
+    private void writeEvent(Writer writer, ChangeEvent event) throws IOException {
+        writer.write("id: ");
+        writer.write(Long.toString(event.getVersion()));
+        writer.write("\nevent: ");
+        writer.write(event.getType().name().toLowerCase(Locale.ROOT));
+        writer.write("\ndata: ");
+        writer.write(this.gson.toJson(event));
+        writer.write("\n\n");
+    }
+}
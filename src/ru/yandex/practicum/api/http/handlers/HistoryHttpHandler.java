@@ -3,6 +3,7 @@ package ru.yandex.practicum.api.http.handlers;
 // region imports
 
 import com.sun.net.httpserver.HttpExchange;
+import ru.yandex.practicum.abstractions.TaskManager;
 import ru.yandex.practicum.constants.HttpMethod;
 
 import java.io.IOException;
@@ -10,6 +11,19 @@ import java.io.IOException;
 // endregion
 
 public final class HistoryHttpHandler extends BaseHttpHandler {
+    public HistoryHttpHandler() {
+        super();
+    }
+
+    /**
+     * Конструктор обработчика, работающего с заданным менеджером задач.
+     *
+     * @param taskManager менеджер задач.
+     */
+    public HistoryHttpHandler(TaskManager taskManager) {
+        super(taskManager);
+    }
+
     @Override
     public void handle(HttpExchange httpExchange) throws IOException {
         if (!httpExchange.getRequestMethod().equals(HttpMethod.GET) || !httpExchange.getRequestURI().getPath().equals("/history")) {
@@ -17,6 +31,6 @@ public final class HistoryHttpHandler extends BaseHttpHandler {
             return;
         }
 
-        this.sendText(httpExchange, this.gson.toJson(this.taskManager.getHistory()));
+        this.sendJsonList(httpExchange, this.taskManager.getHistory());
     }
 }
@@ -0,0 +1,73 @@
+package ru.yandex.practicum.api.http.handlers;
+
+// region imports
+
+import com.google.gson.JsonObject;
+import com.sun.net.httpserver.HttpExchange;
+import ru.yandex.practicum.abstractions.TaskManager;
+import ru.yandex.practicum.constants.HttpMethod;
+import ru.yandex.practicum.managers.imports.TaskImporter;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+
+// endregion
+
+/**
+ * Обработчик массового импорта: {@code POST /import} принимает NDJSON с задачами, подзадачами и эпиками
+ * (см. {@link TaskImporter}) и по мере обработки отправляет NDJSON с ошибками в отдельных строках:
+ * {@code {"line":12,"error":"..."}}. Последняя строка ответа - итог: {@code {"imported":100,"rejected":1}}.
+ */
+public final class ImportHttpHandler extends BaseHttpHandler {
+    public ImportHttpHandler() {
+        super();
+    }
+
+    /**
+     * Конструктор обработчика, работающего с заданным менеджером задач.
+     *
+     * @param taskManager менеджер задач.
+     */
+    public ImportHttpHandler(TaskManager taskManager) {
+        super(taskManager);
+    }
+
+    @Override
+    public void handle(HttpExchange httpExchange) throws IOException {
+        if (!httpExchange.getRequestMethod().equals(HttpMethod.POST) || !httpExchange.getRequestURI().getPath().equals("/import")) {
+            this.sendNotFound(httpExchange);
+            return;
+        }
+
+        TaskImporter taskImporter = new TaskImporter(this.taskManager, this.gson, TaskImporter.DEFAULT_MAX_IN_MEMORY);
+
+        httpExchange.getResponseHeaders().add("Content-Type", NDJSON_CONTENT_TYPE);
+
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(httpExchange.getRequestBody(), StandardCharsets.UTF_8));
+             Writer writer = new BufferedWriter(new OutputStreamWriter(this.openResponseStream(httpExchange, 200, true), StandardCharsets.UTF_8))) {
+            JsonObject summary = new JsonObject();
+
+            try {
+                TaskImporter.Result result = taskImporter.importFrom(reader, (line, message) -> {
+                    JsonObject error = new JsonObject();
+                    error.addProperty("line", line);
+                    error.addProperty("error", message);
+
+                    writer.write(this.gson.toJson(error));
+                    writer.write('\n');
+                    writer.flush();
+                });
+
+                summary.addProperty("imported", result.getImported());
+                summary.addProperty("rejected", result.getRejected());
+            } catch (IllegalArgumentException | IllegalStateException | UncheckedIOException ex) {
+                this.logWarning(httpExchange, ex);
+                summary.addProperty("imported", 0);
+                summary.addProperty("error", ex.getMessage());
+            }
+
+            writer.write(this.gson.toJson(summary));
+            writer.write('\n');
+        }
+    }
+}
@@ -0,0 +1,182 @@
+package ru.yandex.practicum.api.http.handlers;
+
+// region imports
+
+import com.sun.net.httpserver.HttpExchange;
+import jdk.jfr.Configuration;
+import jdk.jfr.Recording;
+import ru.yandex.practicum.constants.HttpMethod;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.text.ParseException;
+import java.time.Duration;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+// endregion
+
+/**
+ * Обработчик {@code GET /debug/jfr?seconds=30&settings=default}: записывает JFR в течение заданного времени и
+ * отправляет файл .jfr клиенту, чтобы снять профиль работающего сервера без перезапуска.
+ * <p>
+ * Запись ведётся отдельным потоком, чтобы не занимать поток HTTP-сервера; одновременно допускается только одна
+ * запись, на остальные запросы возвращается 503. В запись попадают и события приложения
+ * (пакет {@code ru.yandex.practicum.utils.jfr}).
+ */
+public final class JfrHttpHandler extends BaseHttpHandler {
+    /**
+     * Длительность записи по умолчанию, с.
+     */
+    private static final int DEFAULT_DURATION_SECONDS = 30;
+
+    /**
+     * Максимальная длительность записи, с.
+     */
+    private static final int MAX_DURATION_SECONDS = 300;
+
+    /**
+     * Допустимые настройки записи (встроенные конфигурации JDK).
+     */
+    private static final Set<String> SETTINGS = Set.of("default", "profile");
+
+    /**
+     * Поток, ведущий запись.
+     */
+    private final ExecutorService executor;
+
+    /**
+     * Признак того, что запись уже ведётся.
+     */
+    private final AtomicBoolean recording;
+
+    /**
+     * Конструктор.
+     */
+    public JfrHttpHandler() {
+        this.executor = Executors.newSingleThreadExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "jfr-recording");
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.recording = new AtomicBoolean();
+    }
+
+    @Override
+    public void handle(HttpExchange httpExchange) throws IOException {
+        if (!httpExchange.getRequestMethod().equals(HttpMethod.GET) || !httpExchange.getRequestURI().getPath().equals("/debug/jfr")) {
+            this.sendNotFound(httpExchange);
+            return;
+        }
+
+        int seconds;
+        try {
+            String value = getQueryParameter(httpExchange, "seconds");
+            seconds = value == null ? DEFAULT_DURATION_SECONDS : Integer.parseInt(value);
+        } catch (NumberFormatException ex) {
+            seconds = -1;
+        }
+
+        if (seconds <= 0 || seconds > MAX_DURATION_SECONDS) {
+            this.sendBadRequest(httpExchange, "Параметр seconds должен быть от 1 до " + MAX_DURATION_SECONDS);
+            return;
+        }
+
+        String settings = getQueryParameter(httpExchange, "settings");
+        if (settings == null) {
+            settings = "default";
+        }
+
+        if (!SETTINGS.contains(settings)) {
+            this.sendBadRequest(httpExchange, "Параметр settings должен быть одним из " + SETTINGS);
+            return;
+        }
+
+        Configuration configuration;
+        try {
+            configuration = Configuration.getConfiguration(settings);
+        } catch (ParseException ex) {
+            throw new IOException(ex);
+        }
+
+        if (!this.recording.compareAndSet(false, true)) {
+            this.sendServiceUnavailable(httpExchange);
+            return;
+        }
+
+        Duration duration = Duration.ofSeconds(seconds);
+        this.executor.execute(() -> {
+            try {
+                this.record(httpExchange, configuration, duration);
+            } finally {
+                this.recording.set(false);
+            }
+        });
+    }
+
+    /**
+     * Записать JFR и отправить файл записи клиенту.
+     *
+     * @param httpExchange  HTTP-обмен.
+     * @param configuration настройки записи.
+     * @param duration      длительность записи.
+     */
+    private void record(HttpExchange httpExchange, Configuration configuration, Duration duration) {
+        Path file = null;
+
+        try (Recording recording = new Recording(configuration)) {
+            recording.setName("debug-" + System.currentTimeMillis());
+            recording.start();
+            Thread.sleep(duration.toMillis());
+            recording.stop();
+
+            file = Files.createTempFile("kanban-", ".jfr");
+            recording.dump(file);
+
+            httpExchange.getResponseHeaders().add("Content-Type", "application/octet-stream");
+            httpExchange.getResponseHeaders().add("Content-Disposition", "attachment; filename=\"" + recording.getName() + ".jfr\"");
+            httpExchange.sendResponseHeaders(200, Files.size(file));
+
+            try (OutputStream outputStream = httpExchange.getResponseBody()) {
+                Files.copy(file, outputStream);
+            }
+        } catch (IOException ex) {
+            this.logError(httpExchange, ex);
+            this.sendErrorIfPossible(httpExchange);
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            this.sendErrorIfPossible(httpExchange);
+        } finally {
+            if (file != null) {
+                try {
+                    Files.deleteIfExists(file);
+                } catch (IOException ex) {
+                    this.logWarning(httpExchange, ex);
+                }
+            }
+
+            httpExchange.close();
+        }
+    }
+
+    /**
+     * Отправить ответ 500, если заголовки ответа ещё не отправлены.
+     *
+     * @param httpExchange HTTP-обмен.
+     */
+    private void sendErrorIfPossible(HttpExchange httpExchange) {
+        if (httpExchange.getResponseCode() != -1) {
+            return;
+        }
+
+        try {
+            this.sendInternalServerError(httpExchange);
+        } catch (IOException ex) {
+            this.logWarning(httpExchange, ex);
+        }
+    }
+}
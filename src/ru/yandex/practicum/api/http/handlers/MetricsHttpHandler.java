@@ -0,0 +1,53 @@
+package ru.yandex.practicum.api.http.handlers;
+
+// region imports
+
+import com.sun.net.httpserver.HttpExchange;
+import ru.yandex.practicum.constants.HttpMethod;
+import ru.yandex.practicum.utils.metrics.MetricsRegistry;
+
+import java.io.IOException;
+import java.io.StringWriter;
+
+// endregion
+
+/**
+ * Обработчик GET /metrics: метрики в текстовом формате Prometheus.
+ */
+public final class MetricsHttpHandler extends BaseHttpHandler {
+    /**
+     * Тип содержимого текстового формата Prometheus.
+     */
+    private static final String PROMETHEUS_CONTENT_TYPE = "text/plain; version=0.0.4; charset=utf-8";
+
+    /**
+     * Реестр метрик.
+     */
+    private final MetricsRegistry metricsRegistry;
+
+    /**
+     * Конструктор.
+     *
+     * @param metricsRegistry реестр метрик.
+     */
+    public MetricsHttpHandler(MetricsRegistry metricsRegistry) {
+        if (metricsRegistry == null) {
+            throw new IllegalArgumentException("Parameter 'metricsRegistry' can't be null");
+        }
+
+        this.metricsRegistry = metricsRegistry;
+    }
+
+    @Override
+    public void handle(HttpExchange httpExchange) throws IOException {
+        if (!httpExchange.getRequestMethod().equals(HttpMethod.GET) || !httpExchange.getRequestURI().getPath().equals("/metrics")) {
+            this.sendNotFound(httpExchange);
+            return;
+        }
+
+        StringWriter writer = new StringWriter();
+        this.metricsRegistry.write(writer);
+
+        this.sendText(httpExchange, 200, PROMETHEUS_CONTENT_TYPE, writer.toString());
+    }
+}
@@ -3,13 +3,35 @@ package ru.yandex.practicum.api.http.handlers;
 // region imports
 
 import com.sun.net.httpserver.HttpExchange;
+import ru.yandex.practicum.abstractions.TaskManager;
 import ru.yandex.practicum.constants.HttpMethod;
 
 import java.io.IOException;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
 
 // endregion
 
+/**
+ * Обработчик списка задач и подзадач, упорядоченных по времени начала.
+ * <p>
+ * GET /prioritized?from=...&amp;to=... возвращает расписание за промежуток вместе с повторениями повторяющихся задач,
+ * которые строятся только для этого промежутка.
+ */
 public final class PrioritizedTasksHttpHandler extends BaseHttpHandler {
+    public PrioritizedTasksHttpHandler() {
+        super();
+    }
+
+    /**
+     * Конструктор обработчика, работающего с заданным менеджером задач.
+     *
+     * @param taskManager менеджер задач.
+     */
+    public PrioritizedTasksHttpHandler(TaskManager taskManager) {
+        super(taskManager);
+    }
+
     @Override
     public void handle(HttpExchange httpExchange) throws IOException {
         if (!httpExchange.getRequestMethod().equals(HttpMethod.GET) || !httpExchange.getRequestURI().getPath().equals("/prioritized")) {
@@ -17,6 +39,27 @@ public final class PrioritizedTasksHttpHandler extends BaseHttpHandler {
             return;
         }
 
-        this.sendText(httpExchange, this.gson.toJson(this.taskManager.getPrioritizedTasks()));
+        String from = getQueryParameter(httpExchange, "from");
+        String to = getQueryParameter(httpExchange, "to");
+        if (from != null || to != null) {
+            if (from == null || to == null) {
+                this.sendBadRequest(httpExchange, "Параметры from и to задаются вместе");
+                return;
+            }
+
+            try {
+                this.sendJsonList(httpExchange, this.taskManager.getSchedule(LocalDateTime.parse(from), LocalDateTime.parse(to)));
+            } catch (DateTimeParseException ex) {
+                this.logWarning(httpExchange, ex);
+                this.sendBadRequest(httpExchange);
+            }
+            return;
+        }
+
+        if (this.checkNotModified(httpExchange, this.getListETag())) {
+            return;
+        }
+
+        this.sendJsonList(httpExchange, this.taskManager.getPrioritizedTasks());
     }
 }
@@ -0,0 +1,477 @@
+package ru.yandex.practicum.api.http.handlers;
+
+// region imports
+
+import com.google.gson.JsonArray;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+import com.google.gson.JsonParseException;
+import com.sun.net.httpserver.HttpExchange;
+import ru.yandex.practicum.constants.HttpMethod;
+import ru.yandex.practicum.utils.metrics.LatencyHistogram;
+import ru.yandex.practicum.utils.metrics.MetricsRegistry;
+import ru.yandex.practicum.utils.routing.ConsistentHashRing;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+// endregion
+
+/**
+ * Обработчик маршрутизатора: распределяет запросы API между несколькими экземплярами HttpTaskServer на локальных
+ * портах по кольцу согласованного хеширования.
+ * <p>
+ * Запросы к задаче, подзадаче или эпику по идентификатору уходят серверу, отвечающему за этот идентификатор; запросы
+ * к доске ({@code /boards/{id}/...}) - серверу, отвечающему за доску. Серверы выдают идентификаторы только из своей
+ * доли кольца, поэтому созданная задача остаётся на том сервере, где её создали: новые задачи и эпики распределяются
+ * по кругу, новая подзадача создаётся на сервере своего эпика. Списки задач, подзадач, эпиков, истории и упорядоченный
+ * список собираются со всех серверов; удаление всех задач рассылается всем серверам.
+ * <p>
+ * Соединения с серверами переиспользуются клиентом HTTP (keep-alive). Пересечение задач по времени проверяется каждым
+ * сервером только среди своих задач. Ленту изменений, синхронизацию, пакетные изменения и импорт маршрутизатор
+ * не поддерживает: они требуют единой версии или атомарности для всех серверов.
+ */
+public final class ProxyHttpHandler extends BaseHttpHandler {
+    /**
+     * Заголовки запроса, передаваемые серверу.
+     */
+    private static final Set<String> FORWARDED_REQUEST_HEADERS = Set.of("Content-Type", "Accept", "If-None-Match", "If-Match");
+
+    /**
+     * Заголовки ответа сервера, передаваемые клиенту.
+     */
+    private static final Set<String> FORWARDED_RESPONSE_HEADERS = Set.of("Content-Type", "ETag", "Cache-Control", "Location");
+
+    /**
+     * Пути, для которых собираются списки со всех серверов.
+     */
+    private static final Set<String> LIST_PATHS = Set.of("tasks", "subtasks", "epics", "history");
+
+    /**
+     * Время ожидания ответа сервера.
+     */
+    private static final Duration REQUEST_TIMEOUT = Duration.ofSeconds(30);
+
+    /**
+     * Порядок элементов упорядоченного списка: по времени начала, затем по идентификатору.
+     */
+    private static final Comparator<JsonElement> PRIORITY_ORDER = Comparator
+            .comparing((JsonElement item) -> LocalDateTime.parse(item.getAsJsonObject().get("startTime").getAsString()))
+            .thenComparingInt(item -> item.getAsJsonObject().get("id").getAsInt());
+
+    /**
+     * Кольцо согласованного хеширования серверов (узел - порт сервера).
+     */
+    private final ConsistentHashRing ring;
+
+    /**
+     * Клиент HTTP с пулом соединений к серверам.
+     */
+    private final HttpClient httpClient;
+
+    /**
+     * Реестр метрик.
+     */
+    private final MetricsRegistry metricsRegistry;
+
+    /**
+     * Счётчик для распределения новых задач и эпиков по кругу.
+     */
+    private final AtomicInteger nextBackend;
+
+    /**
+     * Конструктор.
+     *
+     * @param ring            кольцо согласованного хеширования серверов (узел - порт сервера на локальном хосте).
+     * @param metricsRegistry реестр метрик.
+     */
+    public ProxyHttpHandler(ConsistentHashRing ring, MetricsRegistry metricsRegistry) {
+        if (ring == null) {
+            throw new IllegalArgumentException("Parameter 'ring' can't be null");
+        }
+
+        if (metricsRegistry == null) {
+            throw new IllegalArgumentException("Parameter 'metricsRegistry' can't be null");
+        }
+
+        this.ring = ring;
+        this.metricsRegistry = metricsRegistry;
+        this.httpClient = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(Duration.ofSeconds(2))
+                .build();
+        this.nextBackend = new AtomicInteger();
+    }
+
+    @Override
+    public void handle(HttpExchange httpExchange) throws IOException {
+        String method = httpExchange.getRequestMethod();
+        String[] segments = httpExchange.getRequestURI().getRawPath().split("/");
+        String resource = segments.length > 1 ? segments[1] : "";
+
+        try {
+            switch (resource) {
+                case "boards":
+                    if (segments.length < 3) {
+                        this.sendNotFound(httpExchange);
+                        return;
+                    }
+
+                    this.forward(httpExchange, this.ring.locate("board:" + segments[2]), null);
+                    return;
+                case "tasks":
+                case "subtasks":
+                case "epics":
+                case "history":
+                case "prioritized":
+                    break;
+                default:
+                    this.sendText(httpExchange, 501, TEXT_CONTENT_TYPE, "Маршрутизатор не поддерживает " + httpExchange.getRequestURI().getPath());
+                    return;
+            }
+
+            if (segments.length > 2) {
+                this.forward(httpExchange, this.locate(segments[2]), null);
+                return;
+            }
+
+            switch (method) {
+                case HttpMethod.GET:
+                    if (resource.equals("prioritized")) {
+                        this.sendMergedPrioritized(httpExchange);
+                    } else if (LIST_PATHS.contains(resource)) {
+                        this.sendMergedList(httpExchange);
+                    } else {
+                        this.sendNotFound(httpExchange);
+                    }
+                    return;
+                case HttpMethod.POST: {
+                    byte[] body = httpExchange.getRequestBody().readAllBytes();
+                    this.forward(httpExchange, this.locateByBody(resource, body), body);
+                    return;
+                }
+                case HttpMethod.DELETE:
+                    this.broadcastDelete(httpExchange);
+                    return;
+                default:
+                    this.sendNotFound(httpExchange);
+            }
+        } catch (BackendException ex) {
+            this.logWarning(httpExchange, ex);
+            this.sendText(httpExchange, 502, TEXT_CONTENT_TYPE, ex.getMessage());
+        }
+    }
+
+    /**
+     * Найти сервер по идентификатору из пути.
+     *
+     * @param segment сегмент пути с идентификатором.
+     * @return сервер.
+     */
+    private String locate(String segment) {
+        try {
+            return this.ring.locate(Integer.parseInt(segment));
+        } catch (NumberFormatException ex) {
+            // Некорректный идентификатор отклонит любой сервер; важно лишь, чтобы выбор был однозначным.
+            return this.ring.locate(segment);
+        }
+    }
+
+    /**
+     * Найти сервер для запроса создания или обновления: по идентификатору задачи, для новой подзадачи - по
+     * идентификатору эпика, для новой задачи или эпика - следующий сервер по кругу.
+     *
+     * @param resource ресурс (первый сегмент пути).
+     * @param body     тело запроса.
+     * @return сервер.
+     */
+    private String locateByBody(String resource, byte[] body) {
+        try {
+            JsonElement json = JsonParser.parseString(new String(body, StandardCharsets.UTF_8));
+            if (json.isJsonObject()) {
+                JsonObject object = json.getAsJsonObject();
+
+                JsonElement id = object.get("id");
+                if (id != null && !id.isJsonNull()) {
+                    return this.ring.locate(id.getAsInt());
+                }
+
+                JsonElement epicId = object.get("epicId");
+                if (resource.equals("subtasks") && epicId != null && !epicId.isJsonNull()) {
+                    return this.ring.locate(epicId.getAsInt());
+                }
+            }
+        } catch (JsonParseException | IllegalStateException | NumberFormatException | UnsupportedOperationException ex) {
+            // Некорректное тело отклонит сервер.
+        }
+
+        List<String> nodes = this.ring.getNodes();
+        return nodes.get(Math.floorMod(this.nextBackend.getAndIncrement(), nodes.size()));
+    }
+
+    /**
+     * Передать запрос серверу и вернуть клиенту его ответ.
+     *
+     * @param httpExchange HTTP-обмен.
+     * @param backend      сервер.
+     * @param body         тело запроса или null, если его нужно прочитать из обмена.
+     */
+    private void forward(HttpExchange httpExchange, String backend, byte[] body) throws IOException {
+        if (body == null) {
+            body = httpExchange.getRequestBody().readAllBytes();
+        }
+
+        HttpRequest.Builder builder = this.newRequest(httpExchange, backend)
+                .method(httpExchange.getRequestMethod(), body.length == 0 ? HttpRequest.BodyPublishers.noBody() : HttpRequest.BodyPublishers.ofByteArray(body));
+        for (String header : FORWARDED_REQUEST_HEADERS) {
+            for (String value : httpExchange.getRequestHeaders().getOrDefault(header, List.of())) {
+                builder.header(header, value);
+            }
+        }
+
+        HttpResponse<byte[]> response = join(this.send(backend, builder.build()));
+
+        for (String header : FORWARDED_RESPONSE_HEADERS) {
+            response.headers().firstValue(header).ifPresent(value -> httpExchange.getResponseHeaders().add(header, value));
+        }
+
+        this.sendBody(httpExchange, response.statusCode(), response.body());
+    }
+
+    /**
+     * Собрать список со всех серверов и отправить его одним JSON-массивом.
+     *
+     * @param httpExchange HTTP-обмен.
+     */
+    private void sendMergedList(HttpExchange httpExchange) throws IOException {
+        List<HttpResponse<byte[]>> responses = this.fetchAll(httpExchange);
+
+        HttpResponse<byte[]> failed = findFailed(responses);
+        if (failed != null) {
+            this.sendBody(httpExchange, failed.statusCode(), failed.body());
+            return;
+        }
+
+        // Ответы серверов - JSON-массивы; элементы переносятся в общий массив без разбора.
+        StringBuilder merged = new StringBuilder("[");
+        for (HttpResponse<byte[]> response : responses) {
+            String array = new String(response.body(), StandardCharsets.UTF_8).trim();
+            String items = array.substring(1, array.length() - 1).trim();
+            if (!items.isEmpty()) {
+                if (merged.length() > 1) {
+                    merged.append(',');
+                }
+                merged.append(items);
+            }
+        }
+        merged.append(']');
+
+        this.sendText(httpExchange, 200, JSON_CONTENT_TYPE, merged.toString());
+    }
+
+    /**
+     * Собрать упорядоченные списки со всех серверов и отправить общий упорядоченный список.
+     *
+     * @param httpExchange HTTP-обмен.
+     */
+    private void sendMergedPrioritized(HttpExchange httpExchange) throws IOException {
+        List<HttpResponse<byte[]>> responses = this.fetchAll(httpExchange);
+
+        HttpResponse<byte[]> failed = findFailed(responses);
+        if (failed != null) {
+            this.sendBody(httpExchange, failed.statusCode(), failed.body());
+            return;
+        }
+
+        List<JsonElement> items = new ArrayList<>();
+        for (HttpResponse<byte[]> response : responses) {
+            JsonArray array = JsonParser.parseString(new String(response.body(), StandardCharsets.UTF_8)).getAsJsonArray();
+            array.forEach(items::add);
+        }
+        items.sort(PRIORITY_ORDER);
+
+        JsonArray merged = new JsonArray(items.size());
+        items.forEach(merged::add);
+
+        this.sendText(httpExchange, 200, JSON_CONTENT_TYPE, merged.toString());
+    }
+
+    /**
+     * Разослать удаление всем серверам.
+     *
+     * @param httpExchange HTTP-обмен.
+     */
+    private void broadcastDelete(HttpExchange httpExchange) throws IOException {
+        List<CompletableFuture<HttpResponse<byte[]>>> futures = new ArrayList<>();
+        for (String backend : this.ring.getNodes()) {
+            futures.add(this.send(backend, this.newRequest(httpExchange, backend).DELETE().build()));
+        }
+
+        List<HttpResponse<byte[]>> responses = join(futures);
+
+        HttpResponse<byte[]> failed = findFailed(responses);
+        if (failed != null) {
+            this.sendBody(httpExchange, failed.statusCode(), failed.body());
+            return;
+        }
+
+        this.sendOk(httpExchange);
+    }
+
+    /**
+     * Выполнить GET-запрос на всех серверах одновременно.
+     *
+     * @param httpExchange HTTP-обмен.
+     * @return ответы серверов.
+     */
+    private List<HttpResponse<byte[]>> fetchAll(HttpExchange httpExchange) {
+        List<CompletableFuture<HttpResponse<byte[]>>> futures = new ArrayList<>();
+        for (String backend : this.ring.getNodes()) {
+            futures.add(this.send(backend, this.newRequest(httpExchange, backend).header("Accept", "application/json").GET().build()));
+        }
+
+        return join(futures);
+    }
+
+    /**
+     * Создать запрос к серверу с тем же путём и строкой запроса.
+     *
+     * @param httpExchange HTTP-обмен.
+     * @param backend      сервер.
+     * @return построитель запроса.
+     */
+    private HttpRequest.Builder newRequest(HttpExchange httpExchange, String backend) {
+        URI uri = httpExchange.getRequestURI();
+        String query = uri.getRawQuery();
+
+        return HttpRequest.newBuilder(URI.create("http://127.0.0.1:" + backend + uri.getRawPath() + (query == null ? "" : "?" + query)))
+                .timeout(REQUEST_TIMEOUT);
+    }
+
+    /**
+     * Отправить запрос серверу с замером метрик.
+     *
+     * @param backend сервер.
+     * @param request запрос.
+     * @return будущий ответ; ошибка соединения завершает его исключением {@link BackendException}.
+     */
+    private CompletableFuture<HttpResponse<byte[]>> send(String backend, HttpRequest request) {
+        LatencyHistogram duration = this.metricsRegistry.histogram("proxy_backend_duration_seconds", "Длительность запросов маршрутизатора к серверам", "backend", backend);
+        long start = System.nanoTime();
+
+        return this.httpClient.sendAsync(request, HttpResponse.BodyHandlers.ofByteArray())
+                .handle((response, error) -> {
+                    duration.record(System.nanoTime() - start);
+
+                    if (error != null) {
+                        this.metricsRegistry.counter("proxy_backend_errors_total", "Количество ошибок соединения маршрутизатора с серверами", "backend", backend).increment();
+                        throw new BackendException("Сервер на порту " + backend + " недоступен", error);
+                    }
+
+                    return response;
+                });
+    }
+
+    /**
+     * Дождаться всех ответов.
+     *
+     * @param futures будущие ответы.
+     * @return ответы.
+     */
+    private static List<HttpResponse<byte[]>> join(List<CompletableFuture<HttpResponse<byte[]>>> futures) {
+        List<HttpResponse<byte[]>> responses = new ArrayList<>(futures.size());
+        for (CompletableFuture<HttpResponse<byte[]>> future : futures) {
+            responses.add(join(future));
+        }
+
+        return responses;
+    }
+
+    /**
+     * Дождаться ответа. Ошибка соединения извлекается из {@link CompletionException}, чтобы клиент получил 502.
+     *
+     * @param future будущий ответ.
+     * @return ответ.
+     */
+    private static HttpResponse<byte[]> join(CompletableFuture<HttpResponse<byte[]>> future) {
+        try {
+            return future.join();
+        } catch (CompletionException ex) {
+            throw ex.getCause() instanceof BackendException backendException ? backendException : ex;
+        }
+    }
+
+    /**
+     * Найти ответ с неуспешным кодом.
+     *
+     * @param responses ответы.
+     * @return первый неуспешный ответ или null.
+     */
+    private static HttpResponse<byte[]> findFailed(List<HttpResponse<byte[]>> responses) {
+        for (HttpResponse<byte[]> response : responses) {
+            if (response.statusCode() / 100 != 2) {
+                return response;
+            }
+        }
+
+        return null;
+    }
+
+    /**
+     * Отправить клиенту ответ с заданным телом.
+     *
+     * @param httpExchange HTTP-обмен.
+     * @param statusCode   HTTP-код ответа.
+     * @param body         тело ответа.
+     */
+    private void sendBody(HttpExchange httpExchange, int statusCode, byte[] body) throws IOException {
+        if (body.length == 0) {
+            httpExchange.sendResponseHeaders(statusCode, -1);
+            httpExchange.close();
+            return;
+        }
+
+        try (OutputStream outputStream = this.openResponseStream(httpExchange, statusCode, false)) {
+            outputStream.write(body);
+        }
+    }
+
+    // region Nested Types
+
+    /**
+     * Ошибка соединения с сервером.
+     */
+    private static final class BackendException extends RuntimeException {
+        /**
+         * Версия сериализованного представления.
+         */
+        private static final long serialVersionUID = 1L;
+
+        /**
+         * Конструктор.
+         *
+         * @param message сообщение.
+         * @param cause   причина.
+         */
+        private BackendException(String message, Throwable cause) {
+            super(message, cause);
+        }
+    }
+
+    // endregion
+}
@@ -0,0 +1,231 @@
+package ru.yandex.practicum.api.http.handlers;
+
+// region imports
+
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParseException;
+import com.sun.net.httpserver.HttpExchange;
+import ru.yandex.practicum.abstractions.TaskManager;
+import ru.yandex.practicum.api.dto.OccurrenceDto;
+import ru.yandex.practicum.constants.HttpMethod;
+import ru.yandex.practicum.models.RecurringTask;
+import ru.yandex.practicum.models.Task;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Optional;
+
+// endregion
+
+/**
+ * Обработчик повторяющихся задач.
+ * <p>
+ * POST /recurring создаёт повторяющуюся задачу и возвращает её; GET /recurring и GET /recurring/{id} возвращают
+ * повторяющиеся задачи вместе с изменёнными и отменёнными повторениями; DELETE /recurring/{id} удаляет задачу.
+ * GET /recurring/{id}/occurrences?from=...&amp;to=... строит повторения за промежуток, POST /recurring/{id}/occurrences
+ * изменяет одно повторение, DELETE /recurring/{id}/occurrences/{occurrenceStartTime} отменяет его.
+ */
+public final class RecurringTasksHttpHandler extends BaseHttpHandler {
+    public RecurringTasksHttpHandler() {
+        super();
+    }
+
+    /**
+     * Конструктор обработчика, работающего с заданным менеджером задач.
+     *
+     * @param taskManager менеджер задач.
+     */
+    public RecurringTasksHttpHandler(TaskManager taskManager) {
+        super(taskManager);
+    }
+
+    @Override
+    public void handle(HttpExchange httpExchange) throws IOException {
+        switch (httpExchange.getRequestMethod()) {
+            case HttpMethod.GET:
+                this.handleGet(httpExchange);
+                break;
+            case HttpMethod.POST:
+                this.handlePost(httpExchange);
+                break;
+            case HttpMethod.DELETE:
+                this.handleDelete(httpExchange);
+                break;
+            default:
+                this.sendNotFound(httpExchange);
+                break;
+        }
+    }
+
+    private void handleGet(HttpExchange httpExchange) throws IOException {
+        String path = httpExchange.getRequestURI().getPath();
+        if (path.equals("/recurring")) {
+            this.sendJsonList(httpExchange, this.taskManager.getAllRecurringTasks());
+            return;
+        }
+
+        String[] pathParts = path.split("/");
+        if (pathParts.length != 3 && !(pathParts.length == 4 && pathParts[3].equals("occurrences"))) {
+            this.sendNotFound(httpExchange);
+            return;
+        }
+
+        int recurringTaskId;
+        try {
+            recurringTaskId = Integer.parseInt(pathParts[2]);
+        } catch (Exception ex) {
+            this.logWarning(httpExchange, ex);
+            this.sendBadRequest(httpExchange);
+            return;
+        }
+
+        Optional<RecurringTask> recurringTask = this.taskManager.getRecurringTaskById(recurringTaskId);
+        if (recurringTask.isEmpty()) {
+            this.sendNotFound(httpExchange);
+            return;
+        }
+
+        if (pathParts.length == 3) {
+            this.sendJson(httpExchange, recurringTask.get());
+            return;
+        }
+
+        String from = getQueryParameter(httpExchange, "from");
+        String to = getQueryParameter(httpExchange, "to");
+        if (from == null || to == null) {
+            this.sendBadRequest(httpExchange, "Параметры from и to обязательны");
+            return;
+        }
+
+        try {
+            this.sendJsonList(httpExchange, recurringTask.get().getOccurrences(LocalDateTime.parse(from), LocalDateTime.parse(to)));
+        } catch (DateTimeParseException ex) {
+            this.logWarning(httpExchange, ex);
+            this.sendBadRequest(httpExchange);
+        }
+    }
+
+    private void handlePost(HttpExchange httpExchange) throws IOException {
+        String path = httpExchange.getRequestURI().getPath();
+
+        String[] pathParts = path.split("/");
+        if (pathParts.length == 4 && pathParts[1].equals("recurring") && pathParts[3].equals("occurrences")) {
+            this.handlePostOccurrence(httpExchange, pathParts[2]);
+            return;
+        }
+
+        if (!path.equals("/recurring")) {
+            this.sendNotFound(httpExchange);
+            return;
+        }
+
+        String body = new String(httpExchange.getRequestBody().readAllBytes(), StandardCharsets.UTF_8);
+
+        try {
+            JsonObject json = this.gson.fromJson(body, JsonObject.class);
+            if (json == null) {
+                this.sendBadRequest(httpExchange);
+                return;
+            }
+
+            if (json.has("id")) {
+                this.sendBadRequest(httpExchange, "Повторяющаяся задача не изменяется целиком: измените отдельные повторения или создайте задачу заново");
+                return;
+            }
+
+            RecurringTask recurringTask = this.gson.fromJson(json, RecurringTask.class);
+            this.taskManager.createRecurringTask(recurringTask);
+            this.sendCreated(httpExchange, recurringTask);
+        } catch (IllegalArgumentException | IllegalStateException | JsonParseException ex) {
+            this.logWarning(httpExchange, ex);
+            this.sendBadRequest(httpExchange, ex.getMessage());
+        } catch (Exception ex) {
+            this.logError(httpExchange, ex);
+            this.sendInternalServerError(httpExchange);
+        }
+    }
+
+    /**
+     * Обработать POST /recurring/{id}/occurrences: изменить одно повторение. Незаданные поля берутся из повторения
+     * по расписанию.
+     *
+     * @param httpExchange HTTP-обмен.
+     * @param idPart       сегмент пути с идентификатором повторяющейся задачи.
+     */
+    private void handlePostOccurrence(HttpExchange httpExchange, String idPart) throws IOException {
+        String body = new String(httpExchange.getRequestBody().readAllBytes(), StandardCharsets.UTF_8);
+
+        try {
+            int recurringTaskId = Integer.parseInt(idPart);
+
+            Optional<RecurringTask> recurringTask = this.taskManager.getRecurringTaskById(recurringTaskId);
+            if (recurringTask.isEmpty()) {
+                this.sendNotFound(httpExchange);
+                return;
+            }
+
+            OccurrenceDto occurrenceDto = this.gson.fromJson(body, OccurrenceDto.class);
+            if (occurrenceDto == null || occurrenceDto.occurrenceStartTime == null) {
+                this.sendBadRequest(httpExchange, "Property 'occurrenceStartTime' can't be null");
+                return;
+            }
+
+            RecurringTask template = recurringTask.get();
+            Task occurrence = new Task(
+                    recurringTaskId,
+                    occurrenceDto.name == null ? template.getName() : occurrenceDto.name,
+                    occurrenceDto.description == null ? template.getDescription() : occurrenceDto.description,
+                    occurrenceDto.status == null ? template.getStatus() : occurrenceDto.status,
+                    occurrenceDto.startTime == null ? occurrenceDto.occurrenceStartTime : occurrenceDto.startTime,
+                    occurrenceDto.duration == null ? template.getDuration() : occurrenceDto.duration);
+
+            this.taskManager.overrideOccurrence(recurringTaskId, occurrenceDto.occurrenceStartTime, occurrence);
+            this.sendCreated(httpExchange, occurrence);
+        } catch (IllegalArgumentException | IllegalStateException | JsonParseException ex) {
+            this.logWarning(httpExchange, ex);
+            this.sendBadRequest(httpExchange, ex.getMessage());
+        } catch (Exception ex) {
+            this.logError(httpExchange, ex);
+            this.sendInternalServerError(httpExchange);
+        }
+    }
+
+    private void handleDelete(HttpExchange httpExchange) throws IOException {
+        String path = httpExchange.getRequestURI().getPath();
+
+        String[] pathParts = path.split("/");
+        if (pathParts.length != 3 && !(pathParts.length == 5 && pathParts[3].equals("occurrences"))) {
+            this.sendNotFound(httpExchange);
+            return;
+        }
+
+        int recurringTaskId;
+        LocalDateTime occurrenceStartTime = null;
+        try {
+            recurringTaskId = Integer.parseInt(pathParts[2]);
+            if (pathParts.length == 5) {
+                occurrenceStartTime = LocalDateTime.parse(pathParts[4]);
+            }
+        } catch (Exception ex) {
+            this.logWarning(httpExchange, ex);
+            this.sendBadRequest(httpExchange);
+            return;
+        }
+
+        try {
+            if (occurrenceStartTime == null) {
+                this.taskManager.removeRecurringTaskById(recurringTaskId);
+            } else {
+                this.taskManager.cancelOccurrence(recurringTaskId, occurrenceStartTime);
+            }
+        } catch (IllegalStateException ex) {
+            this.logWarning(httpExchange, ex);
+            this.sendNotFound(httpExchange);
+            return;
+        }
+
+        this.sendOk(httpExchange);
+    }
+}
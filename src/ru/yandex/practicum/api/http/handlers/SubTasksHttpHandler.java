@@ -2,7 +2,10 @@ package ru.yandex.practicum.api.http.handlers;
 
 // region imports
 
+import com.google.gson.JsonParseException;
 import com.sun.net.httpserver.HttpExchange;
+import ru.yandex.practicum.abstractions.TaskManager;
+import ru.yandex.practicum.api.dto.DependencyDto;
 import ru.yandex.practicum.api.dto.SubTaskDto;
 import ru.yandex.practicum.constants.HttpMethod;
 import ru.yandex.practicum.models.Epic;
@@ -15,6 +18,19 @@ import java.util.Optional;
 // endregion
 
 public final class SubTasksHttpHandler extends BaseHttpHandler {
+    public SubTasksHttpHandler() {
+        super();
+    }
+
+    /**
+     * Конструктор обработчика, работающего с заданным менеджером задач.
+     *
+     * @param taskManager менеджер задач.
+     */
+    public SubTasksHttpHandler(TaskManager taskManager) {
+        super(taskManager);
+    }
+
     @Override
     public void handle(HttpExchange httpExchange) throws IOException {
         switch (httpExchange.getRequestMethod()) {
@@ -42,16 +58,25 @@ public final class SubTasksHttpHandler extends BaseHttpHandler {
 
         if (path.equals("/subtasks")) {
             try {
-                this.sendText(httpExchange, this.gson.toJson(this.taskManager.getAllSubTasks()));
+                if (this.checkNotModified(httpExchange, this.getListETag())) {
+                    return;
+                }
+
+                this.sendJsonList(httpExchange, this.taskManager.getAllSubTasks());
                 return;
             } catch (Throwable ex) {
-                System.out.println(ex.getMessage());
+                this.logError(httpExchange, ex);
                 this.sendInternalServerError(httpExchange);
                 return;
             }
         }
 
         String[] pathParts = path.split("/");
+        if (pathParts.length == 4 && pathParts[3].equals("dependencies")) {
+            this.handleGetDependencies(httpExchange, pathParts[2]);
+            return;
+        }
+
         if (pathParts.length != 3) {
             this.sendNotFound(httpExchange);
             return;
@@ -61,7 +86,7 @@ public final class SubTasksHttpHandler extends BaseHttpHandler {
         try {
             subTaskId = Integer.parseInt(pathParts[2]);
         } catch (Exception ex) {
-            System.out.println(ex.getMessage());
+            this.logWarning(httpExchange, ex);
             this.sendBadRequest(httpExchange);
             return;
         }
@@ -72,11 +97,46 @@ public final class SubTasksHttpHandler extends BaseHttpHandler {
             return;
         }
 
-        this.sendText(httpExchange, this.gson.toJson(subTask.get()));
+        if (this.checkNotModified(httpExchange, this.getEntityETag(subTaskId))) {
+            return;
+        }
+
+        this.sendJson(httpExchange, subTask.get());
+    }
+
+    /**
+     * Обработать GET /subtasks/{id}/dependencies: подзадачи, окончания которых нужно дождаться.
+     *
+     * @param httpExchange HTTP-обмен.
+     * @param idPart       сегмент пути с идентификатором подзадачи.
+     */
+    private void handleGetDependencies(HttpExchange httpExchange, String idPart) throws IOException {
+        int subTaskId;
+        try {
+            subTaskId = Integer.parseInt(idPart);
+        } catch (Exception ex) {
+            this.logWarning(httpExchange, ex);
+            this.sendBadRequest(httpExchange);
+            return;
+        }
+
+        if (this.taskManager.getVersion(subTaskId) == 0) {
+            this.sendNotFound(httpExchange);
+            return;
+        }
+
+        this.sendJsonList(httpExchange, this.taskManager.getDependencies(subTaskId));
     }
 
     private void handlePost(HttpExchange httpExchange) throws IOException {
         String path = httpExchange.getRequestURI().getPath();
+
+        String[] pathParts = path.split("/");
+        if (pathParts.length == 4 && pathParts[1].equals("subtasks") && pathParts[3].equals("dependencies")) {
+            this.handlePostDependency(httpExchange, pathParts[2]);
+            return;
+        }
+
         if (!path.equals("/subtasks")) {
             this.sendNotFound(httpExchange);
             return;
@@ -107,10 +167,39 @@ public final class SubTasksHttpHandler extends BaseHttpHandler {
             }
             this.sendCreated(httpExchange);
         } catch (IllegalArgumentException | IllegalStateException ex) {
-            System.out.println(ex.getMessage());
+            this.logWarning(httpExchange, ex);
+            this.sendBadRequest(httpExchange, ex.getMessage());
+        } catch (Exception ex) {
+            this.logError(httpExchange, ex);
+            this.sendInternalServerError(httpExchange);
+        }
+    }
+
+    /**
+     * Обработать POST /subtasks/{id}/dependencies: добавить зависимость подзадачи от другой подзадачи.
+     *
+     * @param httpExchange HTTP-обмен.
+     * @param idPart       сегмент пути с идентификатором зависимой подзадачи.
+     */
+    private void handlePostDependency(HttpExchange httpExchange, String idPart) throws IOException {
+        String body = new String(httpExchange.getRequestBody().readAllBytes(), StandardCharsets.UTF_8);
+
+        try {
+            int subTaskId = Integer.parseInt(idPart);
+
+            DependencyDto dependencyDto = this.gson.fromJson(body, DependencyDto.class);
+            if (dependencyDto == null || dependencyDto.dependsOn == null) {
+                this.sendBadRequest(httpExchange, "Property 'dependsOn' can't be null");
+                return;
+            }
+
+            this.taskManager.addDependency(subTaskId, dependencyDto.dependsOn);
+            this.sendCreated(httpExchange);
+        } catch (IllegalArgumentException | IllegalStateException | JsonParseException ex) {
+            this.logWarning(httpExchange, ex);
             this.sendBadRequest(httpExchange, ex.getMessage());
         } catch (Exception ex) {
-            System.out.println(ex.getMessage());
+            this.logError(httpExchange, ex);
             this.sendInternalServerError(httpExchange);
         }
     }
@@ -123,6 +212,11 @@ public final class SubTasksHttpHandler extends BaseHttpHandler {
         }
 
         String[] pathParts = path.split("/");
+        if (pathParts.length == 5 && pathParts[3].equals("dependencies")) {
+            this.handleDeleteDependency(httpExchange, pathParts[2], pathParts[4]);
+            return;
+        }
+
         if (pathParts.length != 3) {
             this.sendNotFound(httpExchange);
             return;
@@ -132,7 +226,7 @@ public final class SubTasksHttpHandler extends BaseHttpHandler {
         try {
             subTaskId = Integer.parseInt(pathParts[2]);
         } catch (Exception ex) {
-            System.out.println(ex.getMessage());
+            this.logWarning(httpExchange, ex);
             this.sendBadRequest(httpExchange);
             return;
         }
@@ -140,7 +234,37 @@ public final class SubTasksHttpHandler extends BaseHttpHandler {
         try {
             this.taskManager.removeSubTaskById(subTaskId);
         } catch (IllegalStateException ex) {
-            System.out.println(ex.getMessage());
+            this.logWarning(httpExchange, ex);
+            this.sendNotFound(httpExchange);
+            return;
+        }
+
+        this.sendOk(httpExchange);
+    }
+
+    /**
+     * Обработать DELETE /subtasks/{id}/dependencies/{dependsOn}: удалить зависимость подзадачи.
+     *
+     * @param httpExchange    HTTP-обмен.
+     * @param idPart          сегмент пути с идентификатором зависимой подзадачи.
+     * @param dependsOnIdPart сегмент пути с идентификатором подзадачи, окончания которой нужно было дождаться.
+     */
+    private void handleDeleteDependency(HttpExchange httpExchange, String idPart, String dependsOnIdPart) throws IOException {
+        int subTaskId;
+        int dependsOnSubTaskId;
+        try {
+            subTaskId = Integer.parseInt(idPart);
+            dependsOnSubTaskId = Integer.parseInt(dependsOnIdPart);
+        } catch (Exception ex) {
+            this.logWarning(httpExchange, ex);
+            this.sendBadRequest(httpExchange);
+            return;
+        }
+
+        try {
+            this.taskManager.removeDependency(subTaskId, dependsOnSubTaskId);
+        } catch (IllegalStateException ex) {
+            this.logWarning(httpExchange, ex);
             this.sendNotFound(httpExchange);
             return;
         }
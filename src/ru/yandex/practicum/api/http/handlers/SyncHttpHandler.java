@@ -0,0 +1,62 @@
+package ru.yandex.practicum.api.http.handlers;
+
+// region imports
+
+import com.sun.net.httpserver.HttpExchange;
+import ru.yandex.practicum.abstractions.TaskManager;
+import ru.yandex.practicum.api.dto.SyncDto;
+import ru.yandex.practicum.constants.HttpMethod;
+import ru.yandex.practicum.models.ChangeSet;
+
+import java.io.IOException;
+
+// endregion
+
+/**
+ * Обработчик разностной синхронизации: {@code GET /sync?since=<версия>} возвращает задачи, подзадачи и эпики,
+ * изменённые после указанной версии, и отметки об удалении. Если изменения уже вытеснены из журнала, в ответе
+ * выставляется {@code fullResync} - клиенту нужно заново загрузить все списки.
+ */
+public final class SyncHttpHandler extends BaseHttpHandler {
+    public SyncHttpHandler() {
+        super();
+    }
+
+    /**
+     * Конструктор обработчика, работающего с заданным менеджером задач.
+     *
+     * @param taskManager менеджер задач.
+     */
+    public SyncHttpHandler(TaskManager taskManager) {
+        super(taskManager);
+    }
+
+    @Override
+    public void handle(HttpExchange httpExchange) throws IOException {
+        if (!httpExchange.getRequestMethod().equals(HttpMethod.GET) || !httpExchange.getRequestURI().getPath().equals("/sync")) {
+            this.sendNotFound(httpExchange);
+            return;
+        }
+
+        long since;
+        try {
+            since = Long.parseLong(getQueryParameter(httpExchange, "since"));
+        } catch (Exception ex) {
+            this.logWarning(httpExchange, ex);
+            this.sendBadRequest(httpExchange, "Query parameter 'since' should be a number");
+            return;
+        }
+
+        ChangeSet changeSet = this.taskManager.getChangesSince(since);
+
+        SyncDto syncDto = new SyncDto();
+        syncDto.version = changeSet.getVersion();
+        syncDto.fullResync = changeSet.isFullResyncRequired();
+        syncDto.tasks = changeSet.getTasks();
+        syncDto.subtasks = changeSet.getSubTasks();
+        syncDto.epics = changeSet.getEpics();
+        syncDto.removed = changeSet.getRemoved();
+
+        this.sendJson(httpExchange, syncDto);
+    }
+}
@@ -3,6 +3,7 @@ package ru.yandex.practicum.api.http.handlers;
 // region imports
 
 import com.sun.net.httpserver.HttpExchange;
+import ru.yandex.practicum.abstractions.TaskManager;
 import ru.yandex.practicum.api.dto.TaskDto;
 import ru.yandex.practicum.constants.HttpMethod;
 import ru.yandex.practicum.models.Task;
@@ -13,7 +14,31 @@ import java.util.Optional;
 
 // endregion
 
+/**
+ * Обработчик задач.
+ * <p>
+ * POST /tasks?placement=earliest создаёт задачу в самом раннем свободном промежутке, который начинается не раньше
+ * указанного времени начала и вмещает её продолжительность, и возвращает созданную задачу.
+ */
 public final class TasksHttpHandler extends BaseHttpHandler {
+    /**
+     * Размещение задачи в самом раннем свободном промежутке.
+     */
+    private static final String EARLIEST_PLACEMENT = "earliest";
+
+    public TasksHttpHandler() {
+        super();
+    }
+
+    /**
+     * Конструктор обработчика, работающего с заданным менеджером задач.
+     *
+     * @param taskManager менеджер задач.
+     */
+    public TasksHttpHandler(TaskManager taskManager) {
+        super(taskManager);
+    }
+
     @Override
     public void handle(HttpExchange httpExchange) throws IOException {
         switch (httpExchange.getRequestMethod()) {
@@ -40,7 +65,11 @@ public final class TasksHttpHandler extends BaseHttpHandler {
         }
 
         if (path.equals("/tasks")) {
-            this.sendText(httpExchange, this.gson.toJson(this.taskManager.getAllTasks()));
+            if (this.checkNotModified(httpExchange, this.getListETag())) {
+                return;
+            }
+
+            this.sendJsonList(httpExchange, this.taskManager.getAllTasks());
             return;
         }
 
@@ -54,7 +83,7 @@ public final class TasksHttpHandler extends BaseHttpHandler {
         try {
             taskId = Integer.parseInt(pathParts[2]);
         } catch (Exception ex) {
-            System.out.println(ex.getMessage());
+            this.logWarning(httpExchange, ex);
             this.sendBadRequest(httpExchange);
             return;
         }
@@ -65,7 +94,11 @@ public final class TasksHttpHandler extends BaseHttpHandler {
             return;
         }
 
-        this.sendText(httpExchange, this.gson.toJson(task.get()));
+        if (this.checkNotModified(httpExchange, this.getEntityETag(taskId))) {
+            return;
+        }
+
+        this.sendJson(httpExchange, task.get());
     }
 
     private void handlePost(HttpExchange httpExchange) throws IOException {
@@ -75,10 +108,27 @@ public final class TasksHttpHandler extends BaseHttpHandler {
             return;
         }
 
+        String placement = getQueryParameter(httpExchange, "placement");
+        if (placement != null && !placement.equals(EARLIEST_PLACEMENT)) {
+            this.sendBadRequest(httpExchange, "Неизвестный способ размещения: " + placement);
+            return;
+        }
+
         String body = new String(httpExchange.getRequestBody().readAllBytes(), StandardCharsets.UTF_8);
 
         try {
             TaskDto taskDto = this.gson.fromJson(body, TaskDto.class);
+            if (placement != null) {
+                if (taskDto.id != null) {
+                    this.sendBadRequest(httpExchange, "Размещение в свободном промежутке возможно только при создании задачи");
+                    return;
+                }
+
+                // Клиенту возвращается созданная задача: время начала могло сдвинуться.
+                this.sendCreated(httpExchange, this.taskManager.createTaskInEarliestSlot(new Task(taskDto.name, taskDto.description, taskDto.startTime, taskDto.duration)));
+                return;
+            }
+
             if (taskDto.id == null) {
                 this.taskManager.createTask(new Task(taskDto.name, taskDto.description, taskDto.startTime, taskDto.duration));
             } else {
@@ -86,10 +136,10 @@ public final class TasksHttpHandler extends BaseHttpHandler {
             }
             this.sendCreated(httpExchange);
         } catch (IllegalArgumentException | IllegalStateException ex) {
-            System.out.println(ex.getMessage());
+            this.logWarning(httpExchange, ex);
             this.sendBadRequest(httpExchange, ex.getMessage());
         } catch (Exception ex) {
-            System.out.println(ex.getMessage());
+            this.logError(httpExchange, ex);
             this.sendInternalServerError(httpExchange);
         }
     }
@@ -111,7 +161,7 @@ public final class TasksHttpHandler extends BaseHttpHandler {
         try {
             taskId = Integer.parseInt(pathParts[2]);
         } catch (Exception ex) {
-            System.out.println(ex.getMessage());
+            this.logWarning(httpExchange, ex);
             this.sendBadRequest(httpExchange);
             return;
         }
@@ -119,7 +169,7 @@ public final class TasksHttpHandler extends BaseHttpHandler {
         try {
             this.taskManager.removeTaskById(taskId);
         } catch (IllegalStateException ex) {
-            System.out.println(ex.getMessage());
+            this.logWarning(httpExchange, ex);
             this.sendNotFound(httpExchange);
             return;
         }
@@ -0,0 +1,384 @@
+package ru.yandex.practicum.api.http.nio;
+
+// region imports
+
+import ru.yandex.practicum.utils.logging.AsyncLogger;
+import ru.yandex.practicum.utils.logging.Logging;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.SocketChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayDeque;
+
+// endregion
+
+/**
+ * Соединение неблокирующего сервера.
+ * <p>
+ * Чтение и запись в канал выполняет поток селектора. Обработчики запросов работают в других потоках и только ставят
+ * буферы ответа в очередь соединения; буферы отправляются собирающей записью (gathering write) без копирования в
+ * общий массив. Поток обработчика никогда не ждёт клиента: если клиент не успевает читать и в очереди накапливается
+ * слишком много данных или ответа ждёт слишком много запросов, соединение перестаёт читать и передавать обработчику
+ * следующие запросы, пока очередь не освободится. Соединение, которое простаивает или не принимает данные дольше {@link #TIMEOUT_NANOS},
+ * закрывается.
+ */
+final class NioConnection {
+    /**
+     * Журнал диагностики.
+     */
+    private static final AsyncLogger log = Logging.getLog();
+
+    /**
+     * Размер буфера чтения.
+     */
+    private static final int READ_BUFFER_SIZE = 16 * 1024;
+
+    /**
+     * Максимальный объём неотправленных данных, после которого чтение следующих запросов приостанавливается.
+     */
+    private static final long MAX_PENDING_BYTES = 4L * 1024 * 1024;
+
+    /**
+     * Максимальное количество запросов соединения, переданных обработчику и ещё не получивших ответ. Ответы на них
+     * ставятся в очередь, поэтому ограничение не даёт одному клиенту заполнить память, отправив много запросов сразу.
+     */
+    private static final int MAX_IN_FLIGHT = 16;
+
+    /**
+     * Время, после которого закрывается соединение без запросов в обработке или с очередью, из которой клиент
+     * ничего не читает, нс.
+     */
+    static final long TIMEOUT_NANOS = 30_000_000_000L;
+
+    /**
+     * Максимальное количество буферов в одной собирающей записи.
+     */
+    private static final int MAX_GATHER = 64;
+
+    /**
+     * Сервер.
+     */
+    private final NioHttpServer server;
+
+    /**
+     * Канал соединения.
+     */
+    private final SocketChannel channel;
+
+    /**
+     * Ключ регистрации канала в селекторе.
+     */
+    private final SelectionKey key;
+
+    /**
+     * Буфер чтения.
+     */
+    private final ByteBuffer readBuffer;
+
+    /**
+     * Разбор запросов.
+     */
+    private final RequestParser parser;
+
+    /**
+     * Очередь буферов на отправку.
+     */
+    private final ArrayDeque<ByteBuffer> outbound;
+
+    /**
+     * Объём неотправленных данных.
+     */
+    private long pendingBytes;
+
+    /**
+     * Количество запросов, переданных обработчикам и ещё не получивших ответ полностью.
+     */
+    private int inFlight;
+
+    /**
+     * Время последнего чтения или записи, нс.
+     */
+    private long lastActivityNanos;
+
+    /**
+     * Признак того, что чтение и передача запросов приостановлены до отправки очереди.
+     */
+    private boolean paused;
+
+    /**
+     * Признак того, что клиент закрыл свою сторону соединения.
+     */
+    private boolean inputClosed;
+
+    /**
+     * Признак того, что соединение нужно закрыть после отправки очереди.
+     */
+    private boolean closeAfterFlush;
+
+    /**
+     * Признак того, что соединение закрыто.
+     */
+    private boolean closed;
+
+    /**
+     * Конструктор.
+     *
+     * @param server  сервер.
+     * @param channel канал соединения.
+     * @param key     ключ регистрации канала в селекторе.
+     */
+    NioConnection(NioHttpServer server, SocketChannel channel, SelectionKey key) {
+        this.server = server;
+        this.channel = channel;
+        this.key = key;
+        this.readBuffer = ByteBuffer.allocate(READ_BUFFER_SIZE);
+        this.parser = new RequestParser();
+        this.outbound = new ArrayDeque<>();
+        this.lastActivityNanos = System.nanoTime();
+    }
+
+    /**
+     * Получить канал соединения.
+     *
+     * @return канал соединения.
+     */
+    SocketChannel getChannel() {
+        return this.channel;
+    }
+
+    /**
+     * Прочитать доступные данные и передать серверу все полностью полученные запросы. Вызывается потоком селектора.
+     */
+    void onReadable() {
+        int read;
+        try {
+            read = this.channel.read(this.readBuffer);
+        } catch (IOException ex) {
+            this.close();
+            return;
+        }
+
+        if (read < 0) {
+            synchronized (this) {
+                this.inputClosed = true;
+                this.closeAfterFlush = this.inFlight == 0;
+            }
+
+            this.flush();
+            return;
+        }
+
+        synchronized (this) {
+            this.lastActivityNanos = System.nanoTime();
+        }
+
+        this.dispatchRequests();
+    }
+
+    /**
+     * Передать серверу полностью полученные запросы из буфера чтения, пока соединение не перегружено.
+     * Необработанный остаток буфера сохраняется до возобновления. Вызывается потоком селектора.
+     */
+    private void dispatchRequests() {
+        this.readBuffer.flip();
+        try {
+            NioRequest request;
+            while (!this.isSaturated() && (request = this.parser.parse(this.readBuffer)) != null) {
+                this.startRequest();
+                this.server.dispatch(this, request);
+            }
+        } catch (RequestParser.ParseException ex) {
+            synchronized (this) {
+                this.inputClosed = true;
+            }
+
+            this.readBuffer.clear();
+            this.key.interestOps(this.key.interestOps() & ~SelectionKey.OP_READ);
+            this.startRequest();
+            this.server.dispatchError(this, ex.getStatusCode(), ex.getMessage());
+            return;
+        }
+
+        this.readBuffer.compact();
+
+        if (this.isSaturated()) {
+            synchronized (this) {
+                this.paused = true;
+            }
+
+            this.updateInterest();
+        }
+    }
+
+    /**
+     * Проверить, перегружено ли соединение: очередь на отправку переполнена или ответа ждёт слишком много запросов.
+     *
+     * @return признак перегрузки.
+     */
+    private synchronized boolean isSaturated() {
+        return this.pendingBytes > MAX_PENDING_BYTES || this.inFlight >= MAX_IN_FLIGHT;
+    }
+
+    /**
+     * Проверить, нужно ли закрыть соединение по времени: оно простаивает без запросов или клиент не читает ответ.
+     * Запрос, который ещё обрабатывается и ничего не отправляет, соединение не закрывает.
+     *
+     * @param nowNanos текущее время, нс.
+     * @return признак истечения времени.
+     */
+    synchronized boolean isExpired(long nowNanos) {
+        if (this.closed || nowNanos - this.lastActivityNanos < TIMEOUT_NANOS) {
+            return false;
+        }
+
+        return !this.outbound.isEmpty() || this.inFlight == 0;
+    }
+
+    /**
+     * Зафиксировать начало обработки запроса.
+     */
+    private synchronized void startRequest() {
+        this.inFlight++;
+    }
+
+    /**
+     * Поставить буферы в очередь на отправку.
+     *
+     * @param buffers буферы.
+     */
+    synchronized void enqueue(ByteBuffer... buffers) throws IOException {
+        if (this.outbound.isEmpty()) {
+            // Время ожидания клиента отсчитывается от появления данных в очереди.
+            this.lastActivityNanos = System.nanoTime();
+        }
+
+        if (this.closed || this.closeAfterFlush) {
+            throw new IOException("Соединение закрыто");
+        }
+
+        for (ByteBuffer buffer : buffers) {
+            this.outbound.add(buffer);
+            this.pendingBytes += buffer.remaining();
+        }
+
+        this.server.requestFlush(this);
+    }
+
+    /**
+     * Поставить строку ASCII в очередь на отправку.
+     *
+     * @param text строка.
+     */
+    void enqueue(String text) throws IOException {
+        this.enqueue(ByteBuffer.wrap(text.getBytes(StandardCharsets.ISO_8859_1)));
+    }
+
+    /**
+     * Завершить ответ.
+     *
+     * @param close признак того, что соединение нужно закрыть после отправки ответа.
+     */
+    synchronized void finish(boolean close) {
+        this.inFlight--;
+
+        if (close || (this.inputClosed && this.inFlight == 0)) {
+            this.closeAfterFlush = true;
+        }
+
+        this.server.requestFlush(this);
+    }
+
+    /**
+     * Отправить очередь, насколько позволяет канал, и возобновить чтение запросов, если соединение больше
+     * не перегружено. Вызывается потоком селектора.
+     */
+    void flush() {
+        boolean resume;
+        synchronized (this) {
+            resume = this.send() && this.paused && !this.isSaturated();
+            if (resume) {
+                this.paused = false;
+            }
+        }
+
+        if (resume) {
+            this.dispatchRequests();
+            this.updateInterest();
+        }
+    }
+
+    /**
+     * Отправить очередь, насколько позволяет канал.
+     *
+     * @return признак того, что соединение осталось открытым.
+     */
+    private synchronized boolean send() {
+        if (this.closed) {
+            return false;
+        }
+
+        try {
+            while (!this.outbound.isEmpty()) {
+                ByteBuffer[] buffers = this.outbound.stream().limit(MAX_GATHER).toArray(ByteBuffer[]::new);
+                long written = this.channel.write(buffers);
+                this.pendingBytes -= written;
+                if (written > 0) {
+                    this.lastActivityNanos = System.nanoTime();
+                }
+
+                while (!this.outbound.isEmpty() && !this.outbound.peek().hasRemaining()) {
+                    this.outbound.poll();
+                }
+
+                if (written == 0) {
+                    break;
+                }
+            }
+        } catch (IOException ex) {
+            this.close();
+            return false;
+        }
+
+        if (this.outbound.isEmpty() && this.closeAfterFlush) {
+            this.close();
+            return false;
+        }
+
+        this.updateInterest();
+        return true;
+    }
+
+    /**
+     * Обновить события, которых соединение ждёт от селектора.
+     */
+    private synchronized void updateInterest() {
+        if (this.closed) {
+            return;
+        }
+
+        int readOps = this.closeAfterFlush || this.inputClosed || this.paused ? 0 : SelectionKey.OP_READ;
+        this.key.interestOps(this.outbound.isEmpty() ? readOps : readOps | SelectionKey.OP_WRITE);
+    }
+
+    /**
+     * Закрыть соединение.
+     */
+    synchronized void close() {
+        if (this.closed) {
+            return;
+        }
+
+        this.closed = true;
+        this.outbound.clear();
+        this.pendingBytes = 0;
+        this.key.cancel();
+
+        try {
+            this.channel.close();
+        } catch (IOException ex) {
+            log.warn(ex.getMessage(), "operation", "close");
+        }
+    }
+}
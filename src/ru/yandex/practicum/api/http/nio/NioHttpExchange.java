@@ -0,0 +1,339 @@
+package ru.yandex.practicum.api.http.nio;
+
+// region imports
+
+import com.sun.net.httpserver.Headers;
+import com.sun.net.httpserver.HttpContext;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpPrincipal;
+import ru.yandex.practicum.utils.logging.AsyncLogger;
+import ru.yandex.practicum.utils.logging.Logging;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+// endregion
+
+/**
+ * HTTP-обмен неблокирующего сервера в виде {@link HttpExchange}, чтобы существующие обработчики работали без изменений.
+ */
+final class NioHttpExchange extends HttpExchange {
+    /**
+     * Журнал диагностики.
+     */
+    private static final AsyncLogger log = Logging.getLog();
+
+    /**
+     * Поясняющие фразы статусов ответа.
+     */
+    private static final Map<Integer, String> REASON_PHRASES = Map.ofEntries(
+            Map.entry(200, "OK"),
+            Map.entry(201, "Created"),
+            Map.entry(304, "Not Modified"),
+            Map.entry(400, "Bad Request"),
+            Map.entry(404, "Not Found"),
+            Map.entry(411, "Length Required"),
+            Map.entry(413, "Content Too Large"),
+            Map.entry(431, "Request Header Fields Too Large"),
+            Map.entry(500, "Internal Server Error"),
+            Map.entry(501, "Not Implemented"),
+            Map.entry(503, "Service Unavailable")
+    );
+
+    /**
+     * Соединение.
+     */
+    private final NioConnection connection;
+
+    /**
+     * Запрос.
+     */
+    private final NioRequest request;
+
+    /**
+     * Заголовки ответа.
+     */
+    private final Headers responseHeaders;
+
+    /**
+     * Атрибуты обмена.
+     */
+    private final Map<String, Object> attributes;
+
+    /**
+     * Признак того, что соединение нужно закрыть после ответа.
+     */
+    private final boolean closeConnection;
+
+    /**
+     * Поток тела запроса.
+     */
+    private InputStream requestBody;
+
+    /**
+     * Поток тела ответа (null, пока заголовки ответа не отправлены).
+     */
+    private NioResponseOutputStream responseBody;
+
+    /**
+     * Поток тела ответа, возвращаемый обработчикам (может быть заменён фильтром через setStreams).
+     */
+    private OutputStream responseBodyView;
+
+    /**
+     * HTTP-код ответа (-1, пока заголовки ответа не отправлены).
+     */
+    private int responseCode;
+
+    /**
+     * Признак того, что обмен завершён без ответа.
+     */
+    private boolean abandoned;
+
+    /**
+     * Конструктор.
+     *
+     * @param connection      соединение.
+     * @param request         запрос.
+     * @param closeConnection признак того, что соединение нужно закрыть после ответа.
+     */
+    NioHttpExchange(NioConnection connection, NioRequest request, boolean closeConnection) {
+        this.connection = connection;
+        this.request = request;
+        this.closeConnection = closeConnection;
+        this.responseHeaders = new Headers();
+        this.attributes = new HashMap<>();
+        this.requestBody = new ByteArrayInputStream(request.getBody());
+        this.responseCode = -1;
+        this.responseBodyView = new ResponseBodyView();
+    }
+
+    /**
+     * Проверить, отправлены ли заголовки ответа.
+     *
+     * @return признак отправки заголовков.
+     */
+    boolean isResponseStarted() {
+        return this.responseCode != -1;
+    }
+
+    /**
+     * Получить поток тела ответа после отправки заголовков.
+     *
+     * @return поток тела ответа.
+     */
+    private NioResponseOutputStream getStartedResponseBody() throws IOException {
+        if (this.responseBody == null) {
+            throw new IOException("Заголовки ответа ещё не отправлены");
+        }
+
+        return this.responseBody;
+    }
+
+    // region Overrides of HttpExchange
+
+    @Override
+    public Headers getRequestHeaders() {
+        return this.request.getHeaders();
+    }
+
+    @Override
+    public Headers getResponseHeaders() {
+        return this.responseHeaders;
+    }
+
+    @Override
+    public URI getRequestURI() {
+        return this.request.getUri();
+    }
+
+    @Override
+    public String getRequestMethod() {
+        return this.request.getMethod();
+    }
+
+    @Override
+    public HttpContext getHttpContext() {
+        return null;
+    }
+
+    /**
+     * Закрыть обмен. Как и в HttpServer, закрывается поток тела ответа, возвращаемый обработчикам, чтобы фильтры,
+     * установленные через setStreams, узнали о завершении ответа.
+     */
+    @Override
+    public void close() {
+        try {
+            this.responseBodyView.close();
+        } catch (IOException ex) {
+            log.warn(ex.getMessage(), "method", this.request.getMethod(), "path", this.request.getUri().getPath());
+        } finally {
+            this.closeResponse();
+        }
+    }
+
+    /**
+     * Завершить ответ: дописать тело ответа или, если заголовки не отправлены, закрыть соединение.
+     */
+    private void closeResponse() {
+        try {
+            if (this.responseBody != null) {
+                this.responseBody.close();
+            } else if (!this.abandoned) {
+                // Обработчик завершил обмен, не отправив ответ: продолжать работу с соединением нельзя.
+                this.abandoned = true;
+                this.connection.finish(true);
+            }
+        } catch (IOException ex) {
+            log.warn(ex.getMessage(), "method", this.request.getMethod(), "path", this.request.getUri().getPath());
+        }
+    }
+
+    @Override
+    public InputStream getRequestBody() {
+        return this.requestBody;
+    }
+
+    /**
+     * Получить поток тела ответа. Как и в HttpServer, поток можно получить до отправки заголовков, но писать в него
+     * можно только после.
+     *
+     * @return поток тела ответа.
+     */
+    @Override
+    public OutputStream getResponseBody() {
+        return this.responseBodyView;
+    }
+
+    @Override
+    public void sendResponseHeaders(int responseCode, long responseLength) throws IOException {
+        if (this.responseCode != -1) {
+            throw new IOException("Заголовки ответа уже отправлены");
+        }
+
+        this.responseCode = responseCode;
+
+        boolean chunked = responseLength == 0;
+        long contentLength = Math.max(responseLength, 0);
+
+        if (chunked) {
+            this.responseHeaders.set("Transfer-Encoding", "chunked");
+        } else {
+            this.responseHeaders.set("Content-Length", Long.toString(contentLength));
+        }
+
+        if (this.closeConnection) {
+            this.responseHeaders.set("Connection", "close");
+        }
+
+        StringBuilder head = new StringBuilder(256)
+                .append("HTTP/1.1 ")
+                .append(responseCode)
+                .append(' ')
+                .append(REASON_PHRASES.getOrDefault(responseCode, "Unknown"))
+                .append("\r\n");
+
+        for (Map.Entry<String, List<String>> header : this.responseHeaders.entrySet()) {
+            for (String value : header.getValue()) {
+                head.append(header.getKey()).append(": ").append(value).append("\r\n");
+            }
+        }
+
+        head.append("\r\n");
+
+        this.connection.enqueue(head.toString());
+        this.responseBody = new NioResponseOutputStream(this.connection, chunked, contentLength, this.closeConnection);
+    }
+
+    @Override
+    public InetSocketAddress getRemoteAddress() {
+        try {
+            return (InetSocketAddress) this.connection.getChannel().getRemoteAddress();
+        } catch (IOException ex) {
+            return null;
+        }
+    }
+
+    @Override
+    public int getResponseCode() {
+        return this.responseCode;
+    }
+
+    @Override
+    public InetSocketAddress getLocalAddress() {
+        try {
+            return (InetSocketAddress) this.connection.getChannel().getLocalAddress();
+        } catch (IOException ex) {
+            return null;
+        }
+    }
+
+    @Override
+    public String getProtocol() {
+        return this.request.getProtocol();
+    }
+
+    @Override
+    public Object getAttribute(String name) {
+        return this.attributes.get(name);
+    }
+
+    @Override
+    public void setAttribute(String name, Object value) {
+        this.attributes.put(name, value);
+    }
+
+    @Override
+    public void setStreams(InputStream requestBody, OutputStream responseBody) {
+        if (requestBody != null) {
+            this.requestBody = requestBody;
+        }
+
+        if (responseBody != null) {
+            this.responseBodyView = responseBody;
+        }
+    }
+
+    @Override
+    public HttpPrincipal getPrincipal() {
+        return null;
+    }
+
+    // endregion
+
+    // region Nested Types
+
+    /**
+     * Поток тела ответа, доступный до отправки заголовков и пишущий в поток ответа после их отправки.
+     */
+    private final class ResponseBodyView extends OutputStream {
+        @Override
+        public void write(int b) throws IOException {
+            NioHttpExchange.this.getStartedResponseBody().write(b);
+        }
+
+        @Override
+        public void write(byte[] bytes, int offset, int length) throws IOException {
+            NioHttpExchange.this.getStartedResponseBody().write(bytes, offset, length);
+        }
+
+        @Override
+        public void flush() throws IOException {
+            NioHttpExchange.this.getStartedResponseBody().flush();
+        }
+
+        @Override
+        public void close() {
+            NioHttpExchange.this.closeResponse();
+        }
+    }
+
+    // endregion
+}
@@ -0,0 +1,325 @@
+package ru.yandex.practicum.api.http.nio;
+
+// region imports
+
+import com.sun.net.httpserver.Headers;
+import com.sun.net.httpserver.HttpHandler;
+import ru.yandex.practicum.api.http.Router;
+import ru.yandex.practicum.utils.logging.AsyncLogger;
+import ru.yandex.practicum.utils.logging.Logging;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.StandardSocketOptions;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.Iterator;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+// endregion
+
+/**
+ * Неблокирующий HTTP/1.1 сервер на каналах и селекторе java.nio - альтернатива com.sun.net.httpserver.HttpServer.
+ * <p>
+ * Один поток селектора принимает соединения, читает и разбирает запросы и отправляет ответы. Соединения сохраняются
+ * между запросами (keep-alive), а несколько запросов, отправленных клиентом без ожидания ответов, обрабатываются по
+ * очереди, и ответы на них отправляются в том же порядке. Обработчики из {@link Router} выполняются в одном рабочем
+ * потоке - так же, как в HttpServer без исполнителя, поэтому менеджер задач по-прежнему используется из одного потока.
+ */
+public final class NioHttpServer {
+    /**
+     * Журнал диагностики.
+     */
+    private static final AsyncLogger log = Logging.getLog();
+
+    /**
+     * Период проверки соединений, время которых истекло, мс.
+     */
+    private static final long EXPIRY_CHECK_MILLIS = 1_000;
+
+    /**
+     * Таблица маршрутов.
+     */
+    private final Router router;
+
+    /**
+     * Канал, принимающий соединения.
+     */
+    private final ServerSocketChannel serverChannel;
+
+    /**
+     * Селектор.
+     */
+    private final Selector selector;
+
+    /**
+     * Рабочий поток обработчиков.
+     */
+    private final ExecutorService worker;
+
+    /**
+     * Соединения, у которых в очереди появились данные для отправки.
+     */
+    private final ConcurrentLinkedQueue<NioConnection> pendingFlushes;
+
+    /**
+     * Поток селектора.
+     */
+    private final Thread selectorThread;
+
+    /**
+     * Признак работы сервера.
+     */
+    private volatile boolean running;
+
+    /**
+     * Конструктор.
+     *
+     * @param serverChannel канал, принимающий соединения.
+     * @param selector      селектор.
+     * @param router        таблица маршрутов.
+     */
+    private NioHttpServer(ServerSocketChannel serverChannel, Selector selector, Router router) {
+        this.serverChannel = serverChannel;
+        this.selector = selector;
+        this.router = router;
+        this.pendingFlushes = new ConcurrentLinkedQueue<>();
+        this.worker = Executors.newSingleThreadExecutor(runnable -> new Thread(runnable, "nio-http-worker"));
+        this.selectorThread = new Thread(this::run, "nio-http-selector");
+    }
+
+    /**
+     * Создать сервер.
+     *
+     * @param address адрес, на котором сервер принимает соединения.
+     * @param router  таблица маршрутов.
+     * @return сервер (не запущенный).
+     */
+    public static NioHttpServer create(InetSocketAddress address, Router router) throws IOException {
+        if (address == null) {
+            throw new IllegalArgumentException("Parameter 'address' can't be null");
+        }
+
+        if (router == null) {
+            throw new IllegalArgumentException("Parameter 'router' can't be null");
+        }
+
+        Selector selector = Selector.open();
+        ServerSocketChannel serverChannel = ServerSocketChannel.open();
+        serverChannel.bind(address);
+        serverChannel.configureBlocking(false);
+        serverChannel.register(selector, SelectionKey.OP_ACCEPT);
+
+        return new NioHttpServer(serverChannel, selector, router);
+    }
+
+    /**
+     * Запустить сервер.
+     */
+    public void start() {
+        this.running = true;
+        this.selectorThread.start();
+    }
+
+    /**
+     * Остановить сервер и закрыть все соединения.
+     */
+    public void stop() {
+        this.running = false;
+        this.selector.wakeup();
+
+        try {
+            this.selectorThread.join();
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        }
+
+        this.worker.shutdownNow();
+    }
+
+    /**
+     * Получить адрес, на котором сервер принимает соединения.
+     *
+     * @return адрес.
+     */
+    public InetSocketAddress getAddress() {
+        try {
+            return (InetSocketAddress) this.serverChannel.getLocalAddress();
+        } catch (IOException ex) {
+            throw new IllegalStateException("Сервер остановлен", ex);
+        }
+    }
+
+    /**
+     * Попросить поток селектора отправить очередь соединения.
+     *
+     * @param connection соединение.
+     */
+    void requestFlush(NioConnection connection) {
+        this.pendingFlushes.add(connection);
+        this.selector.wakeup();
+    }
+
+    /**
+     * Передать запрос обработчику в рабочем потоке.
+     *
+     * @param connection соединение.
+     * @param request    запрос.
+     */
+    void dispatch(NioConnection connection, NioRequest request) {
+        this.worker.execute(() -> {
+            NioHttpExchange httpExchange = new NioHttpExchange(connection, request, !request.isKeepAlive());
+            HttpHandler handler = this.router.find(request.getUri().getPath());
+
+            try {
+                if (handler == null) {
+                    httpExchange.sendResponseHeaders(404, -1);
+                    httpExchange.close();
+                    return;
+                }
+
+                handler.handle(httpExchange);
+            } catch (Exception ex) {
+                log.error("Ошибка обработки запроса", ex, "method", request.getMethod(), "path", request.getUri().getPath());
+
+                if (httpExchange.isResponseStarted()) {
+                    connection.close();
+                    return;
+                }
+
+                try {
+                    httpExchange.sendResponseHeaders(500, -1);
+                    httpExchange.close();
+                } catch (IOException e) {
+                    connection.close();
+                }
+            }
+        });
+    }
+
+    /**
+     * Отправить ответ об ошибке разбора запроса и закрыть соединение.
+     *
+     * @param connection соединение.
+     * @param statusCode HTTP-код ответа.
+     * @param message    текст ошибки.
+     */
+    void dispatchError(NioConnection connection, int statusCode, String message) {
+        NioRequest request = new NioRequest("GET", null, "HTTP/1.1", new Headers(), new byte[0]);
+
+        this.worker.execute(() -> {
+            NioHttpExchange httpExchange = new NioHttpExchange(connection, request, true);
+            byte[] body = message.getBytes(StandardCharsets.UTF_8);
+
+            try {
+                httpExchange.getResponseHeaders().add("Content-Type", "text/plain;charset=utf-8");
+                httpExchange.sendResponseHeaders(statusCode, body.length);
+                httpExchange.getResponseBody().write(body);
+                httpExchange.close();
+            } catch (IOException ex) {
+                connection.close();
+            }
+        });
+    }
+
+    /**
+     * Цикл потока селектора.
+     */
+    private void run() {
+        long nextExpiryCheck = System.nanoTime();
+
+        while (this.running) {
+            try {
+                this.selector.select(EXPIRY_CHECK_MILLIS);
+            } catch (IOException ex) {
+                log.warn(ex.getMessage());
+                break;
+            }
+
+            NioConnection pending;
+            while ((pending = this.pendingFlushes.poll()) != null) {
+                pending.flush();
+            }
+
+            Iterator<SelectionKey> keys = this.selector.selectedKeys().iterator();
+            while (keys.hasNext()) {
+                SelectionKey key = keys.next();
+                keys.remove();
+
+                if (!key.isValid()) {
+                    continue;
+                }
+
+                if (key.isAcceptable()) {
+                    this.accept();
+                    continue;
+                }
+
+                NioConnection connection = (NioConnection) key.attachment();
+                if (key.isReadable()) {
+                    connection.onReadable();
+                }
+
+                if (key.isValid() && key.isWritable()) {
+                    connection.flush();
+                }
+            }
+
+            long now = System.nanoTime();
+            if (now - nextExpiryCheck >= 0) {
+                this.closeExpired(now);
+                nextExpiryCheck = now + EXPIRY_CHECK_MILLIS * 1_000_000;
+            }
+        }
+
+        for (SelectionKey key : this.selector.keys()) {
+            if (key.attachment() instanceof NioConnection connection) {
+                connection.close();
+            }
+        }
+
+        try {
+            this.serverChannel.close();
+            this.selector.close();
+        } catch (IOException ex) {
+            log.warn(ex.getMessage());
+        }
+    }
+
+    /**
+     * Закрыть соединения, которые простаивают или не принимают ответ дольше допустимого.
+     *
+     * @param nowNanos текущее время, нс.
+     */
+    private void closeExpired(long nowNanos) {
+        for (SelectionKey key : this.selector.keys()) {
+            if (key.attachment() instanceof NioConnection connection && connection.isExpired(nowNanos)) {
+                log.warn("Соединение закрыто по времени", "remote", connection.getChannel().socket().getRemoteSocketAddress());
+                connection.close();
+            }
+        }
+    }
+
+    /**
+     * Принять новые соединения.
+     */
+    private void accept() {
+        try {
+            SocketChannel channel;
+            while ((channel = this.serverChannel.accept()) != null) {
+                channel.configureBlocking(false);
+                channel.setOption(StandardSocketOptions.TCP_NODELAY, true);
+
+                SelectionKey key = channel.register(this.selector, SelectionKey.OP_READ);
+                key.attach(new NioConnection(this, channel, key));
+            }
+        } catch (IOException ex) {
+            log.warn(ex.getMessage());
+        }
+    }
+}
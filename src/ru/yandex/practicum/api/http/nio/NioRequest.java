@@ -0,0 +1,116 @@
+package ru.yandex.practicum.api.http.nio;
+
+// region imports
+
+import com.sun.net.httpserver.Headers;
+
+import java.net.URI;
+
+// endregion
+
+/**
+ * Разобранный HTTP-запрос неблокирующего сервера.
+ */
+final class NioRequest {
+    /**
+     * HTTP-метод.
+     */
+    private final String method;
+
+    /**
+     * URI запроса.
+     */
+    private final URI uri;
+
+    /**
+     * Версия протокола (например, HTTP/1.1).
+     */
+    private final String protocol;
+
+    /**
+     * Заголовки запроса.
+     */
+    private final Headers headers;
+
+    /**
+     * Тело запроса.
+     */
+    private final byte[] body;
+
+    /**
+     * Конструктор.
+     *
+     * @param method   HTTP-метод.
+     * @param uri      URI запроса.
+     * @param protocol версия протокола.
+     * @param headers  заголовки запроса.
+     * @param body     тело запроса.
+     */
+    NioRequest(String method, URI uri, String protocol, Headers headers, byte[] body) {
+        this.method = method;
+        this.uri = uri;
+        this.protocol = protocol;
+        this.headers = headers;
+        this.body = body;
+    }
+
+    /**
+     * Получить HTTP-метод.
+     *
+     * @return HTTP-метод.
+     */
+    String getMethod() {
+        return this.method;
+    }
+
+    /**
+     * Получить URI запроса.
+     *
+     * @return URI запроса.
+     */
+    URI getUri() {
+        return this.uri;
+    }
+
+    /**
+     * Получить версию протокола.
+     *
+     * @return версия протокола.
+     */
+    String getProtocol() {
+        return this.protocol;
+    }
+
+    /**
+     * Получить заголовки запроса.
+     *
+     * @return заголовки запроса.
+     */
+    Headers getHeaders() {
+        return this.headers;
+    }
+
+    /**
+     * Получить тело запроса.
+     *
+     * @return тело запроса.
+     */
+    byte[] getBody() {
+        return this.body;
+    }
+
+    /**
+     * Проверить, нужно ли оставить соединение открытым после ответа на запрос.
+     * В HTTP/1.1 соединение по умолчанию сохраняется, в HTTP/1.0 - закрывается.
+     *
+     * @return признак сохранения соединения.
+     */
+    boolean isKeepAlive() {
+        String connection = this.headers.getFirst("Connection");
+        if ("HTTP/1.0".equals(this.protocol)) {
+            return "keep-alive".equalsIgnoreCase(connection);
+        }
+
+        return !"close".equalsIgnoreCase(connection);
+    }
+}
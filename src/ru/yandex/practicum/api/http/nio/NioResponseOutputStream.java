@@ -0,0 +1,169 @@
+package ru.yandex.practicum.api.http.nio;
+
+// region imports
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+// endregion
+
+/**
+ * Поток тела ответа неблокирующего сервера.
+ * <p>
+ * Мелкие записи накапливаются в буфере, крупные передаются в очередь соединения отдельным буфером. Если длина тела
+ * неизвестна, данные отправляются по частям (chunked): заголовок и окончание части ставятся в очередь отдельными
+ * буферами, а сами данные не копируются.
+ */
+final class NioResponseOutputStream extends OutputStream {
+    /**
+     * Размер буфера мелких записей.
+     */
+    private static final int BUFFER_SIZE = 8 * 1024;
+
+    /**
+     * Окончание части тела.
+     */
+    private static final byte[] CRLF = "\r\n".getBytes(StandardCharsets.ISO_8859_1);
+
+    /**
+     * Соединение.
+     */
+    private final NioConnection connection;
+
+    /**
+     * Признак отправки по частям.
+     */
+    private final boolean chunked;
+
+    /**
+     * Признак того, что соединение нужно закрыть после ответа.
+     */
+    private final boolean closeConnection;
+
+    /**
+     * Количество байтов, которое ещё нужно записать (для ответа известной длины).
+     */
+    private long remaining;
+
+    /**
+     * Буфер мелких записей.
+     */
+    private ByteBuffer buffer;
+
+    /**
+     * Признак того, что поток закрыт.
+     */
+    private boolean closed;
+
+    /**
+     * Конструктор.
+     *
+     * @param connection      соединение.
+     * @param chunked         признак отправки по частям.
+     * @param contentLength   длина тела (для ответа известной длины).
+     * @param closeConnection признак того, что соединение нужно закрыть после ответа.
+     */
+    NioResponseOutputStream(NioConnection connection, boolean chunked, long contentLength, boolean closeConnection) {
+        this.connection = connection;
+        this.chunked = chunked;
+        this.remaining = contentLength;
+        this.closeConnection = closeConnection;
+    }
+
+    @Override
+    public void write(int b) throws IOException {
+        this.write(new byte[]{(byte) b}, 0, 1);
+    }
+
+    @Override
+    public void write(byte[] bytes, int offset, int length) throws IOException {
+        if (this.closed) {
+            throw new IOException("Поток закрыт");
+        }
+
+        if (!this.chunked) {
+            if (length > this.remaining) {
+                throw new IOException("Записано больше байтов, чем указано в Content-Length");
+            }
+
+            this.remaining -= length;
+        }
+
+        if (length >= BUFFER_SIZE) {
+            this.flushBuffer();
+            this.emit(ByteBuffer.wrap(Arrays.copyOfRange(bytes, offset, offset + length)));
+            return;
+        }
+
+        if (this.buffer != null && this.buffer.remaining() < length) {
+            this.flushBuffer();
+        }
+
+        if (this.buffer == null) {
+            this.buffer = ByteBuffer.allocate(BUFFER_SIZE);
+        }
+
+        this.buffer.put(bytes, offset, length);
+    }
+
+    @Override
+    public void flush() throws IOException {
+        if (!this.closed) {
+            this.flushBuffer();
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (this.closed) {
+            return;
+        }
+
+        this.flushBuffer();
+        this.closed = true;
+
+        if (this.chunked) {
+            this.connection.enqueue("0\r\n\r\n");
+        }
+
+        // Если записано меньше, чем обещано в Content-Length, клиент не сможет найти начало следующего ответа.
+        this.connection.finish(this.closeConnection || this.remaining > 0);
+
+        if (this.remaining > 0) {
+            throw new IOException("Записано меньше байтов, чем указано в Content-Length");
+        }
+    }
+
+    /**
+     * Передать накопленные данные в очередь соединения.
+     */
+    private void flushBuffer() throws IOException {
+        if (this.buffer == null || this.buffer.position() == 0) {
+            return;
+        }
+
+        this.buffer.flip();
+        ByteBuffer data = this.buffer;
+        this.buffer = null;
+
+        this.emit(data);
+    }
+
+    /**
+     * Поставить данные в очередь соединения.
+     *
+     * @param data данные.
+     */
+    private void emit(ByteBuffer data) throws IOException {
+        if (!this.chunked) {
+            this.connection.enqueue(data);
+            return;
+        }
+
+        byte[] header = (Integer.toHexString(data.remaining()) + "\r\n").getBytes(StandardCharsets.ISO_8859_1);
+        this.connection.enqueue(ByteBuffer.wrap(header), data, ByteBuffer.wrap(CRLF));
+    }
+}
@@ -0,0 +1,271 @@
+package ru.yandex.practicum.api.http.nio;
+
+// region imports
+
+import com.sun.net.httpserver.Headers;
+
+import java.net.URI;
+import java.net.URISyntaxException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.List;
+
+// endregion
+
+/**
+ * Инкрементальный разбор HTTP/1.x запросов из байтов, приходящих порциями.
+ * <p>
+ * Байты заголовка копируются во внутренний буфер до пустой строки, затем тело читается по Content-Length. Разбор
+ * продолжается с места остановки при следующем вызове, поэтому несколько запросов, пришедших одной порцией
+ * (конвейерная обработка), разбираются по очереди. Тело с Transfer-Encoding не поддерживается (ответ 411).
+ * <p>
+ * Тело целиком собирается в памяти, поэтому запросы к обработчикам, которые читают тело потоком без ограничения
+ * размера ({@link #STREAMING_PATHS}, в том числе внутри доски {@code /boards/{id}}), отклоняются сразу после
+ * заголовка (ответ 501): их обслуживает только HttpServer.
+ */
+final class RequestParser {
+    /**
+     * Максимальный размер заголовка запроса.
+     */
+    static final int MAX_HEAD_SIZE = 64 * 1024;
+
+    /**
+     * Максимальный размер тела запроса.
+     */
+    static final int MAX_BODY_SIZE = 64 * 1024 * 1024;
+
+    /**
+     * Пути обработчиков, читающих тело запроса потоком.
+     */
+    static final List<String> STREAMING_PATHS = List.of("/import");
+
+    /**
+     * Префикс пути запросов к отдельной доске, за которым следуют идентификатор доски и путь обработчика.
+     */
+    private static final String BOARDS_PREFIX = "/boards/";
+
+    /**
+     * Буфер заголовка запроса.
+     */
+    private byte[] head;
+
+    /**
+     * Количество байтов в буфере заголовка.
+     */
+    private int headSize;
+
+    /**
+     * Количество совпавших подряд символов последовательности конца заголовка (\r\n\r\n).
+     */
+    private int terminatorMatched;
+
+    /**
+     * Запрос, для которого читается тело (null, пока читается заголовок).
+     */
+    private NioRequest pending;
+
+    /**
+     * Тело запроса.
+     */
+    private byte[] body;
+
+    /**
+     * Количество прочитанных байтов тела.
+     */
+    private int bodySize;
+
+    /**
+     * Конструктор.
+     */
+    RequestParser() {
+        this.head = new byte[1024];
+    }
+
+    /**
+     * Продолжить разбор.
+     *
+     * @param buffer буфер с новыми байтами (в режиме чтения); прочитанные байты извлекаются из буфера.
+     * @return разобранный запрос или null, если байтов пока недостаточно.
+     */
+    NioRequest parse(ByteBuffer buffer) throws ParseException {
+        if (this.pending == null) {
+            while (buffer.hasRemaining()) {
+                byte b = buffer.get();
+                this.appendHead(b);
+
+                if (b == (this.terminatorMatched % 2 == 0 ? '\r' : '\n')) {
+                    this.terminatorMatched++;
+                } else {
+                    this.terminatorMatched = b == '\r' ? 1 : 0;
+                }
+
+                if (this.terminatorMatched == 4) {
+                    this.pending = this.parseHead();
+                    this.headSize = 0;
+                    this.terminatorMatched = 0;
+                    break;
+                }
+            }
+
+            if (this.pending == null) {
+                return null;
+            }
+        }
+
+        int count = Math.min(buffer.remaining(), this.body.length - this.bodySize);
+        buffer.get(this.body, this.bodySize, count);
+        this.bodySize += count;
+
+        if (this.bodySize < this.body.length) {
+            return null;
+        }
+
+        NioRequest request = new NioRequest(this.pending.getMethod(), this.pending.getUri(), this.pending.getProtocol(), this.pending.getHeaders(), this.body);
+        this.pending = null;
+        this.body = null;
+        this.bodySize = 0;
+        return request;
+    }
+
+    /**
+     * Добавить байт в буфер заголовка.
+     *
+     * @param b байт.
+     */
+    private void appendHead(byte b) throws ParseException {
+        if (this.headSize == MAX_HEAD_SIZE) {
+            throw new ParseException(431, "Слишком большой заголовок запроса");
+        }
+
+        if (this.headSize == this.head.length) {
+            this.head = Arrays.copyOf(this.head, Math.min(this.head.length * 2, MAX_HEAD_SIZE));
+        }
+
+        this.head[this.headSize++] = b;
+    }
+
+    /**
+     * Разобрать заголовок запроса и подготовить буфер тела.
+     *
+     * @return запрос без тела.
+     */
+    private NioRequest parseHead() throws ParseException {
+        String[] lines = new String(this.head, 0, this.headSize - 4, StandardCharsets.ISO_8859_1).split("\r\n");
+
+        int first = 0;
+        while (first < lines.length && lines[first].isEmpty()) {
+            first++;
+        }
+
+        if (first == lines.length) {
+            throw new ParseException(400, "Пустой запрос");
+        }
+
+        String[] requestLine = lines[first].split(" ");
+        if (requestLine.length != 3 || !requestLine[2].startsWith("HTTP/1.")) {
+            throw new ParseException(400, "Некорректная строка запроса: " + lines[first]);
+        }
+
+        URI uri;
+        try {
+            uri = new URI(requestLine[1]);
+        } catch (URISyntaxException ex) {
+            throw new ParseException(400, "Некорректный URI: " + requestLine[1]);
+        }
+
+        Headers headers = new Headers();
+        for (int i = first + 1; i < lines.length; i++) {
+            int separator = lines[i].indexOf(':');
+            if (separator <= 0) {
+                throw new ParseException(400, "Некорректный заголовок: " + lines[i]);
+            }
+
+            headers.add(lines[i].substring(0, separator).trim(), lines[i].substring(separator + 1).trim());
+        }
+
+        String path = uri.getPath() == null ? "" : uri.getPath();
+        // Запрос к доске обслуживается тем же обработчиком, что и запрос к доске по умолчанию, по пути без префикса
+        // /boards/{id}.
+        String handlerPath = path;
+        if (path.startsWith(BOARDS_PREFIX)) {
+            int boardIdEnd = path.indexOf('/', BOARDS_PREFIX.length());
+            if (boardIdEnd > BOARDS_PREFIX.length()) {
+                handlerPath = path.substring(boardIdEnd);
+            }
+        }
+
+        for (String streamingPath : STREAMING_PATHS) {
+            if (handlerPath.equals(streamingPath) || handlerPath.startsWith(streamingPath + "/")) {
+                throw new ParseException(501, "Потоковая загрузка " + path + " не поддерживается сервером --nio");
+            }
+        }
+
+        String transferEncoding = headers.getFirst("Transfer-Encoding");
+        if (transferEncoding != null && !transferEncoding.equalsIgnoreCase("identity")) {
+            throw new ParseException(411, "Тело запроса должно передаваться с заголовком Content-Length");
+        }
+
+        long contentLength = 0;
+        String contentLengthHeader = headers.getFirst("Content-Length");
+        if (contentLengthHeader != null) {
+            try {
+                contentLength = Long.parseLong(contentLengthHeader);
+            } catch (NumberFormatException ex) {
+                throw new ParseException(400, "Некорректный Content-Length: " + contentLengthHeader);
+            }
+        }
+
+        if (contentLength < 0) {
+            throw new ParseException(400, "Некорректный Content-Length: " + contentLengthHeader);
+        }
+
+        if (contentLength > MAX_BODY_SIZE) {
+            throw new ParseException(413, "Слишком большое тело запроса");
+        }
+
+        this.body = new byte[(int) contentLength];
+        this.bodySize = 0;
+
+        return new NioRequest(requestLine[0], uri, requestLine[2], headers, null);
+    }
+
+    // region Nested Types
+
+    /**
+     * Ошибка разбора запроса.
+     */
+    static final class ParseException extends Exception {
+        /**
+         * Версия сериализованного представления.
+         */
+        private static final long serialVersionUID = 1L;
+
+        /**
+         * HTTP-код ответа.
+         */
+        private final int statusCode;
+
+        /**
+         * Конструктор.
+         *
+         * @param statusCode HTTP-код ответа.
+         * @param message    текст ошибки.
+         */
+        ParseException(int statusCode, String message) {
+            super(message);
+            this.statusCode = statusCode;
+        }
+
+        /**
+         * Получить HTTP-код ответа.
+         *
+         * @return HTTP-код ответа.
+         */
+        int getStatusCode() {
+            return this.statusCode;
+        }
+    }
+
+    // endregion
+}
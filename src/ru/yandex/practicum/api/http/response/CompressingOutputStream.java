@@ -0,0 +1,102 @@
+package ru.yandex.practicum.api.http.response;
+
+// region imports
+
+import ru.yandex.practicum.constants.ContentEncoding;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.zip.CRC32;
+import java.util.zip.Deflater;
+import java.util.zip.DeflaterOutputStream;
+
+// endregion
+
+/**
+ * Поток, сжимающий данные в формате gzip или deflate переданным (переиспользуемым) компрессором.
+ * В отличие от {@link java.util.zip.GZIPOutputStream} не создаёт собственный {@link Deflater}, поэтому компрессор
+ * можно взять из пула и вернуть обратно после закрытия потока.
+ */
+final class CompressingOutputStream extends DeflaterOutputStream {
+    /**
+     * Заголовок gzip: сигнатура, метод сжатия deflate, без флагов, без времени модификации, ОС неизвестна.
+     */
+    private static final byte[] GZIP_HEADER = {0x1f, (byte) 0x8b, Deflater.DEFLATED, 0, 0, 0, 0, 0, 0, (byte) 0xff};
+
+    /**
+     * Контрольная сумма несжатых данных (только для gzip).
+     */
+    private final CRC32 crc;
+
+    /**
+     * Признак того, что поток уже завершён.
+     */
+    private boolean finished;
+
+    /**
+     * Конструктор.
+     *
+     * @param outputStream поток, в который пишутся сжатые данные.
+     * @param encoding     кодирование (gzip или deflate).
+     * @param deflater     компрессор, соответствующий кодированию.
+     */
+    CompressingOutputStream(OutputStream outputStream, ContentEncoding encoding, Deflater deflater) throws IOException {
+        super(outputStream, deflater, 8192);
+
+        if (encoding == ContentEncoding.GZIP) {
+            this.crc = new CRC32();
+            outputStream.write(GZIP_HEADER);
+        } else {
+            this.crc = null;
+        }
+    }
+
+    // region Overrides of java.util.zip.DeflaterOutputStream
+
+    @Override
+    public void write(byte[] b, int off, int len) throws IOException {
+        super.write(b, off, len);
+
+        if (this.crc != null) {
+            this.crc.update(b, off, len);
+        }
+    }
+
+    @Override
+    public void finish() throws IOException {
+        if (this.finished) {
+            return;
+        }
+
+        super.finish();
+
+        if (this.crc != null) {
+            writeIntLe(this.out, (int) this.crc.getValue());
+            writeIntLe(this.out, this.def.getTotalIn());
+        }
+
+        this.finished = true;
+    }
+
+    @Override
+    public void close() throws IOException {
+        // Компрессор не освобождается: его возвращает в пул владелец.
+        this.finish();
+        this.out.close();
+    }
+
+    // endregion
+
+    /**
+     * Записать целое число в порядке little-endian.
+     *
+     * @param outputStream поток.
+     * @param value        целое число.
+     */
+    private static void writeIntLe(OutputStream outputStream, int value) throws IOException {
+        outputStream.write(value & 0xff);
+        outputStream.write((value >> 8) & 0xff);
+        outputStream.write((value >> 16) & 0xff);
+        outputStream.write((value >> 24) & 0xff);
+    }
+}
@@ -0,0 +1,73 @@
+package ru.yandex.practicum.api.http.response;
+
+// region imports
+
+import java.io.FilterOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.concurrent.atomic.LongAdder;
+
+// endregion
+
+/**
+ * Поток, передающий данные дальше без изменений и прибавляющий их объём к счётчику.
+ */
+public final class CountingOutputStream extends FilterOutputStream {
+    /**
+     * Счётчик переданных байтов.
+     */
+    private final LongAdder counter;
+
+    /**
+     * Количество байтов, переданных через этот поток.
+     */
+    private long count;
+
+    /**
+     * Конструктор.
+     *
+     * @param outputStream поток, в который передаются данные.
+     * @param counter      счётчик переданных байтов.
+     */
+    public CountingOutputStream(OutputStream outputStream, LongAdder counter) {
+        super(outputStream);
+
+        if (outputStream == null) {
+            throw new IllegalArgumentException("Parameter 'outputStream' can't be null");
+        }
+
+        if (counter == null) {
+            throw new IllegalArgumentException("Parameter 'counter' can't be null");
+        }
+
+        this.counter = counter;
+    }
+
+    @Override
+    public void write(int b) throws IOException {
+        this.out.write(b);
+        this.counter.increment();
+        this.count++;
+    }
+
+    @Override
+    public void write(byte[] bytes, int offset, int length) throws IOException {
+        this.out.write(bytes, offset, length);
+        this.counter.add(length);
+        this.count += length;
+    }
+
+    /**
+     * Получить количество байтов, переданных через этот поток.
+     *
+     * @return количество байтов.
+     */
+    public long getCount() {
+        return this.count;
+    }
+
+    @Override
+    public void close() throws IOException {
+        this.out.close();
+    }
+}
@@ -0,0 +1,115 @@
+package ru.yandex.practicum.api.http.response;
+
+// region imports
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Arrays;
+
+// endregion
+
+/**
+ * Расширяемый байтовый буфер для тела HTTP-ответа.
+ * В отличие от {@link java.io.ByteArrayOutputStream} не синхронизирован и позволяет переиспользовать выделенный массив.
+ */
+public final class ResponseBuffer extends OutputStream {
+    /**
+     * Данные буфера.
+     */
+    private byte[] data;
+
+    /**
+     * Количество записанных байт.
+     */
+    private int size;
+
+    /**
+     * Конструктор.
+     *
+     * @param initialCapacity начальная ёмкость буфера.
+     */
+    public ResponseBuffer(int initialCapacity) {
+        if (initialCapacity <= 0) {
+            throw new IllegalArgumentException("Parameter 'initialCapacity' should be positive number");
+        }
+
+        this.data = new byte[initialCapacity];
+    }
+
+    /**
+     * Получить количество записанных байт.
+     *
+     * @return количество записанных байт.
+     */
+    public int size() {
+        return this.size;
+    }
+
+    /**
+     * Получить ёмкость буфера.
+     *
+     * @return ёмкость буфера.
+     */
+    public int capacity() {
+        return this.data.length;
+    }
+
+    /**
+     * Очистить буфер, сохранив выделенный массив.
+     */
+    public void reset() {
+        this.size = 0;
+    }
+
+    /**
+     * Записать содержимое буфера в поток.
+     *
+     * @param outputStream поток.
+     */
+    public void writeTo(OutputStream outputStream) throws IOException {
+        outputStream.write(this.data, 0, this.size);
+    }
+
+    /**
+     * Получить копию содержимого буфера.
+     *
+     * @return копия содержимого буфера.
+     */
+    public byte[] toByteArray() {
+        return Arrays.copyOf(this.data, this.size);
+    }
+
+    // region Overrides of java.io.OutputStream
+
+    @Override
+    public void write(int b) {
+        this.ensureCapacity(this.size + 1);
+        this.data[this.size++] = (byte) b;
+    }
+
+    @Override
+    public void write(byte[] b, int off, int len) {
+        this.ensureCapacity(this.size + len);
+        System.arraycopy(b, off, this.data, this.size, len);
+        this.size += len;
+    }
+
+    // endregion
+
+    /**
+     * Увеличить ёмкость буфера, если это необходимо.
+     *
+     * @param minCapacity минимально необходимая ёмкость.
+     */
+    private void ensureCapacity(int minCapacity) {
+        if (minCapacity <= this.data.length) {
+            return;
+        }
+
+        if (minCapacity < 0) {
+            throw new OutOfMemoryError("Response is too large");
+        }
+
+        this.data = Arrays.copyOf(this.data, Math.max(minCapacity, this.data.length << 1));
+    }
+}
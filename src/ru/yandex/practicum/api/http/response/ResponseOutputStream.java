@@ -0,0 +1,247 @@
+package ru.yandex.practicum.api.http.response;
+
+// region imports
+
+import com.sun.net.httpserver.HttpExchange;
+import ru.yandex.practicum.constants.ContentEncoding;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.zip.Deflater;
+
+// endregion
+
+/**
+ * Поток тела HTTP-ответа.
+ * <p>
+ * Пока тело не превышает заданный размер, оно накапливается в буфере из пула, и при закрытии потока ответ отправляется
+ * с точным заголовком Content-Length (и сжимается, если тело достаточно большое и клиент это допускает).
+ * Если тело оказывается больше, поток переключается на отправку по частям (chunked) и дальше пишет данные сразу в
+ * соединение. Потоковый режим можно включить и с самого начала - например, для NDJSON.
+ */
+public final class ResponseOutputStream extends OutputStream {
+    /**
+     * HTTP-обмен.
+     */
+    private final HttpExchange httpExchange;
+
+    /**
+     * HTTP-код ответа.
+     */
+    private final int statusCode;
+
+    /**
+     * Кодирование тела ответа, допустимое для клиента.
+     */
+    private final ContentEncoding encoding;
+
+    /**
+     * Минимальный размер тела ответа, начиная с которого оно сжимается.
+     */
+    private final int compressionThreshold;
+
+    /**
+     * Максимальный размер тела ответа, накапливаемого в буфере.
+     */
+    private final int maxBufferedSize;
+
+    /**
+     * Пул буферов и компрессоров.
+     */
+    private final ResponsePool pool;
+
+    /**
+     * Буфер, в котором накапливается тело ответа (null в потоковом режиме).
+     */
+    private ResponseBuffer buffer;
+
+    /**
+     * Поток, в который тело ответа пишется в потоковом режиме (null, пока тело накапливается в буфере).
+     */
+    private OutputStream target;
+
+    /**
+     * Компрессор, используемый в потоковом режиме.
+     */
+    private Deflater deflater;
+
+    /**
+     * Признак того, что поток закрыт.
+     */
+    private boolean closed;
+
+    /**
+     * Конструктор.
+     *
+     * @param httpExchange         HTTP-обмен.
+     * @param statusCode           HTTP-код ответа.
+     * @param encoding             кодирование тела ответа, допустимое для клиента.
+     * @param compressionThreshold минимальный размер тела ответа, начиная с которого оно сжимается.
+     * @param maxBufferedSize      максимальный размер тела ответа, накапливаемого в буфере (0 - сразу потоковый режим).
+     * @param pool                 пул буферов и компрессоров.
+     */
+    public ResponseOutputStream(HttpExchange httpExchange, int statusCode, ContentEncoding encoding, int compressionThreshold, int maxBufferedSize, ResponsePool pool) throws IOException {
+        if (httpExchange == null) {
+            throw new IllegalArgumentException("Parameter 'httpExchange' can't be null");
+        }
+
+        if (encoding == null) {
+            throw new IllegalArgumentException("Parameter 'encoding' can't be null");
+        }
+
+        if (pool == null) {
+            throw new IllegalArgumentException("Parameter 'pool' can't be null");
+        }
+
+        this.httpExchange = httpExchange;
+        this.statusCode = statusCode;
+        this.encoding = encoding;
+        this.compressionThreshold = compressionThreshold;
+        this.maxBufferedSize = maxBufferedSize;
+        this.pool = pool;
+
+        if (maxBufferedSize <= 0) {
+            this.startStreaming();
+        } else {
+            this.buffer = pool.acquireBuffer();
+        }
+    }
+
+    // region Overrides of java.io.OutputStream
+
+    @Override
+    public void write(int b) throws IOException {
+        this.ensureOpen();
+
+        if (this.target != null) {
+            this.target.write(b);
+            return;
+        }
+
+        this.buffer.write(b);
+        if (this.buffer.size() > this.maxBufferedSize) {
+            this.startStreaming();
+        }
+    }
+
+    @Override
+    public void write(byte[] b, int off, int len) throws IOException {
+        this.ensureOpen();
+
+        if (this.target != null) {
+            this.target.write(b, off, len);
+            return;
+        }
+
+        this.buffer.write(b, off, len);
+        if (this.buffer.size() > this.maxBufferedSize) {
+            this.startStreaming();
+        }
+    }
+
+    @Override
+    public void flush() throws IOException {
+        if (this.target != null) {
+            this.target.flush();
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (this.closed) {
+            return;
+        }
+        this.closed = true;
+
+        try {
+            if (this.target != null) {
+                this.target.close();
+            } else {
+                this.sendBuffered();
+            }
+        } finally {
+            this.pool.releaseBuffer(this.buffer);
+            this.buffer = null;
+
+            if (this.deflater != null) {
+                this.pool.releaseDeflater(this.encoding, this.deflater);
+                this.deflater = null;
+            }
+
+            this.httpExchange.close();
+        }
+    }
+
+    // endregion
+
+    /**
+     * Отправить накопленное в буфере тело ответа с точным заголовком Content-Length.
+     */
+    private void sendBuffered() throws IOException {
+        if (this.buffer.size() == 0) {
+            this.httpExchange.sendResponseHeaders(this.statusCode, -1);
+            return;
+        }
+
+        if (this.encoding == ContentEncoding.IDENTITY || this.buffer.size() < this.compressionThreshold) {
+            this.httpExchange.sendResponseHeaders(this.statusCode, this.buffer.size());
+            this.buffer.writeTo(this.httpExchange.getResponseBody());
+            return;
+        }
+
+        ResponseBuffer compressed = this.pool.acquireBuffer();
+        Deflater compressor = this.pool.acquireDeflater(this.encoding);
+        try {
+            try (CompressingOutputStream compressingOutputStream = new CompressingOutputStream(compressed, this.encoding, compressor)) {
+                this.buffer.writeTo(compressingOutputStream);
+            }
+
+            this.setContentEncodingHeaders();
+            this.httpExchange.sendResponseHeaders(this.statusCode, compressed.size());
+            compressed.writeTo(this.httpExchange.getResponseBody());
+        } finally {
+            this.pool.releaseDeflater(this.encoding, compressor);
+            this.pool.releaseBuffer(compressed);
+        }
+    }
+
+    /**
+     * Переключиться в потоковый режим: отправить заголовки без Content-Length и выгрузить накопленные данные.
+     */
+    private void startStreaming() throws IOException {
+        OutputStream responseBody = this.httpExchange.getResponseBody();
+
+        if (this.encoding == ContentEncoding.IDENTITY) {
+            this.httpExchange.sendResponseHeaders(this.statusCode, 0);
+            this.target = responseBody;
+        } else {
+            this.setContentEncodingHeaders();
+            this.httpExchange.sendResponseHeaders(this.statusCode, 0);
+            this.deflater = this.pool.acquireDeflater(this.encoding);
+            this.target = new CompressingOutputStream(responseBody, this.encoding, this.deflater);
+        }
+
+        if (this.buffer != null) {
+            this.buffer.writeTo(this.target);
+            this.pool.releaseBuffer(this.buffer);
+            this.buffer = null;
+        }
+    }
+
+    /**
+     * Установить заголовки, описывающие сжатие тела ответа.
+     */
+    private void setContentEncodingHeaders() {
+        this.httpExchange.getResponseHeaders().set("Content-Encoding", this.encoding.getToken());
+        this.httpExchange.getResponseHeaders().add("Vary", "Accept-Encoding");
+    }
+
+    /**
+     * Проверить, что поток не закрыт.
+     */
+    private void ensureOpen() throws IOException {
+        if (this.closed) {
+            throw new IOException("Response stream is closed");
+        }
+    }
+}
@@ -0,0 +1,185 @@
+package ru.yandex.practicum.api.http.response;
+
+// region imports
+
+import ru.yandex.practicum.constants.ContentEncoding;
+
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.zip.Deflater;
+
+// endregion
+
+/**
+ * Пул буферов и компрессоров, переиспользуемых между HTTP-ответами.
+ */
+public final class ResponsePool {
+    /**
+     * Пул по умолчанию.
+     */
+    private static final ResponsePool defaultInstance = new ResponsePool(8 * 1024, 1024 * 1024, 64);
+
+    /**
+     * Начальная ёмкость нового буфера.
+     */
+    private final int initialBufferCapacity;
+
+    /**
+     * Максимальная ёмкость буфера, который возвращается в пул. Буферы большего размера отдаются сборщику мусора.
+     */
+    private final int maxRetainedBufferCapacity;
+
+    /**
+     * Максимальное количество объектов каждого вида, хранимых в пуле.
+     */
+    private final int maxPooled;
+
+    /**
+     * Свободные буферы.
+     */
+    private final Queue<ResponseBuffer> buffers;
+
+    /**
+     * Количество свободных буферов.
+     */
+    private final AtomicInteger bufferCount;
+
+    /**
+     * Свободные компрессоры для формата gzip (без заголовка zlib).
+     */
+    private final Queue<Deflater> rawDeflaters;
+
+    /**
+     * Свободные компрессоры для формата deflate (с заголовком zlib).
+     */
+    private final Queue<Deflater> zlibDeflaters;
+
+    /**
+     * Конструктор.
+     *
+     * @param initialBufferCapacity     начальная ёмкость нового буфера.
+     * @param maxRetainedBufferCapacity максимальная ёмкость буфера, который возвращается в пул.
+     * @param maxPooled                 максимальное количество объектов каждого вида, хранимых в пуле.
+     */
+    public ResponsePool(int initialBufferCapacity, int maxRetainedBufferCapacity, int maxPooled) {
+        if (initialBufferCapacity <= 0) {
+            throw new IllegalArgumentException("Parameter 'initialBufferCapacity' should be positive number");
+        }
+
+        if (maxRetainedBufferCapacity < initialBufferCapacity) {
+            throw new IllegalArgumentException("Parameter 'maxRetainedBufferCapacity' can't be less than 'initialBufferCapacity'");
+        }
+
+        if (maxPooled < 0) {
+            throw new IllegalArgumentException("Parameter 'maxPooled' can't be negative");
+        }
+
+        this.initialBufferCapacity = initialBufferCapacity;
+        this.maxRetainedBufferCapacity = maxRetainedBufferCapacity;
+        this.maxPooled = maxPooled;
+
+        this.buffers = new ConcurrentLinkedQueue<>();
+        this.bufferCount = new AtomicInteger();
+        this.rawDeflaters = new ConcurrentLinkedQueue<>();
+        this.zlibDeflaters = new ConcurrentLinkedQueue<>();
+    }
+
+    /**
+     * Получить пул по умолчанию.
+     *
+     * @return пул по умолчанию.
+     */
+    public static ResponsePool getDefault() {
+        return defaultInstance;
+    }
+
+    /**
+     * Взять буфер из пула.
+     *
+     * @return пустой буфер.
+     */
+    public ResponseBuffer acquireBuffer() {
+        ResponseBuffer buffer = this.buffers.poll();
+        if (buffer == null) {
+            return new ResponseBuffer(this.initialBufferCapacity);
+        }
+
+        this.bufferCount.decrementAndGet();
+        return buffer;
+    }
+
+    /**
+     * Вернуть буфер в пул.
+     *
+     * @param buffer буфер.
+     */
+    public void releaseBuffer(ResponseBuffer buffer) {
+        if (buffer == null || buffer.capacity() > this.maxRetainedBufferCapacity) {
+            return;
+        }
+
+        if (this.bufferCount.incrementAndGet() > this.maxPooled) {
+            this.bufferCount.decrementAndGet();
+            return;
+        }
+
+        buffer.reset();
+        this.buffers.offer(buffer);
+    }
+
+    /**
+     * Взять компрессор из пула.
+     *
+     * @param encoding кодирование тела ответа (gzip или deflate).
+     * @return компрессор.
+     */
+    public Deflater acquireDeflater(ContentEncoding encoding) {
+        Queue<Deflater> deflaters = this.getDeflaters(encoding);
+
+        Deflater deflater = deflaters.poll();
+        if (deflater == null) {
+            return new Deflater(Deflater.DEFAULT_COMPRESSION, encoding == ContentEncoding.GZIP);
+        }
+
+        return deflater;
+    }
+
+    /**
+     * Вернуть компрессор в пул.
+     *
+     * @param encoding кодирование тела ответа (gzip или deflate).
+     * @param deflater компрессор.
+     */
+    public void releaseDeflater(ContentEncoding encoding, Deflater deflater) {
+        if (deflater == null) {
+            return;
+        }
+
+        Queue<Deflater> deflaters = this.getDeflaters(encoding);
+        if (deflaters.size() >= this.maxPooled) {
+            deflater.end();
+            return;
+        }
+
+        deflater.reset();
+        deflaters.offer(deflater);
+    }
+
+    /**
+     * Получить очередь свободных компрессоров для кодирования.
+     *
+     * @param encoding кодирование тела ответа.
+     * @return очередь свободных компрессоров.
+     */
+    private Queue<Deflater> getDeflaters(ContentEncoding encoding) {
+        switch (encoding) {
+            case GZIP:
+                return this.rawDeflaters;
+            case DEFLATE:
+                return this.zlibDeflaters;
+            default:
+                throw new IllegalArgumentException("Encoding '" + encoding.getToken() + "' doesn't use compression");
+        }
+    }
+}
@@ -0,0 +1,21 @@
+package ru.yandex.practicum.constants;
+
+/**
+ * Тип изменения задачи, подзадачи или эпика.
+ */
+public enum ChangeType {
+    /**
+     * Создание.
+     */
+    CREATED,
+
+    /**
+     * Обновление.
+     */
+    UPDATED,
+
+    /**
+     * Удаление.
+     */
+    REMOVED
+}
@@ -0,0 +1,94 @@
+package ru.yandex.practicum.constants;
+
+/**
+ * Кодирование (сжатие) тела HTTP-ответа.
+ */
+public enum ContentEncoding {
+    /**
+     * Тело ответа передаётся без сжатия.
+     */
+    IDENTITY("identity"),
+
+    /**
+     * Тело ответа сжато в формате gzip.
+     */
+    GZIP("gzip"),
+
+    /**
+     * Тело ответа сжато в формате zlib (deflate).
+     */
+    DEFLATE("deflate");
+
+    /**
+     * Значение заголовков Accept-Encoding/Content-Encoding.
+     */
+    private final String token;
+
+    /**
+     * Конструктор.
+     *
+     * @param token значение заголовков Accept-Encoding/Content-Encoding.
+     */
+    ContentEncoding(String token) {
+        this.token = token;
+    }
+
+    /**
+     * Получить значение заголовков Accept-Encoding/Content-Encoding.
+     *
+     * @return значение заголовков Accept-Encoding/Content-Encoding.
+     */
+    public String getToken() {
+        return this.token;
+    }
+
+    /**
+     * Выбрать кодирование тела ответа по значению заголовка Accept-Encoding.
+     * Если клиент допускает и gzip, и deflate, предпочтение отдаётся gzip. Маска {@code *} допускает только
+     * кодирования, не перечисленные в заголовке явно, поэтому {@code *, gzip;q=0} исключает gzip.
+     *
+     * @param acceptEncoding значение заголовка Accept-Encoding (может быть null).
+     * @return кодирование тела ответа.
+     */
+    public static ContentEncoding negotiate(String acceptEncoding) {
+        if (acceptEncoding == null || acceptEncoding.isBlank()) {
+            return IDENTITY;
+        }
+
+        // Явное решение клиента по кодированию: null - кодирование не перечислено.
+        Boolean gzip = null;
+        Boolean deflate = null;
+        boolean any = false;
+
+        for (String part : acceptEncoding.split(",")) {
+            String[] tokens = part.trim().split(";");
+            String coding = tokens[0].trim().toLowerCase();
+
+            boolean acceptable = true;
+            for (int i = 1; i < tokens.length; i++) {
+                String parameter = tokens[i].trim();
+                if (parameter.startsWith("q=")) {
+                    try {
+                        acceptable = Double.parseDouble(parameter.substring(2)) > 0;
+                    } catch (NumberFormatException ex) {
+                        acceptable = false;
+                    }
+                }
+            }
+
+            if (coding.equals(GZIP.token)) {
+                gzip = acceptable;
+            } else if (coding.equals(DEFLATE.token)) {
+                deflate = acceptable;
+            } else if (coding.equals("*")) {
+                any = acceptable;
+            }
+        }
+
+        if (gzip != null ? gzip : any) {
+            return GZIP;
+        }
+
+        return (deflate != null ? deflate : any) ? DEFLATE : IDENTITY;
+    }
+}
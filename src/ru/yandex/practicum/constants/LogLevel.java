@@ -0,0 +1,21 @@
+package ru.yandex.practicum.constants;
+
+/**
+ * Уровень записи журнала.
+ */
+public enum LogLevel {
+    /**
+     * Информационное сообщение.
+     */
+    INFO,
+
+    /**
+     * Предупреждение (например, некорректный запрос клиента).
+     */
+    WARN,
+
+    /**
+     * Ошибка.
+     */
+    ERROR
+}
@@ -0,0 +1,21 @@
+package ru.yandex.practicum.constants;
+
+/**
+ * Тип операции пакетного изменения.
+ */
+public enum OperationType {
+    /**
+     * Создание.
+     */
+    CREATE,
+
+    /**
+     * Обновление.
+     */
+    UPDATE,
+
+    /**
+     * Удаление.
+     */
+    REMOVE
+}
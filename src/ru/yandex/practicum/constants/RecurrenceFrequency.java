@@ -0,0 +1,39 @@
+package ru.yandex.practicum.constants;
+
+/**
+ * Периодичность повторяющейся задачи.
+ */
+public enum RecurrenceFrequency {
+    /**
+     * Каждый день.
+     */
+    DAILY(1),
+
+    /**
+     * Каждую неделю.
+     */
+    WEEKLY(7);
+
+    /**
+     * Интервал между повторениями в днях.
+     */
+    private final int days;
+
+    /**
+     * Конструктор.
+     *
+     * @param days интервал между повторениями в днях.
+     */
+    RecurrenceFrequency(int days) {
+        this.days = days;
+    }
+
+    /**
+     * Получить интервал между повторениями в днях.
+     *
+     * @return интервал в днях.
+     */
+    public int getDays() {
+        return this.days;
+    }
+}
@@ -0,0 +1,608 @@
+package ru.yandex.practicum.managers.archive;
+
+// region imports
+
+import com.google.gson.Gson;
+import ru.yandex.practicum.constants.TaskType;
+import ru.yandex.practicum.exceptions.ManagerLoadException;
+import ru.yandex.practicum.exceptions.ManagerSaveException;
+import ru.yandex.practicum.models.AbstractTask;
+import ru.yandex.practicum.models.Epic;
+import ru.yandex.practicum.models.SubTask;
+import ru.yandex.practicum.models.Task;
+import ru.yandex.practicum.utils.json.GsonFactory;
+import ru.yandex.practicum.utils.metrics.MetricsRegistry;
+
+import java.io.BufferedReader;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+// endregion
+
+/**
+ * Архив завершённых задач: неизменяемые сегменты на диске, доступные для поиска по идентификатору и по времени
+ * выполнения.
+ * <p>
+ * Каждое архивирование дописывает новый сегмент и никогда не меняет существующие. Сегмент - файл данных из блоков
+ * по {@link #BLOCK_RECORDS} записей, упорядоченных по идентификатору и сжатых каждый отдельно, и файл разреженного
+ * индекса: по строке на блок с диапазоном идентификаторов, временем выполнения записей блока и положением блока
+ * в файле данных. Индексы всех сегментов держатся в памяти, поэтому поиск распаковывает только блоки, которые могут
+ * содержать искомое.
+ * <p>
+ * Сегмент записывается во временные файлы и становится видимым переименованием файла индекса, поэтому
+ * незавершённая запись не оставляет частично записанных сегментов.
+ */
+public final class TaskArchive implements Closeable {
+    /**
+     * Количество записей в блоке сегмента.
+     */
+    static final int BLOCK_RECORDS = 64;
+
+    /**
+     * Расширение файла данных сегмента.
+     */
+    private static final String DATA_EXTENSION = ".dat";
+
+    /**
+     * Расширение файла индекса сегмента.
+     */
+    private static final String INDEX_EXTENSION = ".idx";
+
+    /**
+     * Расширение временного файла.
+     */
+    private static final String TEMPORARY_EXTENSION = ".tmp";
+
+    /**
+     * Обозначение отсутствующего времени выполнения в индексе.
+     */
+    private static final String NO_TIME = "-";
+
+    /**
+     * Каталог архива.
+     */
+    private final File directory;
+
+    /**
+     * Сериализатор JSON.
+     */
+    private final Gson gson;
+
+    /**
+     * Сегменты в порядке записи. Список заменяется целиком при добавлении сегмента.
+     */
+    private volatile List<Segment> segments;
+
+    /**
+     * Количество сегментов.
+     */
+    private final AtomicLong segmentCount;
+
+    /**
+     * Количество заархивированных записей.
+     */
+    private final LongAdder recordsWritten;
+
+    /**
+     * Количество распакованных при поиске блоков.
+     */
+    private final LongAdder blocksRead;
+
+    /**
+     * Конструктор. Загружает индексы сегментов, уже записанных в каталог.
+     *
+     * @param directory       каталог архива.
+     * @param metricsRegistry реестр метрик.
+     */
+    public TaskArchive(File directory, MetricsRegistry metricsRegistry) throws ManagerLoadException {
+        if (directory == null) {
+            throw new IllegalArgumentException("Parameter 'directory' can't be null");
+        }
+
+        if (metricsRegistry == null) {
+            throw new IllegalArgumentException("Parameter 'metricsRegistry' can't be null");
+        }
+
+        this.directory = directory;
+        this.gson = GsonFactory.getDefault();
+        this.segments = this.loadSegments();
+
+        this.segmentCount = metricsRegistry.gauge("archive_segments", "Количество сегментов архива");
+        this.recordsWritten = metricsRegistry.counter("archive_records_written_total", "Количество записей, помещённых в архив");
+        this.blocksRead = metricsRegistry.counter("archive_blocks_read_total", "Количество блоков архива, распакованных при поиске");
+
+        this.segmentCount.set(this.segments.size());
+    }
+
+    /**
+     * Дописать в архив новый сегмент с задачами, подзадачами и эпиками. Эпик сохраняется вместе с подзадачами;
+     * подзадачи эпика нужно передать и отдельно, чтобы их можно было найти по идентификатору.
+     *
+     * @param items задачи, подзадачи и эпики.
+     */
+    public synchronized void append(Collection<? extends AbstractTask> items) throws ManagerSaveException {
+        if (items == null) {
+            throw new IllegalArgumentException("Parameter 'items' can't be null");
+        }
+
+        if (items.isEmpty()) {
+            return;
+        }
+
+        List<AbstractTask> sorted = new ArrayList<>(items);
+        sorted.sort(Comparator.comparingInt(AbstractTask::getId));
+
+        List<Segment> segments = this.segments;
+        long number = segments.isEmpty() ? 1 : segments.get(segments.size() - 1).number + 1;
+        String name = String.format("segment-%06d", number);
+
+        Path data = this.directory.toPath().resolve(name + DATA_EXTENSION);
+        Path index = this.directory.toPath().resolve(name + INDEX_EXTENSION);
+        Path temporaryData = this.directory.toPath().resolve(name + DATA_EXTENSION + TEMPORARY_EXTENSION);
+        Path temporaryIndex = this.directory.toPath().resolve(name + INDEX_EXTENSION + TEMPORARY_EXTENSION);
+
+        try {
+            Files.createDirectories(this.directory.toPath());
+
+            List<Block> blocks = new ArrayList<>();
+            try (FileChannel channel = FileChannel.open(temporaryData, StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+                long offset = 0;
+                for (int from = 0; from < sorted.size(); from += BLOCK_RECORDS) {
+                    List<AbstractTask> records = sorted.subList(from, Math.min(from + BLOCK_RECORDS, sorted.size()));
+
+                    byte[] compressed = this.compress(records);
+                    channel.write(ByteBuffer.wrap(compressed));
+
+                    blocks.add(Block.of(records, offset, compressed.length));
+                    offset += compressed.length;
+                }
+                channel.force(true);
+            }
+
+            StringBuilder indexLines = new StringBuilder();
+            for (Block block : blocks) {
+                indexLines.append(block.toLine()).append('\n');
+            }
+            Files.writeString(temporaryIndex, indexLines, StandardCharsets.UTF_8);
+
+            Files.move(temporaryData, data, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            Files.move(temporaryIndex, index, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+
+            List<Segment> updated = new ArrayList<>(segments);
+            updated.add(new Segment(number, data, blocks));
+            this.segments = updated;
+        } catch (IOException ex) {
+            throw new ManagerSaveException("Не удалось записать сегмент архива " + name, ex);
+        }
+
+        this.segmentCount.set(this.segments.size());
+        this.recordsWritten.add(sorted.size());
+    }
+
+    /**
+     * Найти задачу, подзадачу или эпик в архиве по идентификатору.
+     *
+     * @param id идентификатор.
+     * @return задача, подзадача или эпик, если найдены.
+     */
+    public Optional<AbstractTask> findById(int id) throws ManagerLoadException {
+        List<Segment> segments = this.segments;
+
+        // Если задача архивировалась несколько раз, действительна последняя запись.
+        for (int i = segments.size() - 1; i >= 0; i--) {
+            Segment segment = segments.get(i);
+
+            Block block = segment.findBlock(id);
+            if (block == null) {
+                continue;
+            }
+
+            for (AbstractTask item : this.read(segment, block)) {
+                if (item.getId() == id) {
+                    return Optional.of(item);
+                }
+            }
+        }
+
+        return Optional.empty();
+    }
+
+    /**
+     * Найти задачи и подзадачи архива, время выполнения которых пересекается с заданным промежутком.
+     *
+     * @param from начало промежутка.
+     * @param to   конец промежутка.
+     * @return задачи и подзадачи, упорядоченные по времени начала.
+     */
+    public List<Task> findByTime(LocalDateTime from, LocalDateTime to) throws ManagerLoadException {
+        if (from == null) {
+            throw new IllegalArgumentException("Parameter 'from' can't be null");
+        }
+
+        if (to == null) {
+            throw new IllegalArgumentException("Parameter 'to' can't be null");
+        }
+
+        List<Task> found = new ArrayList<>();
+        for (Segment segment : this.segments) {
+            for (Block block : segment.blocks) {
+                if (block.minStart == null || !block.maxEnd.isAfter(from) || !block.minStart.isBefore(to)) {
+                    continue;
+                }
+
+                for (AbstractTask item : this.read(segment, block)) {
+                    if (item instanceof Task task && task.getEndTime().isAfter(from) && task.getStartTime().isBefore(to)) {
+                        found.add(task);
+                    }
+                }
+            }
+        }
+
+        found.sort(Comparator.comparing(Task::getStartTime).thenComparingInt(Task::getId));
+        return found;
+    }
+
+    /**
+     * Получить количество сегментов архива.
+     *
+     * @return количество сегментов.
+     */
+    public int getSegmentCount() {
+        return this.segments.size();
+    }
+
+    /**
+     * Закрыть файлы сегментов.
+     */
+    @Override
+    public synchronized void close() throws IOException {
+        for (Segment segment : this.segments) {
+            segment.close();
+        }
+    }
+
+    /**
+     * Загрузить индексы сегментов каталога и удалить временные файлы незавершённой записи.
+     *
+     * @return сегменты в порядке записи.
+     */
+    private List<Segment> loadSegments() throws ManagerLoadException {
+        File[] files = this.directory.listFiles();
+        if (files == null) {
+            return List.of();
+        }
+
+        List<Segment> segments = new ArrayList<>();
+        try {
+            for (File file : files) {
+                String name = file.getName();
+                if (name.endsWith(TEMPORARY_EXTENSION)) {
+                    Files.deleteIfExists(file.toPath());
+                } else if (name.startsWith("segment-") && name.endsWith(INDEX_EXTENSION)) {
+                    String baseName = name.substring(0, name.length() - INDEX_EXTENSION.length());
+                    long number = Long.parseLong(baseName.substring("segment-".length()));
+
+                    List<Block> blocks = new ArrayList<>();
+                    for (String line : Files.readAllLines(file.toPath(), StandardCharsets.UTF_8)) {
+                        if (!line.isEmpty()) {
+                            blocks.add(Block.parse(line));
+                        }
+                    }
+
+                    segments.add(new Segment(number, this.directory.toPath().resolve(baseName + DATA_EXTENSION), blocks));
+                }
+            }
+        } catch (IOException | RuntimeException ex) {
+            throw new ManagerLoadException("Не удалось загрузить индекс архива " + this.directory, ex);
+        }
+
+        segments.sort(Comparator.comparingLong(segment -> segment.number));
+        return segments;
+    }
+
+    /**
+     * Сжать блок записей. Запись - строка из типа задачи и её состояния в формате JSON.
+     *
+     * @param records записи блока.
+     * @return сжатый блок.
+     */
+    private byte[] compress(List<AbstractTask> records) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (OutputStream gzip = new GZIPOutputStream(bytes); Writer writer = new OutputStreamWriter(gzip, StandardCharsets.UTF_8)) {
+            for (AbstractTask record : records) {
+                writer.write(typeOf(record).name());
+                writer.write('\t');
+                writer.write(this.gson.toJson(record, record.getClass()));
+                writer.write('\n');
+            }
+        }
+
+        return bytes.toByteArray();
+    }
+
+    /**
+     * Прочитать и распаковать блок сегмента.
+     *
+     * @param segment сегмент.
+     * @param block   блок.
+     * @return записи блока.
+     */
+    private List<AbstractTask> read(Segment segment, Block block) throws ManagerLoadException {
+        this.blocksRead.increment();
+
+        try {
+            ByteBuffer buffer = ByteBuffer.allocate(block.length);
+            FileChannel channel = segment.channel();
+            while (buffer.hasRemaining()) {
+                if (channel.read(buffer, block.offset + buffer.position()) < 0) {
+                    throw new IOException("Файл сегмента короче, чем указано в индексе");
+                }
+            }
+
+            List<AbstractTask> records = new ArrayList<>(BLOCK_RECORDS);
+            try (BufferedReader reader = new BufferedReader(new InputStreamReader(new GZIPInputStream(new ByteArrayInputStream(buffer.array())), StandardCharsets.UTF_8))) {
+                String line;
+                while ((line = reader.readLine()) != null) {
+                    int separator = line.indexOf('\t');
+                    TaskType taskType = TaskType.valueOf(line.substring(0, separator));
+                    records.add(this.gson.fromJson(line.substring(separator + 1), classOf(taskType)));
+                }
+            }
+
+            return records;
+        } catch (IOException | RuntimeException ex) {
+            throw new ManagerLoadException("Не удалось прочитать сегмент архива " + segment.data, ex);
+        }
+    }
+
+    /**
+     * Получить тип задачи.
+     *
+     * @param item задача, подзадача или эпик.
+     * @return тип задачи.
+     */
+    private static TaskType typeOf(AbstractTask item) {
+        if (item instanceof Epic) {
+            return TaskType.EPIC;
+        }
+
+        return item instanceof SubTask ? TaskType.SUBTASK : TaskType.TASK;
+    }
+
+    /**
+     * Получить класс задачи по её типу.
+     *
+     * @param taskType тип задачи.
+     * @return класс задачи.
+     */
+    private static Class<? extends AbstractTask> classOf(TaskType taskType) {
+        switch (taskType) {
+            case EPIC:
+                return Epic.class;
+            case SUBTASK:
+                return SubTask.class;
+            default:
+                return Task.class;
+        }
+    }
+
+    // region Nested Types
+
+    /**
+     * Сегмент архива: файл данных и разреженный индекс его блоков.
+     */
+    private static final class Segment implements Closeable {
+        /**
+         * Порядковый номер сегмента.
+         */
+        private final long number;
+
+        /**
+         * Файл данных.
+         */
+        private final Path data;
+
+        /**
+         * Блоки по возрастанию идентификаторов.
+         */
+        private final List<Block> blocks;
+
+        /**
+         * Открытый для чтения файл данных или null, если он ещё не открывался.
+         */
+        private FileChannel channel;
+
+        /**
+         * Конструктор.
+         *
+         * @param number порядковый номер сегмента.
+         * @param data   файл данных.
+         * @param blocks блоки по возрастанию идентификаторов.
+         */
+        private Segment(long number, Path data, List<Block> blocks) {
+            this.number = number;
+            this.data = data;
+            this.blocks = blocks;
+        }
+
+        /**
+         * Найти блок, который может содержать идентификатор.
+         *
+         * @param id идентификатор.
+         * @return блок или null, если идентификатор вне диапазонов блоков.
+         */
+        private Block findBlock(int id) {
+            int low = 0;
+            int high = this.blocks.size() - 1;
+            while (low <= high) {
+                int middle = (low + high) >>> 1;
+                Block block = this.blocks.get(middle);
+                if (id < block.firstId) {
+                    high = middle - 1;
+                } else if (id > block.lastId) {
+                    low = middle + 1;
+                } else {
+                    return block;
+                }
+            }
+
+            return null;
+        }
+
+        /**
+         * Получить файл данных, открыв его при первом обращении. Позиционное чтение из канала потокобезопасно.
+         *
+         * @return канал файла данных.
+         */
+        private synchronized FileChannel channel() throws IOException {
+            if (this.channel == null) {
+                this.channel = FileChannel.open(this.data, StandardOpenOption.READ);
+            }
+
+            return this.channel;
+        }
+
+        @Override
+        public synchronized void close() throws IOException {
+            if (this.channel != null) {
+                this.channel.close();
+                this.channel = null;
+            }
+        }
+    }
+
+    /**
+     * Запись разреженного индекса: блок сегмента.
+     */
+    private static final class Block {
+        /**
+         * Наименьший идентификатор блока.
+         */
+        private final int firstId;
+
+        /**
+         * Наибольший идентификатор блока.
+         */
+        private final int lastId;
+
+        /**
+         * Наименьшее время начала задач и подзадач блока или null, если их в блоке нет.
+         */
+        private final LocalDateTime minStart;
+
+        /**
+         * Наибольшее время окончания задач и подзадач блока или null, если их в блоке нет.
+         */
+        private final LocalDateTime maxEnd;
+
+        /**
+         * Смещение блока в файле данных.
+         */
+        private final long offset;
+
+        /**
+         * Длина сжатого блока.
+         */
+        private final int length;
+
+        /**
+         * Конструктор.
+         *
+         * @param firstId  наименьший идентификатор блока.
+         * @param lastId   наибольший идентификатор блока.
+         * @param minStart наименьшее время начала или null.
+         * @param maxEnd   наибольшее время окончания или null.
+         * @param offset   смещение блока в файле данных.
+         * @param length   длина сжатого блока.
+         */
+        private Block(int firstId, int lastId, LocalDateTime minStart, LocalDateTime maxEnd, long offset, int length) {
+            this.firstId = firstId;
+            this.lastId = lastId;
+            this.minStart = minStart;
+            this.maxEnd = maxEnd;
+            this.offset = offset;
+            this.length = length;
+        }
+
+        /**
+         * Создать запись индекса для блока.
+         *
+         * @param records записи блока по возрастанию идентификаторов.
+         * @param offset  смещение блока в файле данных.
+         * @param length  длина сжатого блока.
+         * @return запись индекса.
+         */
+        private static Block of(List<AbstractTask> records, long offset, int length) {
+            LocalDateTime minStart = null;
+            LocalDateTime maxEnd = null;
+            for (AbstractTask record : records) {
+                if (record instanceof Task task) {
+                    if (minStart == null || task.getStartTime().isBefore(minStart)) {
+                        minStart = task.getStartTime();
+                    }
+
+                    if (maxEnd == null || task.getEndTime().isAfter(maxEnd)) {
+                        maxEnd = task.getEndTime();
+                    }
+                }
+            }
+
+            return new Block(records.get(0).getId(), records.get(records.size() - 1).getId(), minStart, maxEnd, offset, length);
+        }
+
+        /**
+         * Разобрать строку индекса.
+         *
+         * @param line строка индекса.
+         * @return запись индекса.
+         */
+        private static Block parse(String line) {
+            String[] parts = line.split(",");
+            return new Block(
+                    Integer.parseInt(parts[0]),
+                    Integer.parseInt(parts[1]),
+                    parts[2].equals(NO_TIME) ? null : LocalDateTime.parse(parts[2]),
+                    parts[3].equals(NO_TIME) ? null : LocalDateTime.parse(parts[3]),
+                    Long.parseLong(parts[4]),
+                    Integer.parseInt(parts[5]));
+        }
+
+        /**
+         * Представить запись индекса строкой.
+         *
+         * @return строка индекса.
+         */
+        private String toLine() {
+            return this.firstId + "," + this.lastId + ","
+                    + (this.minStart == null ? NO_TIME : this.minStart) + ","
+                    + (this.maxEnd == null ? NO_TIME : this.maxEnd) + ","
+                    + this.offset + "," + this.length;
+        }
+    }
+
+    // endregion
+}
@@ -0,0 +1,124 @@
+package ru.yandex.practicum.managers.archive;
+
+// region imports
+
+import ru.yandex.practicum.abstractions.TaskManager;
+import ru.yandex.practicum.constants.TaskStatus;
+import ru.yandex.practicum.models.AbstractTask;
+import ru.yandex.practicum.models.Epic;
+import ru.yandex.practicum.models.Task;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+// endregion
+
+/**
+ * Переносит завершённые задачи из менеджера задач в {@link TaskArchive}.
+ * <p>
+ * В архив попадают задачи в статусе DONE и эпики в статусе DONE вместе с подзадачами, если время окончания
+ * раньше заданного возраста. Отдельные подзадачи незавершённого эпика не архивируются: от них зависит статус эпика.
+ * Сначала записывается сегмент архива, затем элементы удаляются из менеджера задач, поэтому при сбое между этими
+ * шагами элемент окажется и в архиве, и в менеджере задач, но не пропадёт.
+ * <p>
+ * Менеджер задач не потокобезопасен, поэтому архивирование нужно вызывать в том же потоке, что и остальные
+ * операции с ним.
+ */
+public final class TaskArchiver {
+    /**
+     * Менеджер задач.
+     */
+    private final TaskManager taskManager;
+
+    /**
+     * Архив.
+     */
+    private final TaskArchive archive;
+
+    /**
+     * Возраст, после которого завершённые задачи переносятся в архив.
+     */
+    private final Duration age;
+
+    /**
+     * Конструктор.
+     *
+     * @param taskManager менеджер задач.
+     * @param archive     архив.
+     * @param age         возраст, после которого завершённые задачи переносятся в архив.
+     */
+    public TaskArchiver(TaskManager taskManager, TaskArchive archive, Duration age) {
+        if (taskManager == null) {
+            throw new IllegalArgumentException("Parameter 'taskManager' can't be null");
+        }
+
+        if (archive == null) {
+            throw new IllegalArgumentException("Parameter 'archive' can't be null");
+        }
+
+        if (age == null || age.isNegative()) {
+            throw new IllegalArgumentException("Parameter 'age' can't be null or negative");
+        }
+
+        this.taskManager = taskManager;
+        this.archive = archive;
+        this.age = age;
+    }
+
+    /**
+     * Получить архив.
+     *
+     * @return архив.
+     */
+    public TaskArchive getArchive() {
+        return this.archive;
+    }
+
+    /**
+     * Перенести в архив задачи и эпики, завершённые раньше, чем за заданный возраст до указанного момента.
+     *
+     * @param now текущий момент.
+     * @return количество перенесённых задач, подзадач и эпиков.
+     */
+    public int archive(LocalDateTime now) {
+        if (now == null) {
+            throw new IllegalArgumentException("Parameter 'now' can't be null");
+        }
+
+        LocalDateTime threshold = now.minus(this.age);
+
+        List<Task> tasks = new ArrayList<>();
+        for (Task task : this.taskManager.getAllTasks()) {
+            if (task.getStatus() == TaskStatus.DONE && !task.getEndTime().isAfter(threshold)) {
+                tasks.add(task);
+            }
+        }
+
+        List<Epic> epics = new ArrayList<>();
+        for (Epic epic : this.taskManager.getAllEpics()) {
+            if (epic.getStatus() == TaskStatus.DONE && epic.getEndTime().filter(endTime -> !endTime.isAfter(threshold)).isPresent()) {
+                epics.add(epic);
+            }
+        }
+
+        List<AbstractTask> items = new ArrayList<>(tasks);
+        for (Epic epic : epics) {
+            items.add(epic);
+            items.addAll(epic.getAllSubTasks());
+        }
+
+        this.archive.append(items);
+
+        for (Task task : tasks) {
+            this.taskManager.removeTaskById(task.getId());
+        }
+
+        for (Epic epic : epics) {
+            this.taskManager.removeEpicById(epic.getId());
+        }
+
+        return items.size();
+    }
+}
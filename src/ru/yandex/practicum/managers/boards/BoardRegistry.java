@@ -0,0 +1,358 @@
+package ru.yandex.practicum.managers.boards;
+
+// region imports
+
+import ru.yandex.practicum.abstractions.TaskManager;
+import ru.yandex.practicum.exceptions.ManagerLoadException;
+import ru.yandex.practicum.managers.tasks.FileBackedTaskManager;
+import ru.yandex.practicum.managers.tasks.InstrumentedTaskManager;
+import ru.yandex.practicum.utils.json.JsonFragmentCache;
+import ru.yandex.practicum.utils.metrics.LatencyHistogram;
+import ru.yandex.practicum.utils.metrics.MetricsRegistry;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.regex.Pattern;
+
+// endregion
+
+/**
+ * Реестр досок: у каждой доски свой менеджер задач и свой файл хранилища в общем каталоге.
+ * <p>
+ * Доска загружается из файла при первом обращении. Если оценка памяти, занятой загруженными досками, превышает
+ * бюджет, доски, к которым дольше всего не обращались, выгружаются: менеджер задач пишет каждое изменение в файл
+ * сразу, поэтому выгрузка сводится к тому, чтобы забыть менеджер и его кэш JSON-представлений. Доска, с которой
+ * сейчас работает хотя бы один запрос, не выгружается, поэтому работа с доской должна быть обрамлена вызовами
+ * {@link #acquire(String)} и {@link #release(Board)}.
+ */
+public final class BoardRegistry {
+    /**
+     * Грубая оценка памяти, занимаемой одной задачей, подзадачей или эпиком вместе со служебными структурами
+     * менеджера (таблицы, упорядоченный список, версии, кэш JSON), байт.
+     */
+    static final long ESTIMATED_ITEM_BYTES = 1024;
+
+    /**
+     * Допустимый идентификатор доски; он же - имя файла хранилища.
+     */
+    private static final Pattern BOARD_ID_PATTERN = Pattern.compile("[A-Za-z0-9_-]{1,64}");
+
+    /**
+     * Каталог хранилища досок.
+     */
+    private final File directory;
+
+    /**
+     * Бюджет памяти загруженных досок, байт.
+     */
+    private final long memoryBudgetBytes;
+
+    /**
+     * Реестр метрик.
+     */
+    private final MetricsRegistry metricsRegistry;
+
+    /**
+     * Доски в порядке обращения (первой - доска, к которой дольше всего не обращались).
+     */
+    private final LinkedHashMap<String, Board> boards;
+
+    /**
+     * Количество загруженных досок.
+     */
+    private final AtomicLong residentBoards;
+
+    /**
+     * Оценка памяти загруженных досок на момент последней проверки бюджета, байт.
+     */
+    private final AtomicLong residentBytes;
+
+    /**
+     * Длительность загрузки доски.
+     */
+    private final LatencyHistogram loadDuration;
+
+    /**
+     * Количество загрузок досок.
+     */
+    private final LongAdder loads;
+
+    /**
+     * Количество выгрузок досок.
+     */
+    private final LongAdder evictions;
+
+    /**
+     * Конструктор.
+     *
+     * @param directory         каталог хранилища досок.
+     * @param memoryBudgetBytes бюджет памяти загруженных досок, байт.
+     * @param metricsRegistry   реестр метрик.
+     */
+    public BoardRegistry(File directory, long memoryBudgetBytes, MetricsRegistry metricsRegistry) {
+        if (directory == null) {
+            throw new IllegalArgumentException("Parameter 'directory' can't be null");
+        }
+
+        if (memoryBudgetBytes <= 0) {
+            throw new IllegalArgumentException("Parameter 'memoryBudgetBytes' should be positive number");
+        }
+
+        if (metricsRegistry == null) {
+            throw new IllegalArgumentException("Parameter 'metricsRegistry' can't be null");
+        }
+
+        this.directory = directory;
+        this.memoryBudgetBytes = memoryBudgetBytes;
+        this.metricsRegistry = metricsRegistry;
+        this.boards = new LinkedHashMap<>(16, 0.75f, true);
+
+        this.residentBoards = metricsRegistry.gauge("boards_resident", "Количество загруженных досок");
+        this.residentBytes = metricsRegistry.gauge("boards_resident_estimated_bytes", "Оценка памяти, занятой загруженными досками");
+        this.loadDuration = metricsRegistry.histogram("board_load_duration_seconds", "Длительность загрузки доски из файла");
+        this.loads = metricsRegistry.counter("board_loads_total", "Количество загрузок досок");
+        this.evictions = metricsRegistry.counter("board_evictions_total", "Количество выгрузок досок");
+    }
+
+    /**
+     * Проверить идентификатор доски.
+     *
+     * @param boardId идентификатор доски.
+     * @return признак того, что идентификатор допустим.
+     */
+    public static boolean isValidId(String boardId) {
+        return boardId != null && BOARD_ID_PATTERN.matcher(boardId).matches();
+    }
+
+    /**
+     * Получить доску для работы с ней, при необходимости загрузив её из файла. После завершения работы доску
+     * нужно вернуть вызовом {@link #release(Board)}.
+     *
+     * @param boardId идентификатор доски.
+     * @return доска.
+     */
+    public Board acquire(String boardId) {
+        if (!isValidId(boardId)) {
+            throw new IllegalArgumentException("Parameter 'boardId' should match " + BOARD_ID_PATTERN.pattern());
+        }
+
+        Board board;
+        synchronized (this) {
+            board = this.boards.computeIfAbsent(boardId, id -> new Board(id, new File(this.directory, id + ".csv")));
+            board.users++;
+        }
+
+        try {
+            if (this.load(board)) {
+                this.evictIfNeeded();
+            }
+        } catch (RuntimeException ex) {
+            this.release(board);
+            throw ex;
+        }
+
+        return board;
+    }
+
+    /**
+     * Вернуть доску, полученную вызовом {@link #acquire(String)}.
+     *
+     * @param board доска.
+     */
+    public void release(Board board) {
+        if (board == null) {
+            throw new IllegalArgumentException("Parameter 'board' can't be null");
+        }
+
+        synchronized (this) {
+            if (board.users <= 0) {
+                throw new IllegalStateException("Доска " + board.id + " не была получена");
+            }
+
+            board.users--;
+        }
+
+        this.evictIfNeeded();
+    }
+
+    /**
+     * Получить количество загруженных досок.
+     *
+     * @return количество загруженных досок.
+     */
+    public synchronized int getResidentCount() {
+        int count = 0;
+        for (Board board : this.boards.values()) {
+            if (board.taskManager != null) {
+                count++;
+            }
+        }
+
+        return count;
+    }
+
+    /**
+     * Проверить, загружена ли доска.
+     *
+     * @param boardId идентификатор доски.
+     * @return признак того, что доска загружена.
+     */
+    public synchronized boolean isResident(String boardId) {
+        Board board = this.boards.get(boardId);
+        return board != null && board.taskManager != null;
+    }
+
+    /**
+     * Загрузить доску, если она ещё не загружена.
+     *
+     * @param board доска.
+     * @return признак того, что доска была загружена этим вызовом.
+     */
+    private boolean load(Board board) {
+        synchronized (board) {
+            if (board.taskManager != null) {
+                return false;
+            }
+
+            long start = System.nanoTime();
+
+            try {
+                Files.createDirectories(this.directory.toPath());
+            } catch (IOException e) {
+                throw new ManagerLoadException("Ошибка при создании каталога досок: " + this.directory.getPath(), e);
+            }
+
+            FileBackedTaskManager storage = new FileBackedTaskManager(board.storage);
+            if (board.storage.exists()) {
+                FileBackedTaskManager.loadFromFile(storage, board.storage);
+            }
+
+            board.storageManager = storage;
+            board.taskManager = new InstrumentedTaskManager(storage, this.metricsRegistry);
+
+            this.loadDuration.record(System.nanoTime() - start);
+            this.loads.increment();
+            this.residentBoards.incrementAndGet();
+            return true;
+        }
+    }
+
+    /**
+     * Выгрузить доски, к которым дольше всего не обращались, пока оценка памяти превышает бюджет.
+     * Последняя загруженная доска и доски, с которыми работают запросы, не выгружаются.
+     */
+    private synchronized void evictIfNeeded() {
+        long total = 0;
+        for (Board board : this.boards.values()) {
+            total += board.getEstimatedBytes();
+        }
+
+        Iterator<Board> iterator = this.boards.values().iterator();
+        while (total > this.memoryBudgetBytes && iterator.hasNext()) {
+            Board board = iterator.next();
+            if (board.users > 0) {
+                continue;
+            }
+
+            if (board.taskManager == null) {
+                iterator.remove();
+                continue;
+            }
+
+            if (this.residentBoards.get() <= 1) {
+                break;
+            }
+
+            total -= board.getEstimatedBytes();
+            iterator.remove();
+
+            JsonFragmentCache.release(board.taskManager);
+            board.taskManager = null;
+            board.storageManager = null;
+
+            this.evictions.increment();
+            this.residentBoards.decrementAndGet();
+        }
+
+        this.residentBytes.set(total);
+    }
+
+    // region Nested Types
+
+    /**
+     * Доска: менеджер задач с собственным файлом хранилища.
+     */
+    public static final class Board {
+        /**
+         * Идентификатор доски.
+         */
+        private final String id;
+
+        /**
+         * Файл хранилища доски.
+         */
+        private final File storage;
+
+        /**
+         * Менеджер задач, хранящий доску, или null, если доска не загружена.
+         */
+        private volatile FileBackedTaskManager storageManager;
+
+        /**
+         * Менеджер задач доски с замером метрик или null, если доска не загружена.
+         */
+        private volatile TaskManager taskManager;
+
+        /**
+         * Количество запросов, работающих с доской (изменяется под блокировкой реестра).
+         */
+        private int users;
+
+        /**
+         * Конструктор.
+         */
+        Board(String id, File storage) {
+            this.id = id;
+            this.storage = storage;
+        }
+
+        /**
+         * Получить идентификатор доски.
+         *
+         * @return идентификатор доски.
+         */
+        public String getId() {
+            return this.id;
+        }
+
+        /**
+         * Получить менеджер задач доски.
+         *
+         * @return менеджер задач.
+         */
+        public TaskManager getTaskManager() {
+            return this.taskManager;
+        }
+
+        /**
+         * Получить оценку памяти, занятой доской.
+         *
+         * @return оценка памяти, байт.
+         */
+        long getEstimatedBytes() {
+            FileBackedTaskManager taskManager = this.storageManager;
+            if (taskManager == null) {
+                return 0;
+            }
+
+            return (taskManager.tasks.size() + taskManager.subTasks.size() + taskManager.epics.size()) * ESTIMATED_ITEM_BYTES;
+        }
+    }
+
+    // endregion
+}
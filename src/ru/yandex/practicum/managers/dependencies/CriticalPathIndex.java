@@ -0,0 +1,503 @@
+package ru.yandex.practicum.managers.dependencies;
+
+// region imports
+
+import ru.yandex.practicum.models.SubTask;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Optional;
+import java.util.PriorityQueue;
+import java.util.TreeSet;
+
+// endregion
+
+/**
+ * Зависимости между подзадачами эпиков («окончание - начало») и критический путь каждого эпика.
+ * <p>
+ * Подзадача не может начаться раньше своего запланированного времени начала и раньше окончания всех подзадач,
+ * от которых она зависит. Для каждой подзадачи хранится самое раннее возможное начало и окончание, для эпика -
+ * подзадачи, упорядоченные по самому раннему окончанию; критический путь - цепочка подзадач, задержка любой из
+ * которых сдвигает самое раннее окончание эпика.
+ * <p>
+ * Значения поддерживаются инкрементально. Подзадачи каждого эпика хранят номера в топологическом порядке, который
+ * при добавлении зависимости исправляется только в затронутой области (алгоритм Пирса - Келли); этот же обход
+ * обнаруживает циклы. После изменения подзадачи или зависимости пересчитываются только подзадачи, чьё время
+ * изменилось, в топологическом порядке, так что каждая пересчитывается не больше одного раза. Самое раннее окончание
+ * эпика берётся из упорядоченного множества за O(log n), критический путь восстанавливается по сохранённым
+ * ссылкам на определяющую предшественницу за время, пропорциональное его длине.
+ * <p>
+ * Класс не потокобезопасен.
+ */
+public final class CriticalPathIndex {
+    /**
+     * Порядок подзадач эпика по самому раннему окончанию.
+     */
+    private static final Comparator<Node> END_ORDER = Comparator
+            .comparing((Node node) -> node.earliestEnd)
+            .thenComparingInt(node -> node.id);
+
+    /**
+     * Подзадачи по идентификатору.
+     */
+    private final HashMap<Integer, Node> nodes;
+
+    /**
+     * Графы зависимостей по идентификатору эпика.
+     */
+    private final HashMap<Integer, Graph> graphs;
+
+    /**
+     * Конструктор.
+     */
+    public CriticalPathIndex() {
+        this.nodes = new HashMap<>();
+        this.graphs = new HashMap<>();
+    }
+
+    /**
+     * Добавить подзадачу или обновить её время. Зависимости подзадачи сохраняются, если она осталась в том же эпике.
+     *
+     * @param subTask подзадача.
+     */
+    public void upsert(SubTask subTask) {
+        if (subTask == null) {
+            throw new IllegalArgumentException("Parameter 'subTask' can't be null");
+        }
+
+        Node node = this.nodes.get(subTask.getId());
+        if (node != null && node.graph.epicId != subTask.getEpicId()) {
+            this.remove(subTask.getId());
+            node = null;
+        }
+
+        if (node == null) {
+            Graph graph = this.graphs.computeIfAbsent(subTask.getEpicId(), Graph::new);
+            node = new Node(subTask.getId(), graph, graph.nextOrder++);
+            this.nodes.put(node.id, node);
+        } else if (node.release.equals(subTask.getStartTime()) && node.duration.equals(subTask.getDuration())) {
+            return;
+        }
+
+        node.release = subTask.getStartTime();
+        node.duration = subTask.getDuration();
+
+        propagate(node);
+    }
+
+    /**
+     * Удалить подзадачу вместе с её зависимостями.
+     *
+     * @param subTaskId идентификатор подзадачи.
+     */
+    public void remove(int subTaskId) {
+        Node node = this.nodes.remove(subTaskId);
+        if (node == null) {
+            return;
+        }
+
+        Graph graph = node.graph;
+        graph.byEnd.remove(node);
+
+        for (Node predecessor : node.predecessors) {
+            predecessor.successors.remove(node);
+        }
+
+        List<Node> successors = new ArrayList<>(node.successors);
+        for (Node successor : successors) {
+            successor.predecessors.remove(node);
+        }
+
+        if (graph.byEnd.isEmpty()) {
+            this.graphs.remove(graph.epicId);
+            return;
+        }
+
+        propagate(successors);
+    }
+
+    /**
+     * Добавить зависимость: подзадача начинается не раньше окончания другой подзадачи того же эпика.
+     * Повторное добавление существующей зависимости ничего не меняет.
+     *
+     * @param subTaskId          идентификатор зависимой подзадачи.
+     * @param dependsOnSubTaskId идентификатор подзадачи, окончания которой нужно дождаться.
+     */
+    public void addDependency(int subTaskId, int dependsOnSubTaskId) {
+        Node node = this.getNode(subTaskId);
+        Node predecessor = this.getNode(dependsOnSubTaskId);
+
+        if (node.graph != predecessor.graph) {
+            throw new IllegalStateException("Зависимость возможна только между подзадачами одного эпика");
+        }
+
+        if (node == predecessor) {
+            throw new IllegalStateException("Подзадача не может зависеть от самой себя");
+        }
+
+        if (node.predecessors.contains(predecessor)) {
+            return;
+        }
+
+        if (predecessor.order > node.order) {
+            reorder(predecessor, node);
+        }
+
+        node.predecessors.add(predecessor);
+        predecessor.successors.add(node);
+
+        propagate(node);
+    }
+
+    /**
+     * Удалить зависимость.
+     *
+     * @param subTaskId          идентификатор зависимой подзадачи.
+     * @param dependsOnSubTaskId идентификатор подзадачи, окончания которой нужно было дождаться.
+     */
+    public void removeDependency(int subTaskId, int dependsOnSubTaskId) {
+        Node node = this.getNode(subTaskId);
+        Node predecessor = this.getNode(dependsOnSubTaskId);
+
+        if (!node.predecessors.remove(predecessor)) {
+            throw new IllegalStateException("Подзадача " + subTaskId + " не зависит от подзадачи " + dependsOnSubTaskId);
+        }
+        predecessor.successors.remove(node);
+
+        propagate(node);
+    }
+
+    /**
+     * Получить подзадачи, от которых зависит подзадача.
+     *
+     * @param subTaskId идентификатор подзадачи.
+     * @return идентификаторы подзадач в порядке добавления зависимостей.
+     */
+    public List<Integer> getDependencies(int subTaskId) {
+        Node node = this.nodes.get(subTaskId);
+        if (node == null) {
+            return List.of();
+        }
+
+        List<Integer> dependencies = new ArrayList<>(node.predecessors.size());
+        for (Node predecessor : node.predecessors) {
+            dependencies.add(predecessor.id);
+        }
+
+        return dependencies;
+    }
+
+    /**
+     * Получить самое раннее возможное окончание подзадачи с учётом зависимостей.
+     *
+     * @param subTaskId идентификатор подзадачи.
+     * @return самое раннее окончание, если подзадача известна.
+     */
+    public Optional<LocalDateTime> getEarliestEndTime(int subTaskId) {
+        Node node = this.nodes.get(subTaskId);
+        return node == null ? Optional.empty() : Optional.of(node.earliestEnd);
+    }
+
+    /**
+     * Получить самое раннее возможное окончание эпика с учётом зависимостей подзадач.
+     *
+     * @param epicId идентификатор эпика.
+     * @return самое раннее окончание, если у эпика есть подзадачи.
+     */
+    public Optional<LocalDateTime> getEpicEarliestEndTime(int epicId) {
+        Graph graph = this.graphs.get(epicId);
+        return graph == null ? Optional.empty() : Optional.of(graph.byEnd.last().earliestEnd);
+    }
+
+    /**
+     * Получить критический путь эпика.
+     *
+     * @param epicId идентификатор эпика.
+     * @return идентификаторы подзадач критического пути от первой к последней или пустой список, если у эпика нет
+     * подзадач.
+     */
+    public List<Integer> getCriticalPath(int epicId) {
+        Graph graph = this.graphs.get(epicId);
+        if (graph == null) {
+            return List.of();
+        }
+
+        List<Integer> path = new ArrayList<>();
+        for (Node node = graph.byEnd.last(); node != null; node = node.critical) {
+            path.add(node.id);
+        }
+        Collections.reverse(path);
+
+        return path;
+    }
+
+    /**
+     * Получить все зависимости.
+     *
+     * @return пары {идентификатор зависимой подзадачи, идентификатор подзадачи, окончания которой нужно дождаться}.
+     */
+    public List<int[]> getAllDependencies() {
+        List<int[]> dependencies = new ArrayList<>();
+        for (Node node : this.nodes.values()) {
+            for (Node predecessor : node.predecessors) {
+                dependencies.add(new int[]{node.id, predecessor.id});
+            }
+        }
+
+        return dependencies;
+    }
+
+    /**
+     * Получить подзадачу.
+     *
+     * @param subTaskId идентификатор подзадачи.
+     * @return подзадача.
+     */
+    private Node getNode(int subTaskId) {
+        Node node = this.nodes.get(subTaskId);
+        if (node == null) {
+            throw new IllegalStateException("Подзадача с идентификатором " + subTaskId + " не найдена");
+        }
+
+        return node;
+    }
+
+    /**
+     * Восстановить топологический порядок перед добавлением зависимости {@code to} от {@code from}, если {@code from}
+     * стоит в порядке позже {@code to}. Переставляются только подзадачи между ними, достижимые из {@code to} или
+     * ведущие к {@code from}.
+     *
+     * @param from подзадача, окончания которой нужно дождаться.
+     * @param to   зависимая подзадача.
+     */
+    private static void reorder(Node from, Node to) {
+        List<Node> forward = new ArrayList<>();
+        ArrayDeque<Node> stack = new ArrayDeque<>();
+        LinkedHashSet<Node> visited = new LinkedHashSet<>();
+
+        stack.push(to);
+        visited.add(to);
+        while (!stack.isEmpty()) {
+            Node node = stack.pop();
+            forward.add(node);
+
+            for (Node successor : node.successors) {
+                if (successor == from) {
+                    throw new IllegalStateException("Зависимость подзадачи " + to.id + " от подзадачи " + from.id + " образует цикл");
+                }
+
+                if (successor.order < from.order && visited.add(successor)) {
+                    stack.push(successor);
+                }
+            }
+        }
+
+        List<Node> backward = new ArrayList<>();
+        stack.push(from);
+        visited.add(from);
+        while (!stack.isEmpty()) {
+            Node node = stack.pop();
+            backward.add(node);
+
+            for (Node predecessor : node.predecessors) {
+                if (predecessor.order > to.order && visited.add(predecessor)) {
+                    stack.push(predecessor);
+                }
+            }
+        }
+
+        Comparator<Node> byOrder = Comparator.comparingInt(node -> node.order);
+        forward.sort(byOrder);
+        backward.sort(byOrder);
+
+        // Подзадачи, ведущие к from, занимают освободившиеся номера первыми, за ними - достижимые из to.
+        List<Integer> orders = new ArrayList<>(forward.size() + backward.size());
+        for (Node node : backward) {
+            orders.add(node.order);
+        }
+        for (Node node : forward) {
+            orders.add(node.order);
+        }
+        Collections.sort(orders);
+
+        int i = 0;
+        for (Node node : backward) {
+            node.order = orders.get(i++);
+        }
+        for (Node node : forward) {
+            node.order = orders.get(i++);
+        }
+    }
+
+    /**
+     * Пересчитать время подзадачи и всех подзадач, время которых от неё зависит.
+     *
+     * @param node изменившаяся подзадача.
+     */
+    private static void propagate(Node node) {
+        propagate(List.of(node));
+    }
+
+    /**
+     * Пересчитать время подзадач и всех подзадач, время которых от них зависит, в топологическом порядке.
+     * Подзадача, время окончания которой не изменилось, дальше изменение не передаёт.
+     *
+     * @param changed изменившиеся подзадачи одного эпика.
+     */
+    private static void propagate(List<Node> changed) {
+        PriorityQueue<Node> queue = new PriorityQueue<>(Comparator.comparingInt(node -> node.order));
+        for (Node node : changed) {
+            if (!node.queued) {
+                node.queued = true;
+                queue.add(node);
+            }
+        }
+
+        while (!queue.isEmpty()) {
+            Node node = queue.poll();
+            node.queued = false;
+
+            // Предшественница без резерва времени (окончание не раньше запланированного начала) критическая:
+            // её задержка сдвигает начало подзадачи.
+            Node critical = null;
+            for (Node predecessor : node.predecessors) {
+                if (!predecessor.earliestEnd.isBefore(node.release) && (critical == null || predecessor.earliestEnd.isAfter(critical.earliestEnd))) {
+                    critical = predecessor;
+                }
+            }
+            LocalDateTime earliestStart = critical == null ? node.release : critical.earliestEnd;
+            LocalDateTime earliestEnd = earliestStart.plus(node.duration);
+
+            node.critical = critical;
+            if (earliestEnd.equals(node.earliestEnd)) {
+                continue;
+            }
+
+            Graph graph = node.graph;
+            if (node.earliestEnd != null) {
+                graph.byEnd.remove(node);
+            }
+            node.earliestEnd = earliestEnd;
+            graph.byEnd.add(node);
+
+            for (Node successor : node.successors) {
+                if (!successor.queued) {
+                    successor.queued = true;
+                    queue.add(successor);
+                }
+            }
+        }
+    }
+
+    // region Nested Types
+
+    /**
+     * Граф зависимостей подзадач эпика.
+     */
+    private static final class Graph {
+        /**
+         * Идентификатор эпика.
+         */
+        private final int epicId;
+
+        /**
+         * Подзадачи по самому раннему окончанию.
+         */
+        private final TreeSet<Node> byEnd;
+
+        /**
+         * Номер в топологическом порядке для следующей добавленной подзадачи.
+         */
+        private int nextOrder;
+
+        /**
+         * Конструктор.
+         *
+         * @param epicId идентификатор эпика.
+         */
+        private Graph(int epicId) {
+            this.epicId = epicId;
+            this.byEnd = new TreeSet<>(END_ORDER);
+        }
+    }
+
+    /**
+     * Подзадача в графе зависимостей.
+     */
+    private static final class Node {
+        /**
+         * Идентификатор подзадачи.
+         */
+        private final int id;
+
+        /**
+         * Граф эпика.
+         */
+        private final Graph graph;
+
+        /**
+         * Подзадачи, окончания которых нужно дождаться.
+         */
+        private final LinkedHashSet<Node> predecessors;
+
+        /**
+         * Подзадачи, ожидающие окончания этой.
+         */
+        private final LinkedHashSet<Node> successors;
+
+        /**
+         * Номер в топологическом порядке эпика: меньше, чем у всех зависимых подзадач.
+         */
+        private int order;
+
+        /**
+         * Запланированное время начала.
+         */
+        private LocalDateTime release;
+
+        /**
+         * Продолжительность.
+         */
+        private Duration duration;
+
+        /**
+         * Самое раннее возможное окончание или null, если ещё не вычислено.
+         */
+        private LocalDateTime earliestEnd;
+
+        /**
+         * Предшественница, окончание которой определяет самое раннее начало, или null, если все предшественницы
+         * заканчиваются раньше запланированного времени начала.
+         */
+        private Node critical;
+
+        /**
+         * Признак нахождения в очереди пересчёта.
+         */
+        private boolean queued;
+
+        /**
+         * Конструктор.
+         *
+         * @param id    идентификатор подзадачи.
+         * @param graph граф эпика.
+         * @param order номер в топологическом порядке.
+         */
+        private Node(int id, Graph graph, int order) {
+            this.id = id;
+            this.graph = graph;
+            this.order = order;
+            this.predecessors = new LinkedHashSet<>();
+            this.successors = new LinkedHashSet<>();
+        }
+    }
+
+    // endregion
+}
@@ -0,0 +1,573 @@
+package ru.yandex.practicum.managers.imports;
+
+// region imports
+
+import com.google.gson.Gson;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParseException;
+import com.google.gson.JsonParser;
+import ru.yandex.practicum.abstractions.TaskManager;
+import ru.yandex.practicum.api.dto.EpicDto;
+import ru.yandex.practicum.api.dto.SubTaskDto;
+import ru.yandex.practicum.constants.TaskStatus;
+import ru.yandex.practicum.constants.TaskType;
+import ru.yandex.practicum.models.Epic;
+import ru.yandex.practicum.models.Operation;
+import ru.yandex.practicum.models.RecurringTask;
+import ru.yandex.practicum.models.SubTask;
+import ru.yandex.practicum.models.Task;
+import ru.yandex.practicum.utils.sort.ExternalSorter;
+
+import java.io.BufferedReader;
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.*;
+
+// endregion
+
+/**
+ * Массовый импорт задач, подзадач и эпиков из NDJSON.
+ * <p>
+ * Каждая строка - объект в том же виде, что и в API, с дополнительным полем {@code type} (task, subtask или epic).
+ * Идентификаторы из файла используются только для связи подзадач с эпиками этого же файла (или с эпиками менеджера,
+ * если эпика с таким идентификатором в файле нет); все импортируемые задачи получают новые идентификаторы.
+ * <p>
+ * Строки читаются по одной; задачи и подзадачи сортируются по времени начала внешней сортировкой с ограниченным
+ * количеством элементов в памяти, после чего за один проход, слитый с упорядоченным списком задач менеджера,
+ * отбрасываются пересекающиеся по времени выполнения (в том числе с повторениями повторяющихся задач). Принятые
+ * строки загружаются в менеджер пакетами не больше того же количества элементов, поэтому память не растёт с размером
+ * импорта; если пакет не удаётся применить, об ошибке сообщается для каждой его строки.
+ * Об ошибках в отдельных строках сообщается через {@link ErrorListener}, остальные строки при этом импортируются.
+ */
+public final class TaskImporter {
+    /**
+     * Количество задач, накапливаемых в памяти до сброса во временный файл, по умолчанию.
+     */
+    public static final int DEFAULT_MAX_IN_MEMORY = 100_000;
+
+    /**
+     * Порядок импортируемых задач: по времени начала, при равенстве - по номеру строки.
+     */
+    private static final Comparator<Item> ITEM_ORDER = Comparator.<Item, LocalDateTime>comparing(item -> item.startTime).thenComparingInt(item -> item.line);
+
+    /**
+     * Менеджер задач.
+     */
+    private final TaskManager taskManager;
+
+    /**
+     * Экземпляр Gson для разбора строк.
+     */
+    private final Gson gson;
+
+    /**
+     * Количество задач, накапливаемых в памяти до сброса во временный файл.
+     */
+    private final int maxInMemory;
+
+    /**
+     * Конструктор.
+     *
+     * @param taskManager менеджер задач.
+     * @param gson        экземпляр Gson для разбора строк.
+     * @param maxInMemory количество задач, накапливаемых в памяти до сброса во временный файл.
+     */
+    public TaskImporter(TaskManager taskManager, Gson gson, int maxInMemory) {
+        if (taskManager == null) {
+            throw new IllegalArgumentException("Parameter 'taskManager' can't be null");
+        }
+
+        if (gson == null) {
+            throw new IllegalArgumentException("Parameter 'gson' can't be null");
+        }
+
+        this.taskManager = taskManager;
+        this.gson = gson;
+        this.maxInMemory = maxInMemory;
+    }
+
+    /**
+     * Импортировать задачи, подзадачи и эпики.
+     *
+     * @param reader        поток чтения NDJSON.
+     * @param errorListener получатель ошибок в отдельных строках.
+     * @return результат импорта.
+     */
+    public Result importFrom(BufferedReader reader, ErrorListener errorListener) throws IOException {
+        if (reader == null) {
+            throw new IllegalArgumentException("Parameter 'reader' can't be null");
+        }
+
+        if (errorListener == null) {
+            throw new IllegalArgumentException("Parameter 'errorListener' can't be null");
+        }
+
+        Chunk chunk = new Chunk();
+        HashMap<Integer, Epic> importedEpics = new HashMap<>();
+        int imported = 0;
+        int rejected = 0;
+
+        try (ExternalSorter<Item> sorter = new ExternalSorter<>(ITEM_ORDER, new ItemCodec(), this.maxInMemory)) {
+            int lineNumber = 0;
+            String line;
+
+            while ((line = reader.readLine()) != null) {
+                lineNumber++;
+                if (line.isBlank()) {
+                    continue;
+                }
+
+                try {
+                    Item item = this.parse(line, lineNumber);
+                    if (item.type != TaskType.EPIC) {
+                        sorter.add(item);
+                        continue;
+                    }
+
+                    if (item.sourceId != null && importedEpics.containsKey(item.sourceId)) {
+                        throw new IllegalStateException("Эпик с идентификатором " + item.sourceId + " уже встречался в строке выше");
+                    }
+
+                    Epic epic = new Epic(item.name, item.description);
+                    if (item.sourceId != null) {
+                        importedEpics.put(item.sourceId, epic);
+                    }
+
+                    chunk.add(Operation.create(epic), lineNumber);
+                } catch (JsonParseException | IllegalArgumentException | IllegalStateException ex) {
+                    rejected++;
+                    errorListener.onError(lineNumber, ex.getMessage());
+                }
+
+                if (chunk.size() >= this.maxInMemory) {
+                    imported += this.apply(chunk, importedEpics, errorListener);
+                }
+            }
+
+            // Подзадачи ссылаются на эпики файла, поэтому эпики загружаются до подзадач.
+            imported += this.apply(chunk, importedEpics, errorListener);
+
+            HashSet<Integer> existingEpicIds = new HashSet<>();
+            for (Epic epic : this.taskManager.getAllEpics()) {
+                existingEpicIds.add(epic.getId());
+            }
+
+            List<RecurringTask> recurringTasks = this.taskManager.getAllRecurringTasks();
+
+            Iterator<Task> existing = this.taskManager.getPrioritizedTasks().iterator();
+            Task nextExisting = existing.hasNext() ? existing.next() : null;
+            LocalDateTime lastStart = null;
+            LocalDateTime maxEnd = null;
+
+            Iterator<Item> items = sorter.sorted();
+            while (items.hasNext()) {
+                Item item = items.next();
+                LocalDateTime endTime = item.startTime.plus(item.duration);
+
+                while (nextExisting != null && nextExisting.<LocalDateTime>getStartTime().isBefore(item.startTime)) {
+                    lastStart = nextExisting.getStartTime();
+                    maxEnd = maxEnd == null || nextExisting.<LocalDateTime>getEndTime().isAfter(maxEnd) ? nextExisting.getEndTime() : maxEnd;
+                    nextExisting = existing.hasNext() ? existing.next() : null;
+                }
+
+                String error = null;
+                if (lastStart != null && (item.startTime.equals(lastStart) || item.startTime.isBefore(maxEnd))) {
+                    error = "Задача пересекается с другой задачей по времени выполнения";
+                } else if (nextExisting != null && (item.startTime.equals(nextExisting.getStartTime()) || endTime.isAfter(nextExisting.getStartTime()))) {
+                    error = "Задача пересекается с задачей " + nextExisting.getId() + " по времени выполнения";
+                } else {
+                    // Повторения не входят в упорядоченный список задач, поэтому проверяются отдельно.
+                    for (RecurringTask recurringTask : recurringTasks) {
+                        if (recurringTask.findCrossingEndTime(item.startTime, item.duration).isPresent()) {
+                            error = "Задача пересекается с повторяющейся задачей " + recurringTask.getId() + " по времени выполнения";
+                            break;
+                        }
+                    }
+                }
+
+                Integer epicId = null;
+                if (error == null && item.type == TaskType.SUBTASK) {
+                    if (importedEpics.containsKey(item.epicId)) {
+                        epicId = importedEpics.get(item.epicId).getId();
+                    } else if (existingEpicIds.contains(item.epicId)) {
+                        epicId = item.epicId;
+                    } else {
+                        error = "Эпик с идентификатором " + item.epicId + " не найден";
+                    }
+                }
+
+                if (error != null) {
+                    rejected++;
+                    errorListener.onError(item.line, error);
+                    continue;
+                }
+
+                Task task = item.type == TaskType.SUBTASK
+                        ? new SubTask(item.name, item.description, item.startTime, item.duration, epicId)
+                        : new Task(item.name, item.description, item.startTime, item.duration);
+                task.setStatus(item.status);
+                chunk.add(Operation.create(task), item.line);
+
+                lastStart = item.startTime;
+                maxEnd = maxEnd == null || endTime.isAfter(maxEnd) ? endTime : maxEnd;
+
+                if (chunk.size() >= this.maxInMemory) {
+                    imported += this.apply(chunk, importedEpics, errorListener);
+                }
+            }
+
+            imported += this.apply(chunk, importedEpics, errorListener);
+        }
+
+        return new Result(imported, rejected + chunk.rejected);
+    }
+
+    /**
+     * Загрузить накопленные операции в менеджер одним пакетом. Если пакет не удаётся применить (например, задачи
+     * менеджера изменились во время импорта), об ошибке сообщается для каждой строки пакета, а эпики пакета
+     * забываются, чтобы их подзадачи были отклонены.
+     *
+     * @param chunk         накопленные операции.
+     * @param importedEpics эпики файла по идентификатору в файле.
+     * @param errorListener получатель ошибок в отдельных строках.
+     * @return количество загруженных строк.
+     */
+    private int apply(Chunk chunk, HashMap<Integer, Epic> importedEpics, ErrorListener errorListener) throws IOException {
+        int size = chunk.size();
+        if (size == 0) {
+            return 0;
+        }
+
+        try {
+            this.taskManager.applyBatch(chunk.operations);
+            return size;
+        } catch (IllegalStateException ex) {
+            HashSet<Integer> failedIds = new HashSet<>();
+            for (Operation operation : chunk.operations) {
+                failedIds.add(operation.getId());
+            }
+            importedEpics.values().removeIf(epic -> failedIds.contains(epic.getId()));
+
+            for (int line : chunk.lines) {
+                errorListener.onError(line, ex.getMessage());
+            }
+
+            chunk.rejected += size;
+            return 0;
+        } finally {
+            chunk.clear();
+        }
+    }
+
+    /**
+     * Разобрать строку NDJSON.
+     *
+     * @param line       строка.
+     * @param lineNumber номер строки.
+     * @return импортируемая задача.
+     */
+    private Item parse(String line, int lineNumber) {
+        JsonObject jsonObject = JsonParser.parseString(line).getAsJsonObject();
+
+        JsonElement typeElement = jsonObject.get("type");
+        if (typeElement == null || typeElement.isJsonNull()) {
+            throw new IllegalArgumentException("Property 'type' can't be null");
+        }
+
+        TaskType type = TaskType.valueOf(typeElement.getAsString().toUpperCase(Locale.ROOT));
+        if (type == TaskType.EPIC) {
+            EpicDto epicDto = this.gson.fromJson(jsonObject, EpicDto.class);
+            return new Item(lineNumber, type, epicDto.id, requireText(epicDto.name, "name"), requireText(epicDto.description, "description"), TaskStatus.NEW, null, null, null);
+        }
+
+        SubTaskDto subTaskDto = this.gson.fromJson(jsonObject, SubTaskDto.class);
+
+        if (subTaskDto.startTime == null) {
+            throw new IllegalArgumentException("Property 'startTime' can't be null");
+        }
+
+        if (subTaskDto.duration == null) {
+            throw new IllegalArgumentException("Property 'duration' can't be null");
+        }
+
+        if (type == TaskType.SUBTASK && subTaskDto.epicId == null) {
+            throw new IllegalArgumentException("Property 'epicId' can't be null");
+        }
+
+        TaskStatus status = subTaskDto.status == null ? TaskStatus.NEW : subTaskDto.status;
+        Integer epicId = type == TaskType.SUBTASK ? subTaskDto.epicId : null;
+
+        return new Item(lineNumber, type, subTaskDto.id, requireText(subTaskDto.name, "name"), requireText(subTaskDto.description, "description"), status, subTaskDto.startTime, subTaskDto.duration, epicId);
+    }
+
+    /**
+     * Проверить, что строковое свойство заполнено.
+     *
+     * @param value значение свойства.
+     * @param name  название свойства.
+     * @return значение свойства.
+     */
+    private static String requireText(String value, String name) {
+        if (value == null || value.trim().isEmpty()) {
+            throw new IllegalArgumentException("Property '" + name + "' can't be null or empty or whitespace");
+        }
+
+        return value;
+    }
+
+    // region Nested Types
+
+    /**
+     * Получатель ошибок в отдельных строках импорта.
+     */
+    public interface ErrorListener {
+        /**
+         * Сообщить об ошибке в строке.
+         *
+         * @param line    номер строки (с единицы).
+         * @param message текст ошибки.
+         */
+        void onError(int line, String message) throws IOException;
+    }
+
+    /**
+     * Результат импорта.
+     */
+    public static final class Result {
+        /**
+         * Количество импортированных строк.
+         */
+        private final int imported;
+
+        /**
+         * Количество отклонённых строк.
+         */
+        private final int rejected;
+
+        /**
+         * Конструктор.
+         *
+         * @param imported количество импортированных строк.
+         * @param rejected количество отклонённых строк.
+         */
+        public Result(int imported, int rejected) {
+            this.imported = imported;
+            this.rejected = rejected;
+        }
+
+        /**
+         * Получить количество импортированных строк.
+         *
+         * @return количество импортированных строк.
+         */
+        public int getImported() {
+            return this.imported;
+        }
+
+        /**
+         * Получить количество отклонённых строк.
+         *
+         * @return количество отклонённых строк.
+         */
+        public int getRejected() {
+            return this.rejected;
+        }
+    }
+
+    /**
+     * Операции, накопленные для загрузки в менеджер, с номерами их строк.
+     */
+    private static final class Chunk {
+        /**
+         * Операции создания.
+         */
+        private final List<Operation> operations;
+
+        /**
+         * Номера строк операций.
+         */
+        private final List<Integer> lines;
+
+        /**
+         * Количество строк, отклонённых при загрузке пакетов.
+         */
+        private int rejected;
+
+        /**
+         * Конструктор.
+         */
+        private Chunk() {
+            this.operations = new ArrayList<>();
+            this.lines = new ArrayList<>();
+        }
+
+        /**
+         * Добавить операцию.
+         *
+         * @param operation операция.
+         * @param line      номер строки.
+         */
+        private void add(Operation operation, int line) {
+            this.operations.add(operation);
+            this.lines.add(line);
+        }
+
+        /**
+         * Получить количество накопленных операций.
+         *
+         * @return количество операций.
+         */
+        private int size() {
+            return this.operations.size();
+        }
+
+        /**
+         * Забыть накопленные операции.
+         */
+        private void clear() {
+            this.operations.clear();
+            this.lines.clear();
+        }
+    }
+
+    /**
+     * Импортируемая задача, подзадача или эпик.
+     */
+    private static final class Item {
+        /**
+         * Номер строки.
+         */
+        private final int line;
+
+        /**
+         * Тип задачи.
+         */
+        private final TaskType type;
+
+        /**
+         * Идентификатор задачи в импортируемом файле.
+         */
+        private final Integer sourceId;
+
+        /**
+         * Название задачи.
+         */
+        private final String name;
+
+        /**
+         * Описание задачи.
+         */
+        private final String description;
+
+        /**
+         * Статус задачи.
+         */
+        private final TaskStatus status;
+
+        /**
+         * Дата и время, когда предполагается приступить к выполнению задачи (null для эпика).
+         */
+        private final LocalDateTime startTime;
+
+        /**
+         * Продолжительность задачи (null для эпика).
+         */
+        private final Duration duration;
+
+        /**
+         * Идентификатор эпика подзадачи в импортируемом файле (null для задачи и эпика).
+         */
+        private final Integer epicId;
+
+        /**
+         * Конструктор.
+         *
+         * @param line        номер строки.
+         * @param type        тип задачи.
+         * @param sourceId    идентификатор задачи в импортируемом файле.
+         * @param name        название задачи.
+         * @param description описание задачи.
+         * @param status      статус задачи.
+         * @param startTime   дата и время, когда предполагается приступить к выполнению задачи.
+         * @param duration    продолжительность задачи.
+         * @param epicId      идентификатор эпика подзадачи в импортируемом файле.
+         */
+        private Item(int line, TaskType type, Integer sourceId, String name, String description, TaskStatus status, LocalDateTime startTime, Duration duration, Integer epicId) {
+            this.line = line;
+            this.type = type;
+            this.sourceId = sourceId;
+            this.name = name;
+            this.description = description;
+            this.status = status;
+            this.startTime = startTime;
+            this.duration = duration;
+            this.epicId = epicId;
+        }
+    }
+
+    /**
+     * Запись импортируемых задач и подзадач во временные файлы сортировки.
+     */
+    private static final class ItemCodec implements ExternalSorter.Codec<Item> {
+        @Override
+        public void write(DataOutput output, Item item) throws IOException {
+            output.writeInt(item.line);
+            output.writeByte(item.type.ordinal());
+            writeNullableInt(output, item.sourceId);
+            writeString(output, item.name);
+            writeString(output, item.description);
+            output.writeByte(item.status.ordinal());
+            output.writeLong(item.startTime.toEpochSecond(ZoneOffset.UTC));
+            output.writeInt(item.startTime.getNano());
+            output.writeLong(item.duration.getSeconds());
+            output.writeInt(item.duration.getNano());
+            writeNullableInt(output, item.epicId);
+        }
+
+        @Override
+        public Item read(DataInput input) throws IOException {
+            int line = input.readInt();
+            TaskType type = TaskType.values()[input.readByte()];
+            Integer sourceId = readNullableInt(input);
+            String name = readString(input);
+            String description = readString(input);
+            TaskStatus status = TaskStatus.values()[input.readByte()];
+            LocalDateTime startTime = LocalDateTime.ofEpochSecond(input.readLong(), input.readInt(), ZoneOffset.UTC);
+            Duration duration = Duration.ofSeconds(input.readLong(), input.readInt());
+            Integer epicId = readNullableInt(input);
+
+            return new Item(line, type, sourceId, name, description, status, startTime, duration, epicId);
+        }
+
+        private static void writeNullableInt(DataOutput output, Integer value) throws IOException {
+            output.writeBoolean(value != null);
+            if (value != null) {
+                output.writeInt(value);
+            }
+        }
+
+        private static Integer readNullableInt(DataInput input) throws IOException {
+            return input.readBoolean() ? input.readInt() : null;
+        }
+
+        private static void writeString(DataOutput output, String value) throws IOException {
+            byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+            output.writeInt(bytes.length);
+            output.write(bytes);
+        }
+
+        private static String readString(DataInput input) throws IOException {
+            byte[] bytes = new byte[input.readInt()];
+            input.readFully(bytes);
+            return new String(bytes, StandardCharsets.UTF_8);
+        }
+    }
+
+    // endregion
+}
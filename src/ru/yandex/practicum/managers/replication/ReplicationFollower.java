@@ -0,0 +1,317 @@
+package ru.yandex.practicum.managers.replication;
+
+// region imports
+
+import com.google.gson.Gson;
+import ru.yandex.practicum.managers.tasks.ReplicaTaskManager;
+import ru.yandex.practicum.utils.json.GsonFactory;
+import ru.yandex.practicum.utils.logging.AsyncLogger;
+import ru.yandex.practicum.utils.logging.Logging;
+import ru.yandex.practicum.utils.metrics.MetricsRegistry;
+
+import java.io.BufferedReader;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.net.InetAddress;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+// endregion
+
+/**
+ * Реплика: подключается к {@link ReplicationPublisher} того же хоста и применяет записи журнала к менеджеру задач
+ * реплики. При обрыве соединения переподключается и догоняет ведущий сервер по журналу.
+ * <p>
+ * Отставание считается в версиях ведущего менеджера задач (сколько изменений ещё не применено) и в миллисекундах
+ * (сколько прошло от изменения на ведущем сервере до его применения на реплике; 0, если реплика догнала ведущий
+ * сервер). Ведущий сервер и реплика работают на одном хосте, поэтому их часы совпадают.
+ */
+public final class ReplicationFollower implements Closeable {
+    /**
+     * Пауза перед повторным подключением, мс.
+     */
+    private static final long RECONNECT_DELAY_MILLIS = 1_000;
+
+    /**
+     * Время ожидания данных от ведущего сервера, мс. Ведущий сервер отправляет отметку о журнале раз в секунду,
+     * поэтому молчание дольше этого времени означает потерю соединения.
+     */
+    private static final int READ_TIMEOUT_MILLIS = 10_000;
+
+    /**
+     * Журнал диагностики.
+     */
+    private static final AsyncLogger log = Logging.getLog();
+
+    /**
+     * Менеджер задач реплики.
+     */
+    private final ReplicaTaskManager replica;
+
+    /**
+     * Порт ведущего сервера.
+     */
+    private final int port;
+
+    /**
+     * Сериализатор JSON.
+     */
+    private final Gson gson;
+
+    /**
+     * Поток, получающий журнал.
+     */
+    private final Thread thread;
+
+    /**
+     * Отставание в версиях.
+     */
+    private final AtomicLong lagVersions;
+
+    /**
+     * Отставание в миллисекундах.
+     */
+    private final AtomicLong lagMillis;
+
+    /**
+     * Признак подключения к ведущему серверу (1 или 0).
+     */
+    private final AtomicLong connected;
+
+    /**
+     * Количество применённых записей.
+     */
+    private final LongAdder recordsApplied;
+
+    /**
+     * Эпоха журнала, с которым синхронизирована реплика, или null, если реплике нужно полное состояние.
+     */
+    private volatile String epoch;
+
+    /**
+     * Номер последней применённой записи журнала.
+     */
+    private volatile long appliedSequence;
+
+    /**
+     * Версия ведущего менеджера задач последней применённой записи.
+     */
+    private volatile long appliedVersion;
+
+    /**
+     * Текущее соединение с ведущим сервером.
+     */
+    private volatile Socket socket;
+
+    /**
+     * Признак остановки.
+     */
+    private volatile boolean closed;
+
+    /**
+     * Конструктор.
+     *
+     * @param replica         менеджер задач реплики.
+     * @param port            порт ведущего сервера.
+     * @param metricsRegistry реестр метрик.
+     */
+    public ReplicationFollower(ReplicaTaskManager replica, int port, MetricsRegistry metricsRegistry) {
+        if (replica == null) {
+            throw new IllegalArgumentException("Parameter 'replica' can't be null");
+        }
+
+        if (port <= 0 || port > 65_535) {
+            throw new IllegalArgumentException("Parameter 'port' should be between 1 and 65535");
+        }
+
+        if (metricsRegistry == null) {
+            throw new IllegalArgumentException("Parameter 'metricsRegistry' can't be null");
+        }
+
+        this.replica = replica;
+        this.port = port;
+        this.gson = GsonFactory.getDefault();
+        this.thread = new Thread(this::run, "replication-follower");
+        this.thread.setDaemon(true);
+
+        this.lagVersions = metricsRegistry.gauge("replica_lag_versions", "Количество изменений ведущего сервера, не применённых репликой");
+        this.lagMillis = metricsRegistry.gauge("replica_lag_milliseconds", "Задержка применения изменений ведущего сервера репликой, мс");
+        this.connected = metricsRegistry.gauge("replica_connected", "Подключена ли реплика к ведущему серверу");
+        this.recordsApplied = metricsRegistry.counter("replica_records_applied_total", "Количество записей журнала, применённых репликой");
+    }
+
+    /**
+     * Начать получение журнала.
+     */
+    public void start() {
+        this.thread.start();
+    }
+
+    /**
+     * Получить версию ведущего менеджера задач, до которой реплика применила изменения.
+     *
+     * @return версия.
+     */
+    public long getAppliedVersion() {
+        return this.appliedVersion;
+    }
+
+    /**
+     * Получить отставание реплики в версиях.
+     *
+     * @return количество не применённых изменений.
+     */
+    public long getLagVersions() {
+        return this.lagVersions.get();
+    }
+
+    /**
+     * Получить отставание реплики в миллисекундах.
+     *
+     * @return задержка применения изменений, мс.
+     */
+    public long getLagMillis() {
+        return this.lagMillis.get();
+    }
+
+    /**
+     * Проверить, подключена ли реплика к ведущему серверу и получила ли она его состояние.
+     *
+     * @return признак подключения.
+     */
+    public boolean isConnected() {
+        return this.connected.get() == 1;
+    }
+
+    /**
+     * Остановить получение журнала.
+     */
+    @Override
+    public void close() throws IOException {
+        this.closed = true;
+        this.thread.interrupt();
+
+        Socket socket = this.socket;
+        if (socket != null) {
+            socket.close();
+        }
+    }
+
+    /**
+     * Получать журнал, переподключаясь при обрыве соединения.
+     */
+    private void run() {
+        while (!this.closed) {
+            try (Socket socket = new Socket(InetAddress.getLoopbackAddress(), this.port)) {
+                this.socket = socket;
+                this.receive(socket);
+            } catch (IOException | RuntimeException ex) {
+                if (!this.closed) {
+                    log.warn(ex.getMessage(), "operation", "replicate", "port", this.port);
+                }
+            } finally {
+                this.socket = null;
+                this.connected.set(0);
+            }
+
+            try {
+                Thread.sleep(RECONNECT_DELAY_MILLIS);
+            } catch (InterruptedException ex) {
+                return;
+            }
+        }
+    }
+
+    /**
+     * Получать и применять журнал, пока соединение открыто.
+     *
+     * @param socket соединение с ведущим сервером.
+     */
+    private void receive(Socket socket) throws IOException {
+        socket.setTcpNoDelay(true);
+        socket.setSoTimeout(READ_TIMEOUT_MILLIS);
+
+        BufferedReader reader = new BufferedReader(new InputStreamReader(socket.getInputStream(), StandardCharsets.UTF_8));
+        Writer writer = new OutputStreamWriter(socket.getOutputStream(), StandardCharsets.UTF_8);
+
+        String epoch = this.epoch;
+        writer.write(ReplicationPublisher.HELLO + "\t" + (epoch == null ? ReplicationPublisher.NO_EPOCH : epoch) + "\t" + this.appliedSequence + "\n");
+        writer.flush();
+
+        String[] start = split(reader.readLine(), ReplicationPublisher.START, 3);
+        if (start[2].equals(ReplicationPublisher.FULL)) {
+            this.epoch = null;
+            this.replica.reset();
+        }
+
+        // До конца догоняющей передачи записи идут не по порядку номеров; номер, с которого можно продолжить,
+        // становится известен только в её конце.
+        boolean synced = false;
+
+        String line;
+        while ((line = reader.readLine()) != null) {
+            if (line.startsWith(ReplicationPublisher.HEARTBEAT + "\t")) {
+                String[] heartbeat = split(line, ReplicationPublisher.HEARTBEAT, 4);
+                if (Long.parseLong(heartbeat[1]) == this.appliedSequence) {
+                    this.lagVersions.set(0);
+                    this.lagMillis.set(0);
+                } else {
+                    this.lagVersions.set(Math.max(0, Long.parseLong(heartbeat[2]) - this.appliedVersion));
+                }
+                continue;
+            }
+
+            if (line.startsWith(ReplicationPublisher.SYNCED + "\t")) {
+                String[] end = split(line, ReplicationPublisher.SYNCED, 3);
+                this.epoch = start[1];
+                this.appliedSequence = Long.parseLong(end[1]);
+                this.appliedVersion = Long.parseLong(end[2]);
+                this.connected.set(1);
+                synced = true;
+                continue;
+            }
+
+            ReplicationRecord record = ReplicationRecord.parse(line);
+            try {
+                this.replica.replicate(record.toOperation(this.gson));
+            } catch (RuntimeException ex) {
+                // Реплика разошлась с ведущим сервером: при переподключении нужно полное состояние.
+                this.epoch = null;
+                throw ex;
+            }
+            this.recordsApplied.increment();
+
+            if (synced) {
+                this.appliedSequence = record.getSequence();
+                this.appliedVersion = record.getVersion();
+                this.lagMillis.set(Math.max(0, System.currentTimeMillis() - record.getTimestamp()));
+            }
+        }
+    }
+
+    /**
+     * Разобрать служебную строку протокола.
+     *
+     * @param line     строка.
+     * @param command  ожидаемая команда.
+     * @param expected ожидаемое количество полей.
+     * @return поля строки.
+     */
+    private static String[] split(String line, String command, int expected) throws IOException {
+        if (line == null) {
+            throw new IOException("Ведущий сервер закрыл соединение");
+        }
+
+        String[] parts = line.split("\t");
+        if (parts.length != expected || !parts[0].equals(command)) {
+            throw new IOException("Некорректная строка протокола репликации: " + line);
+        }
+
+        return parts;
+    }
+}
@@ -0,0 +1,642 @@
+package ru.yandex.practicum.managers.replication;
+
+// region imports
+
+import com.google.gson.Gson;
+import ru.yandex.practicum.abstractions.ChangeListener;
+import ru.yandex.practicum.constants.ChangeType;
+import ru.yandex.practicum.constants.TaskType;
+import ru.yandex.practicum.managers.tasks.InMemoryTaskManager;
+import ru.yandex.practicum.models.AbstractTask;
+import ru.yandex.practicum.models.ChangeEvent;
+import ru.yandex.practicum.models.Epic;
+import ru.yandex.practicum.models.SubTask;
+import ru.yandex.practicum.models.Task;
+import ru.yandex.practicum.utils.json.GsonFactory;
+import ru.yandex.practicum.utils.logging.AsyncLogger;
+import ru.yandex.practicum.utils.logging.Logging;
+import ru.yandex.practicum.utils.metrics.MetricsRegistry;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.net.SocketException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+// endregion
+
+/**
+ * Ведущая сторона репликации: передаёт каждое изменение менеджера задач репликам в других процессах того же хоста
+ * по локальному TCP-соединению.
+ * <p>
+ * Изменения записываются в журнал в памяти, где для каждой задачи хранится только последняя запись (для удалённых -
+ * отметка об удалении, не более заданного количества), поэтому журнал не растёт от повторных изменений одной задачи.
+ * Реплика при подключении сообщает эпоху и номер последней применённой записи: если эпоха совпадает и нужные
+ * отметки об удалении ещё в журнале, ей передаются только записи после этого номера, иначе - полное состояние.
+ * Записи догоняющей передачи упорядочены так, что эпики идут раньше подзадач.
+ * <p>
+ * Протокол построчный (UTF-8):
+ * <ul>
+ *     <li>{@code HELLO <эпоха> <номер>} - реплика, при первом подключении эпоха {@code -};</li>
+ *     <li>{@code START <эпоха> FULL|DELTA} - ведущий сервер, затем записи догоняющей передачи;</li>
+ *     <li>{@code SYNCED <номер> <версия>} - конец догоняющей передачи, далее записи передаются по мере изменений;</li>
+ *     <li>{@code HB <номер> <версия> <время>} - последняя запись журнала, отправляется после каждой порции записей
+ *     и раз в секунду при отсутствии изменений; по нему реплика считает отставание;</li>
+ *     <li>строка {@link ReplicationRecord#toLine()} - запись журнала.</li>
+ * </ul>
+ * Поля разделяются табуляцией. Каждая реплика обслуживается отдельным потоком с ограниченной очередью; реплика,
+ * не успевающая читать записи, отключается и при переподключении догоняет по журналу.
+ */
+public final class ReplicationPublisher implements ChangeListener, Closeable {
+    /**
+     * Приветствие реплики.
+     */
+    static final String HELLO = "HELLO";
+
+    /**
+     * Начало догоняющей передачи.
+     */
+    static final String START = "START";
+
+    /**
+     * Догоняющая передача полного состояния.
+     */
+    static final String FULL = "FULL";
+
+    /**
+     * Догоняющая передача записей после известного реплике номера.
+     */
+    static final String DELTA = "DELTA";
+
+    /**
+     * Конец догоняющей передачи.
+     */
+    static final String SYNCED = "SYNCED";
+
+    /**
+     * Отметка о последней записи журнала.
+     */
+    static final String HEARTBEAT = "HB";
+
+    /**
+     * Эпоха реплики, ещё не получавшей данных.
+     */
+    static final String NO_EPOCH = "-";
+
+    /**
+     * Максимальное количество отметок об удалении в журнале.
+     */
+    private static final int MAX_TOMBSTONES = 65_536;
+
+    /**
+     * Максимальное количество неотправленных записей одной реплики.
+     */
+    private static final int FOLLOWER_CAPACITY = 65_536;
+
+    /**
+     * Максимальное количество одновременно подключённых реплик.
+     */
+    private static final int MAX_FOLLOWERS = 64;
+
+    /**
+     * Интервал отправки отметки о состоянии журнала при отсутствии изменений, мс.
+     */
+    private static final long HEARTBEAT_INTERVAL_MILLIS = 1_000;
+
+    /**
+     * Время ожидания приветствия реплики, мс.
+     */
+    private static final int HELLO_TIMEOUT_MILLIS = 5_000;
+
+    /**
+     * Журнал диагностики.
+     */
+    private static final AsyncLogger log = Logging.getLog();
+
+    /**
+     * Ведущий менеджер задач.
+     */
+    private final InMemoryTaskManager taskManager;
+
+    /**
+     * Порт, на котором принимаются подключения реплик (0 - любой свободный).
+     */
+    private final int port;
+
+    /**
+     * Сериализатор JSON.
+     */
+    private final Gson gson;
+
+    /**
+     * Эпоха журнала: меняется при каждом запуске, номера записей разных эпох несравнимы.
+     */
+    private final String epoch;
+
+    /**
+     * Записи журнала по номеру.
+     */
+    private final TreeMap<Long, ReplicationRecord> entries;
+
+    /**
+     * Номер последней записи по идентификатору задачи.
+     */
+    private final HashMap<Integer, Long> sequences;
+
+    /**
+     * Номера отметок об удалении в порядке добавления.
+     */
+    private final ArrayDeque<Long> tombstones;
+
+    /**
+     * Подключённые реплики.
+     */
+    private final List<Follower> followers;
+
+    /**
+     * Принятые соединения, в том числе с репликами, которые ещё не прислали приветствие.
+     */
+    private final Set<Socket> sockets;
+
+    /**
+     * Потоки, обслуживающие реплики.
+     */
+    private final ExecutorService executor;
+
+    /**
+     * Количество подключённых реплик.
+     */
+    private final AtomicLong connectedFollowers;
+
+    /**
+     * Количество записей журнала.
+     */
+    private final AtomicLong journalSize;
+
+    /**
+     * Количество переданных записей.
+     */
+    private final LongAdder recordsSent;
+
+    /**
+     * Номер последней записи.
+     */
+    private long sequence;
+
+    /**
+     * Версия менеджера задач последней записи.
+     */
+    private long version;
+
+    /**
+     * Наибольший номер вытесненной отметки об удалении.
+     */
+    private long compactedSequence;
+
+    /**
+     * Сокет, принимающий подключения реплик.
+     */
+    private volatile ServerSocket serverSocket;
+
+    /**
+     * Конструктор.
+     *
+     * @param taskManager     ведущий менеджер задач.
+     * @param port            порт, на котором принимаются подключения реплик (0 - любой свободный).
+     * @param metricsRegistry реестр метрик.
+     */
+    public ReplicationPublisher(InMemoryTaskManager taskManager, int port, MetricsRegistry metricsRegistry) {
+        if (taskManager == null) {
+            throw new IllegalArgumentException("Parameter 'taskManager' can't be null");
+        }
+
+        if (port < 0 || port > 65_535) {
+            throw new IllegalArgumentException("Parameter 'port' should be between 0 and 65535");
+        }
+
+        if (metricsRegistry == null) {
+            throw new IllegalArgumentException("Parameter 'metricsRegistry' can't be null");
+        }
+
+        this.taskManager = taskManager;
+        this.port = port;
+        this.gson = GsonFactory.getDefault();
+        this.epoch = Long.toHexString(ThreadLocalRandom.current().nextLong());
+        this.entries = new TreeMap<>();
+        this.sequences = new HashMap<>();
+        this.tombstones = new ArrayDeque<>();
+        this.followers = new ArrayList<>();
+        this.sockets = new HashSet<>();
+        this.executor = Executors.newCachedThreadPool(runnable -> {
+            Thread thread = new Thread(runnable, "replication-publisher");
+            thread.setDaemon(true);
+            return thread;
+        });
+
+        this.connectedFollowers = metricsRegistry.gauge("replication_followers", "Количество подключённых реплик");
+        this.journalSize = metricsRegistry.gauge("replication_journal_records", "Количество записей журнала репликации");
+        this.recordsSent = metricsRegistry.counter("replication_records_sent_total", "Количество записей, переданных репликам");
+    }
+
+    /**
+     * Записать текущее состояние менеджера задач в журнал, подписаться на его изменения и начать принимать
+     * подключения реплик. Вызывается до того, как менеджер задач начнёт изменяться из других потоков.
+     */
+    public synchronized void start() throws IOException {
+        if (this.serverSocket != null) {
+            throw new IllegalStateException("Репликация уже запущена");
+        }
+
+        long version = this.taskManager.getVersion();
+        for (Epic epic : this.taskManager.epics.values()) {
+            this.append(ChangeType.CREATED, TaskType.EPIC, epic.getId(), version, ReplicationRecord.toPayload(this.gson, epic));
+        }
+
+        for (SubTask subTask : this.taskManager.subTasks.values()) {
+            this.append(ChangeType.CREATED, TaskType.SUBTASK, subTask.getId(), version, ReplicationRecord.toPayload(this.gson, subTask));
+        }
+
+        for (Task task : this.taskManager.tasks.values()) {
+            this.append(ChangeType.CREATED, TaskType.TASK, task.getId(), version, ReplicationRecord.toPayload(this.gson, task));
+        }
+        this.version = version;
+
+        this.taskManager.addChangeListener(this);
+
+        // Порт должен освобождаться сразу после остановки, иначе перезапущенный сервер ждёт закрытия старых соединений.
+        ServerSocket serverSocket = new ServerSocket();
+        serverSocket.setReuseAddress(true);
+        serverSocket.bind(new InetSocketAddress(InetAddress.getLoopbackAddress(), this.port));
+
+        this.serverSocket = serverSocket;
+        this.executor.execute(this::accept);
+    }
+
+    /**
+     * Получить порт, на котором принимаются подключения реплик.
+     *
+     * @return порт.
+     */
+    public int getPort() {
+        ServerSocket serverSocket = this.serverSocket;
+        if (serverSocket == null) {
+            throw new IllegalStateException("Репликация не запущена");
+        }
+
+        return serverSocket.getLocalPort();
+    }
+
+    /**
+     * Получить эпоху журнала.
+     *
+     * @return эпоха.
+     */
+    public String getEpoch() {
+        return this.epoch;
+    }
+
+    /**
+     * Остановить приём подключений и отключить реплики. Все принятые соединения закрываются сразу, чтобы порт можно
+     * было снова занять.
+     */
+    @Override
+    public void close() throws IOException {
+        this.taskManager.removeChangeListener(this);
+
+        ServerSocket serverSocket = this.serverSocket;
+        if (serverSocket != null) {
+            serverSocket.close();
+        }
+
+        synchronized (this) {
+            for (Follower follower : this.followers) {
+                follower.disconnect();
+            }
+
+            for (Socket socket : this.sockets) {
+                closeQuietly(socket);
+            }
+        }
+
+        this.executor.shutdownNow();
+    }
+
+    // region Overrides of ChangeListener
+
+    @Override
+    public void onChange(ChangeEvent event) {
+        String payload = null;
+        if (event.getType() != ChangeType.REMOVED) {
+            AbstractTask entity = this.findEntity(event.getTaskType(), event.getId());
+            if (entity == null) {
+                return;
+            }
+
+            payload = ReplicationRecord.toPayload(this.gson, entity);
+        }
+
+        synchronized (this) {
+            ReplicationRecord record = this.append(event.getType(), event.getTaskType(), event.getId(), event.getVersion(), payload);
+            this.version = event.getVersion();
+
+            for (Follower follower : this.followers) {
+                if (!follower.overflowed && !follower.queue.offer(record)) {
+                    follower.disconnect();
+                }
+            }
+        }
+    }
+
+    // endregion
+
+    /**
+     * Добавить запись в журнал, заменив предыдущую запись той же задачи.
+     *
+     * @return добавленная запись.
+     */
+    private ReplicationRecord append(ChangeType type, TaskType taskType, int id, long version, String payload) {
+        ReplicationRecord record = new ReplicationRecord(++this.sequence, version, System.currentTimeMillis(), type, taskType, id, payload);
+
+        Long previous = this.sequences.put(id, record.getSequence());
+        if (previous != null) {
+            this.entries.remove(previous);
+        }
+        this.entries.put(record.getSequence(), record);
+
+        if (type == ChangeType.REMOVED) {
+            this.tombstones.addLast(record.getSequence());
+
+            while (this.tombstones.size() > MAX_TOMBSTONES) {
+                long eldest = this.tombstones.pollFirst();
+                ReplicationRecord evicted = this.entries.remove(eldest);
+                if (evicted != null) {
+                    this.sequences.remove(evicted.getId(), eldest);
+                }
+                this.compactedSequence = eldest;
+            }
+        }
+
+        this.journalSize.set(this.entries.size());
+        return record;
+    }
+
+    /**
+     * Найти задачу, подзадачу или эпик ведущего менеджера задач без записи в историю просмотра.
+     */
+    private AbstractTask findEntity(TaskType taskType, int id) {
+        switch (taskType) {
+            case TASK:
+                return this.taskManager.tasks.get(id);
+            case SUBTASK:
+                return this.taskManager.subTasks.get(id);
+            case EPIC:
+                return this.taskManager.epics.get(id);
+            default:
+                return null;
+        }
+    }
+
+    /**
+     * Принимать подключения реплик, пока сокет открыт.
+     */
+    private void accept() {
+        ServerSocket serverSocket = this.serverSocket;
+
+        while (!serverSocket.isClosed()) {
+            Socket socket;
+            try {
+                socket = serverSocket.accept();
+            } catch (IOException ex) {
+                if (!serverSocket.isClosed()) {
+                    log.warn(ex.getMessage(), "operation", "accept");
+                }
+                continue;
+            }
+
+            if (this.connectedFollowers.incrementAndGet() > MAX_FOLLOWERS) {
+                this.connectedFollowers.decrementAndGet();
+                closeQuietly(socket);
+                continue;
+            }
+
+            synchronized (this) {
+                if (serverSocket.isClosed()) {
+                    // Соединение принято, пока публикация останавливалась.
+                    this.connectedFollowers.decrementAndGet();
+                    closeQuietly(socket);
+                    return;
+                }
+
+                this.sockets.add(socket);
+            }
+
+            try {
+                this.executor.execute(() -> {
+                    try {
+                        this.serve(socket);
+                    } finally {
+                        this.release(socket);
+                    }
+                });
+            } catch (RejectedExecutionException ex) {
+                this.release(socket);
+            }
+        }
+    }
+
+    /**
+     * Обслуживать реплику: передать записи, которых у неё нет, и затем передавать изменения по мере появления.
+     *
+     * @param socket соединение с репликой.
+     */
+    private void serve(Socket socket) {
+        Follower follower = null;
+
+        try {
+            socket.setTcpNoDelay(true);
+            socket.setSoTimeout(HELLO_TIMEOUT_MILLIS);
+
+            BufferedReader reader = new BufferedReader(new InputStreamReader(socket.getInputStream(), StandardCharsets.UTF_8));
+            Writer writer = new BufferedWriter(new OutputStreamWriter(socket.getOutputStream(), StandardCharsets.UTF_8));
+
+            String hello = reader.readLine();
+            String[] parts = hello == null ? new String[0] : hello.split("\t");
+            if (parts.length != 3 || !parts[0].equals(HELLO)) {
+                log.warn("Некорректное приветствие реплики", "remote", socket.getRemoteSocketAddress());
+                return;
+            }
+
+            follower = new Follower(socket);
+            List<ReplicationRecord> catchUp = new ArrayList<>();
+            boolean full;
+            long syncedSequence;
+            long syncedVersion;
+
+            synchronized (this) {
+                long since = parts[1].equals(this.epoch) ? Long.parseLong(parts[2]) : -1;
+                full = since < this.compactedSequence || since > this.sequence;
+
+                for (ReplicationRecord record : (full ? this.entries : this.entries.tailMap(since, false)).values()) {
+                    if (!full || record.getType() != ChangeType.REMOVED) {
+                        catchUp.add(record);
+                    }
+                }
+                syncedSequence = this.sequence;
+                syncedVersion = this.version;
+
+                this.followers.add(follower);
+            }
+
+            // Догоняющие записи идут не по порядку номеров: эпики раньше подзадач, иначе подзадачу некуда добавить.
+            catchUp.sort((left, right) -> Boolean.compare(left.getTaskType() != TaskType.EPIC, right.getTaskType() != TaskType.EPIC));
+
+            writer.write(START + "\t" + this.epoch + "\t" + (full ? FULL : DELTA) + "\n");
+            for (ReplicationRecord record : catchUp) {
+                writer.write(record.toLine());
+                writer.write('\n');
+            }
+            writer.write(SYNCED + "\t" + syncedSequence + "\t" + syncedVersion + "\n");
+            this.writeHeartbeat(writer);
+            writer.flush();
+            this.recordsSent.add(catchUp.size());
+
+            while (!follower.overflowed) {
+                ReplicationRecord record = follower.queue.poll(HEARTBEAT_INTERVAL_MILLIS, TimeUnit.MILLISECONDS);
+
+                // Накопившиеся записи отправляются одной порцией.
+                int count = 0;
+                while (record != null) {
+                    writer.write(record.toLine());
+                    writer.write('\n');
+                    count++;
+                    record = follower.queue.poll();
+                }
+
+                this.writeHeartbeat(writer);
+                writer.flush();
+                this.recordsSent.add(count);
+            }
+
+            log.warn("Реплика не успевает читать журнал и будет отключена", "remote", socket.getRemoteSocketAddress());
+        } catch (SocketException ex) {
+            // Реплика отключилась.
+        } catch (IOException | RuntimeException ex) {
+            log.warn(ex.getMessage(), "operation", "replicate", "remote", socket.getRemoteSocketAddress());
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        } finally {
+            if (follower != null) {
+                synchronized (this) {
+                    this.followers.remove(follower);
+                }
+            }
+        }
+    }
+
+    /**
+     * Записать отметку о последней записи журнала.
+     */
+    private void writeHeartbeat(Writer writer) throws IOException {
+        long sequence;
+        long version;
+        synchronized (this) {
+            sequence = this.sequence;
+            version = this.version;
+        }
+
+        writer.write(HEARTBEAT + "\t" + sequence + "\t" + version + "\t" + System.currentTimeMillis() + "\n");
+    }
+
+    /**
+     * Закрыть соединение с репликой и перестать его учитывать.
+     *
+     * @param socket соединение с репликой.
+     */
+    private void release(Socket socket) {
+        synchronized (this) {
+            if (!this.sockets.remove(socket)) {
+                return;
+            }
+        }
+
+        closeQuietly(socket);
+        this.connectedFollowers.decrementAndGet();
+    }
+
+    /**
+     * Закрыть соединение, не сообщая об ошибках.
+     */
+    private static void closeQuietly(Socket socket) {
+        try {
+            socket.close();
+        } catch (IOException ignored) {
+            // Соединение уже закрыто.
+        }
+    }
+
+    // region Nested Types
+
+    /**
+     * Подключённая реплика.
+     */
+    private static final class Follower {
+        /**
+         * Соединение с репликой.
+         */
+        private final Socket socket;
+
+        /**
+         * Неотправленные записи.
+         */
+        private final ArrayBlockingQueue<ReplicationRecord> queue;
+
+        /**
+         * Признак того, что реплика должна быть отключена (не успевала читать записи или репликация остановлена).
+         */
+        private volatile boolean overflowed;
+
+        /**
+         * Конструктор.
+         *
+         * @param socket соединение с репликой.
+         */
+        private Follower(Socket socket) {
+            this.socket = socket;
+            this.queue = new ArrayBlockingQueue<>(FOLLOWER_CAPACITY);
+        }
+
+        /**
+         * Отключить реплику. Соединение закрывается сразу, чтобы прервать запись, которая может ждать реплику.
+         */
+        private void disconnect() {
+            this.overflowed = true;
+            this.queue.clear();
+            closeQuietly(this.socket);
+        }
+    }
+
+    // endregion
+}
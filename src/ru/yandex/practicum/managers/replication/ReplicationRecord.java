@@ -0,0 +1,234 @@
+package ru.yandex.practicum.managers.replication;
+
+// region imports
+
+import com.google.gson.Gson;
+import ru.yandex.practicum.constants.ChangeType;
+import ru.yandex.practicum.constants.TaskType;
+import ru.yandex.practicum.models.AbstractTask;
+import ru.yandex.practicum.models.Epic;
+import ru.yandex.practicum.models.Operation;
+import ru.yandex.practicum.models.SubTask;
+import ru.yandex.practicum.models.Task;
+
+import java.util.HashMap;
+
+// endregion
+
+/**
+ * Запись журнала репликации: изменение одной задачи, подзадачи или эпика на ведущем менеджере задач.
+ * <p>
+ * Запись создания или изменения содержит состояние задачи после изменения в формате JSON, поэтому её применение
+ * не зависит от предыдущих записей той же задачи. Для эпика передаются только название и описание: его статус
+ * и время выполнения вычисляются по подзадачам.
+ */
+public final class ReplicationRecord {
+    /**
+     * Разделитель полей в строке журнала. Сериализатор JSON экранирует управляющие символы, поэтому
+     * разделитель не встречается внутри состояния задачи.
+     */
+    static final char SEPARATOR = '\t';
+
+    /**
+     * Порядковый номер записи в журнале ведущего сервера.
+     */
+    private final long sequence;
+
+    /**
+     * Версия ведущего менеджера задач, присвоенная изменению.
+     */
+    private final long version;
+
+    /**
+     * Время изменения на ведущем сервере, мс от начала эпохи.
+     */
+    private final long timestamp;
+
+    /**
+     * Тип изменения.
+     */
+    private final ChangeType type;
+
+    /**
+     * Тип задачи.
+     */
+    private final TaskType taskType;
+
+    /**
+     * Идентификатор задачи.
+     */
+    private final int id;
+
+    /**
+     * Состояние задачи в формате JSON или null для удаления.
+     */
+    private final String payload;
+
+    /**
+     * Конструктор.
+     *
+     * @param sequence  порядковый номер записи.
+     * @param version   версия ведущего менеджера задач.
+     * @param timestamp время изменения, мс от начала эпохи.
+     * @param type      тип изменения.
+     * @param taskType  тип задачи.
+     * @param id        идентификатор задачи.
+     * @param payload   состояние задачи в формате JSON или null для удаления.
+     */
+    public ReplicationRecord(long sequence, long version, long timestamp, ChangeType type, TaskType taskType, int id, String payload) {
+        if (type == null) {
+            throw new IllegalArgumentException("Parameter 'type' can't be null");
+        }
+
+        if (taskType == null) {
+            throw new IllegalArgumentException("Parameter 'taskType' can't be null");
+        }
+
+        if ((payload == null) != (type == ChangeType.REMOVED)) {
+            throw new IllegalArgumentException("Parameter 'payload' should be null only for removal");
+        }
+
+        this.sequence = sequence;
+        this.version = version;
+        this.timestamp = timestamp;
+        this.type = type;
+        this.taskType = taskType;
+        this.id = id;
+        this.payload = payload;
+    }
+
+    /**
+     * Сериализовать состояние задачи для записи журнала.
+     *
+     * @param gson   сериализатор JSON.
+     * @param entity задача, подзадача или эпик.
+     * @return состояние задачи в формате JSON.
+     */
+    static String toPayload(Gson gson, AbstractTask entity) {
+        if (entity instanceof Epic epic) {
+            return gson.toJson(new Epic(epic.getId(), epic.getName(), epic.getDescription(), new HashMap<>()), Epic.class);
+        }
+
+        if (entity instanceof SubTask) {
+            return gson.toJson(entity, SubTask.class);
+        }
+
+        return gson.toJson(entity, Task.class);
+    }
+
+    /**
+     * Разобрать запись из строки журнала.
+     *
+     * @param line строка журнала.
+     * @return запись.
+     */
+    public static ReplicationRecord parse(String line) {
+        if (line == null) {
+            throw new IllegalArgumentException("Parameter 'line' can't be null");
+        }
+
+        String[] parts = line.split(String.valueOf(SEPARATOR), 7);
+        if (parts.length != 7) {
+            throw new IllegalArgumentException("Некорректная запись журнала репликации: " + line);
+        }
+
+        return new ReplicationRecord(
+                Long.parseLong(parts[0]),
+                Long.parseLong(parts[1]),
+                Long.parseLong(parts[2]),
+                ChangeType.valueOf(parts[3]),
+                TaskType.valueOf(parts[4]),
+                Integer.parseInt(parts[5]),
+                parts[6].isEmpty() ? null : parts[6]);
+    }
+
+    /**
+     * Представить запись строкой журнала.
+     *
+     * @return строка журнала без перевода строки.
+     */
+    public String toLine() {
+        return String.valueOf(this.sequence) + SEPARATOR + this.version + SEPARATOR + this.timestamp + SEPARATOR + this.type.name()
+                + SEPARATOR + this.taskType.name() + SEPARATOR + this.id + SEPARATOR + (this.payload == null ? "" : this.payload);
+    }
+
+    /**
+     * Получить операцию, применяющую запись к реплике.
+     *
+     * @param gson сериализатор JSON.
+     * @return операция.
+     */
+    public Operation toOperation(Gson gson) {
+        if (this.type == ChangeType.REMOVED) {
+            return Operation.remove(this.taskType, this.id);
+        }
+
+        switch (this.taskType) {
+            case EPIC:
+                return Operation.update(gson.fromJson(this.payload, Epic.class));
+            case SUBTASK:
+                return Operation.update(gson.fromJson(this.payload, SubTask.class));
+            default:
+                return Operation.update(gson.fromJson(this.payload, Task.class));
+        }
+    }
+
+    /**
+     * Получить порядковый номер записи.
+     *
+     * @return порядковый номер.
+     */
+    public long getSequence() {
+        return this.sequence;
+    }
+
+    /**
+     * Получить версию ведущего менеджера задач, присвоенную изменению.
+     *
+     * @return версия.
+     */
+    public long getVersion() {
+        return this.version;
+    }
+
+    /**
+     * Получить время изменения на ведущем сервере.
+     *
+     * @return время, мс от начала эпохи.
+     */
+    public long getTimestamp() {
+        return this.timestamp;
+    }
+
+    /**
+     * Получить тип изменения.
+     *
+     * @return тип изменения.
+     */
+    public ChangeType getType() {
+        return this.type;
+    }
+
+    /**
+     * Получить тип задачи.
+     *
+     * @return тип задачи.
+     */
+    public TaskType getTaskType() {
+        return this.taskType;
+    }
+
+    /**
+     * Получить идентификатор задачи.
+     *
+     * @return идентификатор.
+     */
+    public int getId() {
+        return this.id;
+    }
+
+    @Override
+    public String toString() {
+        return "#" + this.sequence + " " + this.type + " " + this.taskType + " " + this.id + " @" + this.version;
+    }
+}
@@ -0,0 +1,380 @@
+package ru.yandex.practicum.managers.schedule;
+
+// region imports
+
+import ru.yandex.practicum.models.Task;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.Optional;
+import java.util.SplittableRandom;
+
+// endregion
+
+/**
+ * Индекс свободных промежутков между задачами и подзадачами для поиска самого раннего свободного времени.
+ * <p>
+ * Задачи хранятся в декартовом дереве по времени начала. Каждый узел помнит для своего поддерева самое раннее
+ * начало, самое позднее окончание и наибольший свободный промежуток между задачами поддерева. Поиск идёт слева
+ * направо и пропускает целиком поддеревья, которые заканчиваются раньше искомого момента или не содержат
+ * промежутка нужной длины, поэтому на календаре без пересечений он занимает O(log n). Если задачи пересекаются
+ * (например, после обновления), наибольший промежуток поддерева лишь оценивается сверху: поиск остаётся точным,
+ * но может заходить в лишние поддеревья.
+ * <p>
+ * Класс не потокобезопасен.
+ */
+public final class ScheduleGapIndex {
+    /**
+     * Узлы по идентификатору задачи.
+     */
+    private final HashMap<Integer, Node> nodes;
+
+    /**
+     * Генератор приоритетов узлов.
+     */
+    private final SplittableRandom random;
+
+    /**
+     * Корень дерева.
+     */
+    private Node root;
+
+    /**
+     * Конструктор.
+     */
+    public ScheduleGapIndex() {
+        this.nodes = new HashMap<>();
+        this.random = new SplittableRandom();
+    }
+
+    /**
+     * Добавить задачу или подзадачу или обновить её время.
+     *
+     * @param task задача или подзадача.
+     */
+    public void upsert(Task task) {
+        if (task == null) {
+            throw new IllegalArgumentException("Parameter 'task' can't be null");
+        }
+
+        LocalDateTime startTime = task.getStartTime();
+        LocalDateTime endTime = task.getEndTime();
+
+        // Задача нулевой продолжительности всё равно занимает момент начала: другая задача с тем же началом
+        // считается пересекающейся с ней.
+        if (!endTime.isAfter(startTime)) {
+            endTime = startTime.plusNanos(1);
+        }
+
+        Node node = this.nodes.get(task.getId());
+        if (node != null) {
+            if (node.start.equals(startTime) && node.end.equals(endTime)) {
+                return;
+            }
+
+            this.remove(task.getId());
+        }
+
+        node = new Node(task.getId(), startTime, endTime, this.random.nextInt());
+        this.nodes.put(node.id, node);
+
+        Node[] parts = split(this.root, node.start, node.id);
+        this.root = merge(merge(parts[0], node), parts[1]);
+    }
+
+    /**
+     * Удалить задачу или подзадачу.
+     *
+     * @param id идентификатор задачи или подзадачи.
+     */
+    public void remove(int id) {
+        Node node = this.nodes.remove(id);
+        if (node == null) {
+            return;
+        }
+
+        Node[] parts = split(this.root, node.start, node.id);
+        Node[] rest = split(parts[1], node.start, node.id + 1);
+        this.root = merge(parts[0], rest[1]);
+    }
+
+    /**
+     * Найти самое раннее время не раньше заданного, начиная с которого свободен промежуток заданной длины.
+     *
+     * @param from     время, раньше которого начинать нельзя.
+     * @param duration продолжительность.
+     * @return время начала свободного промежутка.
+     */
+    public LocalDateTime findEarliestSlot(LocalDateTime from, Duration duration) {
+        if (from == null) {
+            throw new IllegalArgumentException("Parameter 'from' can't be null");
+        }
+
+        if (duration == null || duration.isNegative()) {
+            throw new IllegalArgumentException("Parameter 'duration' can't be null or negative");
+        }
+
+        Cursor cursor = new Cursor(from);
+        LocalDateTime slot = find(this.root, cursor, duration);
+
+        return slot == null ? cursor.frontier : slot;
+    }
+
+    /**
+     * Получить наибольшее время окончания задач в индексе.
+     *
+     * @return время окончания, если индекс не пуст.
+     */
+    public Optional<LocalDateTime> getLatestEndTime() {
+        return this.root == null ? Optional.empty() : Optional.of(this.root.maxEnd);
+    }
+
+    /**
+     * Получить количество задач в индексе.
+     *
+     * @return количество задач.
+     */
+    public int size() {
+        return this.nodes.size();
+    }
+
+    /**
+     * Найти свободный промежуток в поддереве.
+     *
+     * @param node     корень поддерева.
+     * @param cursor   граница занятого времени перед поддеревом.
+     * @param duration продолжительность.
+     * @return время начала промежутка или null, если в поддереве и перед ним подходящего промежутка нет; граница
+     * при этом сдвигается за поддерево.
+     */
+    private static LocalDateTime find(Node node, Cursor cursor, Duration duration) {
+        if (node == null || !node.maxEnd.isAfter(cursor.frontier)) {
+            return null;
+        }
+
+        if (fits(cursor.frontier, duration, node.minStart)) {
+            return cursor.frontier;
+        }
+
+        if (node.maxGap.compareTo(duration) < 0) {
+            cursor.frontier = node.maxEnd;
+            return null;
+        }
+
+        LocalDateTime slot = find(node.left, cursor, duration);
+        if (slot != null) {
+            return slot;
+        }
+
+        if (fits(cursor.frontier, duration, node.start)) {
+            return cursor.frontier;
+        }
+
+        if (node.end.isAfter(cursor.frontier)) {
+            cursor.frontier = node.end;
+        }
+
+        return find(node.right, cursor, duration);
+    }
+
+    /**
+     * Проверить, помещается ли промежуток заданной длины до начала задачи.
+     *
+     * @param from      начало промежутка.
+     * @param duration  продолжительность.
+     * @param startTime начало задачи.
+     * @return признак того, что промежуток помещается.
+     */
+    private static boolean fits(LocalDateTime from, Duration duration, LocalDateTime startTime) {
+        return from.isBefore(startTime) && !from.plus(duration).isAfter(startTime);
+    }
+
+    /**
+     * Разделить дерево на узлы, меньшие ключа, и остальные.
+     *
+     * @param node  корень дерева.
+     * @param start время начала ключа.
+     * @param id    идентификатор ключа.
+     * @return два дерева.
+     */
+    private static Node[] split(Node node, LocalDateTime start, int id) {
+        if (node == null) {
+            return new Node[]{null, null};
+        }
+
+        if (node.compareTo(start, id) < 0) {
+            Node[] parts = split(node.right, start, id);
+            node.right = parts[0];
+            node.update();
+            parts[0] = node;
+            return parts;
+        }
+
+        Node[] parts = split(node.left, start, id);
+        node.left = parts[1];
+        node.update();
+        parts[1] = node;
+        return parts;
+    }
+
+    /**
+     * Объединить два дерева, все ключи первого из которых меньше ключей второго.
+     *
+     * @param left  первое дерево.
+     * @param right второе дерево.
+     * @return корень объединённого дерева.
+     */
+    private static Node merge(Node left, Node right) {
+        if (left == null) {
+            return right;
+        }
+
+        if (right == null) {
+            return left;
+        }
+
+        if (left.priority > right.priority) {
+            left.right = merge(left.right, right);
+            left.update();
+            return left;
+        }
+
+        right.left = merge(left, right.left);
+        right.update();
+        return right;
+    }
+
+    // region Nested Types
+
+    /**
+     * Граница занятого времени при поиске.
+     */
+    private static final class Cursor {
+        /**
+         * Момент, раньше которого свободный промежуток начаться не может.
+         */
+        private LocalDateTime frontier;
+
+        /**
+         * Конструктор.
+         *
+         * @param frontier начальная граница.
+         */
+        private Cursor(LocalDateTime frontier) {
+            this.frontier = frontier;
+        }
+    }
+
+    /**
+     * Узел дерева - задача или подзадача.
+     */
+    private static final class Node {
+        /**
+         * Идентификатор задачи.
+         */
+        private final int id;
+
+        /**
+         * Время начала.
+         */
+        private final LocalDateTime start;
+
+        /**
+         * Время окончания.
+         */
+        private final LocalDateTime end;
+
+        /**
+         * Приоритет узла в куче.
+         */
+        private final int priority;
+
+        /**
+         * Левое поддерево.
+         */
+        private Node left;
+
+        /**
+         * Правое поддерево.
+         */
+        private Node right;
+
+        /**
+         * Самое раннее начало в поддереве.
+         */
+        private LocalDateTime minStart;
+
+        /**
+         * Самое позднее окончание в поддереве.
+         */
+        private LocalDateTime maxEnd;
+
+        /**
+         * Наибольший свободный промежуток между задачами поддерева.
+         */
+        private Duration maxGap;
+
+        /**
+         * Конструктор.
+         *
+         * @param id       идентификатор задачи.
+         * @param start    время начала.
+         * @param end      время окончания.
+         * @param priority приоритет узла.
+         */
+        private Node(int id, LocalDateTime start, LocalDateTime end, int priority) {
+            this.id = id;
+            this.start = start;
+            this.end = end;
+            this.priority = priority;
+            this.update();
+        }
+
+        /**
+         * Сравнить ключ узла с заданным.
+         *
+         * @param start время начала.
+         * @param id    идентификатор.
+         * @return результат сравнения.
+         */
+        private int compareTo(LocalDateTime start, int id) {
+            int result = this.start.compareTo(start);
+            return result != 0 ? result : Integer.compare(this.id, id);
+        }
+
+        /**
+         * Пересчитать значения поддерева по дочерним узлам.
+         */
+        private void update() {
+            this.minStart = this.left == null ? this.start : this.left.minStart;
+            this.maxGap = Duration.ZERO;
+
+            LocalDateTime frontier = this.end;
+            if (this.left != null) {
+                this.maxGap = max(this.left.maxGap, gap(this.left.maxEnd, this.start));
+                frontier = later(this.left.maxEnd, this.end);
+            }
+
+            this.maxEnd = frontier;
+            if (this.right != null) {
+                this.maxGap = max(this.maxGap, max(this.right.maxGap, gap(frontier, this.right.minStart)));
+                this.maxEnd = later(frontier, this.right.maxEnd);
+            }
+        }
+
+        private static Duration gap(LocalDateTime from, LocalDateTime to) {
+            return from.isBefore(to) ? Duration.between(from, to) : Duration.ZERO;
+        }
+
+        private static Duration max(Duration first, Duration second) {
+            return first.compareTo(second) >= 0 ? first : second;
+        }
+
+        private static LocalDateTime later(LocalDateTime first, LocalDateTime second) {
+            return first.isAfter(second) ? first : second;
+        }
+    }
+
+    // endregion
+}
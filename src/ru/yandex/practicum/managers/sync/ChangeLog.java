@@ -0,0 +1,115 @@
+package ru.yandex.practicum.managers.sync;
+
+// region imports
+
+import ru.yandex.practicum.models.ChangeEvent;
+
+import java.util.*;
+
+// endregion
+
+/**
+ * Ограниченный журнал изменений, упорядоченный по версии менеджера задач.
+ * <p>
+ * Для каждой задачи хранится только последнее изменение (для удалённых - отметка об удалении), поэтому повторные
+ * изменения одной задачи не увеличивают журнал. Если журнал превышает заданный размер, самые старые записи
+ * вытесняются, и запросы изменений с версии, предшествующей вытесненной записи, больше не могут быть выполнены.
+ */
+public final class ChangeLog {
+    /**
+     * Максимальное количество записей.
+     */
+    private final int capacity;
+
+    /**
+     * Записи по версии.
+     */
+    private final TreeMap<Long, ChangeEvent> entries;
+
+    /**
+     * Версия последней записи по идентификатору задачи.
+     */
+    private final HashMap<Integer, Long> versions;
+
+    /**
+     * Наибольшая версия среди вытесненных записей.
+     */
+    private long compactedVersion;
+
+    /**
+     * Конструктор.
+     *
+     * @param capacity максимальное количество записей.
+     */
+    public ChangeLog(int capacity) {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("Parameter 'capacity' should be positive number");
+        }
+
+        this.capacity = capacity;
+        this.entries = new TreeMap<>();
+        this.versions = new HashMap<>();
+    }
+
+    /**
+     * Добавить изменение.
+     *
+     * @param event событие изменения.
+     */
+    public synchronized void append(ChangeEvent event) {
+        if (event == null) {
+            throw new IllegalArgumentException("Parameter 'event' can't be null");
+        }
+
+        Long previous = this.versions.put(event.getId(), event.getVersion());
+        if (previous != null) {
+            this.entries.remove(previous);
+        }
+
+        this.entries.put(event.getVersion(), event);
+
+        while (this.entries.size() > this.capacity) {
+            Map.Entry<Long, ChangeEvent> eldest = this.entries.pollFirstEntry();
+            this.versions.remove(eldest.getValue().getId(), eldest.getKey());
+            this.compactedVersion = eldest.getKey();
+        }
+    }
+
+    /**
+     * Получить последние изменения задач, сделанные после заданной версии.
+     *
+     * @param version версия, известная клиенту.
+     * @return изменения в порядке версий или пустое значение, если часть изменений уже вытеснена из журнала.
+     */
+    public synchronized Optional<List<ChangeEvent>> getChangesSince(long version) {
+        if (version < this.compactedVersion) {
+            return Optional.empty();
+        }
+
+        return Optional.of(new ArrayList<>(this.entries.tailMap(version, false).values()));
+    }
+
+    /**
+     * Вытеснить все записи до заданной версии включительно: запросы изменений с более ранней версии больше не могут
+     * быть выполнены.
+     *
+     * @param version версия.
+     */
+    public synchronized void compact(long version) {
+        while (!this.entries.isEmpty() && this.entries.firstKey() <= version) {
+            Map.Entry<Long, ChangeEvent> eldest = this.entries.pollFirstEntry();
+            this.versions.remove(eldest.getValue().getId(), eldest.getKey());
+        }
+
+        this.compactedVersion = Math.max(this.compactedVersion, version);
+    }
+
+    /**
+     * Получить количество записей.
+     *
+     * @return количество записей.
+     */
+    public synchronized int size() {
+        return this.entries.size();
+    }
+}
@@ -7,28 +7,66 @@ import ru.yandex.practicum.constants.TaskType;
 import ru.yandex.practicum.exceptions.ManagerLoadException;
 import ru.yandex.practicum.exceptions.ManagerSaveException;
 import ru.yandex.practicum.models.Epic;
+import ru.yandex.practicum.models.Operation;
+import ru.yandex.practicum.models.RecurringTask;
 import ru.yandex.practicum.models.SubTask;
 import ru.yandex.practicum.models.Task;
+import ru.yandex.practicum.utils.ids.IdAllocator;
+import ru.yandex.practicum.utils.jfr.StorageEvent;
+import ru.yandex.practicum.utils.json.GsonFactory;
+import ru.yandex.practicum.utils.metrics.LatencyHistogram;
+import ru.yandex.practicum.utils.metrics.MetricsRegistry;
 
 import java.io.File;
 import java.io.FileWriter;
 import java.io.IOException;
 import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
 import java.time.Duration;
 import java.time.LocalDateTime;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Optional;
+import java.util.concurrent.atomic.LongAdder;
 
 // endregion
 
 public final class FileBackedTaskManager extends InMemoryTaskManager {
+    /**
+     * Длительность сохранения в файл.
+     */
+    private static final LatencyHistogram saveDuration = MetricsRegistry.getDefault()
+            .histogram("storage_save_duration_seconds", "Длительность сохранения менеджера задач в файл");
+
+    /**
+     * Количество ошибок сохранения в файл.
+     */
+    private static final LongAdder saveErrors = MetricsRegistry.getDefault()
+            .counter("storage_save_errors_total", "Количество ошибок сохранения менеджера задач в файл");
+
+    /**
+     * Количество байтов, записанных в файлы хранилища.
+     */
+    private static final LongAdder bytesWritten = MetricsRegistry.getDefault()
+            .counter("storage_bytes_written_total", "Количество байтов, записанных в файлы хранилища");
+
     /**
      * Файл, представляющий собой хранилище данных.
      */
     private final File storage;
 
+    /**
+     * Верхняя граница идентификаторов, последней записанная в файл рядом с хранилищем.
+     */
+    private int savedHighWaterMark;
+
+    /**
+     * Версия менеджера задач, последней записанная в файл рядом с хранилищем.
+     */
+    private long savedVersion;
+
     /**
      * Конструктор.
      *
@@ -51,8 +89,23 @@ public final class FileBackedTaskManager extends InMemoryTaskManager {
      * @param storage     файл, представляющий собой хранилище данных.
      */
     public static void loadFromFile(FileBackedTaskManager taskManager, File storage) throws ManagerLoadException {
+        StorageEvent event = new StorageEvent();
+        event.begin();
+
         try {
             List<String> lines = Files.readAllLines(storage.toPath(), StandardCharsets.UTF_8);
+
+            // Идентификаторы загружаемых задач и задач, удалённых до сохранения, не должны выдаваться новым задачам.
+            int highWaterMark = readHighWaterMark(storage);
+            for (String line : lines) {
+                highWaterMark = Math.max(highWaterMark, Integer.parseInt(line.substring(0, line.indexOf(','))));
+            }
+            IdAllocator.getDefault().advanceTo(highWaterMark);
+
+            // Версии загружаемых задач должны быть выше версий, выданных до перезагрузки, иначе ETag и версии
+            // синхронизации, известные клиентам, совпадут с версиями другого состояния.
+            taskManager.advanceVersion(readVersion(storage));
+
             for (String line : lines) {
                 String[] parts = line.split(",");
 
@@ -103,6 +156,20 @@ public final class FileBackedTaskManager extends InMemoryTaskManager {
                     }
                 }
             }
+
+            taskManager.loadDependencies(getDependencyStorage(storage));
+            taskManager.loadRecurringTasks(getRecurringTaskStorage(storage));
+
+            // Изменения до перезагрузки не сохраняются, поэтому клиентам с более ранней версией нужны все списки.
+            taskManager.compactChangeLog();
+
+            if (event.shouldCommit()) {
+                event.operation = "load";
+                event.path = storage.getPath();
+                event.bytes = storage.length();
+                event.records = lines.size();
+                event.commit();
+            }
         } catch (IOException e) {
             throw new ManagerLoadException("Ошибка при загрузке данных из файла: " + storage.getName(), e);
         }
@@ -112,6 +179,11 @@ public final class FileBackedTaskManager extends InMemoryTaskManager {
      * Сохранить текущее состояние в файл, представляющий собой хранилище данных.
      */
     private void save() throws ManagerSaveException {
+        StorageEvent event = new StorageEvent();
+        event.begin();
+
+        long start = System.nanoTime();
+
         try (FileWriter fileWriter = new FileWriter(this.storage, StandardCharsets.UTF_8, false)) {
             for (Epic epic : this.epics.values()) {
                 fileWriter.write(String.format("%s%n", epic.toCsvString()));
@@ -125,8 +197,240 @@ public final class FileBackedTaskManager extends InMemoryTaskManager {
                 fileWriter.write(String.format("%s%n", task.toCsvString()));
             }
         } catch (IOException e) {
+            saveErrors.increment();
             throw new ManagerSaveException("Ошибка при сохранении данных в файл: " + this.storage.getName(), e);
+        } finally {
+            saveDuration.record(System.nanoTime() - start);
+        }
+
+        this.saveHighWaterMark();
+        this.saveVersion();
+
+        long bytes = this.storage.length();
+        bytesWritten.add(bytes);
+
+        if (event.shouldCommit()) {
+            event.operation = "save";
+            event.path = this.storage.getPath();
+            event.bytes = bytes;
+            event.records = this.epics.size() + this.subTasks.size() + this.tasks.size();
+            event.commit();
+        }
+    }
+
+    /**
+     * Сохранить верхнюю границу выданных идентификаторов в файл рядом с хранилищем, если она изменилась.
+     * Файл заменяется целиком, поэтому при сбое остаётся прежнее значение.
+     */
+    private void saveHighWaterMark() throws ManagerSaveException {
+        int highWaterMark = IdAllocator.getDefault().getHighWaterMark();
+        if (highWaterMark == this.savedHighWaterMark) {
+            return;
+        }
+
+        Path idStorage = getIdStorage(this.storage);
+        Path temporary = idStorage.resolveSibling(idStorage.getFileName() + ".tmp");
+        try {
+            Files.writeString(temporary, String.valueOf(highWaterMark), StandardCharsets.UTF_8);
+            Files.move(temporary, idStorage, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            saveErrors.increment();
+            throw new ManagerSaveException("Ошибка при сохранении верхней границы идентификаторов в файл: " + idStorage.getFileName(), e);
+        }
+
+        this.savedHighWaterMark = highWaterMark;
+    }
+
+    /**
+     * Прочитать верхнюю границу выданных идентификаторов из файла рядом с хранилищем.
+     *
+     * @param storage файл, представляющий собой хранилище данных.
+     * @return верхняя граница или 0, если файла нет.
+     */
+    private static int readHighWaterMark(File storage) throws IOException {
+        Path idStorage = getIdStorage(storage);
+        if (!Files.exists(idStorage)) {
+            return 0;
+        }
+
+        return Integer.parseInt(Files.readString(idStorage, StandardCharsets.UTF_8).trim());
+    }
+
+    /**
+     * Сохранить текущую версию менеджера задач в файл рядом с хранилищем, если она изменилась.
+     * Файл заменяется целиком, поэтому при сбое остаётся прежнее значение.
+     */
+    private void saveVersion() throws ManagerSaveException {
+        long version = this.getVersion();
+        if (version == this.savedVersion) {
+            return;
         }
+
+        Path versionStorage = getVersionStorage(this.storage);
+        Path temporary = versionStorage.resolveSibling(versionStorage.getFileName() + ".tmp");
+        try {
+            Files.writeString(temporary, String.valueOf(version), StandardCharsets.UTF_8);
+            Files.move(temporary, versionStorage, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            saveErrors.increment();
+            throw new ManagerSaveException("Ошибка при сохранении версии менеджера задач в файл: " + versionStorage.getFileName(), e);
+        }
+
+        this.savedVersion = version;
+    }
+
+    /**
+     * Прочитать версию менеджера задач из файла рядом с хранилищем.
+     *
+     * @param storage файл, представляющий собой хранилище данных.
+     * @return версия или 0, если файла нет.
+     */
+    private static long readVersion(File storage) throws IOException {
+        Path versionStorage = getVersionStorage(storage);
+        if (!Files.exists(versionStorage)) {
+            return 0;
+        }
+
+        return Long.parseLong(Files.readString(versionStorage, StandardCharsets.UTF_8).trim());
+    }
+
+    /**
+     * Загрузить зависимости подзадач из файла рядом с хранилищем. Зависимости удалённых подзадач пропускаются.
+     *
+     * @param dependencyStorage файл с зависимостями подзадач.
+     */
+    private void loadDependencies(Path dependencyStorage) throws IOException {
+        if (!Files.exists(dependencyStorage)) {
+            return;
+        }
+
+        for (String line : Files.readAllLines(dependencyStorage, StandardCharsets.UTF_8)) {
+            if (line.isEmpty()) {
+                continue;
+            }
+
+            String[] parts = line.split(",");
+            int subTaskId = Integer.parseInt(parts[0]);
+            int dependsOnSubTaskId = Integer.parseInt(parts[1]);
+
+            if (this.subTasks.containsKey(subTaskId) && this.subTasks.containsKey(dependsOnSubTaskId)) {
+                super.addDependency(subTaskId, dependsOnSubTaskId);
+            }
+        }
+    }
+
+    /**
+     * Сохранить зависимости подзадач в файл рядом с хранилищем. Файл заменяется целиком. Зависимости удалённых
+     * подзадач пропускаются при загрузке, поэтому файл переписывается только при изменении зависимостей.
+     */
+    private void saveDependencies() throws ManagerSaveException {
+        StringBuilder lines = new StringBuilder();
+        for (int[] dependency : this.getAllDependencies()) {
+            lines.append(dependency[0]).append(',').append(dependency[1]).append('\n');
+        }
+
+        Path dependencyStorage = getDependencyStorage(this.storage);
+        Path temporary = dependencyStorage.resolveSibling(dependencyStorage.getFileName() + ".tmp");
+        try {
+            Files.writeString(temporary, lines, StandardCharsets.UTF_8);
+            Files.move(temporary, dependencyStorage, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            saveErrors.increment();
+            throw new ManagerSaveException("Ошибка при сохранении зависимостей подзадач в файл: " + dependencyStorage.getFileName(), e);
+        }
+
+        this.saveVersion();
+    }
+
+    /**
+     * Загрузить повторяющиеся задачи из файла рядом с хранилищем.
+     *
+     * @param recurringTaskStorage файл с повторяющимися задачами.
+     */
+    private void loadRecurringTasks(Path recurringTaskStorage) throws IOException {
+        if (!Files.exists(recurringTaskStorage)) {
+            return;
+        }
+
+        for (String line : Files.readAllLines(recurringTaskStorage, StandardCharsets.UTF_8)) {
+            if (line.isEmpty()) {
+                continue;
+            }
+
+            RecurringTask recurringTask = GsonFactory.getDefault().fromJson(line, RecurringTask.class);
+            IdAllocator.getDefault().advanceTo(recurringTask.getId());
+
+            super.createRecurringTask(recurringTask);
+        }
+    }
+
+    /**
+     * Сохранить повторяющиеся задачи в файл рядом с хранилищем, по одной в строке в формате JSON вместе
+     * с изменёнными и отменёнными повторениями. Файл заменяется целиком.
+     */
+    private void saveRecurringTasks() throws ManagerSaveException {
+        StringBuilder lines = new StringBuilder();
+        for (RecurringTask recurringTask : this.recurringTasks.values()) {
+            lines.append(GsonFactory.getDefault().toJson(recurringTask, RecurringTask.class)).append('\n');
+        }
+
+        Path recurringTaskStorage = getRecurringTaskStorage(this.storage);
+        Path temporary = recurringTaskStorage.resolveSibling(recurringTaskStorage.getFileName() + ".tmp");
+        try {
+            Files.writeString(temporary, lines, StandardCharsets.UTF_8);
+            Files.move(temporary, recurringTaskStorage, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            saveErrors.increment();
+            throw new ManagerSaveException("Ошибка при сохранении повторяющихся задач в файл: " + recurringTaskStorage.getFileName(), e);
+        }
+
+        // Хранилище загружается, только если основной файл существует.
+        if (!this.storage.exists()) {
+            save();
+        } else {
+            this.saveHighWaterMark();
+            this.saveVersion();
+        }
+    }
+
+    /**
+     * Получить путь к файлу с повторяющимися задачами.
+     *
+     * @param storage файл, представляющий собой хранилище данных.
+     * @return путь к файлу с повторяющимися задачами.
+     */
+    static Path getRecurringTaskStorage(File storage) {
+        return Path.of(storage.getPath() + ".recurring");
+    }
+
+    /**
+     * Получить путь к файлу с зависимостями подзадач.
+     *
+     * @param storage файл, представляющий собой хранилище данных.
+     * @return путь к файлу с зависимостями подзадач.
+     */
+    static Path getDependencyStorage(File storage) {
+        return Path.of(storage.getPath() + ".deps");
+    }
+
+    /**
+     * Получить путь к файлу с верхней границей идентификаторов.
+     *
+     * @param storage файл, представляющий собой хранилище данных.
+     * @return путь к файлу с верхней границей идентификаторов.
+     */
+    static Path getIdStorage(File storage) {
+        return Path.of(storage.getPath() + ".ids");
+    }
+
+    /**
+     * Получить путь к файлу с версией менеджера задач.
+     *
+     * @param storage файл, представляющий собой хранилище данных.
+     * @return путь к файлу с версией менеджера задач.
+     */
+    static Path getVersionStorage(File storage) {
+        return Path.of(storage.getPath() + ".version");
     }
 
     // region Overrides of InMemoryTaskManager
@@ -144,6 +448,17 @@ public final class FileBackedTaskManager extends InMemoryTaskManager {
         save();
     }
 
+    /**
+     * Создать задачу в проверенном свободном промежутке.
+     *
+     * @param task задача.
+     */
+    @Override
+    void createTaskInFreeSlot(Task task) {
+        super.createTaskInFreeSlot(task);
+        save();
+    }
+
     /**
      * Обновить задачу.
      *
@@ -269,5 +584,99 @@ public final class FileBackedTaskManager extends InMemoryTaskManager {
 
     // endregion
 
+    // region Зависимости подзадач
+
+    /**
+     * Добавить зависимость между подзадачами и сохранить зависимости в файл.
+     *
+     * @param subTaskId          идентификатор зависимой подзадачи.
+     * @param dependsOnSubTaskId идентификатор подзадачи, окончания которой нужно дождаться.
+     */
+    @Override
+    public void addDependency(int subTaskId, int dependsOnSubTaskId) {
+        super.addDependency(subTaskId, dependsOnSubTaskId);
+        saveDependencies();
+    }
+
+    /**
+     * Удалить зависимость между подзадачами и сохранить зависимости в файл.
+     *
+     * @param subTaskId          идентификатор зависимой подзадачи.
+     * @param dependsOnSubTaskId идентификатор подзадачи, окончания которой нужно было дождаться.
+     */
+    @Override
+    public void removeDependency(int subTaskId, int dependsOnSubTaskId) {
+        super.removeDependency(subTaskId, dependsOnSubTaskId);
+        saveDependencies();
+    }
+
+    // endregion
+
+    // region Повторяющиеся задачи
+
+    /**
+     * Создать повторяющуюся задачу и сохранить повторяющиеся задачи в файл.
+     *
+     * @param recurringTask повторяющаяся задача.
+     */
+    @Override
+    public void createRecurringTask(RecurringTask recurringTask) {
+        super.createRecurringTask(recurringTask);
+        saveRecurringTasks();
+    }
+
+    /**
+     * Удалить повторяющуюся задачу и сохранить повторяющиеся задачи в файл.
+     *
+     * @param recurringTaskId идентификатор повторяющейся задачи.
+     */
+    @Override
+    public void removeRecurringTaskById(int recurringTaskId) {
+        super.removeRecurringTaskById(recurringTaskId);
+        saveRecurringTasks();
+    }
+
+    /**
+     * Изменить повторение и сохранить повторяющиеся задачи в файл.
+     *
+     * @param recurringTaskId     идентификатор повторяющейся задачи.
+     * @param occurrenceStartTime исходное время начала повторения.
+     * @param occurrence          новые название, описание, статус и время повторения.
+     */
+    @Override
+    public void overrideOccurrence(int recurringTaskId, LocalDateTime occurrenceStartTime, Task occurrence) {
+        super.overrideOccurrence(recurringTaskId, occurrenceStartTime, occurrence);
+        saveRecurringTasks();
+    }
+
+    /**
+     * Отменить повторение и сохранить повторяющиеся задачи в файл.
+     *
+     * @param recurringTaskId     идентификатор повторяющейся задачи.
+     * @param occurrenceStartTime исходное время начала повторения.
+     */
+    @Override
+    public void cancelOccurrence(int recurringTaskId, LocalDateTime occurrenceStartTime) {
+        super.cancelOccurrence(recurringTaskId, occurrenceStartTime);
+        saveRecurringTasks();
+    }
+
+    // endregion
+
+    // region Пакетные изменения
+
+    /**
+     * Атомарно применить пакет операций и сохранить результат в файл один раз на весь пакет.
+     *
+     * @param operations операции.
+     */
+    @Override
+    public void applyBatch(List<Operation> operations) {
+        super.applyBatch(operations);
+        save();
+    }
+
+    // endregion
+
     // endregion
 }
@@ -2,20 +2,42 @@ package ru.yandex.practicum.managers.tasks;
 
 //region imports
 
+import ru.yandex.practicum.abstractions.ChangeListener;
 import ru.yandex.practicum.abstractions.HistoryManager;
 import ru.yandex.practicum.abstractions.TaskManager;
+import ru.yandex.practicum.constants.ChangeType;
+import ru.yandex.practicum.constants.OperationType;
 import ru.yandex.practicum.constants.TaskStatus;
+import ru.yandex.practicum.constants.TaskType;
+import ru.yandex.practicum.managers.dependencies.CriticalPathIndex;
 import ru.yandex.practicum.managers.history.InMemoryHistoryManager;
+import ru.yandex.practicum.managers.schedule.ScheduleGapIndex;
+import ru.yandex.practicum.managers.sync.ChangeLog;
 import ru.yandex.practicum.models.AbstractTask;
+import ru.yandex.practicum.models.ChangeEvent;
+import ru.yandex.practicum.models.ChangeSet;
 import ru.yandex.practicum.models.Epic;
+import ru.yandex.practicum.models.Operation;
+import ru.yandex.practicum.models.RecurringTask;
 import ru.yandex.practicum.models.SubTask;
 import ru.yandex.practicum.models.Task;
+import ru.yandex.practicum.utils.jfr.OverlapCheckEvent;
+import ru.yandex.practicum.utils.jfr.TaskChangeEvent;
 
+import java.time.Duration;
+import java.time.LocalDateTime;
 import java.util.*;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicLong;
 
 // endregion
 
 public class InMemoryTaskManager implements TaskManager {
+    /**
+     * Размер журнала изменений по умолчанию.
+     */
+    public static final int DEFAULT_CHANGE_LOG_CAPACITY = 10_000;
+
     /**
      * Список задач/подзадач, упорядоченных по определенному правилу.
      */
@@ -36,22 +58,74 @@ public class InMemoryTaskManager implements TaskManager {
      */
     public final HashMap<Integer, Epic> epics;
 
+    /**
+     * Список повторяющихся задач. Повторения не хранятся, а строятся по запросу.
+     */
+    public final HashMap<Integer, RecurringTask> recurringTasks;
+
     /**
      * История просмотра задач.
      */
     private final HistoryManager<Integer, AbstractTask> historyManager;
 
+    /**
+     * Зависимости подзадач и критические пути эпиков.
+     */
+    private final CriticalPathIndex criticalPaths;
+
+    /**
+     * Свободные промежутки между задачами и подзадачами.
+     */
+    private final ScheduleGapIndex scheduleGaps;
+
+    /**
+     * Текущая версия менеджера задач.
+     */
+    private final AtomicLong version;
+
+    /**
+     * Версии задач, подзадач и эпиков.
+     */
+    private final HashMap<Integer, Long> versions;
+
+    /**
+     * Получатели событий изменения.
+     */
+    private final CopyOnWriteArrayList<ChangeListener> changeListeners;
+
+    /**
+     * Журнал изменений для синхронизации клиентов.
+     */
+    private final ChangeLog changeLog;
+
     /**
      * Конструктор.
      */
     public InMemoryTaskManager() {
+        this(DEFAULT_CHANGE_LOG_CAPACITY);
+    }
+
+    /**
+     * Конструктор.
+     *
+     * @param changeLogCapacity размер журнала изменений.
+     */
+    public InMemoryTaskManager(int changeLogCapacity) {
         this.prioritizedTasks = new TreeSet<>(Comparator.comparing(Task::getStartTime));
 
         this.tasks = new LinkedHashMap<>();
         this.subTasks = new LinkedHashMap<>();
         this.epics = new LinkedHashMap<>();
+        this.recurringTasks = new LinkedHashMap<>();
 
         this.historyManager = new InMemoryHistoryManager<>();
+        this.criticalPaths = new CriticalPathIndex();
+        this.scheduleGaps = new ScheduleGapIndex();
+
+        this.version = new AtomicLong();
+        this.versions = new HashMap<>();
+        this.changeListeners = new CopyOnWriteArrayList<>();
+        this.changeLog = new ChangeLog(changeLogCapacity);
     }
 
     //region Задачи
@@ -63,24 +137,47 @@ public class InMemoryTaskManager implements TaskManager {
      */
     @Override
     public void createTask(Task task) {
-        if (task == null) {
-            throw new IllegalArgumentException("Parameter 'task' can't be null");
-        }
+        this.checkNewTask(task);
 
-        if (this.tasks.containsKey(task.getId())) {
-            throw new IllegalStateException("Задача с идентификатором " + task.getId() + " уже создана");
+        if (this.isCrossingAny(task)) {
+            throw new IllegalStateException("Задача с идентификатором " + task.getId() + " пересекается с другой задачей по времени выполнения");
         }
 
-        if (task.getStatus() != TaskStatus.NEW) {
-            throw new IllegalStateException("Создание задачи возможно только в статусе 'NEW'. Текущий статус: '" + task.getStatus().name() + "'");
-        }
+        this.addTask(task);
+    }
 
-        if (this.tasks.values().stream().anyMatch(t -> t.isCrossed(task)) || this.subTasks.values().stream().anyMatch(st -> st.isCrossed(task))) {
-            throw new IllegalStateException("Задача с идентификатором " + task.getId() + " пересекается с другой задачей по времени выполнения");
+    /**
+     * Создать задачу в самом раннем свободном промежутке, который начинается не раньше её времени начала и вмещает
+     * её продолжительность.
+     *
+     * @param task задача.
+     * @return созданная задача с назначенным временем начала.
+     */
+    @Override
+    public Task createTaskInEarliestSlot(Task task) {
+        if (task == null) {
+            throw new IllegalArgumentException("Parameter 'task' can't be null");
         }
 
-        this.prioritizedTasks.add(task);
-        this.tasks.put(task.getId(), task);
+        LocalDateTime startTime = this.findEarliestSlot(task.getStartTime(), task.getDuration());
+        Task placed = startTime.equals(task.getStartTime())
+                ? task
+                : new Task(task.getId(), task.getName(), task.getDescription(), task.getStatus(), startTime, task.getDuration());
+
+        this.createTaskInFreeSlot(placed);
+        return placed;
+    }
+
+    /**
+     * Создать задачу, время выполнения которой уже проверено {@link #findEarliestSlot(LocalDateTime, Duration)}:
+     * промежуток свободен и в индексе задач и подзадач, и от повторений, поэтому повторный полный перебор
+     * пересечений не выполняется.
+     *
+     * @param task задача в свободном промежутке.
+     */
+    void createTaskInFreeSlot(Task task) {
+        this.checkNewTask(task);
+        this.addTask(task);
     }
 
     /**
@@ -121,6 +218,10 @@ public class InMemoryTaskManager implements TaskManager {
             throw new IllegalArgumentException("Parameter 'task' can't be null");
         }
 
+        if (task instanceof RecurringTask) {
+            throw new IllegalArgumentException("Parameter 'task' can't be recurring task");
+        }
+
         if (!this.tasks.containsKey(task.getId())) {
             throw new IllegalStateException("Задача с идентификатором " + task.getId() + " не найден");
         }
@@ -128,6 +229,7 @@ public class InMemoryTaskManager implements TaskManager {
         this.prioritizedTasks.remove(task);
         this.prioritizedTasks.add(task);
         this.tasks.put(task.getId(), task);
+        this.touch(TaskType.TASK, task.getId());
     }
 
     /**
@@ -144,6 +246,7 @@ public class InMemoryTaskManager implements TaskManager {
         this.historyManager.remove(taskId);
         this.prioritizedTasks.remove(this.tasks.get(taskId));
         this.tasks.remove(taskId);
+        this.forget(TaskType.TASK, taskId);
     }
 
     /**
@@ -154,6 +257,7 @@ public class InMemoryTaskManager implements TaskManager {
         for (Task task : this.tasks.values()) {
             this.historyManager.remove(task.getId());
             this.prioritizedTasks.remove(task);
+            this.forget(TaskType.TASK, task.getId());
         }
 
         this.tasks.clear();
@@ -182,7 +286,7 @@ public class InMemoryTaskManager implements TaskManager {
             throw new IllegalStateException("Создание подзадачи возможно только в статусе 'NEW'. Текущий статус: '" + subTask.getStatus().name() + "'");
         }
 
-        if (this.tasks.values().stream().anyMatch(t -> t.isCrossed(subTask)) || this.subTasks.values().stream().anyMatch(st -> st.isCrossed(subTask))) {
+        if (this.isCrossingAny(subTask)) {
             throw new IllegalStateException("Подзадача с идентификатором " + subTask.getId() + " пересекается с другой задачей по времени выполнения");
         }
 
@@ -196,6 +300,8 @@ public class InMemoryTaskManager implements TaskManager {
 
         this.prioritizedTasks.add(subTask);
         this.subTasks.put(subTask.getId(), subTask);
+        this.touch(TaskType.SUBTASK, subTask.getId());
+        this.touch(TaskType.EPIC, subTask.getEpicId());
     }
 
     /**
@@ -260,6 +366,8 @@ public class InMemoryTaskManager implements TaskManager {
         this.prioritizedTasks.remove(subTask);
         this.prioritizedTasks.add(subTask);
         this.subTasks.put(subTask.getId(), subTask);
+        this.touch(TaskType.SUBTASK, subTask.getId());
+        this.touch(TaskType.EPIC, subTask.getEpicId());
     }
 
     /**
@@ -284,6 +392,8 @@ public class InMemoryTaskManager implements TaskManager {
         this.historyManager.remove(subTaskId);
         this.prioritizedTasks.remove(this.subTasks.get(subTaskId));
         this.subTasks.remove(subTaskId);
+        this.forget(TaskType.SUBTASK, subTaskId);
+        this.touch(TaskType.EPIC, subTask.getEpicId());
     }
 
     /**
@@ -301,6 +411,8 @@ public class InMemoryTaskManager implements TaskManager {
 
             this.historyManager.remove(subTask.getId());
             this.prioritizedTasks.remove(subTask);
+            this.forget(TaskType.SUBTASK, subTask.getId());
+            this.touch(TaskType.EPIC, subTask.getEpicId());
         }
 
         this.subTasks.clear();
@@ -319,6 +431,118 @@ public class InMemoryTaskManager implements TaskManager {
         return this.prioritizedTasks;
     }
 
+    /**
+     * Найти самое раннее время не раньше заданного, начиная с которого промежуток заданной длины не пересекается
+     * ни с одной задачей, подзадачей или повторением повторяющейся задачи.
+     * <p>
+     * Промежуток ищется в индексе задач и подзадач; если он пересекается с повторениями, поиск продолжается
+     * с окончания самого позднего из них. После {@link #getScheduleHorizon()} расписание повторяется с периодом
+     * {@link RecurringTask#PATTERN_DAYS} дней, поэтому если за этот период промежутка не нашлось, его нет вовсе.
+     *
+     * @param from     время, раньше которого начинать нельзя.
+     * @param duration продолжительность.
+     * @return время начала свободного промежутка.
+     * @throws IllegalStateException если повторения не оставляют промежутка заданной длины.
+     */
+    @Override
+    public LocalDateTime findEarliestSlot(LocalDateTime from, Duration duration) {
+        LocalDateTime slot = this.scheduleGaps.findEarliestSlot(from, duration);
+        LocalDateTime limit = null;
+
+        while (true) {
+            LocalDateTime crossingEndTime = null;
+            for (RecurringTask recurringTask : this.recurringTasks.values()) {
+                Optional<LocalDateTime> endTime = recurringTask.findCrossingEndTime(slot, duration);
+                if (endTime.isPresent() && (crossingEndTime == null || endTime.get().isAfter(crossingEndTime))) {
+                    crossingEndTime = endTime.get();
+                }
+            }
+
+            if (crossingEndTime == null) {
+                return slot;
+            }
+
+            if (limit == null) {
+                limit = getSearchLimit(from, this.getScheduleHorizon());
+            }
+
+            slot = this.scheduleGaps.findEarliestSlot(crossingEndTime, duration);
+            if (slot.isAfter(limit)) {
+                throw new IllegalStateException("Повторяющиеся задачи не оставляют свободного промежутка продолжительностью " + duration);
+            }
+        }
+    }
+
+    /**
+     * Получить время, после которого задачи и подзадачи закончились, а повторения идут строго по расписанию.
+     *
+     * @return время, после которого расписание повторяется с периодом {@link RecurringTask#PATTERN_DAYS} дней.
+     */
+    Optional<LocalDateTime> getScheduleHorizon() {
+        Optional<LocalDateTime> horizon = this.scheduleGaps.getLatestEndTime();
+        for (RecurringTask recurringTask : this.recurringTasks.values()) {
+            LocalDateTime regularFrom = recurringTask.getRegularFrom();
+            if (horizon.isEmpty() || regularFrom.isAfter(horizon.get())) {
+                horizon = Optional.of(regularFrom);
+            }
+        }
+
+        return horizon;
+    }
+
+    /**
+     * Получить время, дальше которого искать свободный промежуток бесполезно: период расписания после горизонта.
+     *
+     * @param from    время, раньше которого начинать нельзя.
+     * @param horizon время, после которого расписание повторяется.
+     * @return предельное время начала промежутка.
+     */
+    static LocalDateTime getSearchLimit(LocalDateTime from, Optional<LocalDateTime> horizon) {
+        LocalDateTime start = horizon.isPresent() && horizon.get().isAfter(from) ? horizon.get() : from;
+        return start.plusDays(RecurringTask.PATTERN_DAYS);
+    }
+
+    /**
+     * Получить задачи, подзадачи и повторения повторяющихся задач, время выполнения которых пересекается
+     * с промежутком. Повторения строятся только для этого промежутка.
+     *
+     * @param from начало промежутка.
+     * @param to   окончание промежутка.
+     * @return задачи, упорядоченные по времени начала.
+     */
+    @Override
+    public List<Task> getSchedule(LocalDateTime from, LocalDateTime to) {
+        if (from == null) {
+            throw new IllegalArgumentException("Parameter 'from' can't be null");
+        }
+
+        if (to == null) {
+            throw new IllegalArgumentException("Parameter 'to' can't be null");
+        }
+
+        List<Task> schedule = new ArrayList<>();
+        for (Task task : this.prioritizedTasks) {
+            if (!task.getStartTime().isBefore(to)) {
+                break;
+            }
+
+            if (task.getEndTime().isAfter(from) || !task.getStartTime().isBefore(from)) {
+                schedule.add(task);
+            }
+        }
+
+        if (this.recurringTasks.isEmpty()) {
+            return schedule;
+        }
+
+        for (RecurringTask recurringTask : this.recurringTasks.values()) {
+            schedule.addAll(recurringTask.getOccurrences(from, to));
+        }
+
+        schedule.sort(Comparator.comparing(Task::getStartTime));
+        return schedule;
+    }
+
     // region Эпики
 
     /**
@@ -337,6 +561,7 @@ public class InMemoryTaskManager implements TaskManager {
         }
 
         this.epics.put(epic.getId(), epic);
+        this.touch(TaskType.EPIC, epic.getId());
     }
 
     /**
@@ -382,6 +607,7 @@ public class InMemoryTaskManager implements TaskManager {
         }
 
         this.epics.put(epic.getId(), epic);
+        this.touch(TaskType.EPIC, epic.getId());
     }
 
     /**
@@ -399,13 +625,16 @@ public class InMemoryTaskManager implements TaskManager {
 
         for (SubTask subTask : epic.getAllSubTasks()) {
             this.historyManager.remove(subTask.getId());
+            this.prioritizedTasks.remove(subTask);
             this.subTasks.remove(subTask.getId());
+            this.forget(TaskType.SUBTASK, subTask.getId());
         }
 
         epic.removeAllSubTasks();
 
         this.historyManager.remove(epicId);
         this.epics.remove(epicId);
+        this.forget(TaskType.EPIC, epicId);
     }
 
     /**
@@ -413,14 +642,17 @@ public class InMemoryTaskManager implements TaskManager {
      */
     @Override
     public void removeAllEpics() {
-        for (Integer subTaskId : this.subTasks.keySet()) {
-            this.historyManager.remove(subTaskId);
+        for (SubTask subTask : this.subTasks.values()) {
+            this.historyManager.remove(subTask.getId());
+            this.prioritizedTasks.remove(subTask);
+            this.forget(TaskType.SUBTASK, subTask.getId());
         }
 
         this.subTasks.clear();
 
         for (Integer epicId : this.epics.keySet()) {
             this.historyManager.remove(epicId);
+            this.forget(TaskType.EPIC, epicId);
         }
 
         this.epics.clear();
@@ -428,6 +660,823 @@ public class InMemoryTaskManager implements TaskManager {
 
     //endregion
 
+    // region Повторяющиеся задачи
+
+    /**
+     * Создать повторяющуюся задачу.
+     *
+     * @param recurringTask повторяющаяся задача.
+     */
+    @Override
+    public void createRecurringTask(RecurringTask recurringTask) {
+        if (recurringTask == null) {
+            throw new IllegalArgumentException("Parameter 'recurringTask' can't be null");
+        }
+
+        if (this.recurringTasks.containsKey(recurringTask.getId())) {
+            throw new IllegalStateException("Повторяющаяся задача с идентификатором " + recurringTask.getId() + " уже создана");
+        }
+
+        if (this.isCrossingAny(recurringTask)) {
+            throw new IllegalStateException("Повторяющаяся задача с идентификатором " + recurringTask.getId() + " пересекается с другой задачей по времени выполнения");
+        }
+
+        this.recurringTasks.put(recurringTask.getId(), recurringTask);
+    }
+
+    /**
+     * Получить повторяющуюся задачу по её идентификатору.
+     *
+     * @param recurringTaskId идентификатор повторяющейся задачи.
+     * @return повторяющаяся задача.
+     */
+    @Override
+    public Optional<RecurringTask> getRecurringTaskById(int recurringTaskId) {
+        return Optional.ofNullable(this.recurringTasks.get(recurringTaskId));
+    }
+
+    /**
+     * Получить все повторяющиеся задачи.
+     *
+     * @return коллекция повторяющихся задач.
+     */
+    @Override
+    public List<RecurringTask> getAllRecurringTasks() {
+        return new ArrayList<>(this.recurringTasks.values());
+    }
+
+    /**
+     * Удалить повторяющуюся задачу вместе со всеми повторениями.
+     *
+     * @param recurringTaskId идентификатор повторяющейся задачи.
+     */
+    @Override
+    public void removeRecurringTaskById(int recurringTaskId) {
+        if (this.recurringTasks.remove(recurringTaskId) == null) {
+            throw new IllegalStateException("Повторяющаяся задача с идентификатором " + recurringTaskId + " не найдена");
+        }
+    }
+
+    /**
+     * Изменить одно повторение повторяющейся задачи.
+     *
+     * @param recurringTaskId     идентификатор повторяющейся задачи.
+     * @param occurrenceStartTime исходное время начала повторения.
+     * @param occurrence          новые название, описание, статус и время повторения.
+     */
+    @Override
+    public void overrideOccurrence(int recurringTaskId, LocalDateTime occurrenceStartTime, Task occurrence) {
+        if (occurrence == null) {
+            throw new IllegalArgumentException("Parameter 'occurrence' can't be null");
+        }
+
+        RecurringTask recurringTask = this.getRecurringTask(recurringTaskId);
+        Task override = new Task(recurringTaskId, occurrence.getName(), occurrence.getDescription(), occurrence.getStatus(), occurrence.getStartTime(), occurrence.getDuration());
+
+        if (this.isCrossingAny(override)) {
+            throw new IllegalStateException("Повторение задачи с идентификатором " + recurringTaskId + " пересекается с другой задачей по времени выполнения");
+        }
+
+        recurringTask.overrideOccurrence(occurrenceStartTime, override);
+    }
+
+    /**
+     * Отменить одно повторение повторяющейся задачи.
+     *
+     * @param recurringTaskId     идентификатор повторяющейся задачи.
+     * @param occurrenceStartTime исходное время начала повторения.
+     */
+    @Override
+    public void cancelOccurrence(int recurringTaskId, LocalDateTime occurrenceStartTime) {
+        this.getRecurringTask(recurringTaskId).cancelOccurrence(occurrenceStartTime);
+    }
+
+    /**
+     * Получить повторяющуюся задачу или выбросить исключение, если её нет.
+     *
+     * @param recurringTaskId идентификатор повторяющейся задачи.
+     * @return повторяющаяся задача.
+     */
+    private RecurringTask getRecurringTask(int recurringTaskId) {
+        RecurringTask recurringTask = this.recurringTasks.get(recurringTaskId);
+        if (recurringTask == null) {
+            throw new IllegalStateException("Повторяющаяся задача с идентификатором " + recurringTaskId + " не найдена");
+        }
+
+        return recurringTask;
+    }
+
+    // endregion
+
+    // region Зависимости подзадач
+
+    /**
+     * Добавить зависимость «окончание - начало» между подзадачами одного эпика.
+     *
+     * @param subTaskId          идентификатор зависимой подзадачи.
+     * @param dependsOnSubTaskId идентификатор подзадачи, окончания которой нужно дождаться.
+     */
+    @Override
+    public void addDependency(int subTaskId, int dependsOnSubTaskId) {
+        this.criticalPaths.addDependency(subTaskId, dependsOnSubTaskId);
+    }
+
+    /**
+     * Удалить зависимость подзадачи от другой подзадачи.
+     *
+     * @param subTaskId          идентификатор зависимой подзадачи.
+     * @param dependsOnSubTaskId идентификатор подзадачи, окончания которой нужно было дождаться.
+     */
+    @Override
+    public void removeDependency(int subTaskId, int dependsOnSubTaskId) {
+        this.criticalPaths.removeDependency(subTaskId, dependsOnSubTaskId);
+    }
+
+    /**
+     * Получить подзадачи, от которых зависит подзадача.
+     *
+     * @param subTaskId идентификатор подзадачи.
+     * @return подзадачи, окончания которых нужно дождаться.
+     */
+    @Override
+    public List<SubTask> getDependencies(int subTaskId) {
+        return this.toSubTasks(this.criticalPaths.getDependencies(subTaskId));
+    }
+
+    /**
+     * Получить критический путь эпика.
+     *
+     * @param epicId идентификатор эпика.
+     * @return подзадачи критического пути от первой к последней.
+     */
+    @Override
+    public List<SubTask> getCriticalPath(int epicId) {
+        return this.toSubTasks(this.criticalPaths.getCriticalPath(epicId));
+    }
+
+    /**
+     * Получить самое раннее возможное окончание эпика с учётом зависимостей подзадач.
+     *
+     * @param epicId идентификатор эпика.
+     * @return самое раннее окончание, если у эпика есть подзадачи.
+     */
+    @Override
+    public Optional<LocalDateTime> getEarliestEndTime(int epicId) {
+        return this.criticalPaths.getEpicEarliestEndTime(epicId);
+    }
+
+    /**
+     * Получить все зависимости подзадач.
+     *
+     * @return пары {идентификатор зависимой подзадачи, идентификатор подзадачи, окончания которой нужно дождаться}.
+     */
+    List<int[]> getAllDependencies() {
+        return this.criticalPaths.getAllDependencies();
+    }
+
+    /**
+     * Получить подзадачи по идентификаторам.
+     *
+     * @param ids идентификаторы подзадач.
+     * @return подзадачи.
+     */
+    private List<SubTask> toSubTasks(List<Integer> ids) {
+        List<SubTask> result = new ArrayList<>(ids.size());
+        for (int id : ids) {
+            result.add(this.subTasks.get(id));
+        }
+
+        return result;
+    }
+
+    // endregion
+
+    // region Пакетные изменения
+
+    /**
+     * Атомарно применить пакет операций создания, обновления и удаления задач, подзадач и эпиков.
+     * <p>
+     * Сначала все операции проверяются на копии изменений без модификации менеджера, затем пересечения по времени
+     * выполнения проверяются одним проходом по упорядоченному списку задач, и только после этого операции применяются.
+     * Подзадача, создаваемая в пакете, добавляется в эпик автоматически; при обновлении эпика его подзадачи сохраняются.
+     * В отличие от {@link #createTask(Task)}, пакет может создавать задачи и подзадачи сразу в нужном статусе:
+     * это то же самое, что создание и обновление задачи в одном пакете.
+     *
+     * @param operations операции.
+     */
+    @Override
+    public void applyBatch(List<Operation> operations) {
+        if (operations == null) {
+            throw new IllegalArgumentException("Parameter 'operations' can't be null");
+        }
+
+        HashMap<Integer, AbstractTask> pending = new HashMap<>();
+
+        for (int i = 0; i < operations.size(); i++) {
+            Operation operation = operations.get(i);
+            if (operation == null) {
+                throw new IllegalArgumentException("Operation #" + (i + 1) + " can't be null");
+            }
+
+            try {
+                this.validateOperation(operation, pending);
+            } catch (IllegalStateException ex) {
+                throw new IllegalStateException("Операция №" + (i + 1) + ": " + ex.getMessage(), ex);
+            }
+        }
+
+        this.checkBatchOverlaps(pending);
+
+        for (Operation operation : operations) {
+            this.applyOperation(operation);
+        }
+    }
+
+    /**
+     * Проверить операцию пакета и учесть её результат в ожидающих изменениях.
+     *
+     * @param operation операция.
+     * @param pending   ожидающие изменения: новое состояние задачи по её идентификатору или null, если задача удалена.
+     */
+    void validateOperation(Operation operation, HashMap<Integer, AbstractTask> pending) {
+        int id = operation.getId();
+
+        switch (operation.getTaskType()) {
+            case TASK: {
+                Task current = this.findPending(pending, this.tasks, Task.class, id);
+
+                if (operation.getType() == OperationType.CREATE) {
+                    if (current != null) {
+                        throw new IllegalStateException("Задача с идентификатором " + id + " уже создана");
+                    }
+                } else if (current == null) {
+                    throw new IllegalStateException("Задача с идентификатором " + id + " не найдена");
+                }
+
+                pending.put(id, operation.getEntity());
+                break;
+            }
+            case SUBTASK: {
+                SubTask current = this.findPending(pending, this.subTasks, SubTask.class, id);
+
+                if (operation.getType() == OperationType.CREATE) {
+                    if (current != null) {
+                        throw new IllegalStateException("Подзадача с идентификатором " + id + " уже создана");
+                    }
+
+                    SubTask subTask = operation.getEntity();
+                    if (this.findPending(pending, this.epics, Epic.class, subTask.getEpicId()) == null) {
+                        throw new IllegalStateException("Создание подзадачи возможно только после создания эпика");
+                    }
+                } else if (current == null) {
+                    throw new IllegalStateException("Подзадача с идентификатором " + id + " не найдена");
+                } else if (operation.getType() == OperationType.UPDATE && ((SubTask) operation.getEntity()).getEpicId() != current.getEpicId()) {
+                    throw new IllegalStateException("Подзадача с идентификатором " + id + " не может быть перенесена в другой эпик");
+                }
+
+                pending.put(id, operation.getEntity());
+                break;
+            }
+            case EPIC: {
+                Epic current = this.findPending(pending, this.epics, Epic.class, id);
+
+                if (operation.getType() == OperationType.CREATE) {
+                    if (current != null) {
+                        throw new IllegalStateException("Эпик с идентификатором " + id + " уже создан");
+                    }
+                } else if (current == null) {
+                    throw new IllegalStateException("Эпик с идентификатором " + id + " не найден");
+                }
+
+                if (operation.getType() == OperationType.REMOVE) {
+                    Epic epic = this.epics.get(id);
+                    if (epic != null) {
+                        for (SubTask subTask : epic.getSubTasksView()) {
+                            pending.put(subTask.getId(), null);
+                        }
+                    }
+
+                    for (Map.Entry<Integer, AbstractTask> entry : pending.entrySet()) {
+                        if (entry.getValue() instanceof SubTask && ((SubTask) entry.getValue()).getEpicId() == id) {
+                            entry.setValue(null);
+                        }
+                    }
+                }
+
+                pending.put(id, operation.getEntity());
+                break;
+            }
+        }
+    }
+
+    /**
+     * Найти задачу с учётом ожидающих изменений пакета.
+     *
+     * @param pending   ожидающие изменения.
+     * @param committed задачи менеджера.
+     * @param type      тип задачи.
+     * @param id        идентификатор задачи.
+     * @param <T>       тип задачи.
+     * @return задача или null, если задача не найдена или удалена в пакете.
+     */
+    private <T extends AbstractTask> T findPending(HashMap<Integer, AbstractTask> pending, HashMap<Integer, T> committed, Class<T> type, int id) {
+        if (!pending.containsKey(id)) {
+            return committed.get(id);
+        }
+
+        AbstractTask task = pending.get(id);
+        return task != null && task.getClass() == type ? type.cast(task) : null;
+    }
+
+    /**
+     * Проверить, что созданные и обновлённые в пакете задачи и подзадачи не пересекаются по времени выполнения
+     * ни между собой, ни с остальными задачами.
+     * <p>
+     * Изменённые задачи сортируются и сливаются с упорядоченным списком задач за один проход, в котором для уже
+     * пройденных задач запоминается наибольшее время завершения - отдельно для всех и для изменённых задач.
+     * Пересечения между задачами, не затронутыми пакетом, не проверяются.
+     *
+     * @param pending ожидающие изменения.
+     */
+    void checkBatchOverlaps(HashMap<Integer, AbstractTask> pending) {
+        List<Task> changed = new ArrayList<>();
+        for (AbstractTask task : pending.values()) {
+            if (task instanceof Task) {
+                changed.add((Task) task);
+            }
+        }
+
+        if (changed.isEmpty()) {
+            return;
+        }
+
+        for (Task task : changed) {
+            if (this.isCrossingRecurring(task)) {
+                throw new IllegalStateException((task instanceof SubTask ? "Подзадача" : "Задача") + " с идентификатором " + task.getId() + " пересекается с повторяющейся задачей по времени выполнения");
+            }
+        }
+
+        changed.sort(Comparator.comparing(Task::getStartTime));
+
+        OverlapCheckEvent event = new OverlapCheckEvent();
+        event.begin();
+
+        Iterator<Task> iterator = this.prioritizedTasks.iterator();
+        Task unchanged = this.nextUnchanged(iterator, pending);
+        int index = 0;
+
+        LocalDateTime lastStart = null;
+        LocalDateTime maxEnd = null;
+        LocalDateTime lastChangedStart = null;
+        LocalDateTime maxChangedEnd = null;
+        Task lastChanged = null;
+        Task longestChanged = null;
+
+        while (unchanged != null || index < changed.size()) {
+            event.candidatesExamined++;
+
+            Task task;
+            boolean isChanged = unchanged == null || (index < changed.size() && !changed.get(index).<LocalDateTime>getStartTime().isAfter(unchanged.getStartTime()));
+            if (isChanged) {
+                task = changed.get(index++);
+            } else {
+                task = unchanged;
+                unchanged = this.nextUnchanged(iterator, pending);
+            }
+
+            LocalDateTime startTime = task.getStartTime();
+            LocalDateTime endTime = task.getEndTime();
+
+            if (isChanged ? isCrossing(startTime, lastStart, maxEnd) : isCrossing(startTime, lastChangedStart, maxChangedEnd)) {
+                Task crossed = isChanged ? task : startTime.equals(lastChangedStart) ? lastChanged : longestChanged;
+
+                event.crossed = true;
+                event.commit();
+
+                throw new IllegalStateException((crossed instanceof SubTask ? "Подзадача" : "Задача") + " с идентификатором " + crossed.getId() + " пересекается с другой задачей по времени выполнения");
+            }
+
+            lastStart = startTime;
+            maxEnd = maxEnd == null || endTime.isAfter(maxEnd) ? endTime : maxEnd;
+
+            if (isChanged) {
+                lastChanged = task;
+                lastChangedStart = startTime;
+
+                if (maxChangedEnd == null || endTime.isAfter(maxChangedEnd)) {
+                    longestChanged = task;
+                    maxChangedEnd = endTime;
+                }
+            }
+        }
+
+        event.commit();
+    }
+
+    /**
+     * Проверить, что задачу можно создать: она не повторяющаяся, ещё не создана и находится в статусе NEW.
+     *
+     * @param task задача.
+     */
+    private void checkNewTask(Task task) {
+        if (task == null) {
+            throw new IllegalArgumentException("Parameter 'task' can't be null");
+        }
+
+        if (task instanceof RecurringTask) {
+            throw new IllegalArgumentException("Parameter 'task' can't be recurring task");
+        }
+
+        if (this.tasks.containsKey(task.getId())) {
+            throw new IllegalStateException("Задача с идентификатором " + task.getId() + " уже создана");
+        }
+
+        if (task.getStatus() != TaskStatus.NEW) {
+            throw new IllegalStateException("Создание задачи возможно только в статусе 'NEW'. Текущий статус: '" + task.getStatus().name() + "'");
+        }
+    }
+
+    /**
+     * Добавить проверенную задачу в менеджер.
+     *
+     * @param task задача.
+     */
+    private void addTask(Task task) {
+        this.prioritizedTasks.add(task);
+        this.tasks.put(task.getId(), task);
+        this.touch(TaskType.TASK, task.getId());
+    }
+
+    /**
+     * Проверить, пересекается ли задача по времени выполнения с задачами, подзадачами или повторениями
+     * повторяющихся задач менеджера. Изменённое повторение не сравнивается с собственной повторяющейся задачей:
+     * это делает сама повторяющаяся задача.
+     *
+     * @param task задача, подзадача, повторяющаяся задача или её повторение.
+     * @return признак пересечения.
+     */
+    private boolean isCrossingAny(Task task) {
+        OverlapCheckEvent event = new OverlapCheckEvent();
+        event.begin();
+        event.taskId = task.getId();
+
+        for (Task candidate : this.tasks.values()) {
+            event.candidatesExamined++;
+            if (isCrossed(candidate, task)) {
+                event.crossed = true;
+                break;
+            }
+        }
+
+        if (!event.crossed) {
+            for (SubTask candidate : this.subTasks.values()) {
+                event.candidatesExamined++;
+                if (isCrossed(candidate, task)) {
+                    event.crossed = true;
+                    break;
+                }
+            }
+        }
+
+        if (!event.crossed) {
+            event.crossed = this.isCrossingRecurring(task);
+        }
+
+        event.commit();
+        return event.crossed;
+    }
+
+    /**
+     * Проверить, пересекается ли задача по времени выполнения с повторениями повторяющихся задач менеджера, кроме
+     * повторяющейся задачи с тем же идентификатором.
+     *
+     * @param task задача, подзадача, повторяющаяся задача или её повторение.
+     * @return признак пересечения.
+     */
+    boolean isCrossingRecurring(Task task) {
+        for (RecurringTask recurringTask : this.recurringTasks.values()) {
+            if (recurringTask.getId() != task.getId() && recurringTask.isCrossed(task)) {
+                return true;
+            }
+        }
+
+        return false;
+    }
+
+    /**
+     * Проверить, пересекается ли задача или подзадача менеджера по времени выполнения с другой задачей. Если другая
+     * задача повторяющаяся, сравниваются все её повторения.
+     *
+     * @param candidate задача или подзадача менеджера.
+     * @param task      задача, подзадача, повторяющаяся задача или её повторение.
+     * @return признак пересечения.
+     */
+    static boolean isCrossed(Task candidate, Task task) {
+        return task instanceof RecurringTask ? task.isCrossed(candidate) : candidate.isCrossed(task);
+    }
+
+    /**
+     * Получить следующую задачу упорядоченного списка, не затронутую пакетом.
+     *
+     * @param iterator итератор упорядоченного списка задач.
+     * @param pending  ожидающие изменения.
+     * @return задача или null, если список закончился.
+     */
+    private Task nextUnchanged(Iterator<Task> iterator, HashMap<Integer, AbstractTask> pending) {
+        while (iterator.hasNext()) {
+            Task task = iterator.next();
+            if (!pending.containsKey(task.getId())) {
+                return task;
+            }
+        }
+
+        return null;
+    }
+
+    /**
+     * Проверить, пересекается ли задача с ранее пройденными задачами.
+     *
+     * @param startTime время начала задачи.
+     * @param lastStart наибольшее время начала среди пройденных задач.
+     * @param maxEnd    наибольшее время завершения среди пройденных задач.
+     * @return признак пересечения.
+     */
+    private static boolean isCrossing(LocalDateTime startTime, LocalDateTime lastStart, LocalDateTime maxEnd) {
+        return lastStart != null && (startTime.equals(lastStart) || startTime.isBefore(maxEnd));
+    }
+
+    /**
+     * Применить проверенную операцию пакета.
+     *
+     * @param operation операция.
+     */
+    void applyOperation(Operation operation) {
+        int id = operation.getId();
+
+        switch (operation.getTaskType()) {
+            case TASK: {
+                Task previous = this.tasks.get(id);
+                if (previous != null) {
+                    this.prioritizedTasks.remove(previous);
+                }
+
+                if (operation.getType() == OperationType.REMOVE) {
+                    this.historyManager.remove(id);
+                    this.tasks.remove(id);
+                    this.forget(TaskType.TASK, id);
+                } else {
+                    Task task = operation.getEntity();
+                    this.prioritizedTasks.add(task);
+                    this.tasks.put(id, task);
+                    this.touch(TaskType.TASK, id);
+                }
+                break;
+            }
+            case SUBTASK: {
+                SubTask previous = this.subTasks.get(id);
+                if (previous != null) {
+                    this.prioritizedTasks.remove(previous);
+                }
+
+                if (operation.getType() == OperationType.REMOVE) {
+                    this.epics.get(previous.getEpicId()).removeSubTask(previous);
+                    this.historyManager.remove(id);
+                    this.subTasks.remove(id);
+                    this.forget(TaskType.SUBTASK, id);
+                    this.touch(TaskType.EPIC, previous.getEpicId());
+                } else {
+                    SubTask subTask = operation.getEntity();
+                    Epic epic = this.epics.get(subTask.getEpicId());
+                    if (epic.getSubTaskById(id).isEmpty()) {
+                        epic.addSubTask(subTask);
+                    } else {
+                        epic.updateSubTask(subTask);
+                    }
+
+                    this.prioritizedTasks.add(subTask);
+                    this.subTasks.put(id, subTask);
+                    this.touch(TaskType.SUBTASK, id);
+                    this.touch(TaskType.EPIC, subTask.getEpicId());
+                }
+                break;
+            }
+            case EPIC: {
+                Epic previous = this.epics.get(id);
+
+                switch (operation.getType()) {
+                    case CREATE:
+                        this.epics.put(id, operation.getEntity());
+                        break;
+                    case UPDATE:
+                        Epic epic = operation.getEntity();
+                        this.epics.put(id, new Epic(id, epic.getName(), epic.getDescription(), previous.getSubTasks()));
+                        break;
+                    case REMOVE:
+                        for (SubTask subTask : previous.getAllSubTasks()) {
+                            this.historyManager.remove(subTask.getId());
+                            this.prioritizedTasks.remove(subTask);
+                            this.subTasks.remove(subTask.getId());
+                            this.forget(TaskType.SUBTASK, subTask.getId());
+                        }
+
+                        previous.removeAllSubTasks();
+
+                        this.historyManager.remove(id);
+                        this.epics.remove(id);
+                        this.forget(TaskType.EPIC, id);
+                        return;
+                }
+
+                this.touch(TaskType.EPIC, id);
+                break;
+            }
+        }
+    }
+
+    // endregion
+
+    // region Версии
+
+    /**
+     * Получить текущую версию менеджера задач.
+     *
+     * @return текущая версия.
+     */
+    @Override
+    public long getVersion() {
+        return this.version.get();
+    }
+
+    /**
+     * Получить версию задачи, подзадачи или эпика.
+     *
+     * @param id идентификатор задачи, подзадачи или эпика.
+     * @return версия или 0, если задача не найдена.
+     */
+    @Override
+    public long getVersion(int id) {
+        return this.versions.getOrDefault(id, 0L);
+    }
+
+    /**
+     * Получить задачи, подзадачи и эпики, изменённые после заданной версии, и отметки об удалении.
+     *
+     * @param version версия, известная клиенту.
+     * @return изменения.
+     */
+    @Override
+    public ChangeSet getChangesSince(long version) {
+        long currentVersion = this.version.get();
+        if (version > currentVersion) {
+            return ChangeSet.fullResync(currentVersion);
+        }
+
+        Optional<List<ChangeEvent>> events = this.changeLog.getChangesSince(version);
+        if (events.isEmpty()) {
+            return ChangeSet.fullResync(currentVersion);
+        }
+
+        List<Task> changedTasks = new ArrayList<>();
+        List<SubTask> changedSubTasks = new ArrayList<>();
+        List<Epic> changedEpics = new ArrayList<>();
+        List<ChangeEvent> removed = new ArrayList<>();
+
+        for (ChangeEvent event : events.get()) {
+            if (event.getType() == ChangeType.REMOVED) {
+                removed.add(event);
+                continue;
+            }
+
+            switch (event.getTaskType()) {
+                case TASK:
+                    Optional.ofNullable(this.tasks.get(event.getId())).ifPresent(changedTasks::add);
+                    break;
+                case SUBTASK:
+                    Optional.ofNullable(this.subTasks.get(event.getId())).ifPresent(changedSubTasks::add);
+                    break;
+                case EPIC:
+                    Optional.ofNullable(this.epics.get(event.getId())).ifPresent(changedEpics::add);
+                    break;
+            }
+        }
+
+        return new ChangeSet(currentVersion, changedTasks, changedSubTasks, changedEpics, removed);
+    }
+
+    /**
+     * Продвинуть текущую версию менеджера задач не ниже заданной, чтобы версии, выданные до перезагрузки данных,
+     * не выдавались повторно.
+     *
+     * @param version версия.
+     */
+    void advanceVersion(long version) {
+        this.version.accumulateAndGet(version, Math::max);
+    }
+
+    /**
+     * Очистить журнал изменений до текущей версии: клиенты, синхронизированные с более ранней версией, получат
+     * указание заново загрузить все списки.
+     */
+    void compactChangeLog() {
+        this.changeLog.compact(this.version.get());
+    }
+
+    /**
+     * Зафиксировать создание или изменение задачи, подзадачи или эпика и оповестить получателей событий.
+     * Время задачи передаётся в индекс свободных промежутков, время подзадачи - также в индекс критических путей.
+     *
+     * @param taskType тип задачи.
+     * @param id       идентификатор задачи, подзадачи или эпика.
+     */
+    private void touch(TaskType taskType, int id) {
+        if (taskType == TaskType.TASK) {
+            this.scheduleGaps.upsert(this.tasks.get(id));
+        } else if (taskType == TaskType.SUBTASK) {
+            this.scheduleGaps.upsert(this.subTasks.get(id));
+            this.criticalPaths.upsert(this.subTasks.get(id));
+        }
+
+        long version = this.version.incrementAndGet();
+        Long previous = this.versions.put(id, version);
+
+        this.publish(new ChangeEvent(previous == null ? ChangeType.CREATED : ChangeType.UPDATED, taskType, id, version));
+    }
+
+    /**
+     * Зафиксировать удаление задачи, подзадачи или эпика и оповестить получателей событий.
+     * Задача удаляется из индекса свободных промежутков, подзадача - также из индекса критических путей вместе
+     * с зависимостями.
+     *
+     * @param taskType тип задачи.
+     * @param id       идентификатор задачи, подзадачи или эпика.
+     */
+    private void forget(TaskType taskType, int id) {
+        if (taskType != TaskType.EPIC) {
+            this.scheduleGaps.remove(id);
+        }
+
+        if (taskType == TaskType.SUBTASK) {
+            this.criticalPaths.remove(id);
+        }
+
+        long version = this.version.incrementAndGet();
+        this.versions.remove(id);
+
+        this.publish(new ChangeEvent(ChangeType.REMOVED, taskType, id, version));
+    }
+
+    // endregion
+
+    // region События изменения
+
+    /**
+     * Подписаться на события изменения задач, подзадач и эпиков.
+     *
+     * @param listener получатель событий.
+     */
+    @Override
+    public void addChangeListener(ChangeListener listener) {
+        if (listener == null) {
+            throw new IllegalArgumentException("Parameter 'listener' can't be null");
+        }
+
+        this.changeListeners.add(listener);
+    }
+
+    /**
+     * Отписаться от событий изменения задач, подзадач и эпиков.
+     *
+     * @param listener получатель событий.
+     */
+    @Override
+    public void removeChangeListener(ChangeListener listener) {
+        this.changeListeners.remove(listener);
+    }
+
+    /**
+     * Оповестить получателей о событии изменения.
+     *
+     * @param event событие изменения.
+     */
+    private void publish(ChangeEvent event) {
+        this.changeLog.append(event);
+
+        TaskChangeEvent jfrEvent = new TaskChangeEvent();
+        if (jfrEvent.isEnabled()) {
+            jfrEvent.changeType = event.getType().name();
+            jfrEvent.taskType = event.getTaskType().name();
+            jfrEvent.taskId = event.getId();
+            jfrEvent.version = event.getVersion();
+            jfrEvent.commit();
+        }
+
+        for (ChangeListener listener : this.changeListeners) {
+            listener.onChange(event);
+        }
+    }
+
+    // endregion
+
     // region История просмотра
 
     /**
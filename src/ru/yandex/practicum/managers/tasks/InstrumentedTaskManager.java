@@ -0,0 +1,352 @@
+package ru.yandex.practicum.managers.tasks;
+
+// region imports
+
+import ru.yandex.practicum.abstractions.ChangeListener;
+import ru.yandex.practicum.abstractions.TaskManager;
+import ru.yandex.practicum.models.AbstractTask;
+import ru.yandex.practicum.models.ChangeSet;
+import ru.yandex.practicum.models.Epic;
+import ru.yandex.practicum.models.Operation;
+import ru.yandex.practicum.models.RecurringTask;
+import ru.yandex.practicum.models.SubTask;
+import ru.yandex.practicum.models.Task;
+import ru.yandex.practicum.utils.metrics.LatencyHistogram;
+import ru.yandex.practicum.utils.metrics.MetricsRegistry;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+// endregion
+
+/**
+ * Менеджер задач, замеряющий длительность и количество ошибок каждой операции другого менеджера задач.
+ * <p>
+ * Получение версий и подписка на события не замеряются: они вызываются на каждый элемент ответа и не несут
+ * собственной работы.
+ */
+public final class InstrumentedTaskManager implements TaskManager {
+    /**
+     * Менеджер задач, выполняющий операции.
+     */
+    private final TaskManager taskManager;
+
+    /**
+     * Реестр метрик.
+     */
+    private final MetricsRegistry metricsRegistry;
+
+    /**
+     * Метрики по названию операции.
+     */
+    private final ConcurrentHashMap<String, OperationMetrics> operations;
+
+    /**
+     * Конструктор.
+     *
+     * @param taskManager     менеджер задач, выполняющий операции.
+     * @param metricsRegistry реестр метрик.
+     */
+    public InstrumentedTaskManager(TaskManager taskManager, MetricsRegistry metricsRegistry) {
+        if (taskManager == null) {
+            throw new IllegalArgumentException("Parameter 'taskManager' can't be null");
+        }
+
+        if (metricsRegistry == null) {
+            throw new IllegalArgumentException("Parameter 'metricsRegistry' can't be null");
+        }
+
+        this.taskManager = taskManager;
+        this.metricsRegistry = metricsRegistry;
+        this.operations = new ConcurrentHashMap<>();
+    }
+
+    // region Overrides of TaskManager
+
+    @Override
+    public void createTask(Task task) {
+        this.measure("createTask", () -> this.taskManager.createTask(task));
+    }
+
+    @Override
+    public Task createTaskInEarliestSlot(Task task) {
+        return this.measure("createTaskInEarliestSlot", () -> this.taskManager.createTaskInEarliestSlot(task));
+    }
+
+    @Override
+    public Optional<Task> getTaskById(int taskId) {
+        return this.measure("getTaskById", () -> this.taskManager.getTaskById(taskId));
+    }
+
+    @Override
+    public List<Task> getAllTasks() {
+        return this.measure("getAllTasks", () -> this.taskManager.getAllTasks());
+    }
+
+    @Override
+    public void updateTask(Task task) {
+        this.measure("updateTask", () -> this.taskManager.updateTask(task));
+    }
+
+    @Override
+    public void removeTaskById(int taskId) {
+        this.measure("removeTaskById", () -> this.taskManager.removeTaskById(taskId));
+    }
+
+    @Override
+    public void removeAllTasks() {
+        this.measure("removeAllTasks", () -> this.taskManager.removeAllTasks());
+    }
+
+    @Override
+    public void createSubTask(SubTask subTask) {
+        this.measure("createSubTask", () -> this.taskManager.createSubTask(subTask));
+    }
+
+    @Override
+    public Optional<SubTask> getSubTaskById(int subTaskId) {
+        return this.measure("getSubTaskById", () -> this.taskManager.getSubTaskById(subTaskId));
+    }
+
+    @Override
+    public List<SubTask> getSubTasksByEpic(Epic epic) {
+        return this.measure("getSubTasksByEpic", () -> this.taskManager.getSubTasksByEpic(epic));
+    }
+
+    @Override
+    public List<SubTask> getAllSubTasks() {
+        return this.measure("getAllSubTasks", () -> this.taskManager.getAllSubTasks());
+    }
+
+    @Override
+    public void updateSubTask(SubTask subTask) {
+        this.measure("updateSubTask", () -> this.taskManager.updateSubTask(subTask));
+    }
+
+    @Override
+    public void removeSubTaskById(int subTaskId) {
+        this.measure("removeSubTaskById", () -> this.taskManager.removeSubTaskById(subTaskId));
+    }
+
+    @Override
+    public void removeAllSubTasks() {
+        this.measure("removeAllSubTasks", () -> this.taskManager.removeAllSubTasks());
+    }
+
+    @Override
+    public TreeSet<Task> getPrioritizedTasks() {
+        return this.measure("getPrioritizedTasks", () -> this.taskManager.getPrioritizedTasks());
+    }
+
+    @Override
+    public LocalDateTime findEarliestSlot(LocalDateTime from, Duration duration) {
+        return this.measure("findEarliestSlot", () -> this.taskManager.findEarliestSlot(from, duration));
+    }
+
+    @Override
+    public List<Task> getSchedule(LocalDateTime from, LocalDateTime to) {
+        return this.measure("getSchedule", () -> this.taskManager.getSchedule(from, to));
+    }
+
+    @Override
+    public void createEpic(Epic epic) {
+        this.measure("createEpic", () -> this.taskManager.createEpic(epic));
+    }
+
+    @Override
+    public Optional<Epic> getEpicById(int epicId) {
+        return this.measure("getEpicById", () -> this.taskManager.getEpicById(epicId));
+    }
+
+    @Override
+    public List<Epic> getAllEpics() {
+        return this.measure("getAllEpics", () -> this.taskManager.getAllEpics());
+    }
+
+    @Override
+    public void updateEpic(Epic epic) {
+        this.measure("updateEpic", () -> this.taskManager.updateEpic(epic));
+    }
+
+    @Override
+    public void removeEpicById(int epicId) {
+        this.measure("removeEpicById", () -> this.taskManager.removeEpicById(epicId));
+    }
+
+    @Override
+    public void removeAllEpics() {
+        this.measure("removeAllEpics", () -> this.taskManager.removeAllEpics());
+    }
+
+    @Override
+    public void addDependency(int subTaskId, int dependsOnSubTaskId) {
+        this.measure("addDependency", () -> this.taskManager.addDependency(subTaskId, dependsOnSubTaskId));
+    }
+
+    @Override
+    public void removeDependency(int subTaskId, int dependsOnSubTaskId) {
+        this.measure("removeDependency", () -> this.taskManager.removeDependency(subTaskId, dependsOnSubTaskId));
+    }
+
+    @Override
+    public List<SubTask> getDependencies(int subTaskId) {
+        return this.measure("getDependencies", () -> this.taskManager.getDependencies(subTaskId));
+    }
+
+    @Override
+    public List<SubTask> getCriticalPath(int epicId) {
+        return this.measure("getCriticalPath", () -> this.taskManager.getCriticalPath(epicId));
+    }
+
+    @Override
+    public Optional<LocalDateTime> getEarliestEndTime(int epicId) {
+        return this.measure("getEarliestEndTime", () -> this.taskManager.getEarliestEndTime(epicId));
+    }
+
+    @Override
+    public void createRecurringTask(RecurringTask recurringTask) {
+        this.measure("createRecurringTask", () -> this.taskManager.createRecurringTask(recurringTask));
+    }
+
+    @Override
+    public Optional<RecurringTask> getRecurringTaskById(int recurringTaskId) {
+        return this.measure("getRecurringTaskById", () -> this.taskManager.getRecurringTaskById(recurringTaskId));
+    }
+
+    @Override
+    public List<RecurringTask> getAllRecurringTasks() {
+        return this.measure("getAllRecurringTasks", () -> this.taskManager.getAllRecurringTasks());
+    }
+
+    @Override
+    public void removeRecurringTaskById(int recurringTaskId) {
+        this.measure("removeRecurringTaskById", () -> this.taskManager.removeRecurringTaskById(recurringTaskId));
+    }
+
+    @Override
+    public void overrideOccurrence(int recurringTaskId, LocalDateTime occurrenceStartTime, Task occurrence) {
+        this.measure("overrideOccurrence", () -> this.taskManager.overrideOccurrence(recurringTaskId, occurrenceStartTime, occurrence));
+    }
+
+    @Override
+    public void cancelOccurrence(int recurringTaskId, LocalDateTime occurrenceStartTime) {
+        this.measure("cancelOccurrence", () -> this.taskManager.cancelOccurrence(recurringTaskId, occurrenceStartTime));
+    }
+
+    @Override
+    public void applyBatch(List<Operation> operations) {
+        this.measure("applyBatch", () -> this.taskManager.applyBatch(operations));
+    }
+
+    @Override
+    public long getVersion() {
+        return this.taskManager.getVersion();
+    }
+
+    @Override
+    public long getVersion(int id) {
+        return this.taskManager.getVersion(id);
+    }
+
+    @Override
+    public ChangeSet getChangesSince(long version) {
+        return this.measure("getChangesSince", () -> this.taskManager.getChangesSince(version));
+    }
+
+    @Override
+    public void addChangeListener(ChangeListener listener) {
+        this.taskManager.addChangeListener(listener);
+    }
+
+    @Override
+    public void removeChangeListener(ChangeListener listener) {
+        this.taskManager.removeChangeListener(listener);
+    }
+
+    @Override
+    public List<AbstractTask> getHistory() {
+        return this.measure("getHistory", () -> this.taskManager.getHistory());
+    }
+
+    // endregion
+
+    /**
+     * Выполнить операцию, замерив её длительность.
+     *
+     * @param operation название операции.
+     * @param action    операция.
+     * @return результат операции.
+     */
+    private <T> T measure(String operation, Supplier<T> action) {
+        OperationMetrics metrics = this.getOperationMetrics(operation);
+        long start = System.nanoTime();
+
+        try {
+            return action.get();
+        } catch (RuntimeException ex) {
+            metrics.errors.increment();
+            throw ex;
+        } finally {
+            metrics.duration.record(System.nanoTime() - start);
+        }
+    }
+
+    /**
+     * Выполнить операцию, замерив её длительность.
+     *
+     * @param operation название операции.
+     * @param action    операция.
+     */
+    private void measure(String operation, Runnable action) {
+        this.measure(operation, () -> {
+            action.run();
+            return null;
+        });
+    }
+
+    /**
+     * Получить метрики операции.
+     *
+     * @param operation название операции.
+     * @return метрики операции.
+     */
+    private OperationMetrics getOperationMetrics(String operation) {
+        OperationMetrics metrics = this.operations.get(operation);
+        return metrics != null ? metrics : this.operations.computeIfAbsent(operation, key -> new OperationMetrics(
+                this.metricsRegistry.histogram("task_manager_operation_duration_seconds", "Длительность операций менеджера задач", "operation", key),
+                this.metricsRegistry.counter("task_manager_operation_errors_total", "Количество операций менеджера задач, завершившихся ошибкой", "operation", key)));
+    }
+
+    // region Nested Types
+
+    /**
+     * Метрики операции.
+     */
+    private static final class OperationMetrics {
+        /**
+         * Длительность операции.
+         */
+        private final LatencyHistogram duration;
+
+        /**
+         * Количество ошибок.
+         */
+        private final LongAdder errors;
+
+        /**
+         * Конструктор.
+         */
+        OperationMetrics(LatencyHistogram duration, LongAdder errors) {
+            this.duration = duration;
+            this.errors = errors;
+        }
+    }
+
+    // endregion
+}
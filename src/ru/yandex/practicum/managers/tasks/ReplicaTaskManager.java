@@ -0,0 +1,409 @@
+package ru.yandex.practicum.managers.tasks;
+
+// region imports
+
+import ru.yandex.practicum.constants.OperationType;
+import ru.yandex.practicum.constants.TaskType;
+import ru.yandex.practicum.models.AbstractTask;
+import ru.yandex.practicum.models.ChangeSet;
+import ru.yandex.practicum.models.Epic;
+import ru.yandex.practicum.models.Operation;
+import ru.yandex.practicum.models.RecurringTask;
+import ru.yandex.practicum.models.SubTask;
+import ru.yandex.practicum.models.Task;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Optional;
+import java.util.TreeSet;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Supplier;
+
+// endregion
+
+/**
+ * Менеджер задач реплики: хранит копию задач ведущего менеджера и доступен только для чтения.
+ * <p>
+ * Изменения ведущего менеджера применяются методом {@link #replicate(Operation)} без повторных проверок: они уже
+ * прошли проверки на ведущем менеджере. Применение идемпотентно - создание существующей задачи выполняется как
+ * обновление, обновление отсутствующей - как создание, удаление отсутствующей игнорируется, - поэтому журнал
+ * можно повторно применить с любого места. Попытка изменить реплику через интерфейс менеджера задач приводит
+ * к {@link IllegalStateException}.
+ * <p>
+ * Журнал репликации передаёт только задачи, подзадачи и эпики, поэтому критические пути реплики строятся
+ * без зависимостей между подзадачами, а повторяющихся задач на реплике нет.
+ * <p>
+ * Изменения применяются потоком репликации, а читают реплику потоки HTTP-сервера, поэтому чтение и применение
+ * изменений разделены блокировкой чтения-записи. Чтение возвращает копии коллекций и эпиков (единственных задач,
+ * которые изменяются на месте), чтобы их можно было обходить уже после снятия блокировки. Получение задачи по
+ * идентификатору изменяет историю просмотра и поэтому выполняется под блокировкой записи.
+ */
+public final class ReplicaTaskManager extends InMemoryTaskManager {
+    /**
+     * Блокировка, разделяющая чтение реплики и применение изменений.
+     */
+    private final ReentrantReadWriteLock lock;
+
+    /**
+     * Конструктор.
+     */
+    public ReplicaTaskManager() {
+        super();
+
+        this.lock = new ReentrantReadWriteLock();
+    }
+
+    /**
+     * Применить изменение ведущего менеджера задач.
+     *
+     * @param operation операция.
+     */
+    public void replicate(Operation operation) {
+        if (operation == null) {
+            throw new IllegalArgumentException("Parameter 'operation' can't be null");
+        }
+
+        Lock writeLock = this.lock.writeLock();
+        writeLock.lock();
+        try {
+            this.apply(operation);
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    /**
+     * Удалить все задачи, подзадачи и эпики перед полной синхронизацией с ведущим менеджером.
+     */
+    public void reset() {
+        this.write(() -> {
+            super.removeAllTasks();
+            super.removeAllEpics();
+            return null;
+        });
+    }
+
+    /**
+     * Применить изменение ведущего менеджера задач под блокировкой записи.
+     *
+     * @param operation операция.
+     */
+    private void apply(Operation operation) {
+        boolean exists = this.contains(operation.getTaskType(), operation.getId());
+
+        if (operation.getType() == OperationType.REMOVE) {
+            if (exists) {
+                this.applyOperation(operation);
+            }
+            return;
+        }
+
+        if (operation.getTaskType() == TaskType.SUBTASK) {
+            SubTask subTask = operation.getEntity();
+            if (!this.epics.containsKey(subTask.getEpicId())) {
+                throw new IllegalStateException("Эпик с идентификатором " + subTask.getEpicId() + " не найден");
+            }
+        }
+
+        this.applyOperation(exists ? Operation.update(operation.getEntity()) : Operation.create(operation.getEntity()));
+    }
+
+    /**
+     * Проверить, есть ли в реплике задача, подзадача или эпик.
+     *
+     * @param taskType тип задачи.
+     * @param id       идентификатор.
+     * @return признак наличия.
+     */
+    private boolean contains(TaskType taskType, int id) {
+        switch (taskType) {
+            case TASK:
+                return this.tasks.containsKey(id);
+            case SUBTASK:
+                return this.subTasks.containsKey(id);
+            case EPIC:
+                return this.epics.containsKey(id);
+            default:
+                return false;
+        }
+    }
+
+    /**
+     * Выполнить чтение под блокировкой чтения.
+     *
+     * @param action чтение.
+     * @param <T>    тип результата.
+     * @return результат.
+     */
+    private <T> T read(Supplier<T> action) {
+        Lock readLock = this.lock.readLock();
+        readLock.lock();
+        try {
+            return action.get();
+        } finally {
+            readLock.unlock();
+        }
+    }
+
+    /**
+     * Выполнить действие под блокировкой записи.
+     *
+     * @param action действие.
+     * @param <T>    тип результата.
+     * @return результат.
+     */
+    private <T> T write(Supplier<T> action) {
+        Lock writeLock = this.lock.writeLock();
+        writeLock.lock();
+        try {
+            return action.get();
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    /**
+     * Скопировать эпик вместе с коллекцией подзадач.
+     *
+     * @param epic эпик.
+     * @return копия эпика.
+     */
+    private static Epic copy(Epic epic) {
+        return new Epic(epic.getId(), epic.getName(), epic.getDescription(), new HashMap<>(epic.getSubTasks()));
+    }
+
+    /**
+     * Скопировать эпики.
+     *
+     * @param epics эпики.
+     * @return копии эпиков.
+     */
+    private static List<Epic> copy(List<Epic> epics) {
+        List<Epic> copies = new ArrayList<>(epics.size());
+        for (Epic epic : epics) {
+            copies.add(copy(epic));
+        }
+
+        return copies;
+    }
+
+    /**
+     * Сообщить о попытке изменить реплику.
+     *
+     * @return исключение.
+     */
+    private static IllegalStateException readOnly() {
+        return new IllegalStateException("Реплика доступна только для чтения, изменения выполняются на ведущем сервере");
+    }
+
+    // region Чтение
+
+    @Override
+    public Optional<Task> getTaskById(int taskId) {
+        return this.write(() -> super.getTaskById(taskId));
+    }
+
+    @Override
+    public List<Task> getAllTasks() {
+        return this.read(super::getAllTasks);
+    }
+
+    @Override
+    public Optional<SubTask> getSubTaskById(int subTaskId) {
+        return this.write(() -> super.getSubTaskById(subTaskId));
+    }
+
+    @Override
+    public List<SubTask> getSubTasksByEpic(Epic epic) {
+        return this.read(() -> super.getSubTasksByEpic(epic));
+    }
+
+    @Override
+    public List<SubTask> getAllSubTasks() {
+        return this.read(super::getAllSubTasks);
+    }
+
+    @Override
+    public TreeSet<Task> getPrioritizedTasks() {
+        return this.read(() -> new TreeSet<>(super.getPrioritizedTasks()));
+    }
+
+    @Override
+    public LocalDateTime findEarliestSlot(LocalDateTime from, Duration duration) {
+        return this.read(() -> super.findEarliestSlot(from, duration));
+    }
+
+    @Override
+    public List<Task> getSchedule(LocalDateTime from, LocalDateTime to) {
+        return this.read(() -> super.getSchedule(from, to));
+    }
+
+    @Override
+    public Optional<Epic> getEpicById(int epicId) {
+        // При применении изменений менеджер задач получает эпик, чтобы изменить его подзадачи: нужен сам эпик.
+        if (this.lock.isWriteLockedByCurrentThread()) {
+            return super.getEpicById(epicId);
+        }
+
+        return this.write(() -> super.getEpicById(epicId).map(ReplicaTaskManager::copy));
+    }
+
+    @Override
+    public List<Epic> getAllEpics() {
+        return this.read(() -> copy(super.getAllEpics()));
+    }
+
+    @Override
+    public List<SubTask> getDependencies(int subTaskId) {
+        return this.read(() -> super.getDependencies(subTaskId));
+    }
+
+    @Override
+    public List<SubTask> getCriticalPath(int epicId) {
+        return this.read(() -> super.getCriticalPath(epicId));
+    }
+
+    @Override
+    public Optional<LocalDateTime> getEarliestEndTime(int epicId) {
+        return this.read(() -> super.getEarliestEndTime(epicId));
+    }
+
+    @Override
+    public long getVersion(int id) {
+        return this.read(() -> super.getVersion(id));
+    }
+
+    @Override
+    public ChangeSet getChangesSince(long version) {
+        return this.read(() -> {
+            ChangeSet changeSet = super.getChangesSince(version);
+            if (changeSet.isFullResyncRequired()) {
+                return changeSet;
+            }
+
+            return new ChangeSet(changeSet.getVersion(), changeSet.getTasks(), changeSet.getSubTasks(), copy(changeSet.getEpics()), changeSet.getRemoved());
+        });
+    }
+
+    @Override
+    public List<AbstractTask> getHistory() {
+        return this.read(() -> {
+            List<AbstractTask> history = new ArrayList<>();
+            for (AbstractTask task : super.getHistory()) {
+                history.add(task instanceof Epic ? copy((Epic) task) : task);
+            }
+
+            return history;
+        });
+    }
+
+    // endregion
+
+    // region Изменения через интерфейс менеджера задач
+
+    @Override
+    public void createTask(Task task) {
+        throw readOnly();
+    }
+
+    @Override
+    public Task createTaskInEarliestSlot(Task task) {
+        throw readOnly();
+    }
+
+    @Override
+    public void updateTask(Task task) {
+        throw readOnly();
+    }
+
+    @Override
+    public void removeTaskById(int taskId) {
+        throw readOnly();
+    }
+
+    @Override
+    public void removeAllTasks() {
+        throw readOnly();
+    }
+
+    @Override
+    public void createSubTask(SubTask subTask) {
+        throw readOnly();
+    }
+
+    @Override
+    public void updateSubTask(SubTask subTask) {
+        throw readOnly();
+    }
+
+    @Override
+    public void removeSubTaskById(int subTaskId) {
+        throw readOnly();
+    }
+
+    @Override
+    public void removeAllSubTasks() {
+        throw readOnly();
+    }
+
+    @Override
+    public void createEpic(Epic epic) {
+        throw readOnly();
+    }
+
+    @Override
+    public void updateEpic(Epic epic) {
+        throw readOnly();
+    }
+
+    @Override
+    public void removeEpicById(int epicId) {
+        throw readOnly();
+    }
+
+    @Override
+    public void removeAllEpics() {
+        throw readOnly();
+    }
+
+    @Override
+    public void applyBatch(List<Operation> operations) {
+        throw readOnly();
+    }
+
+    @Override
+    public void createRecurringTask(RecurringTask recurringTask) {
+        throw readOnly();
+    }
+
+    @Override
+    public void removeRecurringTaskById(int recurringTaskId) {
+        throw readOnly();
+    }
+
+    @Override
+    public void overrideOccurrence(int recurringTaskId, LocalDateTime occurrenceStartTime, Task occurrence) {
+        throw readOnly();
+    }
+
+    @Override
+    public void cancelOccurrence(int recurringTaskId, LocalDateTime occurrenceStartTime) {
+        throw readOnly();
+    }
+
+    @Override
+    public void addDependency(int subTaskId, int dependsOnSubTaskId) {
+        throw readOnly();
+    }
+
+    @Override
+    public void removeDependency(int subTaskId, int dependsOnSubTaskId) {
+        throw readOnly();
+    }
+
+    // endregion
+}
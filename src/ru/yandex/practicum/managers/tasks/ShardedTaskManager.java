@@ -0,0 +1,1368 @@
+package ru.yandex.practicum.managers.tasks;
+
+// region imports
+
+import ru.yandex.practicum.abstractions.ChangeListener;
+import ru.yandex.practicum.abstractions.HistoryManager;
+import ru.yandex.practicum.abstractions.TaskManager;
+import ru.yandex.practicum.constants.ChangeType;
+import ru.yandex.practicum.constants.OperationType;
+import ru.yandex.practicum.constants.TaskType;
+import ru.yandex.practicum.exceptions.ManagerLoadException;
+import ru.yandex.practicum.managers.history.InMemoryHistoryManager;
+import ru.yandex.practicum.managers.sync.ChangeLog;
+import ru.yandex.practicum.models.AbstractTask;
+import ru.yandex.practicum.models.ChangeEvent;
+import ru.yandex.practicum.models.ChangeSet;
+import ru.yandex.practicum.models.Epic;
+import ru.yandex.practicum.models.Operation;
+import ru.yandex.practicum.models.RecurringTask;
+import ru.yandex.practicum.models.SubTask;
+import ru.yandex.practicum.models.Task;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.AbstractSet;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Optional;
+import java.util.PriorityQueue;
+import java.util.SortedSet;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Function;
+
+// endregion
+
+/**
+ * Менеджер задач, разделённый на независимые сегменты.
+ * <p>
+ * Эпик и его подзадачи хранятся в сегменте, выбранном по идентификатору эпика, отдельная задача - в сегменте,
+ * выбранном по её идентификатору. У каждого сегмента своя блокировка и, если задан каталог, свой файл хранилища,
+ * поэтому изменения разных эпиков выполняются и сохраняются параллельно.
+ * <p>
+ * Операции над всеми сегментами (списки задач, упорядоченный список, проверка пересечений по времени) выполняются
+ * параллельно, а их результаты сливаются. Создание задачи или подзадачи проверяет пересечение со всеми сегментами,
+ * поэтому такие операции упорядочиваются общей блокировкой расписания; пакет изменений блокирует расписание и все
+ * сегменты, чтобы проверить и применить операции атомарно.
+ * <p>
+ * Версии, журнал изменений, события изменения и история просмотра общие: события сегментов получают версии единых
+ * для менеджера часов.
+ */
+public final class ShardedTaskManager implements TaskManager {
+    /**
+     * Порядок упорядоченного списка задач.
+     */
+    private static final Comparator<Task> PRIORITY_ORDER = Comparator.comparing(Task::getStartTime);
+
+    /**
+     * Сегменты.
+     */
+    private final Shard[] shards;
+
+    /**
+     * Исполнитель параллельных операций над сегментами.
+     */
+    private final ExecutorService executor;
+
+    /**
+     * Блокировка расписания: упорядочивает операции, проверяющие пересечения по времени во всех сегментах.
+     */
+    private final ReentrantLock scheduleLock;
+
+    /**
+     * Номера сегментов подзадач по идентификатору подзадачи.
+     */
+    private final ConcurrentHashMap<Integer, Integer> subTaskShards;
+
+    /**
+     * История просмотра задач.
+     */
+    private final HistoryManager<Integer, AbstractTask> historyManager;
+
+    /**
+     * Текущая версия менеджера задач.
+     */
+    private final AtomicLong version;
+
+    /**
+     * Версии задач, подзадач и эпиков.
+     */
+    private final ConcurrentHashMap<Integer, Long> versions;
+
+    /**
+     * Журнал изменений для синхронизации клиентов.
+     */
+    private final ChangeLog changeLog;
+
+    /**
+     * Получатели событий изменения.
+     */
+    private final CopyOnWriteArrayList<ChangeListener> changeListeners;
+
+    /**
+     * Конструктор менеджера задач, хранящего данные в памяти.
+     *
+     * @param shardCount количество сегментов.
+     */
+    public ShardedTaskManager(int shardCount) {
+        this(null, shardCount);
+    }
+
+    /**
+     * Конструктор менеджера задач, хранящего каждый сегмент в отдельном файле каталога. Данные сегментов, уже
+     * сохранённые в каталоге, загружаются.
+     *
+     * @param directory  каталог хранилища или null, если данные хранятся только в памяти.
+     * @param shardCount количество сегментов.
+     */
+    public ShardedTaskManager(File directory, int shardCount) {
+        if (shardCount <= 0) {
+            throw new IllegalArgumentException("Parameter 'shardCount' should be positive number");
+        }
+
+        this.scheduleLock = new ReentrantLock();
+        this.subTaskShards = new ConcurrentHashMap<>();
+        this.historyManager = new InMemoryHistoryManager<>();
+        this.version = new AtomicLong();
+        this.versions = new ConcurrentHashMap<>();
+        this.changeLog = new ChangeLog(InMemoryTaskManager.DEFAULT_CHANGE_LOG_CAPACITY);
+        this.changeListeners = new CopyOnWriteArrayList<>();
+
+        this.executor = Executors.newFixedThreadPool(Math.min(shardCount, Runtime.getRuntime().availableProcessors()), runnable -> {
+            Thread thread = new Thread(runnable, "task-manager-shard");
+            thread.setDaemon(true);
+            return thread;
+        });
+
+        if (directory != null) {
+            try {
+                Files.createDirectories(directory.toPath());
+            } catch (IOException e) {
+                throw new ManagerLoadException("Ошибка при создании каталога хранилища: " + directory.getPath(), e);
+            }
+        }
+
+        this.shards = new Shard[shardCount];
+        for (int i = 0; i < shardCount; i++) {
+            File storage = directory == null ? null : new File(directory, "shard-" + i + ".csv");
+            InMemoryTaskManager taskManager = storage == null ? new InMemoryTaskManager() : new FileBackedTaskManager(storage);
+
+            this.shards[i] = new Shard(taskManager, storage);
+            taskManager.addChangeListener(new ShardListener(i));
+        }
+
+        if (directory != null) {
+            this.fanOut(shard -> {
+                if (shard.storage.exists()) {
+                    FileBackedTaskManager.loadFromFile((FileBackedTaskManager) shard.taskManager, shard.storage);
+                }
+                return null;
+            });
+        }
+    }
+
+    /**
+     * Получить количество сегментов.
+     *
+     * @return количество сегментов.
+     */
+    public int getShardCount() {
+        return this.shards.length;
+    }
+
+    //region Задачи
+
+    /**
+     * Создать задачу.
+     *
+     * @param task задача.
+     */
+    @Override
+    public void createTask(Task task) {
+        if (task == null) {
+            throw new IllegalArgumentException("Parameter 'task' can't be null");
+        }
+
+        Shard shard = this.shardOf(task.getId());
+
+        this.scheduleLock.lock();
+        try {
+            if (this.isCrossingOtherShards(task, shard)) {
+                throw new IllegalStateException("Задача с идентификатором " + task.getId() + " пересекается с другой задачей по времени выполнения");
+            }
+
+            shard.run(taskManager -> {
+                taskManager.createTask(task);
+                return null;
+            });
+        } finally {
+            this.scheduleLock.unlock();
+        }
+    }
+
+    /**
+     * Создать задачу в самом раннем свободном промежутке. Поиск промежутка и создание выполняются под общей
+     * блокировкой расписания, поэтому найденный промежуток не может занять другая задача, и повторная проверка
+     * пересечений по всем сегментам не нужна.
+     *
+     * @param task задача.
+     * @return созданная задача с назначенным временем начала.
+     */
+    @Override
+    public Task createTaskInEarliestSlot(Task task) {
+        if (task == null) {
+            throw new IllegalArgumentException("Parameter 'task' can't be null");
+        }
+
+        this.scheduleLock.lock();
+        try {
+            LocalDateTime startTime = this.findEarliestSlot(task.getStartTime(), task.getDuration());
+            Task placed = startTime.equals(task.getStartTime())
+                    ? task
+                    : new Task(task.getId(), task.getName(), task.getDescription(), task.getStatus(), startTime, task.getDuration());
+
+            this.shardOf(placed.getId()).run(taskManager -> {
+                taskManager.createTaskInFreeSlot(placed);
+                return null;
+            });
+            return placed;
+        } finally {
+            this.scheduleLock.unlock();
+        }
+    }
+
+    /**
+     * Получить задачу по её идентификатору.
+     *
+     * @param taskId идентификатор задачи.
+     * @return задача.
+     */
+    @Override
+    public Optional<Task> getTaskById(int taskId) {
+        return this.viewed(this.shardOf(taskId).run(taskManager -> taskManager.tasks.get(taskId)));
+    }
+
+    /**
+     * Получить все задачи, упорядоченные по идентификатору.
+     *
+     * @return коллекция задач.
+     */
+    @Override
+    public List<Task> getAllTasks() {
+        return this.collect(taskManager -> taskManager.tasks.values());
+    }
+
+    /**
+     * Обновить задачу.
+     *
+     * @param task задача.
+     */
+    @Override
+    public void updateTask(Task task) {
+        if (task == null) {
+            throw new IllegalArgumentException("Parameter 'task' can't be null");
+        }
+
+        this.shardOf(task.getId()).run(taskManager -> {
+            taskManager.updateTask(task);
+            return null;
+        });
+    }
+
+    /**
+     * Удалить задачу по её идентификатору.
+     *
+     * @param taskId идентификатор задачи.
+     */
+    @Override
+    public void removeTaskById(int taskId) {
+        this.shardOf(taskId).run(taskManager -> {
+            taskManager.removeTaskById(taskId);
+            return null;
+        });
+    }
+
+    /**
+     * Удалить все задачи.
+     */
+    @Override
+    public void removeAllTasks() {
+        this.fanOut(shard -> shard.run(taskManager -> {
+            taskManager.removeAllTasks();
+            return null;
+        }));
+    }
+
+    //endregion
+
+    //region Подзадачи
+
+    /**
+     * Создать подзадачу.
+     *
+     * @param subTask подзадача.
+     */
+    @Override
+    public void createSubTask(SubTask subTask) {
+        if (subTask == null) {
+            throw new IllegalArgumentException("Parameter 'subTask' can't be null");
+        }
+
+        Shard shard = this.shardOf(subTask.getEpicId());
+
+        this.scheduleLock.lock();
+        try {
+            if (this.isCrossingOtherShards(subTask, shard)) {
+                throw new IllegalStateException("Подзадача с идентификатором " + subTask.getId() + " пересекается с другой задачей по времени выполнения");
+            }
+
+            shard.run(taskManager -> {
+                taskManager.createSubTask(subTask);
+                return null;
+            });
+        } finally {
+            this.scheduleLock.unlock();
+        }
+    }
+
+    /**
+     * Получить подзадачу по её идентификатору.
+     *
+     * @param subTaskId идентификатор подзадачи.
+     * @return подзадача.
+     */
+    @Override
+    public Optional<SubTask> getSubTaskById(int subTaskId) {
+        Integer index = this.subTaskShards.get(subTaskId);
+        if (index == null) {
+            return Optional.empty();
+        }
+
+        return this.viewed(this.shards[index].run(taskManager -> taskManager.subTasks.get(subTaskId)));
+    }
+
+    /**
+     * Получить коллекцию подзадач эпика.
+     *
+     * @param epic эпик.
+     * @return коллекция подзадач.
+     */
+    @Override
+    public List<SubTask> getSubTasksByEpic(Epic epic) {
+        return this.shardOf(epic.getId()).run(taskManager -> taskManager.getSubTasksByEpic(epic));
+    }
+
+    /**
+     * Получить все подзадачи, упорядоченные по идентификатору.
+     *
+     * @return коллекция подзадач.
+     */
+    @Override
+    public List<SubTask> getAllSubTasks() {
+        return this.collect(taskManager -> taskManager.subTasks.values());
+    }
+
+    /**
+     * Обновить подзадачу.
+     *
+     * @param subTask подзадача.
+     */
+    @Override
+    public void updateSubTask(SubTask subTask) {
+        if (subTask == null) {
+            throw new IllegalArgumentException("Parameter 'subTask' can't be null");
+        }
+
+        this.shardOf(subTask.getEpicId()).run(taskManager -> {
+            taskManager.updateSubTask(subTask);
+            return null;
+        });
+    }
+
+    /**
+     * Удалить подзадачу по её идентификатору.
+     *
+     * @param subTaskId идентификатор подзадачи.
+     */
+    @Override
+    public void removeSubTaskById(int subTaskId) {
+        Integer index = this.subTaskShards.get(subTaskId);
+        if (index == null) {
+            throw new IllegalStateException("Подзадача с идентификатором " + subTaskId + " не найдена");
+        }
+
+        this.shards[index].run(taskManager -> {
+            taskManager.removeSubTaskById(subTaskId);
+            return null;
+        });
+    }
+
+    /**
+     * Удалить все подзадачи.
+     */
+    @Override
+    public void removeAllSubTasks() {
+        this.fanOut(shard -> shard.run(taskManager -> {
+            taskManager.removeAllSubTasks();
+            return null;
+        }));
+    }
+
+    //endregion
+
+    /**
+     * Получить список задач/подзадач, упорядоченных по времени начала. Упорядоченные списки сегментов сливаются.
+     *
+     * @return список задач (копия).
+     */
+    @Override
+    public TreeSet<Task> getPrioritizedTasks() {
+        List<List<Task>> parts = this.fanOut(shard -> shard.run(taskManager -> new ArrayList<>(taskManager.getPrioritizedTasks())));
+
+        // Из упорядоченного набора с тем же порядком TreeSet строится за линейное время.
+        return new TreeSet<>(new SortedListView<>(merge(parts, PRIORITY_ORDER), PRIORITY_ORDER));
+    }
+
+    /**
+     * Найти самое раннее свободное время во всех сегментах. Каждый сегмент ищет промежуток в своём индексе; пока
+     * сегменты не сойдутся на одном времени, поиск повторяется с самого позднего из найденных. Повторения разных
+     * сегментов могут сдвигать время друг за другом бесконечно, поэтому поиск ограничен периодом расписания после
+     * самого позднего горизонта сегментов.
+     *
+     * @param from     время, раньше которого начинать нельзя.
+     * @param duration продолжительность.
+     * @return время начала свободного промежутка.
+     * @throws IllegalStateException если повторения не оставляют промежутка заданной длины.
+     */
+    @Override
+    public LocalDateTime findEarliestSlot(LocalDateTime from, Duration duration) {
+        if (from == null) {
+            throw new IllegalArgumentException("Parameter 'from' can't be null");
+        }
+
+        this.scheduleLock.lock();
+        try {
+            LocalDateTime slot = from;
+            LocalDateTime limit = null;
+            while (true) {
+                LocalDateTime candidate = slot;
+                List<LocalDateTime> slots = this.fanOut(shard -> shard.run(taskManager -> taskManager.findEarliestSlot(candidate, duration)));
+
+                for (LocalDateTime shardSlot : slots) {
+                    if (shardSlot.isAfter(slot)) {
+                        slot = shardSlot;
+                    }
+                }
+
+                if (slot.equals(candidate)) {
+                    return slot;
+                }
+
+                if (limit == null) {
+                    Optional<LocalDateTime> horizon = Optional.empty();
+                    for (Optional<LocalDateTime> shardHorizon : this.fanOut(shard -> shard.run(InMemoryTaskManager::getScheduleHorizon))) {
+                        if (shardHorizon.isPresent() && (horizon.isEmpty() || shardHorizon.get().isAfter(horizon.get()))) {
+                            horizon = shardHorizon;
+                        }
+                    }
+                    limit = InMemoryTaskManager.getSearchLimit(from, horizon);
+                }
+
+                if (slot.isAfter(limit)) {
+                    throw new IllegalStateException("Повторяющиеся задачи не оставляют свободного промежутка продолжительностью " + duration);
+                }
+            }
+        } finally {
+            this.scheduleLock.unlock();
+        }
+    }
+
+    /**
+     * Получить задачи, подзадачи и повторения повторяющихся задач, время выполнения которых пересекается
+     * с промежутком. Упорядоченные списки сегментов сливаются.
+     *
+     * @param from начало промежутка.
+     * @param to   окончание промежутка.
+     * @return задачи, упорядоченные по времени начала.
+     */
+    @Override
+    public List<Task> getSchedule(LocalDateTime from, LocalDateTime to) {
+        return merge(this.fanOut(shard -> shard.run(taskManager -> taskManager.getSchedule(from, to))), PRIORITY_ORDER);
+    }
+
+    // region Эпики
+
+    /**
+     * Создать эпик.
+     *
+     * @param epic эпик.
+     */
+    @Override
+    public void createEpic(Epic epic) {
+        if (epic == null) {
+            throw new IllegalArgumentException("Parameter 'epic' can't be null");
+        }
+
+        this.shardOf(epic.getId()).run(taskManager -> {
+            taskManager.createEpic(epic);
+            return null;
+        });
+    }
+
+    /**
+     * Получить эпик по его идентификатору.
+     *
+     * @param epicId идентификатор эпика.
+     * @return эпик.
+     */
+    @Override
+    public Optional<Epic> getEpicById(int epicId) {
+        return this.viewed(this.shardOf(epicId).run(taskManager -> taskManager.epics.get(epicId)));
+    }
+
+    /**
+     * Получить все эпики, упорядоченные по идентификатору.
+     *
+     * @return коллекция эпиков.
+     */
+    @Override
+    public List<Epic> getAllEpics() {
+        return this.collect(taskManager -> taskManager.epics.values());
+    }
+
+    /**
+     * Обновить эпик.
+     *
+     * @param epic эпик.
+     */
+    @Override
+    public void updateEpic(Epic epic) {
+        if (epic == null) {
+            throw new IllegalArgumentException("Parameter 'epic' can't be null");
+        }
+
+        this.shardOf(epic.getId()).run(taskManager -> {
+            taskManager.updateEpic(epic);
+            return null;
+        });
+    }
+
+    /**
+     * Удалить эпик по его идентификатору.
+     *
+     * @param epicId идентификатор эпика.
+     */
+    @Override
+    public void removeEpicById(int epicId) {
+        this.shardOf(epicId).run(taskManager -> {
+            taskManager.removeEpicById(epicId);
+            return null;
+        });
+    }
+
+    /**
+     * Удалить все эпики.
+     */
+    @Override
+    public void removeAllEpics() {
+        this.fanOut(shard -> shard.run(taskManager -> {
+            taskManager.removeAllEpics();
+            return null;
+        }));
+    }
+
+    //endregion
+
+    // region Повторяющиеся задачи
+
+    /**
+     * Создать повторяющуюся задачу в сегменте по её идентификатору.
+     *
+     * @param recurringTask повторяющаяся задача.
+     */
+    @Override
+    public void createRecurringTask(RecurringTask recurringTask) {
+        if (recurringTask == null) {
+            throw new IllegalArgumentException("Parameter 'recurringTask' can't be null");
+        }
+
+        Shard shard = this.shardOf(recurringTask.getId());
+
+        this.scheduleLock.lock();
+        try {
+            if (this.isCrossingOtherShards(recurringTask, shard)) {
+                throw new IllegalStateException("Повторяющаяся задача с идентификатором " + recurringTask.getId() + " пересекается с другой задачей по времени выполнения");
+            }
+
+            shard.run(taskManager -> {
+                taskManager.createRecurringTask(recurringTask);
+                return null;
+            });
+        } finally {
+            this.scheduleLock.unlock();
+        }
+    }
+
+    /**
+     * Получить повторяющуюся задачу по её идентификатору.
+     *
+     * @param recurringTaskId идентификатор повторяющейся задачи.
+     * @return повторяющаяся задача.
+     */
+    @Override
+    public Optional<RecurringTask> getRecurringTaskById(int recurringTaskId) {
+        return this.shardOf(recurringTaskId).run(taskManager -> taskManager.getRecurringTaskById(recurringTaskId));
+    }
+
+    /**
+     * Получить все повторяющиеся задачи, упорядоченные по идентификатору.
+     *
+     * @return коллекция повторяющихся задач.
+     */
+    @Override
+    public List<RecurringTask> getAllRecurringTasks() {
+        return this.collect(taskManager -> taskManager.recurringTasks.values());
+    }
+
+    /**
+     * Удалить повторяющуюся задачу вместе со всеми повторениями.
+     *
+     * @param recurringTaskId идентификатор повторяющейся задачи.
+     */
+    @Override
+    public void removeRecurringTaskById(int recurringTaskId) {
+        this.shardOf(recurringTaskId).run(taskManager -> {
+            taskManager.removeRecurringTaskById(recurringTaskId);
+            return null;
+        });
+    }
+
+    /**
+     * Изменить одно повторение повторяющейся задачи. Новое время проверяется во всех сегментах.
+     *
+     * @param recurringTaskId     идентификатор повторяющейся задачи.
+     * @param occurrenceStartTime исходное время начала повторения.
+     * @param occurrence          новые название, описание, статус и время повторения.
+     */
+    @Override
+    public void overrideOccurrence(int recurringTaskId, LocalDateTime occurrenceStartTime, Task occurrence) {
+        if (occurrence == null) {
+            throw new IllegalArgumentException("Parameter 'occurrence' can't be null");
+        }
+
+        Shard shard = this.shardOf(recurringTaskId);
+        Task override = new Task(recurringTaskId, occurrence.getName(), occurrence.getDescription(), occurrence.getStatus(), occurrence.getStartTime(), occurrence.getDuration());
+
+        this.scheduleLock.lock();
+        try {
+            if (this.isCrossingOtherShards(override, shard)) {
+                throw new IllegalStateException("Повторение задачи с идентификатором " + recurringTaskId + " пересекается с другой задачей по времени выполнения");
+            }
+
+            shard.run(taskManager -> {
+                taskManager.overrideOccurrence(recurringTaskId, occurrenceStartTime, override);
+                return null;
+            });
+        } finally {
+            this.scheduleLock.unlock();
+        }
+    }
+
+    /**
+     * Отменить одно повторение повторяющейся задачи.
+     *
+     * @param recurringTaskId     идентификатор повторяющейся задачи.
+     * @param occurrenceStartTime исходное время начала повторения.
+     */
+    @Override
+    public void cancelOccurrence(int recurringTaskId, LocalDateTime occurrenceStartTime) {
+        this.shardOf(recurringTaskId).run(taskManager -> {
+            taskManager.cancelOccurrence(recurringTaskId, occurrenceStartTime);
+            return null;
+        });
+    }
+
+    // endregion
+
+    // region Зависимости подзадач
+
+    /**
+     * Добавить зависимость «окончание - начало» между подзадачами одного эпика. Подзадачи эпика хранятся в одном
+     * сегменте, поэтому зависимость добавляется под блокировкой только этого сегмента.
+     *
+     * @param subTaskId          идентификатор зависимой подзадачи.
+     * @param dependsOnSubTaskId идентификатор подзадачи, окончания которой нужно дождаться.
+     */
+    @Override
+    public void addDependency(int subTaskId, int dependsOnSubTaskId) {
+        this.dependencyShardOf(subTaskId, dependsOnSubTaskId).run(taskManager -> {
+            taskManager.addDependency(subTaskId, dependsOnSubTaskId);
+            return null;
+        });
+    }
+
+    /**
+     * Удалить зависимость подзадачи от другой подзадачи.
+     *
+     * @param subTaskId          идентификатор зависимой подзадачи.
+     * @param dependsOnSubTaskId идентификатор подзадачи, окончания которой нужно было дождаться.
+     */
+    @Override
+    public void removeDependency(int subTaskId, int dependsOnSubTaskId) {
+        this.dependencyShardOf(subTaskId, dependsOnSubTaskId).run(taskManager -> {
+            taskManager.removeDependency(subTaskId, dependsOnSubTaskId);
+            return null;
+        });
+    }
+
+    /**
+     * Получить подзадачи, от которых зависит подзадача.
+     *
+     * @param subTaskId идентификатор подзадачи.
+     * @return подзадачи, окончания которых нужно дождаться.
+     */
+    @Override
+    public List<SubTask> getDependencies(int subTaskId) {
+        Integer index = this.subTaskShards.get(subTaskId);
+        if (index == null) {
+            return List.of();
+        }
+
+        return this.shards[index].run(taskManager -> taskManager.getDependencies(subTaskId));
+    }
+
+    /**
+     * Получить критический путь эпика.
+     *
+     * @param epicId идентификатор эпика.
+     * @return подзадачи критического пути от первой к последней.
+     */
+    @Override
+    public List<SubTask> getCriticalPath(int epicId) {
+        return this.shardOf(epicId).run(taskManager -> taskManager.getCriticalPath(epicId));
+    }
+
+    /**
+     * Получить самое раннее возможное окончание эпика с учётом зависимостей подзадач.
+     *
+     * @param epicId идентификатор эпика.
+     * @return самое раннее окончание, если у эпика есть подзадачи.
+     */
+    @Override
+    public Optional<LocalDateTime> getEarliestEndTime(int epicId) {
+        return this.shardOf(epicId).run(taskManager -> taskManager.getEarliestEndTime(epicId));
+    }
+
+    /**
+     * Получить сегмент, хранящий обе подзадачи зависимости.
+     *
+     * @param subTaskId          идентификатор зависимой подзадачи.
+     * @param dependsOnSubTaskId идентификатор подзадачи, окончания которой нужно дождаться.
+     * @return сегмент.
+     */
+    private Shard dependencyShardOf(int subTaskId, int dependsOnSubTaskId) {
+        Integer index = this.subTaskShards.get(subTaskId);
+        if (index == null) {
+            throw new IllegalStateException("Подзадача с идентификатором " + subTaskId + " не найдена");
+        }
+
+        Integer dependsOnIndex = this.subTaskShards.get(dependsOnSubTaskId);
+        if (dependsOnIndex == null) {
+            throw new IllegalStateException("Подзадача с идентификатором " + dependsOnSubTaskId + " не найдена");
+        }
+
+        if (!index.equals(dependsOnIndex)) {
+            throw new IllegalStateException("Зависимость возможна только между подзадачами одного эпика");
+        }
+
+        return this.shards[index];
+    }
+
+    // endregion
+
+    // region Пакетные изменения
+
+    /**
+     * Атомарно применить пакет операций создания, обновления и удаления задач, подзадач и эпиков.
+     * <p>
+     * На время пакета блокируются расписание и все сегменты. Каждая операция проверяется сегментом, в котором
+     * окажется задача, затем пересечения по времени проверяются в каждом сегменте для изменений всего пакета,
+     * и только после этого сегменты применяют свои части пакета.
+     *
+     * @param operations операции.
+     */
+    @Override
+    public void applyBatch(List<Operation> operations) {
+        if (operations == null) {
+            throw new IllegalArgumentException("Parameter 'operations' can't be null");
+        }
+
+        this.scheduleLock.lock();
+        for (Shard shard : this.shards) {
+            shard.lock.lock();
+        }
+
+        try {
+            List<List<Operation>> parts = new ArrayList<>();
+            List<HashMap<Integer, AbstractTask>> pendings = new ArrayList<>();
+            for (int i = 0; i < this.shards.length; i++) {
+                parts.add(new ArrayList<>());
+                pendings.add(new HashMap<>());
+            }
+
+            HashMap<Integer, Integer> batchSubTaskShards = new HashMap<>();
+            for (int i = 0; i < operations.size(); i++) {
+                Operation operation = operations.get(i);
+                if (operation == null) {
+                    throw new IllegalArgumentException("Operation #" + (i + 1) + " can't be null");
+                }
+
+                int index = this.shardIndexOf(operation, batchSubTaskShards);
+                try {
+                    this.shards[index].taskManager.validateOperation(operation, pendings.get(index));
+                } catch (IllegalStateException ex) {
+                    throw new IllegalStateException("Операция №" + (i + 1) + ": " + ex.getMessage(), ex);
+                }
+
+                parts.get(index).add(operation);
+            }
+
+            HashMap<Integer, AbstractTask> pending = new HashMap<>();
+            for (HashMap<Integer, AbstractTask> shardPending : pendings) {
+                pending.putAll(shardPending);
+            }
+
+            // Все блокировки сегментов принадлежат текущему потоку, поэтому проверка выполняется в нём же.
+            for (Shard shard : this.shards) {
+                shard.taskManager.checkBatchOverlaps(pending);
+            }
+
+            for (int i = 0; i < this.shards.length; i++) {
+                if (!parts.get(i).isEmpty()) {
+                    this.shards[i].taskManager.applyBatch(parts.get(i));
+                }
+            }
+        } finally {
+            for (int i = this.shards.length - 1; i >= 0; i--) {
+                this.shards[i].lock.unlock();
+            }
+            this.scheduleLock.unlock();
+        }
+    }
+
+    /**
+     * Получить номер сегмента, в котором выполняется операция пакета.
+     *
+     * @param operation          операция.
+     * @param batchSubTaskShards номера сегментов подзадач, созданных в пакете.
+     * @return номер сегмента.
+     */
+    private int shardIndexOf(Operation operation, HashMap<Integer, Integer> batchSubTaskShards) {
+        if (operation.getTaskType() != TaskType.SUBTASK) {
+            return this.shardIndexOf(operation.getId());
+        }
+
+        if (operation.getType() != OperationType.REMOVE) {
+            int index = this.shardIndexOf(operation.<SubTask>getEntity().getEpicId());
+            batchSubTaskShards.put(operation.getId(), index);
+            return index;
+        }
+
+        Integer index = batchSubTaskShards.get(operation.getId());
+        if (index == null) {
+            index = this.subTaskShards.get(operation.getId());
+        }
+
+        return index != null ? index : this.shardIndexOf(operation.getId());
+    }
+
+    // endregion
+
+    // region Версии
+
+    /**
+     * Получить текущую версию менеджера задач.
+     *
+     * @return текущая версия.
+     */
+    @Override
+    public long getVersion() {
+        return this.version.get();
+    }
+
+    /**
+     * Получить версию задачи, подзадачи или эпика.
+     *
+     * @param id идентификатор задачи, подзадачи или эпика.
+     * @return версия или 0, если задача не найдена.
+     */
+    @Override
+    public long getVersion(int id) {
+        return this.versions.getOrDefault(id, 0L);
+    }
+
+    /**
+     * Получить задачи, подзадачи и эпики, изменённые после заданной версии, и отметки об удалении.
+     *
+     * @param version версия, известная клиенту.
+     * @return изменения.
+     */
+    @Override
+    public ChangeSet getChangesSince(long version) {
+        long currentVersion = this.version.get();
+        if (version > currentVersion) {
+            return ChangeSet.fullResync(currentVersion);
+        }
+
+        Optional<List<ChangeEvent>> events = this.changeLog.getChangesSince(version);
+        if (events.isEmpty()) {
+            return ChangeSet.fullResync(currentVersion);
+        }
+
+        List<Task> changedTasks = new ArrayList<>();
+        List<SubTask> changedSubTasks = new ArrayList<>();
+        List<Epic> changedEpics = new ArrayList<>();
+        List<ChangeEvent> removed = new ArrayList<>();
+
+        for (ChangeEvent event : events.get()) {
+            if (event.getType() == ChangeType.REMOVED) {
+                removed.add(event);
+                continue;
+            }
+
+            int id = event.getId();
+            switch (event.getTaskType()) {
+                case TASK:
+                    Optional.ofNullable(this.shardOf(id).run(taskManager -> taskManager.tasks.get(id))).ifPresent(changedTasks::add);
+                    break;
+                case SUBTASK:
+                    Integer index = this.subTaskShards.get(id);
+                    if (index != null) {
+                        Optional.ofNullable(this.shards[index].run(taskManager -> taskManager.subTasks.get(id))).ifPresent(changedSubTasks::add);
+                    }
+                    break;
+                case EPIC:
+                    Optional.ofNullable(this.shardOf(id).run(taskManager -> taskManager.epics.get(id))).ifPresent(changedEpics::add);
+                    break;
+            }
+        }
+
+        return new ChangeSet(currentVersion, changedTasks, changedSubTasks, changedEpics, removed);
+    }
+
+    // endregion
+
+    // region События изменения
+
+    /**
+     * Подписаться на события изменения задач, подзадач и эпиков.
+     *
+     * @param listener получатель событий.
+     */
+    @Override
+    public void addChangeListener(ChangeListener listener) {
+        if (listener == null) {
+            throw new IllegalArgumentException("Parameter 'listener' can't be null");
+        }
+
+        this.changeListeners.add(listener);
+    }
+
+    /**
+     * Отписаться от событий изменения задач, подзадач и эпиков.
+     *
+     * @param listener получатель событий.
+     */
+    @Override
+    public void removeChangeListener(ChangeListener listener) {
+        this.changeListeners.remove(listener);
+    }
+
+    // endregion
+
+    // region История просмотра
+
+    /**
+     * Получить историю просмотра задач.
+     *
+     * @return история просмотра задач.
+     */
+    @Override
+    public List<AbstractTask> getHistory() {
+        synchronized (this.historyManager) {
+            return this.historyManager.getHistory();
+        }
+    }
+
+    /**
+     * Добавить найденную задачу в историю просмотра.
+     *
+     * @param task задача или null, если задача не найдена.
+     * @param <T>  тип задачи.
+     * @return задача.
+     */
+    private <T extends AbstractTask> Optional<T> viewed(T task) {
+        if (task != null) {
+            synchronized (this.historyManager) {
+                this.historyManager.add(task.getId(), task);
+            }
+        }
+
+        return Optional.ofNullable(task);
+    }
+
+    // endregion
+
+    // region Сегменты
+
+    /**
+     * Получить номер сегмента по идентификатору задачи или эпика.
+     *
+     * @param id идентификатор задачи или эпика.
+     * @return номер сегмента.
+     */
+    private int shardIndexOf(int id) {
+        return Math.floorMod(id, this.shards.length);
+    }
+
+    /**
+     * Получить сегмент по идентификатору задачи или эпика.
+     *
+     * @param id идентификатор задачи или эпика.
+     * @return сегмент.
+     */
+    private Shard shardOf(int id) {
+        return this.shards[this.shardIndexOf(id)];
+    }
+
+    /**
+     * Проверить, пересекается ли задача по времени выполнения с задачами других сегментов. Сегменты проверяются
+     * параллельно.
+     *
+     * @param task  задача, подзадача, повторяющаяся задача или её повторение.
+     * @param owner сегмент, в котором будет храниться задача (его проверяет сам сегмент).
+     * @return признак пересечения.
+     */
+    private boolean isCrossingOtherShards(Task task, Shard owner) {
+        List<Boolean> results = this.fanOut(shard -> shard != owner && shard.run(taskManager -> {
+            for (Task candidate : taskManager.tasks.values()) {
+                if (InMemoryTaskManager.isCrossed(candidate, task)) {
+                    return true;
+                }
+            }
+
+            for (SubTask candidate : taskManager.subTasks.values()) {
+                if (InMemoryTaskManager.isCrossed(candidate, task)) {
+                    return true;
+                }
+            }
+
+            return taskManager.isCrossingRecurring(task);
+        }));
+
+        return results.contains(true);
+    }
+
+    /**
+     * Собрать коллекции всех сегментов в один список, упорядоченный по идентификатору.
+     *
+     * @param source коллекция сегмента.
+     * @param <T>    тип задачи.
+     * @return список задач.
+     */
+    private <T extends AbstractTask> List<T> collect(Function<InMemoryTaskManager, ? extends Iterable<T>> source) {
+        List<List<T>> parts = this.fanOut(shard -> shard.run(taskManager -> {
+            List<T> part = new ArrayList<>();
+            source.apply(taskManager).forEach(part::add);
+            part.sort(Comparator.comparingInt(AbstractTask::getId));
+            return part;
+        }));
+
+        return merge(parts, Comparator.comparingInt(AbstractTask::getId));
+    }
+
+    /**
+     * Выполнить действие над каждым сегментом параллельно. Действие для последнего сегмента выполняется в текущем
+     * потоке. Вызывающий поток не должен удерживать блокировки сегментов.
+     *
+     * @param action действие.
+     * @param <T>    тип результата.
+     * @return результаты в порядке сегментов.
+     */
+    private <T> List<T> fanOut(Function<Shard, T> action) {
+        List<Future<T>> futures = new ArrayList<>();
+        for (int i = 0; i < this.shards.length - 1; i++) {
+            Shard shard = this.shards[i];
+            futures.add(this.executor.submit(() -> action.apply(shard)));
+        }
+
+        T last = action.apply(this.shards[this.shards.length - 1]);
+
+        List<T> results = new ArrayList<>();
+        try {
+            for (Future<T> future : futures) {
+                results.add(future.get());
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Операция над сегментами прервана", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            throw new IllegalStateException(e.getCause());
+        }
+        results.add(last);
+
+        return results;
+    }
+
+    /**
+     * Слить упорядоченные списки.
+     *
+     * @param parts      упорядоченные списки.
+     * @param comparator порядок элементов.
+     * @param <T>        тип элементов.
+     * @return упорядоченный список.
+     */
+    static <T> List<T> merge(List<List<T>> parts, Comparator<? super T> comparator) {
+        int size = 0;
+        PriorityQueue<Cursor<T>> queue = new PriorityQueue<>((a, b) -> comparator.compare(a.current(), b.current()));
+        for (List<T> part : parts) {
+            size += part.size();
+            if (!part.isEmpty()) {
+                queue.add(new Cursor<>(part));
+            }
+        }
+
+        List<T> merged = new ArrayList<>(size);
+        while (!queue.isEmpty()) {
+            Cursor<T> cursor = queue.poll();
+            merged.add(cursor.current());
+
+            if (++cursor.position < cursor.part.size()) {
+                queue.add(cursor);
+            }
+        }
+
+        return merged;
+    }
+
+    // endregion
+
+    // region Nested Types
+
+    /**
+     * Сегмент: менеджер задач со своей блокировкой.
+     */
+    private static final class Shard {
+        /**
+         * Менеджер задач сегмента.
+         */
+        private final InMemoryTaskManager taskManager;
+
+        /**
+         * Файл хранилища сегмента или null.
+         */
+        private final File storage;
+
+        /**
+         * Блокировка сегмента.
+         */
+        private final ReentrantLock lock;
+
+        /**
+         * Конструктор.
+         */
+        Shard(InMemoryTaskManager taskManager, File storage) {
+            this.taskManager = taskManager;
+            this.storage = storage;
+            this.lock = new ReentrantLock();
+        }
+
+        /**
+         * Выполнить действие над менеджером задач сегмента под его блокировкой.
+         *
+         * @param action действие.
+         * @param <T>    тип результата.
+         * @return результат действия.
+         */
+        <T> T run(Function<InMemoryTaskManager, T> action) {
+            this.lock.lock();
+            try {
+                return action.apply(this.taskManager);
+            } finally {
+                this.lock.unlock();
+            }
+        }
+    }
+
+    /**
+     * Позиция в упорядоченном списке при слиянии.
+     *
+     * @param <T> тип элементов.
+     */
+    private static final class Cursor<T> {
+        /**
+         * Список.
+         */
+        private final List<T> part;
+
+        /**
+         * Текущая позиция.
+         */
+        private int position;
+
+        /**
+         * Конструктор.
+         */
+        Cursor(List<T> part) {
+            this.part = part;
+        }
+
+        /**
+         * Получить текущий элемент.
+         *
+         * @return текущий элемент.
+         */
+        T current() {
+            return this.part.get(this.position);
+        }
+    }
+
+    /**
+     * Упорядоченный список, представленный как упорядоченный набор только для построения {@link TreeSet}.
+     *
+     * @param <T> тип элементов.
+     */
+    private static final class SortedListView<T> extends AbstractSet<T> implements SortedSet<T> {
+        /**
+         * Упорядоченный список без повторов.
+         */
+        private final List<T> list;
+
+        /**
+         * Порядок элементов.
+         */
+        private final Comparator<? super T> comparator;
+
+        /**
+         * Конструктор.
+         */
+        SortedListView(List<T> list, Comparator<? super T> comparator) {
+            this.list = list;
+            this.comparator = comparator;
+        }
+
+        @Override
+        public Iterator<T> iterator() {
+            return this.list.iterator();
+        }
+
+        @Override
+        public int size() {
+            return this.list.size();
+        }
+
+        @Override
+        public Comparator<? super T> comparator() {
+            return this.comparator;
+        }
+
+        @Override
+        public SortedSet<T> subSet(T fromElement, T toElement) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public SortedSet<T> headSet(T toElement) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public SortedSet<T> tailSet(T fromElement) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public T first() {
+            return this.list.getFirst();
+        }
+
+        @Override
+        public T last() {
+            return this.list.getLast();
+        }
+    }
+
+    /**
+     * Получатель событий сегмента: присваивает событиям версии общих часов, ведёт общий журнал изменений и
+     * историю просмотра и пересылает события получателям менеджера.
+     */
+    private final class ShardListener implements ChangeListener {
+        /**
+         * Номер сегмента.
+         */
+        private final int index;
+
+        /**
+         * Конструктор.
+         */
+        ShardListener(int index) {
+            this.index = index;
+        }
+
+        @Override
+        public void onChange(ChangeEvent event) {
+            ShardedTaskManager manager = ShardedTaskManager.this;
+
+            if (event.getTaskType() == TaskType.SUBTASK) {
+                if (event.getType() == ChangeType.REMOVED) {
+                    manager.subTaskShards.remove(event.getId());
+                } else {
+                    manager.subTaskShards.put(event.getId(), this.index);
+                }
+            }
+
+            if (event.getType() == ChangeType.REMOVED) {
+                synchronized (manager.historyManager) {
+                    manager.historyManager.remove(event.getId());
+                }
+            }
+
+            // Журнал и получатели должны видеть события в порядке версий, поэтому версия присваивается и событие
+            // рассылается под одной блокировкой.
+            synchronized (manager.changeLog) {
+                long version = manager.version.incrementAndGet();
+                if (event.getType() == ChangeType.REMOVED) {
+                    manager.versions.remove(event.getId());
+                } else {
+                    manager.versions.put(event.getId(), version);
+                }
+
+                ChangeEvent versioned = new ChangeEvent(event.getType(), event.getTaskType(), event.getId(), version);
+                manager.changeLog.append(versioned);
+
+                for (ChangeListener listener : manager.changeListeners) {
+                    listener.onChange(versioned);
+                }
+            }
+        }
+    }
+
+    // endregion
+}
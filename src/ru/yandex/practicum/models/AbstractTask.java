@@ -3,6 +3,7 @@ package ru.yandex.practicum.models;
 // region imports
 
 import ru.yandex.practicum.constants.TaskStatus;
+import ru.yandex.practicum.utils.ids.IdAllocator;
 
 import java.util.Objects;
 
@@ -12,11 +13,6 @@ import java.util.Objects;
  * Базовая абстракция задачи.
  */
 public abstract class AbstractTask {
-    /**
-     * Количество созданных экземпляров типа Task.
-     */
-    private static int INSTANCE_COUNT = 0;
-
     /**
      * Идентификатор задачи.
      */
@@ -33,13 +29,13 @@ public abstract class AbstractTask {
     protected final String description;
 
     /**
-     * Конструктор.
+     * Конструктор. Идентификатор выдаётся {@link IdAllocator аллокатором} по умолчанию.
      *
      * @param name        название задачи.
      * @param description описание задачи.
      */
     protected AbstractTask(String name, String description) {
-        this(++INSTANCE_COUNT, name, description);
+        this(IdAllocator.getDefault().next(), name, description);
     }
 
     /**
@@ -0,0 +1,97 @@
+package ru.yandex.practicum.models;
+
+// region imports
+
+import ru.yandex.practicum.constants.ChangeType;
+import ru.yandex.practicum.constants.TaskType;
+
+// endregion
+
+/**
+ * Событие изменения задачи, подзадачи или эпика.
+ */
+public final class ChangeEvent {
+    /**
+     * Тип изменения.
+     */
+    private final ChangeType type;
+
+    /**
+     * Тип задачи.
+     */
+    private final TaskType taskType;
+
+    /**
+     * Идентификатор задачи.
+     */
+    private final int id;
+
+    /**
+     * Версия менеджера задач, присвоенная изменению.
+     */
+    private final long version;
+
+    /**
+     * Конструктор.
+     *
+     * @param type     тип изменения.
+     * @param taskType тип задачи.
+     * @param id       идентификатор задачи.
+     * @param version  версия менеджера задач, присвоенная изменению.
+     */
+    public ChangeEvent(ChangeType type, TaskType taskType, int id, long version) {
+        if (type == null) {
+            throw new IllegalArgumentException("Parameter 'type' can't be null");
+        }
+
+        if (taskType == null) {
+            throw new IllegalArgumentException("Parameter 'taskType' can't be null");
+        }
+
+        this.type = type;
+        this.taskType = taskType;
+        this.id = id;
+        this.version = version;
+    }
+
+    /**
+     * Получить тип изменения.
+     *
+     * @return тип изменения.
+     */
+    public ChangeType getType() {
+        return this.type;
+    }
+
+    /**
+     * Получить тип задачи.
+     *
+     * @return тип задачи.
+     */
+    public TaskType getTaskType() {
+        return this.taskType;
+    }
+
+    /**
+     * Получить идентификатор задачи.
+     *
+     * @return идентификатор задачи.
+     */
+    public int getId() {
+        return this.id;
+    }
+
+    /**
+     * Получить версию менеджера задач, присвоенную изменению.
+     *
+     * @return версия.
+     */
+    public long getVersion() {
+        return this.version;
+    }
+
+    @Override
+    public String toString() {
+        return this.type + " " + this.taskType + " " + this.id + " @" + this.version;
+    }
+}
@@ -0,0 +1,138 @@
+package ru.yandex.practicum.models;
+
+// region imports
+
+import java.util.List;
+
+// endregion
+
+/**
+ * Изменения задач, подзадач и эпиков, сделанные после заданной версии менеджера задач.
+ */
+public final class ChangeSet {
+    /**
+     * Текущая версия менеджера задач.
+     */
+    private final long version;
+
+    /**
+     * Признак того, что изменения недоступны и клиенту нужно заново загрузить все данные.
+     */
+    private final boolean fullResyncRequired;
+
+    /**
+     * Созданные или изменённые задачи.
+     */
+    private final List<Task> tasks;
+
+    /**
+     * Созданные или изменённые подзадачи.
+     */
+    private final List<SubTask> subTasks;
+
+    /**
+     * Созданные или изменённые эпики.
+     */
+    private final List<Epic> epics;
+
+    /**
+     * Отметки об удалении задач, подзадач и эпиков.
+     */
+    private final List<ChangeEvent> removed;
+
+    /**
+     * Конструктор.
+     *
+     * @param version  текущая версия менеджера задач.
+     * @param tasks    созданные или изменённые задачи.
+     * @param subTasks созданные или изменённые подзадачи.
+     * @param epics    созданные или изменённые эпики.
+     * @param removed  отметки об удалении задач, подзадач и эпиков.
+     */
+    public ChangeSet(long version, List<Task> tasks, List<SubTask> subTasks, List<Epic> epics, List<ChangeEvent> removed) {
+        this(version, false, tasks, subTasks, epics, removed);
+    }
+
+    /**
+     * Конструктор.
+     *
+     * @param version            текущая версия менеджера задач.
+     * @param fullResyncRequired признак того, что клиенту нужно заново загрузить все данные.
+     * @param tasks              созданные или изменённые задачи.
+     * @param subTasks           созданные или изменённые подзадачи.
+     * @param epics              созданные или изменённые эпики.
+     * @param removed            отметки об удалении задач, подзадач и эпиков.
+     */
+    private ChangeSet(long version, boolean fullResyncRequired, List<Task> tasks, List<SubTask> subTasks, List<Epic> epics, List<ChangeEvent> removed) {
+        this.version = version;
+        this.fullResyncRequired = fullResyncRequired;
+        this.tasks = tasks;
+        this.subTasks = subTasks;
+        this.epics = epics;
+        this.removed = removed;
+    }
+
+    /**
+     * Изменения недоступны: клиенту нужно заново загрузить все данные.
+     *
+     * @param version текущая версия менеджера задач.
+     * @return изменения.
+     */
+    public static ChangeSet fullResync(long version) {
+        return new ChangeSet(version, true, List.of(), List.of(), List.of(), List.of());
+    }
+
+    /**
+     * Получить текущую версию менеджера задач.
+     *
+     * @return версия.
+     */
+    public long getVersion() {
+        return this.version;
+    }
+
+    /**
+     * Проверить, нужно ли клиенту заново загрузить все данные.
+     *
+     * @return признак необходимости полной синхронизации.
+     */
+    public boolean isFullResyncRequired() {
+        return this.fullResyncRequired;
+    }
+
+    /**
+     * Получить созданные или изменённые задачи.
+     *
+     * @return задачи.
+     */
+    public List<Task> getTasks() {
+        return this.tasks;
+    }
+
+    /**
+     * Получить созданные или изменённые подзадачи.
+     *
+     * @return подзадачи.
+     */
+    public List<SubTask> getSubTasks() {
+        return this.subTasks;
+    }
+
+    /**
+     * Получить созданные или изменённые эпики.
+     *
+     * @return эпики.
+     */
+    public List<Epic> getEpics() {
+        return this.epics;
+    }
+
+    /**
+     * Получить отметки об удалении задач, подзадач и эпиков.
+     *
+     * @return отметки об удалении.
+     */
+    public List<ChangeEvent> getRemoved() {
+        return this.removed;
+    }
+}
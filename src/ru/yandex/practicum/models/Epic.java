@@ -8,6 +8,8 @@ import ru.yandex.practicum.constants.TaskType;
 import java.time.Duration;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Optional;
@@ -112,6 +114,15 @@ public final class Epic extends AbstractTask {
         return new ArrayList<>(this.subTasks.values());
     }
 
+    /**
+     * Получить подзадачи эпика без копирования коллекции.
+     *
+     * @return неизменяемое представление коллекции подзадач.
+     */
+    public Collection<SubTask> getSubTasksView() {
+        return Collections.unmodifiableCollection(this.subTasks.values());
+    }
+
     /**
      * Обновить подзадачу.
      *
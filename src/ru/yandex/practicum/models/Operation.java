@@ -0,0 +1,147 @@
+package ru.yandex.practicum.models;
+
+// region imports
+
+import ru.yandex.practicum.constants.OperationType;
+import ru.yandex.practicum.constants.TaskType;
+
+// endregion
+
+/**
+ * Операция пакетного изменения задач, подзадач или эпиков.
+ */
+public final class Operation {
+    /**
+     * Тип операции.
+     */
+    private final OperationType type;
+
+    /**
+     * Тип задачи, к которой применяется операция.
+     */
+    private final TaskType taskType;
+
+    /**
+     * Идентификатор задачи, к которой применяется операция.
+     */
+    private final int id;
+
+    /**
+     * Задача, подзадача или эпик для создания или обновления; для удаления - null.
+     */
+    private final AbstractTask entity;
+
+    /**
+     * Конструктор.
+     *
+     * @param type     тип операции.
+     * @param taskType тип задачи, к которой применяется операция.
+     * @param id       идентификатор задачи, к которой применяется операция.
+     * @param entity   задача, подзадача или эпик для создания или обновления.
+     */
+    private Operation(OperationType type, TaskType taskType, int id, AbstractTask entity) {
+        this.type = type;
+        this.taskType = taskType;
+        this.id = id;
+        this.entity = entity;
+    }
+
+    /**
+     * Операция создания задачи, подзадачи или эпика.
+     *
+     * @param entity задача, подзадача или эпик.
+     * @return операция.
+     */
+    public static Operation create(AbstractTask entity) {
+        if (entity == null) {
+            throw new IllegalArgumentException("Parameter 'entity' can't be null");
+        }
+
+        return new Operation(OperationType.CREATE, getTaskType(entity), entity.getId(), entity);
+    }
+
+    /**
+     * Операция обновления задачи, подзадачи или эпика.
+     *
+     * @param entity задача, подзадача или эпик.
+     * @return операция.
+     */
+    public static Operation update(AbstractTask entity) {
+        if (entity == null) {
+            throw new IllegalArgumentException("Parameter 'entity' can't be null");
+        }
+
+        return new Operation(OperationType.UPDATE, getTaskType(entity), entity.getId(), entity);
+    }
+
+    /**
+     * Операция удаления задачи, подзадачи или эпика.
+     *
+     * @param taskType тип задачи.
+     * @param id       идентификатор задачи.
+     * @return операция.
+     */
+    public static Operation remove(TaskType taskType, int id) {
+        if (taskType == null) {
+            throw new IllegalArgumentException("Parameter 'taskType' can't be null");
+        }
+
+        return new Operation(OperationType.REMOVE, taskType, id, null);
+    }
+
+    /**
+     * Определить тип задачи.
+     *
+     * @param entity задача, подзадача или эпик.
+     * @return тип задачи.
+     */
+    private static TaskType getTaskType(AbstractTask entity) {
+        if (entity instanceof Epic) {
+            return TaskType.EPIC;
+        }
+
+        if (entity instanceof SubTask) {
+            return TaskType.SUBTASK;
+        }
+
+        return TaskType.TASK;
+    }
+
+    /**
+     * Получить тип операции.
+     *
+     * @return тип операции.
+     */
+    public OperationType getType() {
+        return this.type;
+    }
+
+    /**
+     * Получить тип задачи, к которой применяется операция.
+     *
+     * @return тип задачи.
+     */
+    public TaskType getTaskType() {
+        return this.taskType;
+    }
+
+    /**
+     * Получить идентификатор задачи, к которой применяется операция.
+     *
+     * @return идентификатор задачи.
+     */
+    public int getId() {
+        return this.id;
+    }
+
+    /**
+     * Получить задачу, подзадачу или эпик для создания или обновления.
+     *
+     * @param <T> тип задачи.
+     * @return задача, подзадача или эпик; для удаления - null.
+     */
+    @SuppressWarnings("unchecked")
+    public <T extends AbstractTask> T getEntity() {
+        return (T) this.entity;
+    }
+}
@@ -0,0 +1,456 @@
+package ru.yandex.practicum.models;
+
+//region imports
+
+import ru.yandex.practicum.constants.RecurrenceFrequency;
+import ru.yandex.practicum.constants.TaskStatus;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+
+//endregion
+
+/**
+ * Повторяющаяся задача.
+ * <p>
+ * Время начала и продолжительность задают первое повторение, следующие повторения начинаются через интервал
+ * периодичности до даты окончания включительно или без ограничения. Повторения не хранятся: они строятся только для
+ * запрошенного промежутка времени. Отдельные повторения можно изменить (время, статус, название) или отменить;
+ * хранятся только такие исключения.
+ * <p>
+ * Повторение представляется задачей с идентификатором повторяющейся задачи, поэтому повторения одной задачи
+ * различаются временем начала, а не идентификатором.
+ */
+public class RecurringTask extends Task {
+    /**
+     * Период в днях, через который совместное расписание двух повторяющихся задач повторяется: наименьшее общее
+     * кратное интервалов всех периодичностей.
+     */
+    public static final int PATTERN_DAYS = 7;
+
+    /**
+     * Периодичность.
+     */
+    private final RecurrenceFrequency frequency;
+
+    /**
+     * Дата и время, позже которых повторения не начинаются, или null, если ограничения нет.
+     */
+    private final LocalDateTime until;
+
+    /**
+     * Изменённые повторения по исходному времени начала.
+     */
+    private final TreeMap<LocalDateTime, Task> overrides;
+
+    /**
+     * Исходное время начала отменённых повторений.
+     */
+    private final TreeSet<LocalDateTime> cancelled;
+
+    /**
+     * Конструктор.
+     *
+     * @param name        название задачи.
+     * @param description описание задачи.
+     * @param startTime   дата и время начала первого повторения.
+     * @param duration    продолжительность каждого повторения.
+     * @param frequency   периодичность.
+     * @param until       дата и время, позже которых повторения не начинаются, или null, если ограничения нет.
+     */
+    public RecurringTask(String name, String description, LocalDateTime startTime, Duration duration, RecurrenceFrequency frequency, LocalDateTime until) {
+        super(name, description, startTime, duration);
+
+        validate(startTime, duration, frequency, until);
+
+        this.frequency = frequency;
+        this.until = until;
+        this.overrides = new TreeMap<>();
+        this.cancelled = new TreeSet<>();
+    }
+
+    /**
+     * Конструктор.
+     *
+     * @param id          идентификатор задачи.
+     * @param name        название задачи.
+     * @param description описание задачи.
+     * @param status      статус повторений по умолчанию.
+     * @param startTime   дата и время начала первого повторения.
+     * @param duration    продолжительность каждого повторения.
+     * @param frequency   периодичность.
+     * @param until       дата и время, позже которых повторения не начинаются, или null, если ограничения нет.
+     */
+    public RecurringTask(int id, String name, String description, TaskStatus status, LocalDateTime startTime, Duration duration, RecurrenceFrequency frequency, LocalDateTime until) {
+        super(id, name, description, status, startTime, duration);
+
+        validate(startTime, duration, frequency, until);
+
+        this.frequency = frequency;
+        this.until = until;
+        this.overrides = new TreeMap<>();
+        this.cancelled = new TreeSet<>();
+    }
+
+    /**
+     * Получить периодичность.
+     *
+     * @return периодичность.
+     */
+    public RecurrenceFrequency getFrequency() {
+        return this.frequency;
+    }
+
+    /**
+     * Получить дату и время, позже которых повторения не начинаются.
+     *
+     * @return дата и время, если повторения ограничены.
+     */
+    public Optional<LocalDateTime> getUntil() {
+        return Optional.ofNullable(this.until);
+    }
+
+    /**
+     * Получить время, начиная с которого повторения идут строго по расписанию: изменённые и отменённые повторения
+     * закончились, а у ограниченной задачи закончились и все повторения.
+     *
+     * @return время, после которого расписание повторяется с периодом {@link #PATTERN_DAYS} дней.
+     */
+    public LocalDateTime getRegularFrom() {
+        LocalDateTime regularFrom = this.until == null ? this.startTime : this.until.plus(this.duration);
+
+        for (Map.Entry<LocalDateTime, Task> override : this.overrides.entrySet()) {
+            regularFrom = later(regularFrom, later(override.getKey().plus(this.duration), override.getValue().getEndTime()));
+        }
+
+        if (!this.cancelled.isEmpty()) {
+            regularFrom = later(regularFrom, this.cancelled.last().plus(this.duration));
+        }
+
+        return regularFrom;
+    }
+
+    /**
+     * Получить изменённые повторения.
+     *
+     * @return изменённые повторения по исходному времени начала.
+     */
+    public Map<LocalDateTime, Task> getOverrides() {
+        return Collections.unmodifiableMap(this.overrides);
+    }
+
+    /**
+     * Получить исходное время начала отменённых повторений.
+     *
+     * @return время начала отменённых повторений.
+     */
+    public Set<LocalDateTime> getCancelledOccurrences() {
+        return Collections.unmodifiableSet(this.cancelled);
+    }
+
+    /**
+     * Проверить, начинается ли в заданное время одно из повторений по расписанию.
+     *
+     * @param occurrenceStartTime исходное время начала повторения.
+     * @return признак того, что повторение есть в расписании.
+     */
+    public boolean hasOccurrence(LocalDateTime occurrenceStartTime) {
+        if (occurrenceStartTime == null || occurrenceStartTime.isBefore(this.startTime) || (this.until != null && occurrenceStartTime.isAfter(this.until))) {
+            return false;
+        }
+
+        long index = Duration.between(this.startTime, occurrenceStartTime).getSeconds() / (this.frequency.getDays() * 86_400L);
+        return this.getOccurrenceStartTime(index).equals(occurrenceStartTime);
+    }
+
+    /**
+     * Изменить повторение. Повторение не должно пересекаться с другими повторениями этой задачи.
+     *
+     * @param occurrenceStartTime исходное время начала повторения.
+     * @param occurrence          повторение с идентификатором повторяющейся задачи.
+     */
+    public void overrideOccurrence(LocalDateTime occurrenceStartTime, Task occurrence) {
+        if (occurrence == null) {
+            throw new IllegalArgumentException("Parameter 'occurrence' can't be null");
+        }
+
+        if (occurrence.getId() != this.id) {
+            throw new IllegalArgumentException("Parameter 'occurrence' should have id of recurring task");
+        }
+
+        this.checkOccurrence(occurrenceStartTime);
+
+        if (this.findCrossingEndTime(occurrence.getStartTime(), occurrence.getDuration(), occurrenceStartTime).isPresent()) {
+            throw new IllegalStateException("Повторение задачи с идентификатором " + this.id + " пересекается с другим её повторением");
+        }
+
+        this.cancelled.remove(occurrenceStartTime);
+        this.overrides.put(occurrenceStartTime, occurrence);
+    }
+
+    /**
+     * Отменить повторение.
+     *
+     * @param occurrenceStartTime исходное время начала повторения.
+     */
+    public void cancelOccurrence(LocalDateTime occurrenceStartTime) {
+        this.checkOccurrence(occurrenceStartTime);
+
+        this.overrides.remove(occurrenceStartTime);
+        this.cancelled.add(occurrenceStartTime);
+    }
+
+    /**
+     * Получить повторения, время выполнения которых пересекается с промежутком, с учётом изменённых и отменённых.
+     *
+     * @param from начало промежутка.
+     * @param to   окончание промежутка.
+     * @return повторения, упорядоченные по времени начала.
+     */
+    public List<Task> getOccurrences(LocalDateTime from, LocalDateTime to) {
+        if (from == null) {
+            throw new IllegalArgumentException("Parameter 'from' can't be null");
+        }
+
+        if (to == null) {
+            throw new IllegalArgumentException("Parameter 'to' can't be null");
+        }
+
+        return this.collectOccurrences(from, to, true, null);
+    }
+
+    /**
+     * Найти повторения, пересекающиеся по времени выполнения с заданным промежутком.
+     *
+     * @param startTime время начала промежутка.
+     * @param duration  продолжительность промежутка.
+     * @return наибольшее время окончания пересекающихся повторений, если они есть.
+     */
+    public Optional<LocalDateTime> findCrossingEndTime(LocalDateTime startTime, Duration duration) {
+        if (startTime == null) {
+            throw new IllegalArgumentException("Parameter 'startTime' can't be null");
+        }
+
+        if (duration == null) {
+            throw new IllegalArgumentException("Parameter 'duration' can't be null");
+        }
+
+        return this.findCrossingEndTime(startTime, duration, null);
+    }
+
+    /**
+     * Проверить, пересекается ли задача или другая повторяющаяся задача по времени выполнения с повторениями.
+     * <p>
+     * Для двух повторяющихся задач сравниваются изменённые повторения каждой с расписанием другой, а повторения по
+     * расписанию - за одну неделю после начала более поздней задачи: дальше их взаимное расположение повторяется.
+     * Поэтому совпадение расписаний считается пересечением, даже если совпадающие повторения отменены.
+     *
+     * @param otherTask задача или повторяющаяся задача.
+     * @return признак пересечения.
+     */
+    @Override
+    public boolean isCrossed(Task otherTask) {
+        if (otherTask == null) {
+            throw new IllegalArgumentException("Parameter 'otherTask' can't be null");
+        }
+
+        if (!(otherTask instanceof RecurringTask)) {
+            return this.findCrossingEndTime(otherTask.getStartTime(), otherTask.getDuration(), null).isPresent();
+        }
+
+        RecurringTask other = (RecurringTask) otherTask;
+
+        for (Task occurrence : this.overrides.values()) {
+            if (other.findCrossingEndTime(occurrence.getStartTime(), occurrence.getDuration(), null).isPresent()) {
+                return true;
+            }
+        }
+
+        for (Task occurrence : other.overrides.values()) {
+            if (this.findCrossingEndTime(occurrence.getStartTime(), occurrence.getDuration(), null).isPresent()) {
+                return true;
+            }
+        }
+
+        LocalDateTime later = this.startTime.isAfter(other.startTime) ? this.startTime : other.startTime;
+        Duration longest = this.duration.compareTo(other.duration) >= 0 ? this.duration : other.duration;
+
+        for (Task occurrence : this.collectOccurrences(later.minus(longest), later.plusDays(PATTERN_DAYS).plus(longest), false, null)) {
+            for (Task otherOccurrence : other.collectOccurrences(occurrence.getStartTime(), occurrence.getEndTime(), false, null)) {
+                if (isCrossed(occurrence.getStartTime(), occurrence.getEndTime(), otherOccurrence.getStartTime(), otherOccurrence.getEndTime())) {
+                    return true;
+                }
+            }
+        }
+
+        return false;
+    }
+
+    /**
+     * Найти повторения, пересекающиеся по времени выполнения с заданным промежутком.
+     *
+     * @param startTime время начала промежутка.
+     * @param duration  продолжительность промежутка.
+     * @param excluded  исходное время начала повторения, которое не учитывается, или null.
+     * @return наибольшее время окончания пересекающихся повторений, если они есть.
+     */
+    private Optional<LocalDateTime> findCrossingEndTime(LocalDateTime startTime, Duration duration, LocalDateTime excluded) {
+        LocalDateTime endTime = startTime.plus(duration);
+        LocalDateTime crossingEndTime = null;
+
+        for (Task occurrence : this.collectOccurrences(startTime, endTime, true, excluded)) {
+            if (isCrossed(occurrence.getStartTime(), occurrence.getEndTime(), startTime, endTime)) {
+                // Повторение нулевой продолжительности занимает момент своего начала.
+                LocalDateTime occurrenceEndTime = occurrence.getEndTime().isAfter(occurrence.getStartTime()) ? occurrence.getEndTime() : occurrence.getStartTime().plusNanos(1);
+                if (crossingEndTime == null || occurrenceEndTime.isAfter(crossingEndTime)) {
+                    crossingEndTime = occurrenceEndTime;
+                }
+            }
+        }
+
+        return Optional.ofNullable(crossingEndTime);
+    }
+
+    /**
+     * Построить повторения, время выполнения которых пересекается с промежутком.
+     *
+     * @param from           начало промежутка.
+     * @param to             окончание промежутка.
+     * @param applyOverrides признак учёта изменённых и отменённых повторений.
+     * @param excluded       исходное время начала повторения, которое не учитывается, или null.
+     * @return повторения, упорядоченные по времени начала.
+     */
+    private List<Task> collectOccurrences(LocalDateTime from, LocalDateTime to, boolean applyOverrides, LocalDateTime excluded) {
+        List<Task> occurrences = new ArrayList<>();
+
+        for (long index = this.getFirstIndex(from); ; index++) {
+            LocalDateTime startTime = this.getOccurrenceStartTime(index);
+            if (startTime.isAfter(to) || (this.until != null && startTime.isAfter(this.until))) {
+                break;
+            }
+
+            if (startTime.equals(excluded) || (applyOverrides && (this.overrides.containsKey(startTime) || this.cancelled.contains(startTime)))) {
+                continue;
+            }
+
+            if (isInWindow(startTime, startTime.plus(this.duration), from, to)) {
+                occurrences.add(new Task(this.id, this.name, this.description, this.status, startTime, this.duration));
+            }
+        }
+
+        if (applyOverrides && !this.overrides.isEmpty()) {
+            // Изменённых повторений немного, и их время может сдвинуться как угодно далеко, поэтому они
+            // просматриваются все.
+            for (Map.Entry<LocalDateTime, Task> override : this.overrides.entrySet()) {
+                Task occurrence = override.getValue();
+                if (!override.getKey().equals(excluded) && isInWindow(occurrence.getStartTime(), occurrence.getEndTime(), from, to)) {
+                    occurrences.add(occurrence);
+                }
+            }
+
+            occurrences.sort(Comparator.comparing(Task::getStartTime));
+        }
+
+        return occurrences;
+    }
+
+    /**
+     * Получить номер первого повторения, которое может пересекаться с промежутком, начинающимся в заданное время.
+     *
+     * @param from начало промежутка.
+     * @return номер повторения.
+     */
+    private long getFirstIndex(LocalDateTime from) {
+        long seconds = Duration.between(this.startTime, from.minus(this.duration)).getSeconds();
+        return Math.max(0, Math.floorDiv(seconds, this.frequency.getDays() * 86_400L));
+    }
+
+    /**
+     * Получить время начала повторения по расписанию.
+     *
+     * @param index номер повторения.
+     * @return время начала.
+     */
+    private LocalDateTime getOccurrenceStartTime(long index) {
+        return this.startTime.plusDays(index * this.frequency.getDays());
+    }
+
+    /**
+     * Проверить, что повторение есть в расписании.
+     *
+     * @param occurrenceStartTime исходное время начала повторения.
+     */
+    private void checkOccurrence(LocalDateTime occurrenceStartTime) {
+        if (occurrenceStartTime == null) {
+            throw new IllegalArgumentException("Parameter 'occurrenceStartTime' can't be null");
+        }
+
+        if (!this.hasOccurrence(occurrenceStartTime)) {
+            throw new IllegalStateException("У задачи с идентификатором " + this.id + " нет повторения, начинающегося " + occurrenceStartTime);
+        }
+    }
+
+    /**
+     * Проверить, пересекается ли промежуток выполнения с окном: начинается внутри окна или захватывает его начало.
+     */
+    private static boolean isInWindow(LocalDateTime startTime, LocalDateTime endTime, LocalDateTime from, LocalDateTime to) {
+        return startTime.equals(from) || (startTime.isBefore(to) && endTime.isAfter(from));
+    }
+
+    /**
+     * Проверить, пересекаются ли промежутки выполнения. Правила совпадают с {@link Task#isCrossed(Task)}.
+     */
+    private static boolean isCrossed(LocalDateTime startTime, LocalDateTime endTime, LocalDateTime otherStartTime, LocalDateTime otherEndTime) {
+        if (startTime.equals(otherStartTime)) {
+            return true;
+        }
+
+        if (otherStartTime.isBefore(startTime) && otherEndTime.isAfter(startTime)) {
+            return true;
+        }
+
+        return startTime.isBefore(otherStartTime) && endTime.isAfter(otherStartTime);
+    }
+
+    /**
+     * Выбрать более позднее время.
+     */
+    private static LocalDateTime later(LocalDateTime first, LocalDateTime second) {
+        return first.isAfter(second) ? first : second;
+    }
+
+    /**
+     * Проверить параметры расписания.
+     */
+    private static void validate(LocalDateTime startTime, Duration duration, RecurrenceFrequency frequency, LocalDateTime until) {
+        if (frequency == null) {
+            throw new IllegalArgumentException("Parameter 'frequency' can't be null");
+        }
+
+        if (duration.compareTo(Duration.ofDays(frequency.getDays())) > 0) {
+            throw new IllegalArgumentException("Parameter 'duration' can't exceed recurrence interval");
+        }
+
+        if (until != null && until.isBefore(startTime)) {
+            throw new IllegalArgumentException("Parameter 'until' can't be before 'startTime'");
+        }
+    }
+
+    // region Overrides of java.lang.Object
+
+    @Override
+    public String toString() {
+        return this.getClass().getSimpleName() + "{" + "id: " + this.id + ", name: " + this.name + ", description: " + this.description + ", status: " + this.status.name() + ", startTime: " + this.startTime + ", duration: " + this.duration + ", frequency: " + this.frequency.name() + ", until: " + this.until + ", overrides: " + this.overrides.size() + ", cancelled: " + this.cancelled.size() + "}";
+    }
+
+    // endregion
+}
@@ -0,0 +1,177 @@
+package ru.yandex.practicum.utils.ids;
+
+// region imports
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.IntPredicate;
+
+// endregion
+
+/**
+ * Потокобезопасный источник идентификаторов задач.
+ * <p>
+ * Каждый поток арендует у общего счётчика блок идентификаторов одной атомарной операцией и дальше выдаёт их без
+ * синхронизации, поэтому параллельное создание задач не упирается в общую переменную. Общий счётчик - верхняя граница
+ * всех выданных идентификаторов; её сохраняет хранилище, чтобы после перезапуска идентификаторы удалённых задач
+ * не выдавались повторно.
+ * <p>
+ * Если идентификаторы появились в обход аллокатора (например, загружены из файла), границу нужно сдвинуть методом
+ * {@link #advanceTo(int)}: он отзывает ранее арендованные блоки, так как в них могли оказаться уже занятые
+ * идентификаторы.
+ * <p>
+ * Аллокатор можно ограничить подмножеством идентификаторов методом {@link #restrictTo(IntPredicate)}: так несколько
+ * процессов выдают непересекающиеся идентификаторы, каждый - только те, за которые он отвечает.
+ */
+public final class IdAllocator {
+    /**
+     * Аллокатор по умолчанию.
+     */
+    private static final IdAllocator defaultInstance = new IdAllocator(64);
+
+    /**
+     * Размер арендуемого блока.
+     */
+    private final int blockSize;
+
+    /**
+     * Наибольший идентификатор, выданный в аренду.
+     */
+    private final AtomicInteger highWaterMark;
+
+    /**
+     * Поколение блоков; увеличивается при отзыве ранее арендованных блоков.
+     */
+    private volatile int generation;
+
+    /**
+     * Условие, которому должны удовлетворять выдаваемые идентификаторы, или null, если ограничения нет.
+     */
+    private volatile IntPredicate filter;
+
+    /**
+     * Блок, арендованный текущим потоком.
+     */
+    private final ThreadLocal<Block> blocks;
+
+    /**
+     * Конструктор.
+     *
+     * @param blockSize размер арендуемого блока.
+     */
+    public IdAllocator(int blockSize) {
+        if (blockSize <= 0) {
+            throw new IllegalArgumentException("Parameter 'blockSize' should be positive number");
+        }
+
+        this.blockSize = blockSize;
+        this.highWaterMark = new AtomicInteger();
+        this.blocks = ThreadLocal.withInitial(Block::new);
+    }
+
+    /**
+     * Получить аллокатор по умолчанию.
+     *
+     * @return аллокатор по умолчанию.
+     */
+    public static IdAllocator getDefault() {
+        return defaultInstance;
+    }
+
+    /**
+     * Выдать следующий идентификатор.
+     *
+     * @return идентификатор.
+     */
+    public int next() {
+        IntPredicate filter = this.filter;
+        if (filter == null) {
+            return this.nextInBlock();
+        }
+
+        int id;
+        do {
+            id = this.nextInBlock();
+        } while (!filter.test(id));
+
+        return id;
+    }
+
+    /**
+     * Ограничить выдаваемые идентификаторы. Пропущенные идентификаторы не выдаются никогда.
+     *
+     * @param filter условие, которому должны удовлетворять идентификаторы, или null, чтобы снять ограничение.
+     */
+    public void restrictTo(IntPredicate filter) {
+        this.filter = filter;
+    }
+
+    /**
+     * Выдать следующий идентификатор арендованного блока, при необходимости арендовав новый.
+     *
+     * @return идентификатор.
+     */
+    private int nextInBlock() {
+        Block block = this.blocks.get();
+
+        int generation = this.generation;
+        if (block.next > block.last || block.generation != generation) {
+            int last = this.highWaterMark.addAndGet(this.blockSize);
+            if (last < 0) {
+                throw new IllegalStateException("Идентификаторы задач исчерпаны");
+            }
+
+            block.next = last - this.blockSize + 1;
+            block.last = last;
+            block.generation = generation;
+        }
+
+        return block.next++;
+    }
+
+    /**
+     * Сдвинуть верхнюю границу так, чтобы идентификаторы до указанного включительно больше не выдавались.
+     * Арендованные ранее блоки отзываются.
+     *
+     * @param id наибольший занятый идентификатор.
+     */
+    public void advanceTo(int id) {
+        this.highWaterMark.accumulateAndGet(id, Math::max);
+
+        synchronized (this) {
+            this.generation++;
+        }
+    }
+
+    /**
+     * Получить верхнюю границу выданных в аренду идентификаторов.
+     *
+     * @return наибольший идентификатор, выданный в аренду.
+     */
+    public int getHighWaterMark() {
+        return this.highWaterMark.get();
+    }
+
+    // region Nested Types
+
+    /**
+     * Арендованный блок идентификаторов.
+     */
+    private static final class Block {
+        /**
+         * Следующий выдаваемый идентификатор.
+         */
+        private int next = 1;
+
+        /**
+         * Последний идентификатор блока.
+         */
+        private int last = 0;
+
+        /**
+         * Поколение, в котором арендован блок.
+         */
+        private int generation = -1;
+    }
+
+    // endregion
+}
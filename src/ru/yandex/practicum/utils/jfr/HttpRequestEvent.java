@@ -0,0 +1,47 @@
+package ru.yandex.practicum.utils.jfr;
+
+// region imports
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+// endregion
+
+/**
+ * Событие JFR: обработка HTTP-запроса.
+ */
+@Name("ru.yandex.practicum.HttpRequest")
+@Label("HTTP Request")
+@Description("Обработка HTTP-запроса")
+@Category({"Kanban", "HTTP"})
+@StackTrace(false)
+public final class HttpRequestEvent extends jdk.jfr.Event {
+    /**
+     * HTTP-метод.
+     */
+    @Label("Method")
+    public String method;
+
+    /**
+     * Путь запроса.
+     */
+    @Label("Path")
+    public String path;
+
+    /**
+     * HTTP-код ответа (-1, если ответ не отправлен).
+     */
+    @Label("Status")
+    public int status;
+
+    /**
+     * Объём тела ответа, отправленный до возврата из обработчика.
+     */
+    @Label("Response Bytes")
+    @DataAmount
+    public long responseBytes;
+}
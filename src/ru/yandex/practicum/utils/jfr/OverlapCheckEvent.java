@@ -0,0 +1,39 @@
+package ru.yandex.practicum.utils.jfr;
+
+// region imports
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+// endregion
+
+/**
+ * Событие JFR: проверка пересечения задач по времени выполнения.
+ */
+@Name("ru.yandex.practicum.OverlapCheck")
+@Label("Overlap Check")
+@Description("Проверка пересечения задач по времени выполнения")
+@Category({"Kanban", "Task Manager"})
+@StackTrace(false)
+public final class OverlapCheckEvent extends jdk.jfr.Event {
+    /**
+     * Идентификатор проверяемой задачи (0 для проверки пакета).
+     */
+    @Label("Task Id")
+    public int taskId;
+
+    /**
+     * Количество проверенных задач.
+     */
+    @Label("Candidates Examined")
+    public int candidatesExamined;
+
+    /**
+     * Признак найденного пересечения.
+     */
+    @Label("Crossed")
+    public boolean crossed;
+}
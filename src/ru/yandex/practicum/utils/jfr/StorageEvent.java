@@ -0,0 +1,47 @@
+package ru.yandex.practicum.utils.jfr;
+
+// region imports
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+// endregion
+
+/**
+ * Событие JFR: сохранение менеджера задач в файл или загрузка из файла.
+ */
+@Name("ru.yandex.practicum.Storage")
+@Label("Storage")
+@Description("Сохранение менеджера задач в файл или загрузка из файла")
+@Category({"Kanban", "Storage"})
+@StackTrace(false)
+public final class StorageEvent extends jdk.jfr.Event {
+    /**
+     * Операция (save или load).
+     */
+    @Label("Operation")
+    public String operation;
+
+    /**
+     * Путь к файлу.
+     */
+    @Label("Path")
+    public String path;
+
+    /**
+     * Количество записанных или прочитанных байтов.
+     */
+    @Label("Bytes")
+    @DataAmount
+    public long bytes;
+
+    /**
+     * Количество записанных или прочитанных записей.
+     */
+    @Label("Records")
+    public int records;
+}
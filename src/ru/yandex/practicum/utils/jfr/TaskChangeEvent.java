@@ -0,0 +1,46 @@
+package ru.yandex.practicum.utils.jfr;
+
+// region imports
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+// endregion
+
+/**
+ * Событие JFR: изменение задачи, подзадачи или эпика в менеджере задач. Стек вызова показывает, какая операция
+ * привела к изменению.
+ */
+@Name("ru.yandex.practicum.TaskChange")
+@Label("Task Change")
+@Description("Создание, изменение или удаление задачи, подзадачи или эпика")
+@Category({"Kanban", "Task Manager"})
+@StackTrace(true)
+public final class TaskChangeEvent extends jdk.jfr.Event {
+    /**
+     * Тип изменения.
+     */
+    @Label("Change Type")
+    public String changeType;
+
+    /**
+     * Тип задачи.
+     */
+    @Label("Task Type")
+    public String taskType;
+
+    /**
+     * Идентификатор задачи.
+     */
+    @Label("Task Id")
+    public int taskId;
+
+    /**
+     * Версия менеджера задач, присвоенная изменению.
+     */
+    @Label("Version")
+    public long version;
+}
@@ -2,21 +2,34 @@ package ru.yandex.practicum.utils.json;
 
 // region imports
 
-import com.google.gson.*;
+import com.google.gson.TypeAdapter;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+import com.google.gson.stream.JsonWriter;
 
-import java.lang.reflect.Type;
+import java.io.IOException;
 import java.time.Duration;
 
 // endregion
 
-public class DurationTypeAdapter implements JsonSerializer<Duration>, JsonDeserializer<Duration> {
+public class DurationTypeAdapter extends TypeAdapter<Duration> {
     @Override
-    public Duration deserialize(final JsonElement json, final Type typeOfT, final JsonDeserializationContext context) throws JsonParseException {
-        return Duration.parse(json.getAsString());
+    public void write(JsonWriter jsonWriter, Duration duration) throws IOException {
+        if (duration == null) {
+            jsonWriter.nullValue();
+            return;
+        }
+
+        jsonWriter.value(duration.toString());
     }
 
     @Override
-    public JsonElement serialize(Duration duration, Type type, JsonSerializationContext jsonSerializationContext) {
-        return new JsonPrimitive(duration.toString());
+    public Duration read(JsonReader jsonReader) throws IOException {
+        if (jsonReader.peek() == JsonToken.NULL) {
+            jsonReader.nextNull();
+            return null;
+        }
+
+        return Duration.parse(jsonReader.nextString());
     }
-}
\ No newline at end of file
+}
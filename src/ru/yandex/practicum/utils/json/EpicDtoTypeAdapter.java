@@ -0,0 +1,71 @@
+package ru.yandex.practicum.utils.json;
+
+// region imports
+
+import com.google.gson.TypeAdapter;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+import com.google.gson.stream.JsonWriter;
+import ru.yandex.practicum.api.dto.EpicDto;
+
+import java.io.IOException;
+
+// endregion
+
+/**
+ * Потоковый сериализатор DTO эпика.
+ */
+public class EpicDtoTypeAdapter extends TypeAdapter<EpicDto> {
+    @Override
+    public void write(JsonWriter jsonWriter, EpicDto epicDto) throws IOException {
+        if (epicDto == null) {
+            jsonWriter.nullValue();
+            return;
+        }
+
+        jsonWriter.beginObject();
+        if (epicDto.id != null) {
+            jsonWriter.name("id").value(epicDto.id);
+        }
+
+        if (epicDto.name != null) {
+            jsonWriter.name("name").value(epicDto.name);
+        }
+
+        if (epicDto.description != null) {
+            jsonWriter.name("description").value(epicDto.description);
+        }
+        jsonWriter.endObject();
+    }
+
+    @Override
+    public EpicDto read(JsonReader jsonReader) throws IOException {
+        if (jsonReader.peek() == JsonToken.NULL) {
+            jsonReader.nextNull();
+            return null;
+        }
+
+        EpicDto epicDto = new EpicDto();
+
+        jsonReader.beginObject();
+        while (jsonReader.hasNext()) {
+            switch (jsonReader.nextName()) {
+                case "id":
+                    epicDto.id = TaskTypeAdapter.readInteger(jsonReader);
+                    break;
+                case "name":
+                    epicDto.name = TaskTypeAdapter.readString(jsonReader);
+                    break;
+                case "description":
+                    epicDto.description = TaskTypeAdapter.readString(jsonReader);
+                    break;
+                default:
+                    jsonReader.skipValue();
+                    break;
+            }
+        }
+        jsonReader.endObject();
+
+        return epicDto;
+    }
+}
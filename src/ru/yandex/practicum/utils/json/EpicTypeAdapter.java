@@ -0,0 +1,118 @@
+package ru.yandex.practicum.utils.json;
+
+// region imports
+
+import com.google.gson.TypeAdapter;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+import com.google.gson.stream.JsonWriter;
+import ru.yandex.practicum.models.Epic;
+import ru.yandex.practicum.models.SubTask;
+
+import java.io.IOException;
+import java.util.HashMap;
+
+// endregion
+
+/**
+ * Потоковый сериализатор эпика.
+ * Порядок полей совпадает с тем, который даёт рефлективная сериализация Gson: подзадачи пишутся объектом,
+ * ключами которого служат их идентификаторы.
+ */
+public class EpicTypeAdapter extends TypeAdapter<Epic> {
+    /**
+     * Сериализатор подзадач.
+     */
+    private final SubTaskTypeAdapter subTaskAdapter;
+
+    /**
+     * Конструктор.
+     *
+     * @param subTaskAdapter сериализатор подзадач.
+     */
+    public EpicTypeAdapter(SubTaskTypeAdapter subTaskAdapter) {
+        if (subTaskAdapter == null) {
+            throw new IllegalArgumentException("Parameter 'subTaskAdapter' can't be null");
+        }
+
+        this.subTaskAdapter = subTaskAdapter;
+    }
+
+    @Override
+    public void write(JsonWriter jsonWriter, Epic epic) throws IOException {
+        if (epic == null) {
+            jsonWriter.nullValue();
+            return;
+        }
+
+        jsonWriter.beginObject();
+
+        jsonWriter.name("subTasks");
+        jsonWriter.beginObject();
+        for (SubTask subTask : epic.getSubTasksView()) {
+            jsonWriter.name(String.valueOf(subTask.getId()));
+            this.subTaskAdapter.write(jsonWriter, subTask);
+        }
+        jsonWriter.endObject();
+
+        jsonWriter.name("id").value(epic.getId());
+        jsonWriter.name("name").value(epic.getName());
+        jsonWriter.name("description").value(epic.getDescription());
+        jsonWriter.endObject();
+    }
+
+    @Override
+    public Epic read(JsonReader jsonReader) throws IOException {
+        if (jsonReader.peek() == JsonToken.NULL) {
+            jsonReader.nextNull();
+            return null;
+        }
+
+        Integer id = null;
+        String name = null;
+        String description = null;
+        HashMap<Integer, SubTask> subTasks = new HashMap<>();
+
+        jsonReader.beginObject();
+        while (jsonReader.hasNext()) {
+            switch (jsonReader.nextName()) {
+                case "subTasks":
+                    if (jsonReader.peek() == JsonToken.NULL) {
+                        jsonReader.nextNull();
+                        break;
+                    }
+
+                    jsonReader.beginObject();
+                    while (jsonReader.hasNext()) {
+                        jsonReader.nextName();
+
+                        SubTask subTask = this.subTaskAdapter.read(jsonReader);
+                        if (subTask != null) {
+                            subTasks.put(subTask.getId(), subTask);
+                        }
+                    }
+                    jsonReader.endObject();
+                    break;
+                case "id":
+                    id = TaskTypeAdapter.readInteger(jsonReader);
+                    break;
+                case "name":
+                    name = TaskTypeAdapter.readString(jsonReader);
+                    break;
+                case "description":
+                    description = TaskTypeAdapter.readString(jsonReader);
+                    break;
+                default:
+                    jsonReader.skipValue();
+                    break;
+            }
+        }
+        jsonReader.endObject();
+
+        if (id == null) {
+            return new Epic(name, description);
+        }
+
+        return new Epic(id, name, description, subTasks);
+    }
+}
@@ -0,0 +1,66 @@
+package ru.yandex.practicum.utils.json;
+
+// region imports
+
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+import ru.yandex.practicum.api.dto.EpicDto;
+import ru.yandex.practicum.api.dto.SubTaskDto;
+import ru.yandex.practicum.api.dto.TaskDto;
+import ru.yandex.practicum.models.Epic;
+import ru.yandex.practicum.models.RecurringTask;
+import ru.yandex.practicum.models.SubTask;
+import ru.yandex.practicum.models.Task;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+
+// endregion
+
+/**
+ * Фабрика сериализаторов JSON.
+ */
+public final class GsonFactory {
+    /**
+     * Сериализатор по умолчанию. Экземпляр Gson потокобезопасен и разделяется всеми обработчиками.
+     */
+    private static final Gson defaultInstance = create();
+
+    private GsonFactory() {
+    }
+
+    /**
+     * Получить сериализатор по умолчанию.
+     *
+     * @return сериализатор по умолчанию.
+     */
+    public static Gson getDefault() {
+        return defaultInstance;
+    }
+
+    /**
+     * Создать сериализатор с потоковыми адаптерами для моделей и DTO, не использующий рефлексию.
+     *
+     * @return сериализатор.
+     */
+    public static Gson create() {
+        LocalDateTimeTypeAdapter localDateTimeAdapter = new LocalDateTimeTypeAdapter();
+        DurationTypeAdapter durationAdapter = new DurationTypeAdapter();
+
+        TaskTypeAdapter taskAdapter = new TaskTypeAdapter(localDateTimeAdapter, durationAdapter);
+        SubTaskTypeAdapter subTaskAdapter = new SubTaskTypeAdapter(taskAdapter);
+        TaskDtoTypeAdapter taskDtoAdapter = new TaskDtoTypeAdapter(localDateTimeAdapter, durationAdapter);
+
+        return new GsonBuilder()
+                .registerTypeAdapter(LocalDateTime.class, localDateTimeAdapter)
+                .registerTypeAdapter(Duration.class, durationAdapter)
+                .registerTypeAdapter(Task.class, taskAdapter)
+                .registerTypeAdapter(SubTask.class, subTaskAdapter)
+                .registerTypeAdapter(Epic.class, new EpicTypeAdapter(subTaskAdapter))
+                .registerTypeAdapter(RecurringTask.class, new RecurringTaskTypeAdapter(taskAdapter, localDateTimeAdapter))
+                .registerTypeAdapter(TaskDto.class, taskDtoAdapter)
+                .registerTypeAdapter(SubTaskDto.class, new SubTaskDtoTypeAdapter(taskDtoAdapter))
+                .registerTypeAdapter(EpicDto.class, new EpicDtoTypeAdapter())
+                .create();
+    }
+}
@@ -0,0 +1,175 @@
+package ru.yandex.practicum.utils.json;
+
+// region imports
+
+import com.google.gson.Gson;
+import ru.yandex.practicum.abstractions.TaskManager;
+import ru.yandex.practicum.models.AbstractTask;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Collections;
+import java.util.Map;
+import java.util.WeakHashMap;
+import java.util.concurrent.ConcurrentHashMap;
+
+// endregion
+
+/**
+ * Кэш JSON-представлений (в UTF-8) задач, подзадач и эпиков.
+ * <p>
+ * Запись кэша привязана к версии задачи в менеджере задач: любое изменение или удаление задачи через менеджер меняет
+ * её версию, и устаревшая запись при следующем обращении сериализуется заново. Для эпиков версия меняется также при
+ * изменении их подзадач. Записи удалённых задач вычищаются по мере накопления промахов.
+ */
+public final class JsonFragmentCache {
+    /**
+     * Кэши, общие для всех обработчиков одного менеджера задач.
+     */
+    private static final Map<TaskManager, JsonFragmentCache> sharedCaches = Collections.synchronizedMap(new WeakHashMap<>());
+
+    /**
+     * Менеджер задач, версии которого определяют актуальность записей.
+     */
+    private final TaskManager taskManager;
+
+    /**
+     * Сериализатор.
+     */
+    private final Gson gson;
+
+    /**
+     * Записи кэша.
+     */
+    private final ConcurrentHashMap<Integer, Entry> entries;
+
+    /**
+     * Количество промахов с момента последней очистки устаревших записей.
+     */
+    private int missesSinceCleanup;
+
+    /**
+     * Конструктор.
+     *
+     * @param taskManager менеджер задач.
+     * @param gson        сериализатор.
+     */
+    public JsonFragmentCache(TaskManager taskManager, Gson gson) {
+        if (taskManager == null) {
+            throw new IllegalArgumentException("Parameter 'taskManager' can't be null");
+        }
+
+        if (gson == null) {
+            throw new IllegalArgumentException("Parameter 'gson' can't be null");
+        }
+
+        this.taskManager = taskManager;
+        this.gson = gson;
+        this.entries = new ConcurrentHashMap<>();
+    }
+
+    /**
+     * Получить кэш, общий для всех обработчиков менеджера задач.
+     *
+     * @param taskManager менеджер задач.
+     * @param gson        сериализатор (используется, если кэш для менеджера ещё не создан).
+     * @return кэш.
+     */
+    public static JsonFragmentCache forManager(TaskManager taskManager, Gson gson) {
+        return sharedCaches.computeIfAbsent(taskManager, tm -> new JsonFragmentCache(tm, gson));
+    }
+
+    /**
+     * Освободить кэш менеджера задач, который больше не используется. Кэш ссылается на свой менеджер,
+     * поэтому без явного освобождения ни кэш, ни менеджер не будут собраны сборщиком мусора.
+     *
+     * @param taskManager менеджер задач.
+     */
+    public static void release(TaskManager taskManager) {
+        sharedCaches.remove(taskManager);
+    }
+
+    /**
+     * Получить JSON-представление задачи в UTF-8.
+     * Возвращаемый массив разделяется между вызовами и не должен изменяться.
+     *
+     * @param task задача, подзадача или эпик.
+     * @return JSON-представление задачи в UTF-8.
+     */
+    public byte[] get(AbstractTask task) {
+        long version = this.taskManager.getVersion(task.getId());
+
+        Entry entry = this.entries.get(task.getId());
+        if (entry != null && entry.version == version && entry.type == task.getClass()) {
+            return entry.json;
+        }
+
+        byte[] json = this.gson.toJson(task, task.getClass()).getBytes(StandardCharsets.UTF_8);
+
+        // Задачи, не принадлежащие менеджеру (версия 0), не кэшируются.
+        if (version == 0) {
+            this.entries.remove(task.getId());
+        } else {
+            this.entries.put(task.getId(), new Entry(version, task.getClass(), json));
+        }
+
+        if (++this.missesSinceCleanup > this.entries.size()) {
+            this.removeStaleEntries();
+        }
+
+        return json;
+    }
+
+    /**
+     * Получить количество записей в кэше.
+     *
+     * @return количество записей в кэше.
+     */
+    public int size() {
+        return this.entries.size();
+    }
+
+    /**
+     * Удалить записи, версия которых больше не совпадает с версией задачи в менеджере.
+     */
+    private void removeStaleEntries() {
+        this.entries.entrySet().removeIf(e -> e.getValue().version != this.taskManager.getVersion(e.getKey()));
+        this.missesSinceCleanup = 0;
+    }
+
+    // region Nested Types
+
+    /**
+     * Запись кэша.
+     */
+    private static final class Entry {
+        /**
+         * Версия задачи, для которой получено JSON-представление.
+         */
+        private final long version;
+
+        /**
+         * Тип задачи.
+         */
+        private final Class<?> type;
+
+        /**
+         * JSON-представление задачи в UTF-8.
+         */
+        private final byte[] json;
+
+        /**
+         * Конструктор.
+         *
+         * @param version версия задачи, для которой получено JSON-представление.
+         * @param type    тип задачи.
+         * @param json    JSON-представление задачи в UTF-8.
+         */
+        private Entry(long version, Class<?> type, byte[] json) {
+            this.version = version;
+            this.type = type;
+            this.json = json;
+        }
+    }
+
+    // endregion
+}
@@ -2,21 +2,34 @@ package ru.yandex.practicum.utils.json;
 
 // region imports
 
-import com.google.gson.*;
+import com.google.gson.TypeAdapter;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+import com.google.gson.stream.JsonWriter;
 
-import java.lang.reflect.Type;
+import java.io.IOException;
 import java.time.LocalDateTime;
 
 // endregion
 
-public class LocalDateTimeTypeAdapter implements JsonSerializer<LocalDateTime>, JsonDeserializer<LocalDateTime> {
+public class LocalDateTimeTypeAdapter extends TypeAdapter<LocalDateTime> {
     @Override
-    public LocalDateTime deserialize(final JsonElement json, final Type typeOfT, final JsonDeserializationContext context) throws JsonParseException {
-        return LocalDateTime.parse(json.getAsString());
+    public void write(JsonWriter jsonWriter, LocalDateTime dateTime) throws IOException {
+        if (dateTime == null) {
+            jsonWriter.nullValue();
+            return;
+        }
+
+        jsonWriter.value(dateTime.toString());
     }
 
     @Override
-    public JsonElement serialize(LocalDateTime dateTime, Type type, JsonSerializationContext jsonSerializationContext) {
-        return new JsonPrimitive(dateTime.toString());
+    public LocalDateTime read(JsonReader jsonReader) throws IOException {
+        if (jsonReader.peek() == JsonToken.NULL) {
+            jsonReader.nextNull();
+            return null;
+        }
+
+        return LocalDateTime.parse(jsonReader.nextString());
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,185 @@
+package ru.yandex.practicum.utils.json;
+
+// region imports
+
+import com.google.gson.TypeAdapter;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+import com.google.gson.stream.JsonWriter;
+import ru.yandex.practicum.constants.RecurrenceFrequency;
+import ru.yandex.practicum.models.RecurringTask;
+import ru.yandex.practicum.models.Task;
+
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+// endregion
+
+/**
+ * Потоковый сериализатор повторяющейся задачи вместе с изменёнными и отменёнными повторениями.
+ */
+public class RecurringTaskTypeAdapter extends TypeAdapter<RecurringTask> {
+    /**
+     * Сериализатор полей, общих с задачей, и изменённых повторений.
+     */
+    private final TaskTypeAdapter taskAdapter;
+
+    /**
+     * Сериализатор даты и времени.
+     */
+    private final TypeAdapter<LocalDateTime> localDateTimeAdapter;
+
+    /**
+     * Конструктор.
+     *
+     * @param taskAdapter          сериализатор полей, общих с задачей, и изменённых повторений.
+     * @param localDateTimeAdapter сериализатор даты и времени.
+     */
+    public RecurringTaskTypeAdapter(TaskTypeAdapter taskAdapter, TypeAdapter<LocalDateTime> localDateTimeAdapter) {
+        if (taskAdapter == null) {
+            throw new IllegalArgumentException("Parameter 'taskAdapter' can't be null");
+        }
+
+        if (localDateTimeAdapter == null) {
+            throw new IllegalArgumentException("Parameter 'localDateTimeAdapter' can't be null");
+        }
+
+        this.taskAdapter = taskAdapter;
+        this.localDateTimeAdapter = localDateTimeAdapter;
+    }
+
+    @Override
+    public void write(JsonWriter jsonWriter, RecurringTask recurringTask) throws IOException {
+        if (recurringTask == null) {
+            jsonWriter.nullValue();
+            return;
+        }
+
+        jsonWriter.beginObject();
+        jsonWriter.name("frequency").value(recurringTask.getFrequency().name());
+        jsonWriter.name("until");
+        this.localDateTimeAdapter.write(jsonWriter, recurringTask.getUntil().orElse(null));
+
+        jsonWriter.name("overrides").beginArray();
+        for (Map.Entry<LocalDateTime, Task> override : recurringTask.getOverrides().entrySet()) {
+            jsonWriter.beginObject();
+            jsonWriter.name("occurrenceStartTime");
+            this.localDateTimeAdapter.write(jsonWriter, override.getKey());
+            jsonWriter.name("occurrence");
+            this.taskAdapter.write(jsonWriter, override.getValue());
+            jsonWriter.endObject();
+        }
+        jsonWriter.endArray();
+
+        jsonWriter.name("cancelled").beginArray();
+        for (LocalDateTime occurrenceStartTime : recurringTask.getCancelledOccurrences()) {
+            this.localDateTimeAdapter.write(jsonWriter, occurrenceStartTime);
+        }
+        jsonWriter.endArray();
+
+        this.taskAdapter.writeFields(jsonWriter, recurringTask);
+        jsonWriter.endObject();
+    }
+
+    @Override
+    public RecurringTask read(JsonReader jsonReader) throws IOException {
+        if (jsonReader.peek() == JsonToken.NULL) {
+            jsonReader.nextNull();
+            return null;
+        }
+
+        TaskTypeAdapter.Fields fields = new TaskTypeAdapter.Fields();
+        RecurrenceFrequency frequency = null;
+        LocalDateTime until = null;
+        Map<LocalDateTime, Task> overrides = new LinkedHashMap<>();
+        List<LocalDateTime> cancelled = new ArrayList<>();
+
+        jsonReader.beginObject();
+        while (jsonReader.hasNext()) {
+            String name = jsonReader.nextName();
+            switch (name) {
+                case "frequency": {
+                    String value = TaskTypeAdapter.readString(jsonReader);
+                    frequency = value == null ? null : RecurrenceFrequency.valueOf(value);
+                    break;
+                }
+                case "until":
+                    until = this.localDateTimeAdapter.read(jsonReader);
+                    break;
+                case "overrides":
+                    this.readOverrides(jsonReader, overrides);
+                    break;
+                case "cancelled":
+                    jsonReader.beginArray();
+                    while (jsonReader.hasNext()) {
+                        cancelled.add(this.localDateTimeAdapter.read(jsonReader));
+                    }
+                    jsonReader.endArray();
+                    break;
+                default:
+                    if (!this.taskAdapter.readField(jsonReader, name, fields)) {
+                        jsonReader.skipValue();
+                    }
+                    break;
+            }
+        }
+        jsonReader.endObject();
+
+        RecurringTask recurringTask;
+        if (fields.id == null) {
+            recurringTask = new RecurringTask(fields.name, fields.description, fields.startTime, fields.duration, frequency, until);
+            if (fields.status != null) {
+                recurringTask.setStatus(fields.status);
+            }
+        } else {
+            recurringTask = new RecurringTask(fields.id, fields.name, fields.description, fields.status, fields.startTime, fields.duration, frequency, until);
+        }
+
+        for (Map.Entry<LocalDateTime, Task> override : overrides.entrySet()) {
+            recurringTask.overrideOccurrence(override.getKey(), override.getValue());
+        }
+
+        for (LocalDateTime occurrenceStartTime : cancelled) {
+            recurringTask.cancelOccurrence(occurrenceStartTime);
+        }
+
+        return recurringTask;
+    }
+
+    /**
+     * Прочитать изменённые повторения.
+     *
+     * @param jsonReader поток чтения JSON.
+     * @param overrides  изменённые повторения по исходному времени начала.
+     */
+    private void readOverrides(JsonReader jsonReader, Map<LocalDateTime, Task> overrides) throws IOException {
+        jsonReader.beginArray();
+        while (jsonReader.hasNext()) {
+            LocalDateTime occurrenceStartTime = null;
+            Task occurrence = null;
+
+            jsonReader.beginObject();
+            while (jsonReader.hasNext()) {
+                switch (jsonReader.nextName()) {
+                    case "occurrenceStartTime":
+                        occurrenceStartTime = this.localDateTimeAdapter.read(jsonReader);
+                        break;
+                    case "occurrence":
+                        occurrence = this.taskAdapter.read(jsonReader);
+                        break;
+                    default:
+                        jsonReader.skipValue();
+                        break;
+                }
+            }
+            jsonReader.endObject();
+
+            overrides.put(occurrenceStartTime, occurrence);
+        }
+        jsonReader.endArray();
+    }
+}
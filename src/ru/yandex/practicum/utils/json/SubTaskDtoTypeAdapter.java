@@ -0,0 +1,74 @@
+package ru.yandex.practicum.utils.json;
+
+// region imports
+
+import com.google.gson.TypeAdapter;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+import com.google.gson.stream.JsonWriter;
+import ru.yandex.practicum.api.dto.SubTaskDto;
+
+import java.io.IOException;
+
+// endregion
+
+/**
+ * Потоковый сериализатор DTO подзадачи.
+ */
+public class SubTaskDtoTypeAdapter extends TypeAdapter<SubTaskDto> {
+    /**
+     * Сериализатор полей, общих с DTO задачи.
+     */
+    private final TaskDtoTypeAdapter taskDtoAdapter;
+
+    /**
+     * Конструктор.
+     *
+     * @param taskDtoAdapter сериализатор полей, общих с DTO задачи.
+     */
+    public SubTaskDtoTypeAdapter(TaskDtoTypeAdapter taskDtoAdapter) {
+        if (taskDtoAdapter == null) {
+            throw new IllegalArgumentException("Parameter 'taskDtoAdapter' can't be null");
+        }
+
+        this.taskDtoAdapter = taskDtoAdapter;
+    }
+
+    @Override
+    public void write(JsonWriter jsonWriter, SubTaskDto subTaskDto) throws IOException {
+        if (subTaskDto == null) {
+            jsonWriter.nullValue();
+            return;
+        }
+
+        jsonWriter.beginObject();
+        if (subTaskDto.epicId != null) {
+            jsonWriter.name("epicId").value(subTaskDto.epicId);
+        }
+        this.taskDtoAdapter.writeFields(jsonWriter, subTaskDto);
+        jsonWriter.endObject();
+    }
+
+    @Override
+    public SubTaskDto read(JsonReader jsonReader) throws IOException {
+        if (jsonReader.peek() == JsonToken.NULL) {
+            jsonReader.nextNull();
+            return null;
+        }
+
+        SubTaskDto subTaskDto = new SubTaskDto();
+
+        jsonReader.beginObject();
+        while (jsonReader.hasNext()) {
+            String name = jsonReader.nextName();
+            if (name.equals("epicId")) {
+                subTaskDto.epicId = TaskTypeAdapter.readInteger(jsonReader);
+            } else if (!this.taskDtoAdapter.readField(jsonReader, name, subTaskDto)) {
+                jsonReader.skipValue();
+            }
+        }
+        jsonReader.endObject();
+
+        return subTaskDto;
+    }
+}
@@ -0,0 +1,86 @@
+package ru.yandex.practicum.utils.json;
+
+// region imports
+
+import com.google.gson.TypeAdapter;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+import com.google.gson.stream.JsonWriter;
+import ru.yandex.practicum.models.SubTask;
+
+import java.io.IOException;
+
+// endregion
+
+/**
+ * Потоковый сериализатор подзадачи.
+ * Порядок полей совпадает с тем, который даёт рефлективная сериализация Gson.
+ */
+public class SubTaskTypeAdapter extends TypeAdapter<SubTask> {
+    /**
+     * Сериализатор полей, общих с задачей.
+     */
+    private final TaskTypeAdapter taskAdapter;
+
+    /**
+     * Конструктор.
+     *
+     * @param taskAdapter сериализатор полей, общих с задачей.
+     */
+    public SubTaskTypeAdapter(TaskTypeAdapter taskAdapter) {
+        if (taskAdapter == null) {
+            throw new IllegalArgumentException("Parameter 'taskAdapter' can't be null");
+        }
+
+        this.taskAdapter = taskAdapter;
+    }
+
+    @Override
+    public void write(JsonWriter jsonWriter, SubTask subTask) throws IOException {
+        if (subTask == null) {
+            jsonWriter.nullValue();
+            return;
+        }
+
+        jsonWriter.beginObject();
+        jsonWriter.name("epicId").value(subTask.getEpicId());
+        this.taskAdapter.writeFields(jsonWriter, subTask);
+        jsonWriter.endObject();
+    }
+
+    @Override
+    public SubTask read(JsonReader jsonReader) throws IOException {
+        if (jsonReader.peek() == JsonToken.NULL) {
+            jsonReader.nextNull();
+            return null;
+        }
+
+        TaskTypeAdapter.Fields fields = new TaskTypeAdapter.Fields();
+        Integer epicId = null;
+
+        jsonReader.beginObject();
+        while (jsonReader.hasNext()) {
+            String name = jsonReader.nextName();
+            if (name.equals("epicId")) {
+                epicId = TaskTypeAdapter.readInteger(jsonReader);
+            } else if (!this.taskAdapter.readField(jsonReader, name, fields)) {
+                jsonReader.skipValue();
+            }
+        }
+        jsonReader.endObject();
+
+        if (epicId == null) {
+            throw new IllegalArgumentException("Property 'epicId' can't be null");
+        }
+
+        if (fields.id == null) {
+            SubTask subTask = new SubTask(fields.name, fields.description, fields.startTime, fields.duration, epicId);
+            if (fields.status != null) {
+                subTask.setStatus(fields.status);
+            }
+            return subTask;
+        }
+
+        return new SubTask(fields.id, fields.name, fields.description, fields.status, fields.startTime, fields.duration, epicId);
+    }
+}
@@ -0,0 +1,148 @@
+package ru.yandex.practicum.utils.json;
+
+// region imports
+
+import com.google.gson.TypeAdapter;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+import com.google.gson.stream.JsonWriter;
+import ru.yandex.practicum.api.dto.TaskDto;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.time.LocalDateTime;
+
+// endregion
+
+/**
+ * Потоковый сериализатор DTO задачи.
+ */
+public class TaskDtoTypeAdapter extends TypeAdapter<TaskDto> {
+    /**
+     * Сериализатор даты и времени.
+     */
+    private final TypeAdapter<LocalDateTime> localDateTimeAdapter;
+
+    /**
+     * Сериализатор продолжительности.
+     */
+    private final TypeAdapter<Duration> durationAdapter;
+
+    /**
+     * Конструктор.
+     *
+     * @param localDateTimeAdapter сериализатор даты и времени.
+     * @param durationAdapter      сериализатор продолжительности.
+     */
+    public TaskDtoTypeAdapter(TypeAdapter<LocalDateTime> localDateTimeAdapter, TypeAdapter<Duration> durationAdapter) {
+        if (localDateTimeAdapter == null) {
+            throw new IllegalArgumentException("Parameter 'localDateTimeAdapter' can't be null");
+        }
+
+        if (durationAdapter == null) {
+            throw new IllegalArgumentException("Parameter 'durationAdapter' can't be null");
+        }
+
+        this.localDateTimeAdapter = localDateTimeAdapter;
+        this.durationAdapter = durationAdapter;
+    }
+
+    @Override
+    public void write(JsonWriter jsonWriter, TaskDto taskDto) throws IOException {
+        if (taskDto == null) {
+            jsonWriter.nullValue();
+            return;
+        }
+
+        jsonWriter.beginObject();
+        this.writeFields(jsonWriter, taskDto);
+        jsonWriter.endObject();
+    }
+
+    @Override
+    public TaskDto read(JsonReader jsonReader) throws IOException {
+        if (jsonReader.peek() == JsonToken.NULL) {
+            jsonReader.nextNull();
+            return null;
+        }
+
+        TaskDto taskDto = new TaskDto();
+
+        jsonReader.beginObject();
+        while (jsonReader.hasNext()) {
+            if (!this.readField(jsonReader, jsonReader.nextName(), taskDto)) {
+                jsonReader.skipValue();
+            }
+        }
+        jsonReader.endObject();
+
+        return taskDto;
+    }
+
+    /**
+     * Записать поля DTO задачи (без открывающей и закрывающей скобок объекта). Поля со значением null пропускаются.
+     *
+     * @param jsonWriter поток записи JSON.
+     * @param taskDto    DTO задачи.
+     */
+    void writeFields(JsonWriter jsonWriter, TaskDto taskDto) throws IOException {
+        if (taskDto.id != null) {
+            jsonWriter.name("id").value(taskDto.id);
+        }
+
+        if (taskDto.name != null) {
+            jsonWriter.name("name").value(taskDto.name);
+        }
+
+        if (taskDto.description != null) {
+            jsonWriter.name("description").value(taskDto.description);
+        }
+
+        if (taskDto.startTime != null) {
+            jsonWriter.name("startTime");
+            this.localDateTimeAdapter.write(jsonWriter, taskDto.startTime);
+        }
+
+        if (taskDto.duration != null) {
+            jsonWriter.name("duration");
+            this.durationAdapter.write(jsonWriter, taskDto.duration);
+        }
+
+        if (taskDto.status != null) {
+            jsonWriter.name("status").value(taskDto.status.name());
+        }
+    }
+
+    /**
+     * Прочитать значение поля DTO задачи.
+     *
+     * @param jsonReader поток чтения JSON.
+     * @param name       название поля.
+     * @param taskDto    DTO задачи.
+     * @return признак того, что поле относится к DTO задачи и прочитано.
+     */
+    boolean readField(JsonReader jsonReader, String name, TaskDto taskDto) throws IOException {
+        switch (name) {
+            case "id":
+                taskDto.id = TaskTypeAdapter.readInteger(jsonReader);
+                return true;
+            case "name":
+                taskDto.name = TaskTypeAdapter.readString(jsonReader);
+                return true;
+            case "description":
+                taskDto.description = TaskTypeAdapter.readString(jsonReader);
+                return true;
+            case "startTime":
+                taskDto.startTime = this.localDateTimeAdapter.read(jsonReader);
+                return true;
+            case "duration":
+                taskDto.duration = this.durationAdapter.read(jsonReader);
+                return true;
+            case "status":
+                taskDto.status = TaskTypeAdapter.readStatus(jsonReader);
+                return true;
+            default:
+                return false;
+        }
+    }
+}
@@ -0,0 +1,198 @@
+package ru.yandex.practicum.utils.json;
+
+// region imports
+
+import com.google.gson.TypeAdapter;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+import com.google.gson.stream.JsonWriter;
+import ru.yandex.practicum.constants.TaskStatus;
+import ru.yandex.practicum.models.Task;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.time.LocalDateTime;
+
+// endregion
+
+/**
+ * Потоковый сериализатор задачи.
+ * Порядок полей совпадает с тем, который даёт рефлективная сериализация Gson.
+ */
+public class TaskTypeAdapter extends TypeAdapter<Task> {
+    /**
+     * Сериализатор даты и времени.
+     */
+    private final TypeAdapter<LocalDateTime> localDateTimeAdapter;
+
+    /**
+     * Сериализатор продолжительности.
+     */
+    private final TypeAdapter<Duration> durationAdapter;
+
+    /**
+     * Конструктор.
+     *
+     * @param localDateTimeAdapter сериализатор даты и времени.
+     * @param durationAdapter      сериализатор продолжительности.
+     */
+    public TaskTypeAdapter(TypeAdapter<LocalDateTime> localDateTimeAdapter, TypeAdapter<Duration> durationAdapter) {
+        if (localDateTimeAdapter == null) {
+            throw new IllegalArgumentException("Parameter 'localDateTimeAdapter' can't be null");
+        }
+
+        if (durationAdapter == null) {
+            throw new IllegalArgumentException("Parameter 'durationAdapter' can't be null");
+        }
+
+        this.localDateTimeAdapter = localDateTimeAdapter;
+        this.durationAdapter = durationAdapter;
+    }
+
+    @Override
+    public void write(JsonWriter jsonWriter, Task task) throws IOException {
+        if (task == null) {
+            jsonWriter.nullValue();
+            return;
+        }
+
+        jsonWriter.beginObject();
+        this.writeFields(jsonWriter, task);
+        jsonWriter.endObject();
+    }
+
+    @Override
+    public Task read(JsonReader jsonReader) throws IOException {
+        if (jsonReader.peek() == JsonToken.NULL) {
+            jsonReader.nextNull();
+            return null;
+        }
+
+        Fields fields = new Fields();
+
+        jsonReader.beginObject();
+        while (jsonReader.hasNext()) {
+            if (!this.readField(jsonReader, jsonReader.nextName(), fields)) {
+                jsonReader.skipValue();
+            }
+        }
+        jsonReader.endObject();
+
+        if (fields.id == null) {
+            Task task = new Task(fields.name, fields.description, fields.startTime, fields.duration);
+            if (fields.status != null) {
+                task.setStatus(fields.status);
+            }
+            return task;
+        }
+
+        return new Task(fields.id, fields.name, fields.description, fields.status, fields.startTime, fields.duration);
+    }
+
+    /**
+     * Записать поля задачи (без открывающей и закрывающей скобок объекта).
+     *
+     * @param jsonWriter поток записи JSON.
+     * @param task       задача.
+     */
+    void writeFields(JsonWriter jsonWriter, Task task) throws IOException {
+        jsonWriter.name("startTime");
+        this.localDateTimeAdapter.write(jsonWriter, task.getStartTime());
+        jsonWriter.name("duration");
+        this.durationAdapter.write(jsonWriter, task.getDuration());
+        jsonWriter.name("status").value(task.getStatus().name());
+        jsonWriter.name("id").value(task.getId());
+        jsonWriter.name("name").value(task.getName());
+        jsonWriter.name("description").value(task.getDescription());
+    }
+
+    /**
+     * Прочитать значение поля задачи.
+     *
+     * @param jsonReader поток чтения JSON.
+     * @param name       название поля.
+     * @param fields     прочитанные поля задачи.
+     * @return признак того, что поле относится к задаче и прочитано.
+     */
+    boolean readField(JsonReader jsonReader, String name, Fields fields) throws IOException {
+        switch (name) {
+            case "startTime":
+                fields.startTime = this.localDateTimeAdapter.read(jsonReader);
+                return true;
+            case "duration":
+                fields.duration = this.durationAdapter.read(jsonReader);
+                return true;
+            case "status":
+                fields.status = readStatus(jsonReader);
+                return true;
+            case "id":
+                fields.id = readInteger(jsonReader);
+                return true;
+            case "name":
+                fields.name = readString(jsonReader);
+                return true;
+            case "description":
+                fields.description = readString(jsonReader);
+                return true;
+            default:
+                return false;
+        }
+    }
+
+    /**
+     * Прочитать строку или null.
+     *
+     * @param jsonReader поток чтения JSON.
+     * @return строка или null.
+     */
+    static String readString(JsonReader jsonReader) throws IOException {
+        if (jsonReader.peek() == JsonToken.NULL) {
+            jsonReader.nextNull();
+            return null;
+        }
+
+        return jsonReader.nextString();
+    }
+
+    /**
+     * Прочитать целое число или null.
+     *
+     * @param jsonReader поток чтения JSON.
+     * @return целое число или null.
+     */
+    static Integer readInteger(JsonReader jsonReader) throws IOException {
+        if (jsonReader.peek() == JsonToken.NULL) {
+            jsonReader.nextNull();
+            return null;
+        }
+
+        return jsonReader.nextInt();
+    }
+
+    /**
+     * Прочитать статус задачи или null.
+     *
+     * @param jsonReader поток чтения JSON.
+     * @return статус задачи или null.
+     */
+    static TaskStatus readStatus(JsonReader jsonReader) throws IOException {
+        String status = readString(jsonReader);
+        return status == null ? null : TaskStatus.valueOf(status);
+    }
+
+    // region Nested Types
+
+    /**
+     * Прочитанные поля задачи.
+     */
+    static class Fields {
+        Integer id;
+        String name;
+        String description;
+        TaskStatus status;
+        LocalDateTime startTime;
+        Duration duration;
+    }
+
+    // endregion
+}
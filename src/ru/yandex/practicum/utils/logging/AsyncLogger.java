@@ -0,0 +1,360 @@
+package ru.yandex.practicum.utils.logging;
+
+// region imports
+
+import ru.yandex.practicum.constants.LogLevel;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.io.StringWriter;
+import java.time.Instant;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+// endregion
+
+/**
+ * Асинхронный журнал: записи в формате JSON (одна на строку) пишутся фоновым потоком.
+ * <p>
+ * Вызывающий поток только создаёт запись и кладёт её в кольцевую очередь без блокировок, форматирование и запись
+ * в файл выполняет фоновый поток. Если очередь заполнена, запись отбрасывается и учитывается в
+ * {@link #getDropped()}: журнал никогда не задерживает обработку запросов. Буфер файла сбрасывается, когда очередь
+ * опустела.
+ */
+public final class AsyncLogger implements Closeable {
+    /**
+     * Ёмкость очереди по умолчанию.
+     */
+    public static final int DEFAULT_CAPACITY = 8192;
+
+    /**
+     * Время ожидания новых записей фоновым потоком, нс.
+     */
+    private static final long IDLE_PARK_NANOS = TimeUnit.MILLISECONDS.toNanos(5);
+
+    /**
+     * Название журнала.
+     */
+    private final String name;
+
+    /**
+     * Приёмник строк журнала.
+     */
+    private final Output output;
+
+    /**
+     * Очередь записей.
+     */
+    private final RingBuffer<Entry> buffer;
+
+    /**
+     * Количество отброшенных записей.
+     */
+    private final LongAdder dropped;
+
+    /**
+     * Фоновый поток записи.
+     */
+    private final Thread writerThread;
+
+    /**
+     * Признак закрытия журнала.
+     */
+    private volatile boolean closed;
+
+    /**
+     * Конструктор.
+     *
+     * @param name     название журнала.
+     * @param output   приёмник строк журнала.
+     * @param capacity ёмкость очереди.
+     * @param dropped  счётчик отброшенных записей.
+     */
+    public AsyncLogger(String name, Output output, int capacity, LongAdder dropped) {
+        if (name == null) {
+            throw new IllegalArgumentException("Parameter 'name' can't be null");
+        }
+
+        if (output == null) {
+            throw new IllegalArgumentException("Parameter 'output' can't be null");
+        }
+
+        if (dropped == null) {
+            throw new IllegalArgumentException("Parameter 'dropped' can't be null");
+        }
+
+        this.name = name;
+        this.output = output;
+        this.buffer = new RingBuffer<>(capacity);
+        this.dropped = dropped;
+
+        this.writerThread = new Thread(this::run, "log-writer-" + name);
+        this.writerThread.setDaemon(true);
+        this.writerThread.start();
+    }
+
+    /**
+     * Записать информационное сообщение.
+     *
+     * @param message сообщение.
+     * @param fields  дополнительные поля в виде чередующихся названий и значений.
+     */
+    public void info(String message, Object... fields) {
+        this.log(LogLevel.INFO, message, null, fields);
+    }
+
+    /**
+     * Записать предупреждение.
+     *
+     * @param message сообщение.
+     * @param fields  дополнительные поля в виде чередующихся названий и значений.
+     */
+    public void warn(String message, Object... fields) {
+        this.log(LogLevel.WARN, message, null, fields);
+    }
+
+    /**
+     * Записать ошибку.
+     *
+     * @param message сообщение.
+     * @param error   исключение (может быть null).
+     * @param fields  дополнительные поля в виде чередующихся названий и значений.
+     */
+    public void error(String message, Throwable error, Object... fields) {
+        this.log(LogLevel.ERROR, message, error, fields);
+    }
+
+    /**
+     * Записать сообщение.
+     *
+     * @param level   уровень.
+     * @param message сообщение.
+     * @param error   исключение (может быть null).
+     * @param fields  дополнительные поля в виде чередующихся названий и значений.
+     */
+    public void log(LogLevel level, String message, Throwable error, Object... fields) {
+        if (this.closed || !this.buffer.offer(new Entry(System.currentTimeMillis(), level, message, error, fields))) {
+            this.dropped.increment();
+        }
+    }
+
+    /**
+     * Получить количество отброшенных записей.
+     *
+     * @return количество отброшенных записей.
+     */
+    public long getDropped() {
+        return this.dropped.sum();
+    }
+
+    /**
+     * Закрыть журнал, дописав накопленные записи.
+     */
+    @Override
+    public void close() {
+        this.closed = true;
+        LockSupport.unpark(this.writerThread);
+
+        try {
+            this.writerThread.join(TimeUnit.SECONDS.toMillis(5));
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Цикл фонового потока записи.
+     */
+    private void run() {
+        try (Output out = this.output) {
+            while (true) {
+                Entry entry = this.buffer.poll();
+                if (entry != null) {
+                    this.write(out, entry);
+                    continue;
+                }
+
+                this.flush(out);
+
+                if (this.closed && this.buffer.isEmpty()) {
+                    break;
+                }
+
+                LockSupport.parkNanos(this, IDLE_PARK_NANOS);
+            }
+        } catch (IOException ex) {
+            ex.printStackTrace();
+        }
+    }
+
+    /**
+     * Записать запись в приёмник.
+     *
+     * @param out   приёмник строк журнала.
+     * @param entry запись.
+     */
+    private void write(Output out, Entry entry) {
+        try {
+            out.write(this.format(entry));
+        } catch (IOException | RuntimeException ex) {
+            this.dropped.increment();
+        }
+    }
+
+    /**
+     * Сбросить буфер приёмника.
+     *
+     * @param out приёмник строк журнала.
+     */
+    private void flush(Output out) {
+        try {
+            out.flush();
+        } catch (IOException ex) {
+            this.dropped.increment();
+        }
+    }
+
+    /**
+     * Сформировать строку JSON для записи.
+     *
+     * @param entry запись.
+     * @return строка JSON.
+     */
+    String format(Entry entry) {
+        StringBuilder builder = new StringBuilder(256);
+        builder.append("{\"time\":\"").append(Instant.ofEpochMilli(entry.time)).append('"');
+        builder.append(",\"level\":\"").append(entry.level.name()).append('"');
+        appendField(builder, "logger", this.name);
+        appendField(builder, "message", entry.message);
+
+        Object[] fields = entry.fields;
+        for (int i = 0; i + 1 < fields.length; i += 2) {
+            appendField(builder, String.valueOf(fields[i]), fields[i + 1]);
+        }
+
+        if (entry.error != null) {
+            StringWriter stackTrace = new StringWriter();
+            entry.error.printStackTrace(new PrintWriter(stackTrace));
+
+            appendField(builder, "error", entry.error.toString());
+            appendField(builder, "stackTrace", stackTrace.toString());
+        }
+
+        return builder.append('}').toString();
+    }
+
+    /**
+     * Добавить поле JSON.
+     *
+     * @param builder строка JSON.
+     * @param name    название поля.
+     * @param value   значение поля.
+     */
+    private static void appendField(StringBuilder builder, String name, Object value) {
+        builder.append(',');
+        appendString(builder, name);
+        builder.append(':');
+
+        if (value == null) {
+            builder.append("null");
+        } else if (value instanceof Number || value instanceof Boolean) {
+            builder.append(value);
+        } else {
+            appendString(builder, value.toString());
+        }
+    }
+
+    /**
+     * Добавить строку JSON в кавычках с экранированием.
+     *
+     * @param builder строка JSON.
+     * @param value   строка.
+     */
+    private static void appendString(StringBuilder builder, String value) {
+        builder.append('"');
+
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            switch (c) {
+                case '"' -> builder.append("\\\"");
+                case '\\' -> builder.append("\\\\");
+                case '\n' -> builder.append("\\n");
+                case '\r' -> builder.append("\\r");
+                case '\t' -> builder.append("\\t");
+                default -> {
+                    if (c < 0x20) {
+                        builder.append(String.format("\\u%04x", (int) c));
+                    } else {
+                        builder.append(c);
+                    }
+                }
+            }
+        }
+
+        builder.append('"');
+    }
+
+    // region Nested Types
+
+    /**
+     * Приёмник строк журнала.
+     */
+    public interface Output extends Closeable {
+        /**
+         * Записать строку.
+         *
+         * @param line строка без перевода строки.
+         */
+        void write(String line) throws IOException;
+
+        /**
+         * Сбросить буфер.
+         */
+        void flush() throws IOException;
+    }
+
+    /**
+     * Запись журнала.
+     */
+    static final class Entry {
+        /**
+         * Время записи, мс с начала эпохи.
+         */
+        private final long time;
+
+        /**
+         * Уровень.
+         */
+        private final LogLevel level;
+
+        /**
+         * Сообщение.
+         */
+        private final String message;
+
+        /**
+         * Исключение.
+         */
+        private final Throwable error;
+
+        /**
+         * Дополнительные поля.
+         */
+        private final Object[] fields;
+
+        /**
+         * Конструктор.
+         */
+        Entry(long time, LogLevel level, String message, Throwable error, Object[] fields) {
+            this.time = time;
+            this.level = level;
+            this.message = message;
+            this.error = error;
+            this.fields = fields == null ? new Object[0] : fields;
+        }
+    }
+
+    // endregion
+}
@@ -0,0 +1,116 @@
+package ru.yandex.practicum.utils.logging;
+
+// region imports
+
+import ru.yandex.practicum.utils.metrics.MetricsRegistry;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.concurrent.atomic.LongAdder;
+
+// endregion
+
+/**
+ * Журналы приложения: журнал доступа (access.log) и журнал диагностики (application.log).
+ * <p>
+ * Каталог журналов задаётся системным свойством {@value #LOG_DIRECTORY_PROPERTY} (по умолчанию logs). Если файл
+ * журнала открыть не удалось, записи пишутся в стандартный поток ошибок. Количество отброшенных записей доступно
+ * в метрике log_dropped_total.
+ */
+public final class Logging {
+    /**
+     * Системное свойство с каталогом журналов.
+     */
+    public static final String LOG_DIRECTORY_PROPERTY = "kanban.log.dir";
+
+    /**
+     * Максимальный размер файла журнала.
+     */
+    private static final long MAX_FILE_SIZE = 64L * 1024 * 1024;
+
+    /**
+     * Количество хранимых предыдущих файлов журнала.
+     */
+    private static final int MAX_BACKUPS = 5;
+
+    /**
+     * Журнал доступа.
+     */
+    private static final AsyncLogger accessLog = create("access");
+
+    /**
+     * Журнал диагностики.
+     */
+    private static final AsyncLogger applicationLog = create("application");
+
+    static {
+        Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+            accessLog.close();
+            applicationLog.close();
+        }, "log-shutdown"));
+    }
+
+    private Logging() {
+    }
+
+    /**
+     * Получить журнал доступа: одна запись на HTTP-запрос.
+     *
+     * @return журнал доступа.
+     */
+    public static AsyncLogger getAccessLog() {
+        return accessLog;
+    }
+
+    /**
+     * Получить журнал диагностики: ошибки и предупреждения обработчиков и серверов.
+     *
+     * @return журнал диагностики.
+     */
+    public static AsyncLogger getLog() {
+        return applicationLog;
+    }
+
+    /**
+     * Создать журнал.
+     *
+     * @param name название журнала (и имя файла без расширения).
+     * @return журнал.
+     */
+    private static AsyncLogger create(String name) {
+        LongAdder dropped = MetricsRegistry.getDefault().counter("log_dropped_total", "Количество отброшенных записей журнала", "log", name);
+        Path file = Path.of(System.getProperty(LOG_DIRECTORY_PROPERTY, "logs"), name + ".log");
+
+        AsyncLogger.Output output;
+        try {
+            output = new RollingFileWriter(file, MAX_FILE_SIZE, MAX_BACKUPS);
+        } catch (IOException ex) {
+            output = new StandardErrorOutput();
+        }
+
+        return new AsyncLogger(name, output, AsyncLogger.DEFAULT_CAPACITY, dropped);
+    }
+
+    // region Nested Types
+
+    /**
+     * Запись журнала в стандартный поток ошибок.
+     */
+    private static final class StandardErrorOutput implements AsyncLogger.Output {
+        @Override
+        public void write(String line) {
+            System.err.println(line);
+        }
+
+        @Override
+        public void flush() {
+            System.err.flush();
+        }
+
+        @Override
+        public void close() {
+        }
+    }
+
+    // endregion
+}
@@ -0,0 +1,135 @@
+package ru.yandex.practicum.utils.logging;
+
+// region imports
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+// endregion
+
+/**
+ * Ограниченная кольцевая очередь без блокировок для многих производителей и одного потребителя.
+ * <p>
+ * Каждая ячейка хранит номер последовательности (алгоритм Д. Вьюкова): производитель занимает позицию CAS-операцией
+ * над хвостом и публикует элемент записью номера последовательности, потребитель читает ячейку, только когда номер
+ * совпадает с ожидаемым. Если очередь заполнена, {@link #offer(Object)} сразу возвращает false, не блокируя
+ * производителя.
+ *
+ * @param <T> тип элементов.
+ */
+public final class RingBuffer<T> {
+    /**
+     * Маска индекса ячейки (ёмкость - степень двойки).
+     */
+    private final int mask;
+
+    /**
+     * Элементы.
+     */
+    private final AtomicReferenceArray<T> elements;
+
+    /**
+     * Номера последовательности ячеек.
+     */
+    private final AtomicLongArray sequences;
+
+    /**
+     * Позиция следующей записи.
+     */
+    private final AtomicLong tail;
+
+    /**
+     * Позиция следующего чтения (изменяется только потребителем).
+     */
+    private final AtomicLong head;
+
+    /**
+     * Конструктор.
+     *
+     * @param capacity ёмкость (округляется вверх до степени двойки).
+     */
+    public RingBuffer(int capacity) {
+        if (capacity <= 0 || capacity > (1 << 30)) {
+            throw new IllegalArgumentException("Parameter 'capacity' should be between 1 and 2^30");
+        }
+
+        int size = capacity == 1 ? 1 : Integer.highestOneBit(capacity - 1) << 1;
+
+        this.mask = size - 1;
+        this.elements = new AtomicReferenceArray<>(size);
+        this.sequences = new AtomicLongArray(size);
+        for (int i = 0; i < size; i++) {
+            this.sequences.set(i, i);
+        }
+
+        this.tail = new AtomicLong();
+        this.head = new AtomicLong();
+    }
+
+    /**
+     * Получить ёмкость очереди.
+     *
+     * @return ёмкость очереди.
+     */
+    public int getCapacity() {
+        return this.mask + 1;
+    }
+
+    /**
+     * Добавить элемент, если в очереди есть место. Может вызываться из любых потоков.
+     *
+     * @param element элемент.
+     * @return признак того, что элемент добавлен.
+     */
+    public boolean offer(T element) {
+        if (element == null) {
+            throw new IllegalArgumentException("Parameter 'element' can't be null");
+        }
+
+        while (true) {
+            long position = this.tail.get();
+            int index = (int) (position & this.mask);
+            long difference = this.sequences.get(index) - position;
+
+            if (difference == 0) {
+                if (this.tail.compareAndSet(position, position + 1)) {
+                    this.elements.lazySet(index, element);
+                    this.sequences.set(index, position + 1);
+                    return true;
+                }
+            } else if (difference < 0) {
+                return false;
+            }
+        }
+    }
+
+    /**
+     * Извлечь элемент. Вызывается только потоком-потребителем.
+     *
+     * @return элемент или null, если очередь пуста.
+     */
+    public T poll() {
+        long position = this.head.get();
+        int index = (int) (position & this.mask);
+
+        if (this.sequences.get(index) != position + 1) {
+            return null;
+        }
+
+        T element = this.elements.get(index);
+        this.elements.lazySet(index, null);
+        this.sequences.set(index, position + this.mask + 1);
+        this.head.lazySet(position + 1);
+        return element;
+    }
+
+    /**
+     * Проверить, пуста ли очередь.
+     *
+     * @return признак пустой очереди.
+     */
+    public boolean isEmpty() {
+        return this.head.get() >= this.tail.get();
+    }
+}
@@ -0,0 +1,153 @@
+package ru.yandex.practicum.utils.logging;
+
+// region imports
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+
+// endregion
+
+/**
+ * Запись строк в файл с ротацией по размеру: при превышении размера файл переименовывается в {@code имя.1},
+ * предыдущие копии сдвигаются ({@code имя.1} в {@code имя.2} и т.д.), самая старая удаляется.
+ * <p>
+ * Не потокобезопасен: используется одним фоновым потоком журнала.
+ */
+public final class RollingFileWriter implements AsyncLogger.Output {
+    /**
+     * Размер буфера записи.
+     */
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    /**
+     * Файл журнала.
+     */
+    private final Path file;
+
+    /**
+     * Максимальный размер файла, после которого выполняется ротация.
+     */
+    private final long maxBytes;
+
+    /**
+     * Количество хранимых предыдущих файлов.
+     */
+    private final int maxBackups;
+
+    /**
+     * Поток записи в текущий файл.
+     */
+    private OutputStream outputStream;
+
+    /**
+     * Размер текущего файла.
+     */
+    private long size;
+
+    /**
+     * Конструктор.
+     *
+     * @param file       файл журнала.
+     * @param maxBytes   максимальный размер файла, после которого выполняется ротация.
+     * @param maxBackups количество хранимых предыдущих файлов.
+     */
+    public RollingFileWriter(Path file, long maxBytes, int maxBackups) throws IOException {
+        if (file == null) {
+            throw new IllegalArgumentException("Parameter 'file' can't be null");
+        }
+
+        if (maxBytes <= 0) {
+            throw new IllegalArgumentException("Parameter 'maxBytes' should be positive");
+        }
+
+        if (maxBackups < 0) {
+            throw new IllegalArgumentException("Parameter 'maxBackups' can't be negative");
+        }
+
+        this.file = file;
+        this.maxBytes = maxBytes;
+        this.maxBackups = maxBackups;
+
+        Path parent = file.toAbsolutePath().getParent();
+        if (parent != null) {
+            Files.createDirectories(parent);
+        }
+
+        this.open();
+    }
+
+    /**
+     * Записать строку (перевод строки добавляется автоматически).
+     *
+     * @param line строка.
+     */
+    public void write(String line) throws IOException {
+        byte[] bytes = (line + "\n").getBytes(StandardCharsets.UTF_8);
+
+        if (this.size > 0 && this.size + bytes.length > this.maxBytes) {
+            this.roll();
+        }
+
+        this.outputStream.write(bytes);
+        this.size += bytes.length;
+    }
+
+    /**
+     * Сбросить буфер в файл.
+     */
+    public void flush() throws IOException {
+        this.outputStream.flush();
+    }
+
+    @Override
+    public void close() throws IOException {
+        this.outputStream.close();
+    }
+
+    /**
+     * Открыть текущий файл для дозаписи.
+     */
+    private void open() throws IOException {
+        this.outputStream = new BufferedOutputStream(Files.newOutputStream(this.file, StandardOpenOption.CREATE, StandardOpenOption.APPEND), BUFFER_SIZE);
+        this.size = Files.size(this.file);
+    }
+
+    /**
+     * Выполнить ротацию файлов.
+     */
+    private void roll() throws IOException {
+        this.outputStream.close();
+
+        if (this.maxBackups == 0) {
+            Files.delete(this.file);
+        } else {
+            Files.deleteIfExists(this.backup(this.maxBackups));
+            for (int i = this.maxBackups - 1; i >= 1; i--) {
+                Path backup = this.backup(i);
+                if (Files.exists(backup)) {
+                    Files.move(backup, this.backup(i + 1), StandardCopyOption.REPLACE_EXISTING);
+                }
+            }
+
+            Files.move(this.file, this.backup(1), StandardCopyOption.REPLACE_EXISTING);
+        }
+
+        this.open();
+    }
+
+    /**
+     * Получить путь к предыдущему файлу.
+     *
+     * @param index номер предыдущего файла (1 - самый новый).
+     * @return путь к предыдущему файлу.
+     */
+    private Path backup(int index) {
+        return this.file.resolveSibling(this.file.getFileName() + "." + index);
+    }
+}
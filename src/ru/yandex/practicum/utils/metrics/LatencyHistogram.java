@@ -0,0 +1,152 @@
+package ru.yandex.practicum.utils.metrics;
+
+// region imports
+
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+// endregion
+
+/**
+ * Гистограмма задержек с логарифмически-линейными корзинами (по образцу HdrHistogram).
+ * <p>
+ * Каждая степень двойки делится на {@value #SUB_BUCKET_COUNT} равных корзин, поэтому относительная погрешность
+ * значения процентиля не превышает 1/{@value #SUB_BUCKET_COUNT} во всём диапазоне от наносекунд до часов.
+ * Запись значения - вычисление номера корзины по старшему биту и атомарный инкремент счётчика без блокировок.
+ */
+public final class LatencyHistogram {
+    /**
+     * Количество битов номера корзины внутри степени двойки.
+     */
+    private static final int SUB_BUCKET_BITS = 5;
+
+    /**
+     * Количество корзин внутри степени двойки.
+     */
+    private static final int SUB_BUCKET_COUNT = 1 << SUB_BUCKET_BITS;
+
+    /**
+     * Общее количество корзин (покрывает все неотрицательные значения long).
+     */
+    private static final int BUCKET_COUNT = (64 - SUB_BUCKET_BITS) * SUB_BUCKET_COUNT;
+
+    /**
+     * Счётчики корзин.
+     */
+    private final AtomicLongArray buckets;
+
+    /**
+     * Количество записанных значений.
+     */
+    private final LongAdder count;
+
+    /**
+     * Сумма записанных значений.
+     */
+    private final LongAdder sum;
+
+    /**
+     * Конструктор.
+     */
+    public LatencyHistogram() {
+        this.buckets = new AtomicLongArray(BUCKET_COUNT);
+        this.count = new LongAdder();
+        this.sum = new LongAdder();
+    }
+
+    /**
+     * Записать значение.
+     *
+     * @param nanos задержка в наносекундах (отрицательные значения считаются нулём).
+     */
+    public void record(long nanos) {
+        long value = Math.max(nanos, 0);
+
+        this.buckets.incrementAndGet(bucketIndex(value));
+        this.count.increment();
+        this.sum.add(value);
+    }
+
+    /**
+     * Получить количество записанных значений.
+     *
+     * @return количество записанных значений.
+     */
+    public long getCount() {
+        return this.count.sum();
+    }
+
+    /**
+     * Получить сумму записанных значений.
+     *
+     * @return сумма записанных значений в наносекундах.
+     */
+    public long getSum() {
+        return this.sum.sum();
+    }
+
+    /**
+     * Получить значение квантиля.
+     *
+     * @param quantile квантиль (от 0 до 1).
+     * @return верхняя граница корзины, в которую попадает квантиль, в наносекундах (0, если значений нет).
+     */
+    public long getValueAtQuantile(double quantile) {
+        if (quantile < 0 || quantile > 1) {
+            throw new IllegalArgumentException("Parameter 'quantile' should be between 0 and 1");
+        }
+
+        long total = 0;
+        for (int i = 0; i < BUCKET_COUNT; i++) {
+            total += this.buckets.get(i);
+        }
+
+        if (total == 0) {
+            return 0;
+        }
+
+        long rank = Math.max(1, (long) Math.ceil(quantile * total));
+        long seen = 0;
+        for (int i = 0; i < BUCKET_COUNT; i++) {
+            seen += this.buckets.get(i);
+            if (seen >= rank) {
+                return bucketUpperBound(i);
+            }
+        }
+
+        return bucketUpperBound(BUCKET_COUNT - 1);
+    }
+
+    /**
+     * Получить номер корзины значения.
+     *
+     * @param value неотрицательное значение.
+     * @return номер корзины.
+     */
+    static int bucketIndex(long value) {
+        if (value < 2 * SUB_BUCKET_COUNT) {
+            return (int) value;
+        }
+
+        int shift = 63 - Long.numberOfLeadingZeros(value) - SUB_BUCKET_BITS;
+        return (shift + 1) * SUB_BUCKET_COUNT + (int) ((value >>> shift) - SUB_BUCKET_COUNT);
+    }
+
+    /**
+     * Получить наибольшее значение, попадающее в корзину.
+     *
+     * @param index номер корзины.
+     * @return наибольшее значение корзины.
+     */
+    static long bucketUpperBound(int index) {
+        if (index < 2 * SUB_BUCKET_COUNT) {
+            return index;
+        }
+
+        int shift = index / SUB_BUCKET_COUNT - 1;
+        long subBucket = index % SUB_BUCKET_COUNT + SUB_BUCKET_COUNT;
+        return shift + SUB_BUCKET_BITS == 62 && subBucket == 2 * SUB_BUCKET_COUNT - 1
+                ? Long.MAX_VALUE
+                : ((subBucket + 1) << shift) - 1;
+    }
+}
@@ -0,0 +1,258 @@
+package ru.yandex.practicum.utils.metrics;
+
+// region imports
+
+import java.io.IOException;
+import java.io.Writer;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+// endregion
+
+/**
+ * Реестр счётчиков, показателей и гистограмм задержек с выводом в текстовом формате Prometheus.
+ * <p>
+ * Метрика определяется названием и набором меток. Получение уже созданной метрики - поиск в отсортированной таблице,
+ * поэтому вызывающий код может запрашивать метрику при каждом событии, но на горячих путях её лучше сохранить.
+ */
+public final class MetricsRegistry {
+    /**
+     * Реестр по умолчанию.
+     */
+    private static final MetricsRegistry defaultInstance = new MetricsRegistry();
+
+    /**
+     * Квантили, выводимые для гистограмм.
+     */
+    private static final double[] QUANTILES = {0.5, 0.9, 0.99, 0.999};
+
+    /**
+     * Семейства метрик по названию (отсортированы для стабильного вывода).
+     */
+    private final ConcurrentSkipListMap<String, Family<?>> families;
+
+    /**
+     * Конструктор.
+     */
+    public MetricsRegistry() {
+        this.families = new ConcurrentSkipListMap<>();
+    }
+
+    /**
+     * Получить реестр по умолчанию.
+     *
+     * @return реестр по умолчанию.
+     */
+    public static MetricsRegistry getDefault() {
+        return defaultInstance;
+    }
+
+    /**
+     * Получить или создать счётчик.
+     *
+     * @param name   название метрики.
+     * @param help   описание метрики.
+     * @param labels метки в виде чередующихся названий и значений.
+     * @return счётчик.
+     */
+    public LongAdder counter(String name, String help, String... labels) {
+        return this.family(name, help, "counter", LongAdder.class).get(labels, LongAdder::new);
+    }
+
+    /**
+     * Получить или создать показатель текущего значения (может как расти, так и уменьшаться).
+     *
+     * @param name   название метрики.
+     * @param help   описание метрики.
+     * @param labels метки в виде чередующихся названий и значений.
+     * @return показатель.
+     */
+    public AtomicLong gauge(String name, String help, String... labels) {
+        return this.family(name, help, "gauge", AtomicLong.class).get(labels, AtomicLong::new);
+    }
+
+    /**
+     * Получить или создать гистограмму задержек.
+     *
+     * @param name   название метрики (значения выводятся в секундах).
+     * @param help   описание метрики.
+     * @param labels метки в виде чередующихся названий и значений.
+     * @return гистограмма задержек.
+     */
+    public LatencyHistogram histogram(String name, String help, String... labels) {
+        return this.family(name, help, "summary", LatencyHistogram.class).get(labels, LatencyHistogram::new);
+    }
+
+    /**
+     * Записать все метрики в текстовом формате Prometheus.
+     *
+     * @param writer поток записи.
+     */
+    public void write(Writer writer) throws IOException {
+        for (Family<?> family : this.families.values()) {
+            writer.write("# HELP " + family.name + " " + family.help + "\n");
+            writer.write("# TYPE " + family.name + " " + family.type + "\n");
+
+            for (Map.Entry<String, ?> entry : family.metrics.entrySet()) {
+                String labels = entry.getKey();
+
+                if (entry.getValue() instanceof LongAdder counter) {
+                    writer.write(family.name + wrapLabels(labels) + " " + counter.sum() + "\n");
+                } else if (entry.getValue() instanceof AtomicLong gauge) {
+                    writer.write(family.name + wrapLabels(labels) + " " + gauge.get() + "\n");
+                } else if (entry.getValue() instanceof LatencyHistogram histogram) {
+                    for (double quantile : QUANTILES) {
+                        String quantileLabel = "quantile=\"" + quantile + "\"";
+                        String allLabels = labels.isEmpty() ? quantileLabel : labels + "," + quantileLabel;
+                        writer.write(family.name + wrapLabels(allLabels) + " " + toSeconds(histogram.getValueAtQuantile(quantile)) + "\n");
+                    }
+
+                    writer.write(family.name + "_sum" + wrapLabels(labels) + " " + toSeconds(histogram.getSum()) + "\n");
+                    writer.write(family.name + "_count" + wrapLabels(labels) + " " + histogram.getCount() + "\n");
+                }
+            }
+        }
+    }
+
+    /**
+     * Получить или создать семейство метрик.
+     *
+     * @param name  название метрики.
+     * @param help  описание метрики.
+     * @param type  тип метрики в формате Prometheus.
+     * @param clazz класс метрик семейства.
+     * @return семейство метрик.
+     */
+    @SuppressWarnings("unchecked")
+    private <T> Family<T> family(String name, String help, String type, Class<T> clazz) {
+        if (name == null || !name.matches("[a-zA-Z_:][a-zA-Z0-9_:]*")) {
+            throw new IllegalArgumentException("Parameter 'name' should be a valid metric name");
+        }
+
+        Family<?> family = this.families.computeIfAbsent(name, key -> new Family<>(key, help, type, clazz));
+        if (family.clazz != clazz) {
+            throw new IllegalStateException("Метрика " + name + " уже зарегистрирована с типом " + family.type);
+        }
+
+        return (Family<T>) family;
+    }
+
+    /**
+     * Сформировать строку меток.
+     *
+     * @param labels метки в виде чередующихся названий и значений.
+     * @return строка меток без фигурных скобок.
+     */
+    private static String formatLabels(String[] labels) {
+        if (labels.length % 2 != 0) {
+            throw new IllegalArgumentException("Parameter 'labels' should contain name-value pairs");
+        }
+
+        StringBuilder builder = new StringBuilder();
+        for (int i = 0; i < labels.length; i += 2) {
+            if (i > 0) {
+                builder.append(',');
+            }
+
+            builder.append(labels[i]).append("=\"");
+            String value = labels[i + 1] == null ? "" : labels[i + 1];
+            for (int j = 0; j < value.length(); j++) {
+                char c = value.charAt(j);
+                switch (c) {
+                    case '\\' -> builder.append("\\\\");
+                    case '"' -> builder.append("\\\"");
+                    case '\n' -> builder.append("\\n");
+                    default -> builder.append(c);
+                }
+            }
+            builder.append('"');
+        }
+
+        return builder.toString();
+    }
+
+    /**
+     * Обернуть строку меток в фигурные скобки.
+     *
+     * @param labels строка меток.
+     * @return строка меток в фигурных скобках или пустая строка, если меток нет.
+     */
+    private static String wrapLabels(String labels) {
+        return labels.isEmpty() ? "" : "{" + labels + "}";
+    }
+
+    /**
+     * Перевести наносекунды в секунды.
+     *
+     * @param nanos значение в наносекундах.
+     * @return строковое представление значения в секундах.
+     */
+    private static String toSeconds(long nanos) {
+        return String.format(Locale.ROOT, "%.9f", nanos / 1_000_000_000.0);
+    }
+
+    // region Nested Types
+
+    /**
+     * Семейство метрик с общим названием.
+     *
+     * @param <T> тип метрик.
+     */
+    private static final class Family<T> {
+        /**
+         * Название метрики.
+         */
+        private final String name;
+
+        /**
+         * Описание метрики.
+         */
+        private final String help;
+
+        /**
+         * Тип метрики в формате Prometheus.
+         */
+        private final String type;
+
+        /**
+         * Класс метрик.
+         */
+        private final Class<T> clazz;
+
+        /**
+         * Метрики по строке меток.
+         */
+        private final ConcurrentSkipListMap<String, T> metrics;
+
+        /**
+         * Конструктор.
+         */
+        Family(String name, String help, String type, Class<T> clazz) {
+            this.name = name;
+            this.help = help;
+            this.type = type;
+            this.clazz = clazz;
+            this.metrics = new ConcurrentSkipListMap<>();
+        }
+
+        /**
+         * Получить или создать метрику.
+         *
+         * @param labels  метки в виде чередующихся названий и значений.
+         * @param factory фабрика метрики.
+         * @return метрика.
+         */
+        T get(String[] labels, Supplier<T> factory) {
+            String key = formatLabels(labels);
+
+            T metric = this.metrics.get(key);
+            return metric != null ? metric : this.metrics.computeIfAbsent(key, k -> factory.get());
+        }
+    }
+
+    // endregion
+}
@@ -0,0 +1,179 @@
+package ru.yandex.practicum.utils.routing;
+
+// region imports
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+// endregion
+
+/**
+ * Кольцо согласованного хеширования: распределяет ключи между узлами так, что при добавлении или удалении узла
+ * переезжает только доля ключей, приходящаяся на этот узел.
+ * <p>
+ * Каждый узел представлен на кольце несколькими виртуальными точками, что выравнивает распределение. Точки хранятся
+ * в отсортированном массиве, поиск узла - двоичный поиск без выделения памяти. Кольцо неизменяемо и потокобезопасно;
+ * одинаковый список узлов в разных процессах даёт одинаковое распределение.
+ */
+public final class ConsistentHashRing {
+    /**
+     * Количество виртуальных точек узла по умолчанию.
+     */
+    public static final int DEFAULT_VIRTUAL_NODES = 160;
+
+    /**
+     * Узлы.
+     */
+    private final List<String> nodes;
+
+    /**
+     * Точки кольца по возрастанию.
+     */
+    private final long[] points;
+
+    /**
+     * Индекс узла для каждой точки кольца.
+     */
+    private final int[] owners;
+
+    /**
+     * Конструктор.
+     *
+     * @param nodes        узлы.
+     * @param virtualNodes количество виртуальных точек узла.
+     */
+    public ConsistentHashRing(List<String> nodes, int virtualNodes) {
+        if (nodes == null || nodes.isEmpty()) {
+            throw new IllegalArgumentException("Parameter 'nodes' can't be null or empty");
+        }
+
+        if (virtualNodes <= 0) {
+            throw new IllegalArgumentException("Parameter 'virtualNodes' should be positive number");
+        }
+
+        if (nodes.stream().distinct().count() != nodes.size()) {
+            throw new IllegalArgumentException("Parameter 'nodes' can't contain duplicates");
+        }
+
+        this.nodes = Collections.unmodifiableList(new ArrayList<>(nodes));
+
+        int count = nodes.size() * virtualNodes;
+        long[] unsorted = new long[count];
+        for (int node = 0, i = 0; node < nodes.size(); node++) {
+            for (int replica = 0; replica < virtualNodes; replica++, i++) {
+                unsorted[i] = hash(nodes.get(node) + "#" + replica);
+            }
+        }
+
+        // Точки сортируются вместе с узлом, которому принадлежат; совпадающие точки упорядочиваются по узлу.
+        Integer[] order = new Integer[count];
+        for (int i = 0; i < count; i++) {
+            order[i] = i;
+        }
+        Arrays.sort(order, (left, right) -> {
+            int compare = Long.compare(unsorted[left], unsorted[right]);
+            return compare != 0 ? compare : Integer.compare(left, right);
+        });
+
+        this.points = new long[count];
+        this.owners = new int[count];
+        for (int i = 0; i < count; i++) {
+            this.points[i] = unsorted[order[i]];
+            this.owners[i] = order[i] / virtualNodes;
+        }
+    }
+
+    /**
+     * Конструктор с количеством виртуальных точек по умолчанию.
+     *
+     * @param nodes узлы.
+     */
+    public ConsistentHashRing(List<String> nodes) {
+        this(nodes, DEFAULT_VIRTUAL_NODES);
+    }
+
+    /**
+     * Получить узлы.
+     *
+     * @return узлы в порядке, заданном при создании.
+     */
+    public List<String> getNodes() {
+        return this.nodes;
+    }
+
+    /**
+     * Найти узел, отвечающий за идентификатор задачи, подзадачи или эпика.
+     *
+     * @param id идентификатор.
+     * @return узел.
+     */
+    public String locate(int id) {
+        return this.nodes.get(this.owners[this.indexOf(mix(id))]);
+    }
+
+    /**
+     * Найти узел, отвечающий за строковый ключ.
+     *
+     * @param key ключ.
+     * @return узел.
+     */
+    public String locate(String key) {
+        if (key == null) {
+            throw new IllegalArgumentException("Parameter 'key' can't be null");
+        }
+
+        return this.nodes.get(this.owners[this.indexOf(hash(key))]);
+    }
+
+    /**
+     * Найти первую точку кольца, не меньшую заданного хеша (по кругу).
+     *
+     * @param hash хеш ключа.
+     * @return индекс точки.
+     */
+    private int indexOf(long hash) {
+        int index = Arrays.binarySearch(this.points, hash);
+        if (index < 0) {
+            index = -index - 1;
+        } else {
+            // Среди равных точек берётся первая, чтобы результат не зависел от реализации двоичного поиска.
+            while (index > 0 && this.points[index - 1] == hash) {
+                index--;
+            }
+        }
+
+        return index == this.points.length ? 0 : index;
+    }
+
+    /**
+     * Вычислить хеш строки: FNV-1a по байтам UTF-8 с перемешиванием результата.
+     *
+     * @param key строка.
+     * @return хеш.
+     */
+    static long hash(String key) {
+        long hash = 0xcbf29ce484222325L;
+        for (byte b : key.getBytes(StandardCharsets.UTF_8)) {
+            hash ^= b & 0xff;
+            hash *= 0x100000001b3L;
+        }
+
+        return mix(hash);
+    }
+
+    /**
+     * Перемешать биты числа (финализатор SplitMix64), чтобы близкие ключи попадали в разные места кольца.
+     *
+     * @param value число.
+     * @return перемешанное значение.
+     */
+    static long mix(long value) {
+        long z = value + 0x9e3779b97f4a7c15L;
+        z = (z ^ (z >>> 30)) * 0xbf58476d1ce4e5b9L;
+        z = (z ^ (z >>> 27)) * 0x94d049bb133111ebL;
+        return z ^ (z >>> 31);
+    }
+}
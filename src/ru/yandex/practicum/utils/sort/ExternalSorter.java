@@ -0,0 +1,319 @@
+package ru.yandex.practicum.utils.sort;
+
+// region imports
+
+import java.io.*;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.*;
+
+// endregion
+
+/**
+ * Внешняя сортировка слиянием: элементы накапливаются в памяти, а при превышении заданного количества сортируются и
+ * сбрасываются во временный файл. При чтении отсортированные серии сливаются через очередь с приоритетом, поэтому в
+ * памяти одновременно находится не больше заданного количества элементов плюс по одному элементу на серию.
+ * <p>
+ * Сортировка устойчивая: равные элементы возвращаются в порядке добавления.
+ *
+ * @param <T> тип элементов.
+ */
+public final class ExternalSorter<T> implements Closeable {
+    /**
+     * Размер буфера чтения и записи временных файлов.
+     */
+    private static final int FILE_BUFFER_SIZE = 64 * 1024;
+
+    /**
+     * Правило сравнения элементов.
+     */
+    private final Comparator<T> comparator;
+
+    /**
+     * Способ записи элементов во временные файлы и чтения из них.
+     */
+    private final Codec<T> codec;
+
+    /**
+     * Максимальное количество элементов, накапливаемых в памяти.
+     */
+    private final int maxInMemory;
+
+    /**
+     * Элементы, ещё не сброшенные во временный файл.
+     */
+    private final ArrayList<T> buffer;
+
+    /**
+     * Временные файлы с отсортированными сериями.
+     */
+    private final List<Path> runs;
+
+    /**
+     * Открытые при слиянии потоки чтения временных файлов.
+     */
+    private final List<DataInputStream> inputs;
+
+    /**
+     * Общее количество добавленных элементов.
+     */
+    private long size;
+
+    /**
+     * Конструктор.
+     *
+     * @param comparator  правило сравнения элементов.
+     * @param codec       способ записи элементов во временные файлы и чтения из них.
+     * @param maxInMemory максимальное количество элементов, накапливаемых в памяти.
+     */
+    public ExternalSorter(Comparator<T> comparator, Codec<T> codec, int maxInMemory) {
+        if (comparator == null) {
+            throw new IllegalArgumentException("Parameter 'comparator' can't be null");
+        }
+
+        if (codec == null) {
+            throw new IllegalArgumentException("Parameter 'codec' can't be null");
+        }
+
+        if (maxInMemory <= 0) {
+            throw new IllegalArgumentException("Parameter 'maxInMemory' should be positive number");
+        }
+
+        this.comparator = comparator;
+        this.codec = codec;
+        this.maxInMemory = maxInMemory;
+        this.buffer = new ArrayList<>();
+        this.runs = new ArrayList<>();
+        this.inputs = new ArrayList<>();
+    }
+
+    /**
+     * Добавить элемент.
+     *
+     * @param item элемент.
+     */
+    public void add(T item) throws IOException {
+        this.buffer.add(item);
+        this.size++;
+
+        if (this.buffer.size() >= this.maxInMemory) {
+            this.spill();
+        }
+    }
+
+    /**
+     * Получить общее количество добавленных элементов.
+     *
+     * @return количество элементов.
+     */
+    public long size() {
+        return this.size;
+    }
+
+    /**
+     * Получить количество временных файлов с отсортированными сериями.
+     *
+     * @return количество временных файлов.
+     */
+    public int getRunCount() {
+        return this.runs.size();
+    }
+
+    /**
+     * Получить элементы в отсортированном порядке. Метод вызывается один раз, после добавления всех элементов.
+     * Ошибки чтения временных файлов при обходе передаются как {@link UncheckedIOException}.
+     *
+     * @return итератор по отсортированным элементам.
+     */
+    public Iterator<T> sorted() throws IOException {
+        this.buffer.sort(this.comparator);
+
+        if (this.runs.isEmpty()) {
+            return this.buffer.iterator();
+        }
+
+        PriorityQueue<Source<T>> queue = new PriorityQueue<>((left, right) -> {
+            int result = this.comparator.compare(left.current, right.current);
+            return result != 0 ? result : Integer.compare(left.order, right.order);
+        });
+
+        for (int i = 0; i < this.runs.size(); i++) {
+            DataInputStream input = new DataInputStream(new BufferedInputStream(Files.newInputStream(this.runs.get(i)), FILE_BUFFER_SIZE));
+            this.inputs.add(input);
+
+            Source<T> source = new Source<>(i, input.readInt(), input, null, this.codec);
+            if (source.advance()) {
+                queue.add(source);
+            }
+        }
+
+        Source<T> memorySource = new Source<>(this.runs.size(), 0, null, this.buffer.iterator(), this.codec);
+        if (memorySource.advance()) {
+            queue.add(memorySource);
+        }
+
+        return new Iterator<>() {
+            @Override
+            public boolean hasNext() {
+                return !queue.isEmpty();
+            }
+
+            @Override
+            public T next() {
+                Source<T> source = queue.poll();
+                if (source == null) {
+                    throw new NoSuchElementException();
+                }
+
+                T item = source.current;
+                try {
+                    if (source.advance()) {
+                        queue.add(source);
+                    }
+                } catch (IOException ex) {
+                    throw new UncheckedIOException(ex);
+                }
+
+                return item;
+            }
+        };
+    }
+
+    /**
+     * Закрыть потоки чтения и удалить временные файлы.
+     */
+    @Override
+    public void close() throws IOException {
+        for (DataInputStream input : this.inputs) {
+            input.close();
+        }
+
+        for (Path run : this.runs) {
+            Files.deleteIfExists(run);
+        }
+
+        this.inputs.clear();
+        this.runs.clear();
+        this.buffer.clear();
+    }
+
+    /**
+     * Отсортировать накопленные элементы и сбросить их во временный файл.
+     */
+    private void spill() throws IOException {
+        this.buffer.sort(this.comparator);
+
+        Path run = Files.createTempFile("sort-run-", ".bin");
+        this.runs.add(run);
+
+        try (DataOutputStream output = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(run), FILE_BUFFER_SIZE))) {
+            output.writeInt(this.buffer.size());
+            for (T item : this.buffer) {
+                this.codec.write(output, item);
+            }
+        }
+
+        this.buffer.clear();
+    }
+
+    // region Nested Types
+
+    /**
+     * Способ записи элементов во временный файл и чтения из него.
+     *
+     * @param <T> тип элементов.
+     */
+    public interface Codec<T> {
+        /**
+         * Записать элемент.
+         *
+         * @param output поток записи.
+         * @param item   элемент.
+         */
+        void write(DataOutput output, T item) throws IOException;
+
+        /**
+         * Прочитать элемент.
+         *
+         * @param input поток чтения.
+         * @return элемент.
+         */
+        T read(DataInput input) throws IOException;
+    }
+
+    /**
+     * Источник элементов при слиянии: временный файл или элементы, оставшиеся в памяти.
+     *
+     * @param <T> тип элементов.
+     */
+    private static final class Source<T> {
+        /**
+         * Порядковый номер источника - для устойчивости сортировки.
+         */
+        private final int order;
+
+        /**
+         * Поток чтения временного файла (null для элементов в памяти).
+         */
+        private final DataInputStream input;
+
+        /**
+         * Итератор по элементам в памяти.
+         */
+        private final Iterator<T> iterator;
+
+        /**
+         * Способ чтения элементов.
+         */
+        private final Codec<T> codec;
+
+        /**
+         * Количество непрочитанных элементов временного файла.
+         */
+        private int remaining;
+
+        /**
+         * Текущий элемент.
+         */
+        private T current;
+
+        /**
+         * Конструктор.
+         *
+         * @param order     порядковый номер источника.
+         * @param remaining количество элементов временного файла.
+         * @param input     поток чтения временного файла (null для элементов в памяти).
+         * @param iterator  итератор по элементам в памяти.
+         * @param codec     способ чтения элементов.
+         */
+        private Source(int order, int remaining, DataInputStream input, Iterator<T> iterator, Codec<T> codec) {
+            this.order = order;
+            this.remaining = remaining;
+            this.input = input;
+            this.iterator = iterator;
+            this.codec = codec;
+        }
+
+        /**
+         * Перейти к следующему элементу.
+         *
+         * @return признак того, что элемент есть.
+         */
+        private boolean advance() throws IOException {
+            if (this.input == null) {
+                this.current = this.iterator.hasNext() ? this.iterator.next() : null;
+                return this.current != null;
+            }
+
+            if (this.remaining == 0) {
+                return false;
+            }
+
+            this.remaining--;
+            this.current = this.codec.read(this.input);
+            return true;
+        }
+    }
+
+    // endregion
+}
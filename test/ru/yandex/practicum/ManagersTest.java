@@ -19,4 +19,21 @@ class ManagersTest {
     public void getDefaultTaskManagerTest() {
         Assertions.assertEquals(InMemoryTaskManager.class, Managers.getDefault().getClass());
     }
+
+    @Test
+    public void invalidArchiveAgeDoesNotBreakDefaultManagersTest() {
+        String previous = System.getProperty(Managers.ARCHIVE_AGE_PROPERTY);
+        System.setProperty(Managers.ARCHIVE_AGE_PROPERTY, "90 дней");
+        try {
+            Assertions.assertEquals(InMemoryTaskManager.class, Managers.getDefault().getClass());
+            IllegalArgumentException ex = Assertions.assertThrows(IllegalArgumentException.class, Managers::getArchiveAge);
+            Assertions.assertTrue(ex.getMessage().contains(Managers.ARCHIVE_AGE_PROPERTY), ex.getMessage());
+        } finally {
+            if (previous == null) {
+                System.clearProperty(Managers.ARCHIVE_AGE_PROPERTY);
+            } else {
+                System.setProperty(Managers.ARCHIVE_AGE_PROPERTY, previous);
+            }
+        }
+    }
 }
\ No newline at end of file
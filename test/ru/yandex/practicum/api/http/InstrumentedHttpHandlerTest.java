@@ -0,0 +1,81 @@
+package ru.yandex.practicum.api.http;
+
+// region imports
+
+import com.sun.net.httpserver.HttpServer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import ru.yandex.practicum.utils.metrics.MetricsRegistry;
+
+import java.io.IOException;
+import java.io.StringWriter;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+
+// endregion
+
+public final class InstrumentedHttpHandlerTest {
+    private MetricsRegistry metricsRegistry;
+    private HttpServer server;
+
+    @BeforeEach
+    public void beforeEach() throws IOException {
+        this.metricsRegistry = new MetricsRegistry();
+
+        this.server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), 0);
+        this.server.createContext("/async", new InstrumentedHttpHandler("/async", httpExchange -> {
+            // Ответ отправляется в другом потоке после возврата из обработчика.
+            Thread thread = new Thread(() -> {
+                try {
+                    Thread.sleep(50);
+
+                    byte[] body = "ok".getBytes(StandardCharsets.UTF_8);
+                    httpExchange.sendResponseHeaders(200, body.length);
+                    httpExchange.getResponseBody().write(body);
+                } catch (IOException | InterruptedException ex) {
+                    throw new RuntimeException(ex);
+                } finally {
+                    httpExchange.close();
+                }
+            });
+            thread.start();
+        }, this.metricsRegistry));
+        this.server.start();
+    }
+
+    @AfterEach
+    public void afterEach() {
+        this.server.stop(0);
+    }
+
+    @Test
+    public void asyncResponseIsRecordedOnCloseTest() throws IOException, InterruptedException {
+        HttpClient httpClient = HttpClient.newHttpClient();
+        HttpResponse<String> response = httpClient.send(HttpRequest.newBuilder(URI.create("http://127.0.0.1:" + this.server.getAddress().getPort() + "/async")).GET().build(),
+                HttpResponse.BodyHandlers.ofString());
+        Assertions.assertEquals(200, response.statusCode());
+
+        // Запрос учитывается сразу после отправки ответа клиенту.
+        String text = "";
+        long deadline = System.currentTimeMillis() + 5_000;
+        while (!text.contains("http_requests_total{route=\"/async\",method=\"GET\",code=\"200\"} 1\n") && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+
+            StringWriter writer = new StringWriter();
+            this.metricsRegistry.write(writer);
+            text = writer.toString();
+        }
+
+        Assertions.assertTrue(text.contains("http_requests_total{route=\"/async\",method=\"GET\",code=\"200\"} 1\n"), text);
+        Assertions.assertTrue(text.contains("http_response_bytes_total{route=\"/async\"} 2\n"), text);
+        Assertions.assertFalse(text.contains("code=\"none\""), text);
+        Assertions.assertTrue(text.contains("http_request_duration_seconds_count{route=\"/async\",method=\"GET\"} 1\n"), text);
+    }
+}
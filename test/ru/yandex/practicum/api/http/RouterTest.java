@@ -0,0 +1,45 @@
+package ru.yandex.practicum.api.http;
+
+// region imports
+
+import com.sun.net.httpserver.HttpHandler;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+// endregion
+
+public final class RouterTest {
+    @Test
+    public void findLongestPrefixTest() {
+        HttpHandler tasks = exchange -> {
+        };
+        HttpHandler subtasks = exchange -> {
+        };
+        HttpHandler epicSubtasks = exchange -> {
+        };
+
+        Router router = new Router()
+                .add("/tasks", tasks)
+                .add("/subtasks", subtasks)
+                .add("/epics/subtasks", epicSubtasks);
+
+        Assertions.assertSame(tasks, router.find("/tasks"));
+        Assertions.assertSame(tasks, router.find("/tasks/1"));
+        Assertions.assertSame(subtasks, router.find("/subtasks/2"));
+        Assertions.assertSame(epicSubtasks, router.find("/epics/subtasks/3"));
+        Assertions.assertNull(router.find("/epics/1"));
+        Assertions.assertNull(router.find("/tasksx"));
+        Assertions.assertNull(router.find("/"));
+    }
+
+    @Test
+    public void addDuplicateRouteTest() {
+        Router router = new Router().add("/tasks", exchange -> {
+        });
+
+        Assertions.assertThrows(IllegalStateException.class, () -> router.add("/tasks", exchange -> {
+        }));
+        Assertions.assertThrows(IllegalArgumentException.class, () -> router.add("tasks", exchange -> {
+        }));
+    }
+}
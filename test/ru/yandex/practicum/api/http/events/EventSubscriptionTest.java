@@ -0,0 +1,55 @@
+package ru.yandex.practicum.api.http.events;
+
+// region imports
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import ru.yandex.practicum.abstractions.TaskManager;
+import ru.yandex.practicum.managers.tasks.InMemoryTaskManager;
+import ru.yandex.practicum.models.ChangeEvent;
+import ru.yandex.practicum.models.Epic;
+
+// endregion
+
+public final class EventSubscriptionTest {
+    @Test
+    public void receiveEventsTest() {
+        TaskManager taskManager = new InMemoryTaskManager();
+        EventSubscription subscription = new EventSubscription(taskManager, 4);
+        subscription.open();
+
+        Epic epic = new Epic("Эпик", "Описание эпика");
+        taskManager.createEpic(epic);
+
+        ChangeEvent event = subscription.poll();
+        Assertions.assertNotNull(event);
+        Assertions.assertEquals(epic.getId(), event.getId());
+        Assertions.assertNull(subscription.poll());
+
+        subscription.close();
+        taskManager.removeEpicById(epic.getId());
+
+        Assertions.assertNull(subscription.poll());
+    }
+
+    @Test
+    public void overflowUnsubscribesTest() {
+        TaskManager taskManager = new InMemoryTaskManager();
+        EventSubscription subscription = new EventSubscription(taskManager, 2);
+        subscription.open();
+
+        for (int i = 0; i < 3; i++) {
+            taskManager.createEpic(new Epic("Эпик " + i, "Описание эпика"));
+        }
+
+        Assertions.assertTrue(subscription.isOverflowed());
+        Assertions.assertNull(subscription.poll());
+
+        EventSubscription otherSubscription = new EventSubscription(taskManager, 2);
+        otherSubscription.open();
+        taskManager.createEpic(new Epic("Эпик", "Описание эпика"));
+
+        Assertions.assertFalse(otherSubscription.isOverflowed());
+        Assertions.assertNotNull(otherSubscription.poll());
+    }
+}
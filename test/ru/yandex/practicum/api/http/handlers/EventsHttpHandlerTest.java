@@ -0,0 +1,72 @@
+package ru.yandex.practicum.api.http.handlers;
+
+// region imports
+
+import com.sun.net.httpserver.HttpServer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import ru.yandex.practicum.abstractions.TaskManager;
+import ru.yandex.practicum.managers.tasks.InMemoryTaskManager;
+import ru.yandex.practicum.models.Epic;
+
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+
+// endregion
+
+public final class EventsHttpHandlerTest {
+    private TaskManager taskManager;
+    private EventsHttpHandler eventsHttpHandler;
+    private HttpServer server;
+
+    @BeforeEach
+    public void beforeEach() throws IOException {
+        this.taskManager = new InMemoryTaskManager();
+        this.eventsHttpHandler = new EventsHttpHandler(this.taskManager, 500);
+
+        this.server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), 0);
+        this.server.createContext("/events", this.eventsHttpHandler);
+        this.server.start();
+    }
+
+    @AfterEach
+    public void afterEach() {
+        this.server.stop(0);
+    }
+
+    @Test
+    public void blockedSubscriberIsDisconnectedTest() throws IOException, InterruptedException {
+        try (Socket socket = new Socket()) {
+            socket.setReceiveBufferSize(4 * 1024);
+            socket.connect(this.server.getAddress());
+
+            // Клиент подписывается на события и не читает их.
+            socket.getOutputStream().write("GET /events HTTP/1.1\r\nHost: localhost\r\n\r\n".getBytes(StandardCharsets.ISO_8859_1));
+            socket.getOutputStream().flush();
+
+            Epic epic = new Epic("Эпик", "Описание эпика");
+            this.taskManager.createEpic(epic);
+
+            while (this.eventsHttpHandler.getSubscriberCount() == 0) {
+                Thread.sleep(10);
+            }
+
+            // События создаются порциями меньше очереди подписки, поэтому очередь не переполняется, пока буферы
+            // соединения не заполнятся и запись клиенту не заблокируется.
+            long deadline = System.currentTimeMillis() + 20_000;
+            while (this.eventsHttpHandler.getSubscriberCount() > 0 && System.currentTimeMillis() < deadline) {
+                for (int i = 0; i < 500; i++) {
+                    this.taskManager.updateEpic(epic);
+                }
+                Thread.sleep(50);
+            }
+
+            Assertions.assertEquals(0, this.eventsHttpHandler.getSubscriberCount());
+        }
+    }
+}
@@ -0,0 +1,64 @@
+package ru.yandex.practicum.api.http.handlers;
+
+// region imports
+
+import com.sun.net.httpserver.HttpServer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import ru.yandex.practicum.utils.metrics.MetricsRegistry;
+import ru.yandex.practicum.utils.routing.ConsistentHashRing;
+
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.ServerSocket;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.List;
+
+// endregion
+
+public final class ProxyHttpHandlerTest {
+    private HttpServer proxy;
+
+    @BeforeEach
+    public void beforeEach() throws IOException {
+        // Порт, на котором никто не принимает соединения.
+        int deadPort;
+        try (ServerSocket serverSocket = new ServerSocket(0, 1, InetAddress.getLoopbackAddress())) {
+            deadPort = serverSocket.getLocalPort();
+        }
+
+        ConsistentHashRing ring = new ConsistentHashRing(List.of(String.valueOf(deadPort)));
+
+        this.proxy = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), 0);
+        this.proxy.createContext("/", new ProxyHttpHandler(ring, new MetricsRegistry()));
+        this.proxy.start();
+    }
+
+    @AfterEach
+    public void afterEach() {
+        this.proxy.stop(0);
+    }
+
+    @Test
+    public void unreachableBackendTest() throws IOException, InterruptedException {
+        HttpClient httpClient = HttpClient.newHttpClient();
+        String base = "http://127.0.0.1:" + this.proxy.getAddress().getPort();
+
+        HttpResponse<String> get = httpClient.send(HttpRequest.newBuilder(URI.create(base + "/tasks/5")).GET().build(), HttpResponse.BodyHandlers.ofString());
+        Assertions.assertEquals(502, get.statusCode());
+
+        HttpResponse<String> post = httpClient.send(HttpRequest.newBuilder(URI.create(base + "/tasks"))
+                .POST(HttpRequest.BodyPublishers.ofString("{\"name\":\"Задача\",\"description\":\"Описание\"}"))
+                .build(), HttpResponse.BodyHandlers.ofString());
+        Assertions.assertEquals(502, post.statusCode());
+
+        HttpResponse<String> list = httpClient.send(HttpRequest.newBuilder(URI.create(base + "/tasks")).GET().build(), HttpResponse.BodyHandlers.ofString());
+        Assertions.assertEquals(502, list.statusCode());
+    }
+}
@@ -0,0 +1,104 @@
+package ru.yandex.practicum.api.http.nio;
+
+// region imports
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import ru.yandex.practicum.api.http.Router;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+
+// endregion
+
+public final class NioHttpServerTest {
+    private static final int LARGE_BODY_SIZE = 2 * 1024 * 1024;
+
+    private NioHttpServer server;
+
+    @BeforeEach
+    public void beforeEach() throws IOException {
+        Router router = new Router()
+                .add("/large", exchange -> {
+                    byte[] body = new byte[LARGE_BODY_SIZE];
+                    exchange.sendResponseHeaders(200, body.length);
+                    exchange.getResponseBody().write(body);
+                    exchange.close();
+                })
+                .add("/small", exchange -> {
+                    byte[] body = "ok".getBytes(StandardCharsets.UTF_8);
+                    exchange.sendResponseHeaders(200, body.length);
+                    exchange.getResponseBody().write(body);
+                    exchange.close();
+                });
+
+        this.server = NioHttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), router);
+        this.server.start();
+    }
+
+    @AfterEach
+    public void afterEach() {
+        this.server.stop();
+    }
+
+    @Test
+    public void slowClientDoesNotStallOtherConnectionsTest() throws IOException {
+        try (Socket slow = new Socket()) {
+            slow.setReceiveBufferSize(4 * 1024);
+            slow.connect(this.server.getAddress());
+
+            // Клиент отправляет много запросов и не читает ответы.
+            OutputStream slowOutput = slow.getOutputStream();
+            for (int i = 0; i < 64; i++) {
+                slowOutput.write("GET /large HTTP/1.1\r\nHost: localhost\r\n\r\n".getBytes(StandardCharsets.ISO_8859_1));
+            }
+            slowOutput.flush();
+
+            try (Socket fast = new Socket()) {
+                fast.setSoTimeout(5_000);
+                fast.connect(this.server.getAddress());
+                fast.getOutputStream().write("GET /small HTTP/1.1\r\nHost: localhost\r\nConnection: close\r\n\r\n".getBytes(StandardCharsets.ISO_8859_1));
+
+                String response = new String(fast.getInputStream().readAllBytes(), StandardCharsets.ISO_8859_1);
+                Assertions.assertTrue(response.startsWith("HTTP/1.1 200"), response);
+                Assertions.assertTrue(response.endsWith("ok"), response);
+            }
+
+            // Приостановленный клиент получает все ответы, когда начинает читать.
+            slow.setSoTimeout(30_000);
+            InputStream slowInput = slow.getInputStream();
+            long expected = 0;
+            for (int i = 0; i < 64; i++) {
+                expected += "HTTP/1.1 200".length() + LARGE_BODY_SIZE;
+            }
+
+            long received = 0;
+            int responses = 0;
+            byte[] buffer = new byte[64 * 1024];
+            byte[] marker = "HTTP/1.1 200".getBytes(StandardCharsets.ISO_8859_1);
+            int matched = 0;
+            while (responses < 64) {
+                int read = slowInput.read(buffer);
+                Assertions.assertTrue(read > 0, "Соединение закрыто после " + responses + " ответов");
+                received += read;
+
+                for (int i = 0; i < read; i++) {
+                    matched = buffer[i] == marker[matched] ? matched + 1 : (buffer[i] == marker[0] ? 1 : 0);
+                    if (matched == marker.length) {
+                        responses++;
+                        matched = 0;
+                    }
+                }
+            }
+
+            Assertions.assertTrue(received >= expected - LARGE_BODY_SIZE);
+        }
+    }
+}
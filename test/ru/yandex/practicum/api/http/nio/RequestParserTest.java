@@ -0,0 +1,82 @@
+package ru.yandex.practicum.api.http.nio;
+
+// region imports
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+// endregion
+
+public final class RequestParserTest {
+    @Test
+    public void parsePipelinedRequestsTest() throws RequestParser.ParseException {
+        RequestParser parser = new RequestParser();
+        ByteBuffer buffer = ByteBuffer.wrap(("GET /tasks HTTP/1.1\r\nHost: localhost\r\n\r\n"
+                + "POST /tasks?x=1 HTTP/1.1\r\nContent-Length: 4\r\n\r\nbody").getBytes(StandardCharsets.ISO_8859_1));
+
+        NioRequest first = parser.parse(buffer);
+        Assertions.assertNotNull(first);
+        Assertions.assertEquals("GET", first.getMethod());
+        Assertions.assertEquals("/tasks", first.getUri().getPath());
+        Assertions.assertEquals("localhost", first.getHeaders().getFirst("Host"));
+        Assertions.assertEquals(0, first.getBody().length);
+        Assertions.assertTrue(first.isKeepAlive());
+
+        NioRequest second = parser.parse(buffer);
+        Assertions.assertNotNull(second);
+        Assertions.assertEquals("POST", second.getMethod());
+        Assertions.assertEquals("x=1", second.getUri().getQuery());
+        Assertions.assertEquals("body", new String(second.getBody(), StandardCharsets.UTF_8));
+
+        Assertions.assertNull(parser.parse(buffer));
+    }
+
+    @Test
+    public void parseFragmentedRequestTest() throws RequestParser.ParseException {
+        RequestParser parser = new RequestParser();
+        byte[] bytes = "POST /batch HTTP/1.0\r\nContent-Length: 2\r\n\r\n[]".getBytes(StandardCharsets.ISO_8859_1);
+
+        NioRequest request = null;
+        for (byte b : bytes) {
+            Assertions.assertNull(request);
+            request = parser.parse(ByteBuffer.wrap(new byte[]{b}));
+        }
+
+        Assertions.assertNotNull(request);
+        Assertions.assertEquals("[]", new String(request.getBody(), StandardCharsets.UTF_8));
+        Assertions.assertFalse(request.isKeepAlive());
+    }
+
+    @Test
+    public void rejectInvalidRequestsTest() {
+        assertStatusCode(400, "GET /tasks\r\n\r\n");
+        assertStatusCode(400, "GET /tasks HTTP/1.1\r\nBroken header\r\n\r\n");
+        assertStatusCode(411, "POST /tasks HTTP/1.1\r\nTransfer-Encoding: chunked\r\n\r\n");
+        assertStatusCode(413, "POST /tasks HTTP/1.1\r\nContent-Length: " + (RequestParser.MAX_BODY_SIZE + 1L) + "\r\n\r\n");
+        assertStatusCode(431, "GET /tasks HTTP/1.1\r\nX-Large: " + "a".repeat(RequestParser.MAX_HEAD_SIZE) + "\r\n\r\n");
+        assertStatusCode(501, "POST /import HTTP/1.1\r\nContent-Length: 10\r\n\r\n");
+        assertStatusCode(501, "POST /import?dryRun=true HTTP/1.1\r\nTransfer-Encoding: chunked\r\n\r\n");
+        assertStatusCode(501, "POST /boards/team/import HTTP/1.1\r\nContent-Length: 10\r\n\r\n");
+        assertStatusCode(501, "POST /boards/team/import/ HTTP/1.1\r\nContent-Length: 10\r\n\r\n");
+    }
+
+    @Test
+    public void bufferPathsSimilarToStreamingPathsTest() throws RequestParser.ParseException {
+        for (String path : new String[]{"/importer", "/boards/team/importer", "/boards/import", "/tasks/import"}) {
+            RequestParser parser = new RequestParser();
+            NioRequest request = parser.parse(ByteBuffer.wrap(("POST " + path + " HTTP/1.1\r\nContent-Length: 2\r\n\r\n{}")
+                    .getBytes(StandardCharsets.ISO_8859_1)));
+            Assertions.assertNotNull(request);
+        }
+    }
+
+    private static void assertStatusCode(int statusCode, String request) {
+        RequestParser parser = new RequestParser();
+        RequestParser.ParseException ex = Assertions.assertThrows(RequestParser.ParseException.class,
+                () -> parser.parse(ByteBuffer.wrap(request.getBytes(StandardCharsets.ISO_8859_1))));
+        Assertions.assertEquals(statusCode, ex.getStatusCode());
+    }
+}
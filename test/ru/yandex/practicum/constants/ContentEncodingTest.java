@@ -0,0 +1,30 @@
+package ru.yandex.practicum.constants;
+
+// region imports
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+// endregion
+
+public final class ContentEncodingTest {
+    @Test
+    public void negotiateTest() {
+        Assertions.assertEquals(ContentEncoding.IDENTITY, ContentEncoding.negotiate(null));
+        Assertions.assertEquals(ContentEncoding.IDENTITY, ContentEncoding.negotiate(""));
+        Assertions.assertEquals(ContentEncoding.GZIP, ContentEncoding.negotiate("gzip, deflate"));
+        Assertions.assertEquals(ContentEncoding.DEFLATE, ContentEncoding.negotiate("deflate"));
+        Assertions.assertEquals(ContentEncoding.IDENTITY, ContentEncoding.negotiate("br"));
+        Assertions.assertEquals(ContentEncoding.GZIP, ContentEncoding.negotiate("*"));
+    }
+
+    @Test
+    public void negotiateWithRefusedCodingsTest() {
+        Assertions.assertEquals(ContentEncoding.DEFLATE, ContentEncoding.negotiate("gzip;q=0, deflate"));
+        Assertions.assertEquals(ContentEncoding.DEFLATE, ContentEncoding.negotiate("*, gzip;q=0"));
+        Assertions.assertEquals(ContentEncoding.DEFLATE, ContentEncoding.negotiate("gzip;q=0, *;q=0.5"));
+        Assertions.assertEquals(ContentEncoding.IDENTITY, ContentEncoding.negotiate("*, gzip;q=0, deflate;q=0"));
+        Assertions.assertEquals(ContentEncoding.GZIP, ContentEncoding.negotiate("*;q=0, gzip"));
+        Assertions.assertEquals(ContentEncoding.IDENTITY, ContentEncoding.negotiate("*;q=0"));
+    }
+}
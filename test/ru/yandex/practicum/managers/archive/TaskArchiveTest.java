@@ -0,0 +1,102 @@
+package ru.yandex.practicum.managers.archive;
+
+// region imports
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import ru.yandex.practicum.constants.TaskStatus;
+import ru.yandex.practicum.models.AbstractTask;
+import ru.yandex.practicum.models.Epic;
+import ru.yandex.practicum.models.SubTask;
+import ru.yandex.practicum.models.Task;
+import ru.yandex.practicum.utils.metrics.MetricsRegistry;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.stream.Stream;
+
+// endregion
+
+public final class TaskArchiveTest {
+    private static final LocalDateTime START_TIME = LocalDateTime.of(2024, 1, 1, 0, 0);
+
+    private File directory;
+
+    @BeforeEach
+    public void beforeEach() {
+        this.directory = new File("./archive-storage");
+    }
+
+    @AfterEach
+    public void afterEach() throws IOException {
+        if (this.directory.exists()) {
+            try (Stream<Path> files = Files.list(this.directory.toPath())) {
+                for (Path file : files.toList()) {
+                    Files.delete(file);
+                }
+            }
+            Files.delete(this.directory.toPath());
+        }
+    }
+
+    @Test
+    public void itemsAreFoundByIdAfterReopenTest() throws IOException {
+        List<Task> tasks = new ArrayList<>();
+        for (int i = 1; i <= TaskArchive.BLOCK_RECORDS * 3; i++) {
+            tasks.add(createTask(i * 2, i));
+        }
+
+        Epic epic = new Epic(1_001, "Эпик", "Описание эпика", new HashMap<>());
+        SubTask subTask = new SubTask(1_002, "Подзадача", "Описание подзадачи", TaskStatus.DONE, START_TIME, Duration.ofMinutes(30), epic.getId());
+        epic.addSubTask(subTask);
+
+        try (TaskArchive archive = new TaskArchive(this.directory, new MetricsRegistry())) {
+            archive.append(tasks);
+            archive.append(List.of(epic, subTask));
+        }
+
+        try (TaskArchive archive = new TaskArchive(this.directory, new MetricsRegistry())) {
+            Assertions.assertEquals(2, archive.getSegmentCount());
+
+            for (Task task : tasks) {
+                Assertions.assertEquals(task.toString(), archive.findById(task.getId()).map(AbstractTask::toString).orElse(null));
+            }
+            Assertions.assertTrue(archive.findById(3).isEmpty());
+            Assertions.assertTrue(archive.findById(5_000).isEmpty());
+
+            Epic archivedEpic = (Epic) archive.findById(epic.getId()).orElseThrow();
+            Assertions.assertEquals(TaskStatus.DONE, archivedEpic.getStatus());
+            Assertions.assertEquals(List.of(subTask), archivedEpic.getAllSubTasks());
+            Assertions.assertTrue(archive.findById(subTask.getId()).orElseThrow() instanceof SubTask);
+        }
+    }
+
+    @Test
+    public void itemsAreFoundByTimeTest() {
+        List<Task> tasks = new ArrayList<>();
+        for (int i = 1; i <= TaskArchive.BLOCK_RECORDS * 2; i++) {
+            tasks.add(createTask(i, i));
+        }
+
+        TaskArchive archive = new TaskArchive(this.directory, new MetricsRegistry());
+        archive.append(tasks);
+
+        List<Task> found = archive.findByTime(START_TIME.plusHours(10).plusMinutes(15), START_TIME.plusHours(12));
+        Assertions.assertEquals(List.of(tasks.get(9), tasks.get(10)), found);
+
+        Assertions.assertTrue(archive.findByTime(START_TIME.minusDays(1), START_TIME).isEmpty());
+    }
+
+    private static Task createTask(int id, int hours) {
+        return new Task(id, "Задача " + id, "Описание задачи", TaskStatus.DONE, START_TIME.plusHours(hours), Duration.ofMinutes(30));
+    }
+}
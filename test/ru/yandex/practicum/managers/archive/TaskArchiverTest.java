@@ -0,0 +1,110 @@
+package ru.yandex.practicum.managers.archive;
+
+// region imports
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import ru.yandex.practicum.constants.TaskStatus;
+import ru.yandex.practicum.managers.tasks.InMemoryTaskManager;
+import ru.yandex.practicum.models.Epic;
+import ru.yandex.practicum.models.SubTask;
+import ru.yandex.practicum.models.Task;
+import ru.yandex.practicum.utils.metrics.MetricsRegistry;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.stream.Stream;
+
+// endregion
+
+public final class TaskArchiverTest {
+    private static final LocalDateTime START_TIME = LocalDateTime.of(2024, 1, 1, 0, 0);
+
+    private File directory;
+
+    @BeforeEach
+    public void beforeEach() {
+        this.directory = new File("./archiver-storage");
+    }
+
+    @AfterEach
+    public void afterEach() throws IOException {
+        if (this.directory.exists()) {
+            try (Stream<Path> files = Files.list(this.directory.toPath())) {
+                for (Path file : files.toList()) {
+                    Files.delete(file);
+                }
+            }
+            Files.delete(this.directory.toPath());
+        }
+    }
+
+    @Test
+    public void createArchiverWithInvalidParametersTest() {
+        TaskArchive archive = new TaskArchive(this.directory, new MetricsRegistry());
+
+        Assertions.assertThrows(IllegalArgumentException.class, () -> new TaskArchiver(null, archive, Duration.ofDays(1)));
+        Assertions.assertThrows(IllegalArgumentException.class, () -> new TaskArchiver(new InMemoryTaskManager(), archive, Duration.ofDays(-1)));
+    }
+
+    @Test
+    public void onlyOldCompletedItemsAreArchivedTest() {
+        InMemoryTaskManager taskManager = new InMemoryTaskManager();
+
+        Task oldDone = createTask(taskManager, "Старая задача", START_TIME, TaskStatus.DONE);
+        Task oldInProgress = createTask(taskManager, "Старая задача в работе", START_TIME.plusHours(1), TaskStatus.IN_PROGRESS);
+        Task recentDone = createTask(taskManager, "Новая задача", START_TIME.plusDays(30), TaskStatus.DONE);
+
+        Epic doneEpic = new Epic("Завершённый эпик", "Описание");
+        taskManager.createEpic(doneEpic);
+        SubTask doneSubTask = createSubTask(taskManager, doneEpic, "Подзадача", START_TIME.plusHours(2), TaskStatus.DONE);
+
+        Epic openEpic = new Epic("Незавершённый эпик", "Описание");
+        taskManager.createEpic(openEpic);
+        SubTask openDoneSubTask = createSubTask(taskManager, openEpic, "Завершённая подзадача", START_TIME.plusHours(3), TaskStatus.DONE);
+        SubTask openNewSubTask = createSubTask(taskManager, openEpic, "Новая подзадача", START_TIME.plusHours(4), TaskStatus.NEW);
+
+        TaskArchiver archiver = new TaskArchiver(taskManager, new TaskArchive(this.directory, new MetricsRegistry()), Duration.ofDays(7));
+
+        Assertions.assertEquals(3, archiver.archive(START_TIME.plusDays(31)));
+        Assertions.assertEquals(0, archiver.archive(START_TIME.plusDays(31)));
+
+        Assertions.assertEquals(List.of(oldInProgress, recentDone), taskManager.getAllTasks());
+        Assertions.assertEquals(List.of(openEpic), taskManager.getAllEpics());
+        Assertions.assertEquals(List.of(openDoneSubTask, openNewSubTask), taskManager.getAllSubTasks());
+        Assertions.assertFalse(taskManager.getPrioritizedTasks().contains(oldDone));
+
+        TaskArchive archive = archiver.getArchive();
+        Assertions.assertEquals(oldDone.toString(), archive.findById(oldDone.getId()).orElseThrow().toString());
+        Assertions.assertTrue(archive.findById(doneEpic.getId()).isPresent());
+        Assertions.assertTrue(archive.findById(doneSubTask.getId()).isPresent());
+        Assertions.assertTrue(archive.findById(oldInProgress.getId()).isEmpty());
+        Assertions.assertEquals(List.of(oldDone, doneSubTask), archive.findByTime(START_TIME, START_TIME.plusDays(1)));
+    }
+
+    private static Task createTask(InMemoryTaskManager taskManager, String name, LocalDateTime startTime, TaskStatus status) {
+        Task task = new Task(name, "Описание", startTime, Duration.ofMinutes(30));
+        taskManager.createTask(task);
+
+        Task updated = new Task(task.getId(), name, "Описание", status, startTime, Duration.ofMinutes(30));
+        taskManager.updateTask(updated);
+        return updated;
+    }
+
+    private static SubTask createSubTask(InMemoryTaskManager taskManager, Epic epic, String name, LocalDateTime startTime, TaskStatus status) {
+        SubTask subTask = new SubTask(name, "Описание", startTime, Duration.ofMinutes(30), epic.getId());
+        epic.addSubTask(subTask);
+        taskManager.createSubTask(subTask);
+
+        SubTask updated = new SubTask(subTask.getId(), name, "Описание", status, startTime, Duration.ofMinutes(30), epic.getId());
+        taskManager.updateSubTask(updated);
+        return updated;
+    }
+}
@@ -0,0 +1,156 @@
+package ru.yandex.practicum.managers.boards;
+
+// region imports
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import ru.yandex.practicum.models.Task;
+import ru.yandex.practicum.utils.metrics.MetricsRegistry;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.StringWriter;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.stream.Stream;
+
+// endregion
+
+public final class BoardRegistryTest {
+    private static final LocalDateTime START_TIME = LocalDateTime.of(2024, 1, 1, 0, 0);
+
+    private File directory;
+    private MetricsRegistry metricsRegistry;
+
+    @BeforeEach
+    public void beforeEach() {
+        this.directory = new File("./boards-storage");
+        this.metricsRegistry = new MetricsRegistry();
+    }
+
+    @AfterEach
+    public void afterEach() throws IOException {
+        if (this.directory.exists()) {
+            try (Stream<Path> files = Files.list(this.directory.toPath())) {
+                for (Path file : files.toList()) {
+                    Files.delete(file);
+                }
+            }
+            Files.delete(this.directory.toPath());
+        }
+    }
+
+    @Test
+    public void acquireBoardWithInvalidIdTest() {
+        BoardRegistry boardRegistry = new BoardRegistry(this.directory, 1024 * 1024, this.metricsRegistry);
+
+        Assertions.assertThrows(IllegalArgumentException.class, () -> boardRegistry.acquire("../secret"));
+        Assertions.assertThrows(IllegalArgumentException.class, () -> boardRegistry.acquire(""));
+        Assertions.assertFalse(this.directory.exists());
+    }
+
+    @Test
+    public void boardsAreLoadedLazilyAndIsolatedTest() {
+        BoardRegistry boardRegistry = new BoardRegistry(this.directory, 1024 * 1024, this.metricsRegistry);
+        Assertions.assertEquals(0, boardRegistry.getResidentCount());
+
+        BoardRegistry.Board first = boardRegistry.acquire("team-a");
+        first.getTaskManager().createTask(createTask(1));
+        boardRegistry.release(first);
+
+        BoardRegistry.Board second = boardRegistry.acquire("team-b");
+        Assertions.assertTrue(second.getTaskManager().getAllTasks().isEmpty());
+        boardRegistry.release(second);
+
+        Assertions.assertEquals(2, boardRegistry.getResidentCount());
+        Assertions.assertTrue(new File(this.directory, "team-a.csv").exists());
+    }
+
+    @Test
+    public void coldBoardsAreEvictedAndReloadedTest() throws IOException {
+        BoardRegistry boardRegistry = new BoardRegistry(this.directory, 3 * BoardRegistry.ESTIMATED_ITEM_BYTES, this.metricsRegistry);
+
+        BoardRegistry.Board first = boardRegistry.acquire("team-a");
+        first.getTaskManager().createTask(createTask(1));
+        first.getTaskManager().createTask(createTask(2));
+        boardRegistry.release(first);
+
+        BoardRegistry.Board second = boardRegistry.acquire("team-b");
+        second.getTaskManager().createTask(createTask(3));
+        second.getTaskManager().createTask(createTask(4));
+        boardRegistry.release(second);
+
+        Assertions.assertFalse(boardRegistry.isResident("team-a"));
+        Assertions.assertTrue(boardRegistry.isResident("team-b"));
+
+        BoardRegistry.Board reloaded = boardRegistry.acquire("team-a");
+        Assertions.assertEquals(2, reloaded.getTaskManager().getAllTasks().size());
+        boardRegistry.release(reloaded);
+
+        Assertions.assertFalse(boardRegistry.isResident("team-b"));
+
+        StringWriter writer = new StringWriter();
+        this.metricsRegistry.write(writer);
+
+        Assertions.assertTrue(writer.toString().contains("board_loads_total 3\n"));
+        Assertions.assertTrue(writer.toString().contains("board_evictions_total 2\n"));
+        Assertions.assertTrue(writer.toString().contains("boards_resident 1\n"));
+    }
+
+    @Test
+    public void versionsAreNotReusedAfterReloadTest() {
+        BoardRegistry boardRegistry = new BoardRegistry(this.directory, 2 * BoardRegistry.ESTIMATED_ITEM_BYTES, this.metricsRegistry);
+
+        BoardRegistry.Board first = boardRegistry.acquire("team-a");
+        Task task = createTask(1);
+        first.getTaskManager().createTask(task);
+        first.getTaskManager().createTask(createTask(2));
+        first.getTaskManager().removeTaskById(task.getId());
+        long version = first.getTaskManager().getVersion();
+        boardRegistry.release(first);
+
+        BoardRegistry.Board second = boardRegistry.acquire("team-b");
+        second.getTaskManager().createTask(createTask(3));
+        second.getTaskManager().createTask(createTask(4));
+        boardRegistry.release(second);
+
+        Assertions.assertFalse(boardRegistry.isResident("team-a"));
+
+        BoardRegistry.Board reloaded = boardRegistry.acquire("team-a");
+        Task remaining = reloaded.getTaskManager().getAllTasks().get(0);
+
+        Assertions.assertTrue(reloaded.getTaskManager().getVersion() > version);
+        Assertions.assertTrue(reloaded.getTaskManager().getVersion(remaining.getId()) > version);
+
+        // Удаление до выгрузки не сохранилось в журнале изменений, поэтому клиенту нужны все списки.
+        Assertions.assertTrue(reloaded.getTaskManager().getChangesSince(version).isFullResyncRequired());
+        Assertions.assertFalse(reloaded.getTaskManager().getChangesSince(reloaded.getTaskManager().getVersion()).isFullResyncRequired());
+        boardRegistry.release(reloaded);
+    }
+
+    @Test
+    public void acquiredBoardIsNotEvictedTest() {
+        BoardRegistry boardRegistry = new BoardRegistry(this.directory, 1, this.metricsRegistry);
+
+        BoardRegistry.Board first = boardRegistry.acquire("team-a");
+        first.getTaskManager().createTask(createTask(1));
+
+        BoardRegistry.Board second = boardRegistry.acquire("team-b");
+        second.getTaskManager().createTask(createTask(2));
+        boardRegistry.release(second);
+
+        Assertions.assertTrue(boardRegistry.isResident("team-a"));
+        Assertions.assertFalse(boardRegistry.isResident("team-b"));
+
+        boardRegistry.release(first);
+        Assertions.assertThrows(IllegalStateException.class, () -> boardRegistry.release(first));
+    }
+
+    private static Task createTask(int number) {
+        return new Task("Задача " + number, "Описание задачи " + number, START_TIME.plusHours(number), Duration.ofMinutes(30));
+    }
+}
@@ -0,0 +1,191 @@
+package ru.yandex.practicum.managers.dependencies;
+
+// region imports
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import ru.yandex.practicum.constants.TaskStatus;
+import ru.yandex.practicum.models.SubTask;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Random;
+import java.util.Set;
+
+// endregion
+
+public final class CriticalPathIndexTest {
+    private static final LocalDateTime START_TIME = LocalDateTime.of(2024, 1, 1, 0, 0);
+    private static final int EPIC_ID = 1;
+
+    @Test
+    public void criticalPathFollowsDependenciesTest() {
+        CriticalPathIndex index = new CriticalPathIndex();
+        index.upsert(createSubTask(10, 0, 2));
+        index.upsert(createSubTask(11, 0, 5));
+        index.upsert(createSubTask(12, 1, 1));
+        index.upsert(createSubTask(13, 0, 1));
+
+        Assertions.assertEquals(List.of(11), index.getCriticalPath(EPIC_ID));
+
+        index.addDependency(12, 10);
+        index.addDependency(12, 11);
+        index.addDependency(13, 12);
+
+        Assertions.assertEquals(List.of(11, 12, 13), index.getCriticalPath(EPIC_ID));
+        Assertions.assertEquals(Optional.of(START_TIME.plusHours(7)), index.getEpicEarliestEndTime(EPIC_ID));
+        Assertions.assertEquals(List.of(10, 11), index.getDependencies(12));
+
+        index.upsert(createSubTask(10, 0, 6));
+        Assertions.assertEquals(List.of(10, 12, 13), index.getCriticalPath(EPIC_ID));
+        Assertions.assertEquals(Optional.of(START_TIME.plusHours(8)), index.getEpicEarliestEndTime(EPIC_ID));
+
+        index.remove(12);
+        Assertions.assertEquals(List.of(10), index.getCriticalPath(EPIC_ID));
+        Assertions.assertEquals(List.of(), index.getDependencies(13));
+
+        Assertions.assertTrue(index.getCriticalPath(2).isEmpty());
+        Assertions.assertTrue(index.getEpicEarliestEndTime(2).isEmpty());
+    }
+
+    @Test
+    public void invalidDependenciesAreRejectedTest() {
+        CriticalPathIndex index = new CriticalPathIndex();
+        index.upsert(createSubTask(10, 0, 1));
+        index.upsert(createSubTask(11, 0, 1));
+        index.upsert(createSubTask(12, 0, 1));
+        index.upsert(new SubTask(20, "Подзадача", "Описание", TaskStatus.NEW, START_TIME, Duration.ofHours(1), 2));
+
+        index.addDependency(11, 10);
+        index.addDependency(12, 11);
+
+        Assertions.assertThrows(IllegalStateException.class, () -> index.addDependency(10, 12));
+        Assertions.assertThrows(IllegalStateException.class, () -> index.addDependency(10, 10));
+        Assertions.assertThrows(IllegalStateException.class, () -> index.addDependency(10, 20));
+        Assertions.assertThrows(IllegalStateException.class, () -> index.addDependency(10, 99));
+        Assertions.assertThrows(IllegalStateException.class, () -> index.removeDependency(10, 11));
+
+        Assertions.assertEquals(List.of(10, 11, 12), index.getCriticalPath(EPIC_ID));
+    }
+
+    @Test
+    public void incrementalValuesMatchFullRecomputationTest() {
+        Random random = new Random(42);
+        CriticalPathIndex index = new CriticalPathIndex();
+
+        Map<Integer, SubTask> subTasks = new HashMap<>();
+        Map<Integer, Set<Integer>> dependencies = new HashMap<>();
+        int nextId = 1_000;
+
+        for (int step = 0; step < 3_000; step++) {
+            List<Integer> ids = new ArrayList<>(subTasks.keySet());
+            int action = random.nextInt(10);
+
+            if (ids.size() < 2 || action < 2) {
+                SubTask subTask = createSubTask(nextId++, random.nextInt(48), 1 + random.nextInt(8));
+                subTasks.put(subTask.getId(), subTask);
+                dependencies.put(subTask.getId(), new HashSet<>());
+                index.upsert(subTask);
+            } else if (action < 3) {
+                int id = ids.get(random.nextInt(ids.size()));
+                SubTask subTask = createSubTask(id, random.nextInt(48), 1 + random.nextInt(8));
+                subTasks.put(id, subTask);
+                index.upsert(subTask);
+            } else if (action < 4) {
+                int id = ids.get(random.nextInt(ids.size()));
+                subTasks.remove(id);
+                dependencies.remove(id);
+                dependencies.values().forEach(predecessors -> predecessors.remove(id));
+                index.remove(id);
+            } else if (action < 8) {
+                int id = ids.get(random.nextInt(ids.size()));
+                int dependsOn = ids.get(random.nextInt(ids.size()));
+                if (id == dependsOn || dependencies.get(id).contains(dependsOn)) {
+                    continue;
+                }
+
+                if (isReachable(dependencies, dependsOn, id)) {
+                    Assertions.assertThrows(IllegalStateException.class, () -> index.addDependency(id, dependsOn));
+                } else {
+                    dependencies.get(id).add(dependsOn);
+                    index.addDependency(id, dependsOn);
+                }
+            } else {
+                int id = ids.get(random.nextInt(ids.size()));
+                if (dependencies.get(id).isEmpty()) {
+                    continue;
+                }
+
+                int dependsOn = dependencies.get(id).iterator().next();
+                dependencies.get(id).remove(dependsOn);
+                index.removeDependency(id, dependsOn);
+            }
+
+            Map<Integer, LocalDateTime> earliestEnds = new HashMap<>();
+            LocalDateTime epicEnd = null;
+            for (int id : subTasks.keySet()) {
+                LocalDateTime end = earliestEnd(subTasks, dependencies, earliestEnds, id);
+                Assertions.assertEquals(Optional.of(end), index.getEarliestEndTime(id));
+                epicEnd = epicEnd == null || end.isAfter(epicEnd) ? end : epicEnd;
+            }
+            Assertions.assertEquals(Optional.ofNullable(epicEnd), index.getEpicEarliestEndTime(EPIC_ID));
+
+            List<Integer> path = index.getCriticalPath(EPIC_ID);
+            if (epicEnd != null) {
+                Assertions.assertEquals(epicEnd, earliestEnds.get(path.get(path.size() - 1)));
+                Assertions.assertEquals(subTasks.get(path.get(0)).getEndTime(), earliestEnds.get(path.get(0)));
+                for (int i = 1; i < path.size(); i++) {
+                    Assertions.assertTrue(dependencies.get(path.get(i)).contains(path.get(i - 1)));
+                    Assertions.assertEquals(earliestEnds.get(path.get(i - 1)).plus(subTasks.get(path.get(i)).getDuration()), earliestEnds.get(path.get(i)));
+                }
+            }
+        }
+    }
+
+    private static LocalDateTime earliestEnd(Map<Integer, SubTask> subTasks, Map<Integer, Set<Integer>> dependencies, Map<Integer, LocalDateTime> cache, int id) {
+        LocalDateTime cached = cache.get(id);
+        if (cached != null) {
+            return cached;
+        }
+
+        SubTask subTask = subTasks.get(id);
+        LocalDateTime start = subTask.getStartTime();
+        for (int dependsOn : dependencies.get(id)) {
+            LocalDateTime end = earliestEnd(subTasks, dependencies, cache, dependsOn);
+            if (end.isAfter(start)) {
+                start = end;
+            }
+        }
+
+        LocalDateTime end = start.plus(subTask.getDuration());
+        cache.put(id, end);
+        return end;
+    }
+
+    private static boolean isReachable(Map<Integer, Set<Integer>> dependencies, int from, int to) {
+        Set<Integer> visited = new HashSet<>();
+        List<Integer> stack = new ArrayList<>(List.of(from));
+        while (!stack.isEmpty()) {
+            int id = stack.remove(stack.size() - 1);
+            if (id == to) {
+                return true;
+            }
+
+            if (visited.add(id)) {
+                stack.addAll(dependencies.get(id));
+            }
+        }
+
+        return false;
+    }
+
+    private static SubTask createSubTask(int id, int startHours, int durationHours) {
+        return new SubTask(id, "Подзадача " + id, "Описание", TaskStatus.NEW, START_TIME.plusHours(startHours), Duration.ofHours(durationHours), EPIC_ID);
+    }
+}
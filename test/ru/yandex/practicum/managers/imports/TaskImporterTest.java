@@ -0,0 +1,138 @@
+package ru.yandex.practicum.managers.imports;
+
+// region imports
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import ru.yandex.practicum.abstractions.TaskManager;
+import ru.yandex.practicum.constants.OperationType;
+import ru.yandex.practicum.constants.RecurrenceFrequency;
+import ru.yandex.practicum.constants.TaskStatus;
+import ru.yandex.practicum.managers.tasks.InMemoryTaskManager;
+import ru.yandex.practicum.models.Epic;
+import ru.yandex.practicum.models.Operation;
+import ru.yandex.practicum.models.RecurringTask;
+import ru.yandex.practicum.models.SubTask;
+import ru.yandex.practicum.models.Task;
+import ru.yandex.practicum.utils.json.GsonFactory;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.StringReader;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+// endregion
+
+public final class TaskImporterTest {
+    private TaskManager taskManager;
+
+    @BeforeEach
+    public void beforeEach() {
+        this.taskManager = new InMemoryTaskManager();
+    }
+
+    @Test
+    public void importTest() throws IOException {
+        String ndJson = String.join("\n",
+                "{\"type\":\"subtask\",\"name\":\"Подзадача\",\"description\":\"Описание\",\"startTime\":\"2024-01-01T12:00\",\"duration\":\"PT1H\",\"status\":\"DONE\",\"epicId\":100}",
+                "{\"type\":\"epic\",\"id\":100,\"name\":\"Эпик\",\"description\":\"Описание\"}",
+                "",
+                "{\"type\":\"task\",\"name\":\"Задача\",\"description\":\"Описание\",\"startTime\":\"2024-01-01T10:00\",\"duration\":\"PT2H\"}");
+
+        List<String> errors = new ArrayList<>();
+        TaskImporter.Result result = this.importFrom(ndJson, 2, errors);
+
+        Assertions.assertEquals(3, result.getImported());
+        Assertions.assertEquals(0, result.getRejected());
+        Assertions.assertTrue(errors.isEmpty());
+
+        Epic epic = this.taskManager.getAllEpics().getFirst();
+        SubTask subTask = this.taskManager.getAllSubTasks().getFirst();
+
+        Assertions.assertEquals(epic.getId(), subTask.getEpicId());
+        Assertions.assertEquals(TaskStatus.DONE, subTask.getStatus());
+        Assertions.assertEquals(TaskStatus.DONE, epic.getStatus());
+        Assertions.assertEquals(1, this.taskManager.getAllTasks().size());
+    }
+
+    @Test
+    public void importReportsErrorsPerLineTest() throws IOException {
+        Task task = new Task("Задача", "Описание", LocalDateTime.of(2024, 1, 1, 10, 0), Duration.ofHours(1));
+        this.taskManager.createTask(task);
+
+        String ndJson = String.join("\n",
+                "{\"type\":\"task\",\"name\":\"Задача 1\",\"description\":\"Описание\",\"startTime\":\"2024-01-01T09:30\",\"duration\":\"PT1H\"}",
+                "не JSON",
+                "{\"type\":\"task\",\"name\":\"Задача 2\",\"description\":\"Описание\",\"startTime\":\"2024-01-01T11:00\",\"duration\":\"PT1H\"}",
+                "{\"type\":\"task\",\"name\":\"Задача 3\",\"description\":\"Описание\",\"startTime\":\"2024-01-01T11:30\",\"duration\":\"PT1H\"}",
+                "{\"type\":\"subtask\",\"name\":\"Подзадача\",\"description\":\"Описание\",\"startTime\":\"2024-01-01T15:00\",\"duration\":\"PT1H\",\"epicId\":1000000}",
+                "{\"type\":\"task\",\"description\":\"Описание\",\"startTime\":\"2024-01-01T18:00\",\"duration\":\"PT1H\"}");
+
+        List<String> errors = new ArrayList<>();
+        TaskImporter.Result result = this.importFrom(ndJson, 2, errors);
+
+        Assertions.assertEquals(1, result.getImported());
+        Assertions.assertEquals(5, result.getRejected());
+        Assertions.assertEquals(List.of("2", "6", "1", "4", "5"), errors);
+        Assertions.assertEquals(List.of("Задача", "Задача 2"), this.taskManager.getPrioritizedTasks().stream().map(Task::getName).toList());
+    }
+
+    @Test
+    public void importRejectsLinesCrossingRecurringTaskTest() throws IOException {
+        RecurringTask recurringTask = new RecurringTask("Планёрка", "Описание", LocalDateTime.of(2024, 1, 1, 9, 0), Duration.ofHours(1), RecurrenceFrequency.DAILY, null);
+        this.taskManager.createRecurringTask(recurringTask);
+
+        String ndJson = String.join("\n",
+                "{\"type\":\"task\",\"name\":\"Задача 1\",\"description\":\"Описание\",\"startTime\":\"2024-01-02T09:30\",\"duration\":\"PT1H\"}",
+                "{\"type\":\"task\",\"name\":\"Задача 2\",\"description\":\"Описание\",\"startTime\":\"2024-01-02T12:00\",\"duration\":\"PT1H\"}");
+
+        List<String> errors = new ArrayList<>();
+        TaskImporter.Result result = this.importFrom(ndJson, 2, errors);
+
+        Assertions.assertEquals(1, result.getImported());
+        Assertions.assertEquals(1, result.getRejected());
+        Assertions.assertEquals(List.of("1"), errors);
+        Assertions.assertEquals(List.of("Задача 2"), this.taskManager.getAllTasks().stream().map(Task::getName).toList());
+    }
+
+    @Test
+    public void importAppliesBoundedBatchesTest() throws IOException {
+        List<List<Operation>> batches = new ArrayList<>();
+        this.taskManager = new InMemoryTaskManager() {
+            @Override
+            public void applyBatch(List<Operation> operations) {
+                batches.add(new ArrayList<>(operations));
+                super.applyBatch(operations);
+            }
+        };
+
+        String ndJson = String.join("\n",
+                "{\"type\":\"epic\",\"id\":100,\"name\":\"Эпик\",\"description\":\"Описание\"}",
+                "{\"type\":\"task\",\"name\":\"Задача 1\",\"description\":\"Описание\",\"startTime\":\"2024-01-01T10:00\",\"duration\":\"PT1H\",\"status\":\"DONE\"}",
+                "{\"type\":\"task\",\"name\":\"Задача 2\",\"description\":\"Описание\",\"startTime\":\"2024-01-01T11:00\",\"duration\":\"PT1H\"}",
+                "{\"type\":\"subtask\",\"name\":\"Подзадача\",\"description\":\"Описание\",\"startTime\":\"2024-01-01T12:00\",\"duration\":\"PT1H\",\"status\":\"IN_PROGRESS\",\"epicId\":100}",
+                "{\"type\":\"task\",\"name\":\"Задача 3\",\"description\":\"Описание\",\"startTime\":\"2024-01-01T13:00\",\"duration\":\"PT1H\"}");
+
+        List<String> errors = new ArrayList<>();
+        TaskImporter.Result result = this.importFrom(ndJson, 2, errors);
+
+        Assertions.assertEquals(5, result.getImported());
+        Assertions.assertTrue(errors.isEmpty());
+
+        // Эпики загружаются до подзадач, затем задачи и подзадачи - пакетами не больше двух операций.
+        Assertions.assertEquals(List.of(1, 2, 2), batches.stream().map(List::size).toList());
+        Assertions.assertTrue(batches.stream().flatMap(List::stream).allMatch(operation -> operation.getType() == OperationType.CREATE));
+
+        Assertions.assertEquals(TaskStatus.DONE, this.taskManager.getAllTasks().getFirst().getStatus());
+        Assertions.assertEquals(TaskStatus.IN_PROGRESS, this.taskManager.getAllEpics().getFirst().getStatus());
+    }
+
+    private TaskImporter.Result importFrom(String ndJson, int maxInMemory, List<String> errors) throws IOException {
+        TaskImporter taskImporter = new TaskImporter(this.taskManager, GsonFactory.getDefault(), maxInMemory);
+        return taskImporter.importFrom(new BufferedReader(new StringReader(ndJson)), (line, message) -> errors.add(String.valueOf(line)));
+    }
+}
@@ -0,0 +1,145 @@
+package ru.yandex.practicum.managers.replication;
+
+// region imports
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import ru.yandex.practicum.constants.TaskStatus;
+import ru.yandex.practicum.managers.tasks.InMemoryTaskManager;
+import ru.yandex.practicum.managers.tasks.ReplicaTaskManager;
+import ru.yandex.practicum.models.AbstractTask;
+import ru.yandex.practicum.models.Epic;
+import ru.yandex.practicum.models.SubTask;
+import ru.yandex.practicum.models.Task;
+import ru.yandex.practicum.utils.metrics.MetricsRegistry;
+
+import java.io.IOException;
+import java.net.BindException;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+
+// endregion
+
+public final class ReplicationFollowerTest {
+    private static final LocalDateTime START_TIME = LocalDateTime.of(2024, 1, 1, 0, 0);
+
+    private InMemoryTaskManager primary;
+    private ReplicaTaskManager replica;
+    private ReplicationPublisher publisher;
+    private ReplicationFollower follower;
+
+    @BeforeEach
+    public void beforeEach() {
+        this.primary = new InMemoryTaskManager();
+        this.replica = new ReplicaTaskManager();
+    }
+
+    @AfterEach
+    public void afterEach() throws IOException {
+        if (this.follower != null) {
+            this.follower.close();
+        }
+
+        if (this.publisher != null) {
+            this.publisher.close();
+        }
+    }
+
+    @Test
+    public void snapshotAndChangesAreReplicatedTest() throws Exception {
+        Task task = new Task("Задача", "Описание задачи", START_TIME, Duration.ofMinutes(30));
+        this.primary.createTask(task);
+
+        Epic epic = new Epic("Эпик", "Описание эпика");
+        this.primary.createEpic(epic);
+
+        SubTask subTask = new SubTask("Подзадача", "Описание подзадачи", START_TIME.plusHours(1), Duration.ofMinutes(30), epic.getId());
+        epic.addSubTask(subTask);
+        this.primary.createSubTask(subTask);
+
+        this.startReplication();
+        this.awaitCaughtUp();
+        this.assertReplicated();
+
+        SubTask doneSubTask = new SubTask(subTask.getId(), "Подзадача", "Описание подзадачи", TaskStatus.DONE, START_TIME.plusHours(1), Duration.ofMinutes(30), epic.getId());
+        this.primary.updateSubTask(doneSubTask);
+        this.primary.removeTaskById(task.getId());
+        this.primary.createTask(new Task("Задача 2", "Описание задачи 2", START_TIME.plusHours(2), Duration.ofMinutes(30)));
+
+        this.awaitCaughtUp();
+        this.assertReplicated();
+        Assertions.assertEquals(TaskStatus.DONE, this.replica.epics.get(epic.getId()).getStatus());
+        Assertions.assertEquals(0, this.follower.getLagVersions());
+        Assertions.assertTrue(this.follower.getLagMillis() >= 0);
+    }
+
+    @Test
+    public void replicaResyncsWithRestartedPrimaryTest() throws Exception {
+        Epic epic = new Epic("Эпик", "Описание эпика");
+        this.primary.createEpic(epic);
+
+        this.startReplication();
+        this.awaitCaughtUp();
+
+        int port = this.publisher.getPort();
+        this.publisher.close();
+
+        // Изменения без ведущей стороны репликации реплика получит только в полном состоянии.
+        this.primary.removeEpicById(epic.getId());
+        this.primary.createTask(new Task("Задача", "Описание задачи", START_TIME, Duration.ofMinutes(30)));
+
+        this.restartPublisher(port);
+
+        this.awaitCaughtUp();
+        this.assertReplicated();
+        Assertions.assertTrue(this.replica.getAllEpics().isEmpty());
+    }
+
+    private void startReplication() throws IOException {
+        this.publisher = new ReplicationPublisher(this.primary, 0, new MetricsRegistry());
+        this.publisher.start();
+
+        this.follower = new ReplicationFollower(this.replica, this.publisher.getPort(), new MetricsRegistry());
+        this.follower.start();
+    }
+
+    private void restartPublisher(int port) throws IOException, InterruptedException {
+        // Закрытый порт освобождается не мгновенно, поэтому занять его снова удаётся не с первой попытки.
+        long deadline = System.currentTimeMillis() + 10_000;
+        while (true) {
+            this.publisher = new ReplicationPublisher(this.primary, port, new MetricsRegistry());
+            try {
+                this.publisher.start();
+                return;
+            } catch (BindException ex) {
+                this.publisher.close();
+                if (System.currentTimeMillis() >= deadline) {
+                    throw ex;
+                }
+                Thread.sleep(100);
+            }
+        }
+    }
+
+    private void awaitCaughtUp() throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 10_000;
+        while (!this.follower.isConnected() || this.follower.getAppliedVersion() != this.primary.getVersion()) {
+            Assertions.assertTrue(System.currentTimeMillis() < deadline, "Реплика не догнала ведущий сервер");
+            Thread.sleep(10);
+        }
+    }
+
+    private void assertReplicated() {
+        Assertions.assertEquals(describe(this.primary.getAllTasks()), describe(this.replica.getAllTasks()));
+        Assertions.assertEquals(describe(this.primary.getAllSubTasks()), describe(this.replica.getAllSubTasks()));
+        Assertions.assertEquals(describe(this.primary.getAllEpics()), describe(this.replica.getAllEpics()));
+        Assertions.assertEquals(describe(this.primary.getPrioritizedTasks().stream().toList()), describe(this.replica.getPrioritizedTasks().stream().toList()));
+    }
+
+    private static List<String> describe(List<? extends AbstractTask> items) {
+        return items.stream().map(Object::toString).sorted().toList();
+    }
+}
@@ -0,0 +1,95 @@
+package ru.yandex.practicum.managers.schedule;
+
+// region imports
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import ru.yandex.practicum.constants.TaskStatus;
+import ru.yandex.practicum.models.Task;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+// endregion
+
+public final class ScheduleGapIndexTest {
+    private static final LocalDateTime START_TIME = LocalDateTime.of(2024, 1, 1, 0, 0);
+
+    @Test
+    public void findEarliestSlotTest() {
+        ScheduleGapIndex index = new ScheduleGapIndex();
+        Assertions.assertEquals(START_TIME, index.findEarliestSlot(START_TIME, Duration.ofHours(1)));
+
+        index.upsert(createTask(1, 0, 2));
+        index.upsert(createTask(2, 3, 1));
+        index.upsert(createTask(3, 6, 2));
+
+        Assertions.assertEquals(START_TIME.plusHours(2), index.findEarliestSlot(START_TIME, Duration.ofHours(1)));
+        Assertions.assertEquals(START_TIME.plusHours(4), index.findEarliestSlot(START_TIME, Duration.ofHours(2)));
+        Assertions.assertEquals(START_TIME.plusHours(8), index.findEarliestSlot(START_TIME, Duration.ofHours(3)));
+        Assertions.assertEquals(START_TIME.plusHours(4).plusMinutes(30), index.findEarliestSlot(START_TIME.plusHours(4).plusMinutes(30), Duration.ofMinutes(90)));
+        Assertions.assertEquals(START_TIME.minusHours(1), index.findEarliestSlot(START_TIME.minusHours(1), Duration.ofHours(1)));
+
+        index.upsert(createTask(2, 2, 4));
+        Assertions.assertEquals(START_TIME.plusHours(8), index.findEarliestSlot(START_TIME, Duration.ofHours(1)));
+
+        index.remove(1);
+        Assertions.assertEquals(START_TIME, index.findEarliestSlot(START_TIME, Duration.ofHours(2)));
+        Assertions.assertEquals(2, index.size());
+    }
+
+    @Test
+    public void slotMatchesFullScanTest() {
+        Random random = new Random(7);
+        ScheduleGapIndex index = new ScheduleGapIndex();
+        Map<Integer, Task> tasks = new HashMap<>();
+
+        for (int step = 0; step < 3_000; step++) {
+            int id = 1 + random.nextInt(200);
+            if (random.nextInt(4) == 0) {
+                tasks.remove(id);
+                index.remove(id);
+            } else {
+                // Длительность 0 тоже допустима: такая задача занимает момент своего начала.
+                Task task = createTask(id, random.nextInt(2_000), random.nextInt(12));
+                tasks.put(id, task);
+                index.upsert(task);
+            }
+
+            LocalDateTime from = START_TIME.plusHours(random.nextInt(2_100));
+            Duration duration = Duration.ofHours(1 + random.nextInt(6));
+
+            LocalDateTime slot = index.findEarliestSlot(from, duration);
+            Assertions.assertEquals(findByScan(new ArrayList<>(tasks.values()), from, duration), slot);
+        }
+    }
+
+    private static LocalDateTime findByScan(List<Task> tasks, LocalDateTime from, Duration duration) {
+        LocalDateTime slot = from;
+        boolean moved = true;
+        while (moved) {
+            moved = false;
+
+            Task candidate = new Task(Integer.MAX_VALUE, "Кандидат", "Описание", TaskStatus.NEW, slot, duration);
+            for (Task task : tasks) {
+                if (task.isCrossed(candidate)) {
+                    LocalDateTime endTime = task.getEndTime().isAfter(task.getStartTime()) ? task.getEndTime() : task.getStartTime().plusNanos(1);
+                    slot = endTime.isAfter(slot) ? endTime : slot;
+                    moved = true;
+                    break;
+                }
+            }
+        }
+
+        return slot;
+    }
+
+    private static Task createTask(int id, int startHours, int durationHours) {
+        return new Task(id, "Задача " + id, "Описание", TaskStatus.NEW, START_TIME.plusHours(startHours), Duration.ofHours(durationHours));
+    }
+}
@@ -0,0 +1,45 @@
+package ru.yandex.practicum.managers.sync;
+
+// region imports
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import ru.yandex.practicum.constants.ChangeType;
+import ru.yandex.practicum.constants.TaskType;
+import ru.yandex.practicum.models.ChangeEvent;
+
+import java.util.List;
+
+// endregion
+
+public final class ChangeLogTest {
+    @Test
+    public void keepLatestChangePerTaskTest() {
+        ChangeLog changeLog = new ChangeLog(10);
+        changeLog.append(new ChangeEvent(ChangeType.CREATED, TaskType.TASK, 1, 1));
+        changeLog.append(new ChangeEvent(ChangeType.CREATED, TaskType.TASK, 2, 2));
+        changeLog.append(new ChangeEvent(ChangeType.UPDATED, TaskType.TASK, 1, 3));
+        changeLog.append(new ChangeEvent(ChangeType.REMOVED, TaskType.TASK, 2, 4));
+
+        Assertions.assertEquals(2, changeLog.size());
+        Assertions.assertEquals(List.of(3L, 4L), versions(changeLog, 0));
+        Assertions.assertEquals(List.of(4L), versions(changeLog, 3));
+        Assertions.assertEquals(List.of(), versions(changeLog, 4));
+    }
+
+    @Test
+    public void compactedChangesAreUnavailableTest() {
+        ChangeLog changeLog = new ChangeLog(2);
+        for (int i = 1; i <= 5; i++) {
+            changeLog.append(new ChangeEvent(ChangeType.CREATED, TaskType.EPIC, i, i));
+        }
+
+        Assertions.assertEquals(2, changeLog.size());
+        Assertions.assertTrue(changeLog.getChangesSince(2).isEmpty());
+        Assertions.assertEquals(List.of(4L, 5L), versions(changeLog, 3));
+    }
+
+    private static List<Long> versions(ChangeLog changeLog, long since) {
+        return changeLog.getChangesSince(since).orElseThrow().stream().map(ChangeEvent::getVersion).toList();
+    }
+}
@@ -7,10 +7,13 @@ import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import ru.yandex.practicum.abstractions.TaskManager;
+import ru.yandex.practicum.constants.RecurrenceFrequency;
 import ru.yandex.practicum.constants.TaskStatus;
 import ru.yandex.practicum.constants.TaskType;
 import ru.yandex.practicum.exceptions.ManagerLoadException;
 import ru.yandex.practicum.models.Epic;
+import ru.yandex.practicum.models.Operation;
+import ru.yandex.practicum.models.RecurringTask;
 import ru.yandex.practicum.models.SubTask;
 import ru.yandex.practicum.models.Task;
 
@@ -22,6 +25,7 @@ import java.time.Duration;
 import java.time.LocalDateTime;
 import java.util.Arrays;
 import java.util.List;
+import java.util.Optional;
 
 // endregion
 
@@ -38,6 +42,10 @@ public final class FileBackedTaskManagerTest {
     @AfterEach
     public void afterEach() throws IOException {
         Files.deleteIfExists(storage.toPath());
+        Files.deleteIfExists(FileBackedTaskManager.getIdStorage(storage));
+        Files.deleteIfExists(FileBackedTaskManager.getVersionStorage(storage));
+        Files.deleteIfExists(FileBackedTaskManager.getDependencyStorage(storage));
+        Files.deleteIfExists(FileBackedTaskManager.getRecurringTaskStorage(storage));
     }
 
     @Test
@@ -86,6 +94,108 @@ public final class FileBackedTaskManagerTest {
 
         Assertions.assertIterableEquals(Files.readAllLines(this.storage.toPath()), Files.readAllLines(otherStorage.toPath()));
         Files.deleteIfExists(otherStorage.toPath());
+        Files.deleteIfExists(FileBackedTaskManager.getIdStorage(otherStorage));
+        Files.deleteIfExists(FileBackedTaskManager.getVersionStorage(otherStorage));
+    }
+
+    @Test
+    public void createTaskInEarliestSlotSavesTaskTest() throws IOException {
+        LocalDateTime startTime = LocalDateTime.of(2024, 1, 1, 9, 0);
+        this.taskManager.createTask(new Task("Задача 1", "Описание задачи 1", startTime, Duration.ofHours(1)));
+        Task task = this.taskManager.createTaskInEarliestSlot(new Task("Задача 2", "Описание задачи 2", startTime, Duration.ofHours(1)));
+        Assertions.assertEquals(startTime.plusHours(1), task.getStartTime());
+
+        File otherStorage = new File("./otherStorage.csv");
+        FileBackedTaskManager otherTaskManager = new FileBackedTaskManager(otherStorage);
+        FileBackedTaskManager.loadFromFile(otherTaskManager, this.storage);
+
+        Assertions.assertEquals(startTime.plusHours(1), otherTaskManager.getTaskById(task.getId()).orElseThrow().getStartTime());
+
+        Files.deleteIfExists(otherStorage.toPath());
+        Files.deleteIfExists(FileBackedTaskManager.getIdStorage(otherStorage));
+        Files.deleteIfExists(FileBackedTaskManager.getVersionStorage(otherStorage));
+    }
+
+    @Test
+    public void loadFromFileDoesNotReuseIdsTest() throws IOException {
+        Files.writeString(this.storage.toPath(), String.format("50000,TASK,Задача,NEW,Описание задачи,%s,PT1H%n", LocalDateTime.now()), StandardCharsets.UTF_8);
+        Files.writeString(FileBackedTaskManager.getIdStorage(this.storage), "50005", StandardCharsets.UTF_8);
+
+        File otherStorage = new File("./otherStorage.csv");
+        FileBackedTaskManager otherTaskManager = new FileBackedTaskManager(otherStorage);
+        FileBackedTaskManager.loadFromFile(otherTaskManager, this.storage);
+
+        Task task = new Task("Задача 2", "Описание задачи 2", LocalDateTime.now().plusHours(2), Duration.ofHours(1));
+        otherTaskManager.createTask(task);
+
+        Assertions.assertTrue(task.getId() > 50005);
+        Assertions.assertTrue(Integer.parseInt(Files.readString(FileBackedTaskManager.getIdStorage(otherStorage), StandardCharsets.UTF_8)) >= task.getId());
+
+        Files.deleteIfExists(otherStorage.toPath());
+        Files.deleteIfExists(FileBackedTaskManager.getIdStorage(otherStorage));
+        Files.deleteIfExists(FileBackedTaskManager.getVersionStorage(otherStorage));
+    }
+
+    @Test
+    public void loadFromFileRestoresDependenciesTest() throws IOException {
+        LocalDateTime startTime = LocalDateTime.of(2024, 1, 1, 0, 0);
+
+        Epic epic = new Epic("Эпик", "Описание эпика");
+        taskManager.createEpic(epic);
+
+        SubTask subTask1 = new SubTask("Подзадача №1", "Описание подзадачи №1", startTime, Duration.ofHours(2), epic.getId());
+        epic.addSubTask(subTask1);
+        taskManager.createSubTask(subTask1);
+
+        SubTask subTask2 = new SubTask("Подзадача №2", "Описание подзадачи №2", startTime.plusHours(2), Duration.ofHours(1), epic.getId());
+        epic.addSubTask(subTask2);
+        taskManager.createSubTask(subTask2);
+
+        SubTask subTask3 = new SubTask("Подзадача №3", "Описание подзадачи №3", startTime.plusHours(3), Duration.ofHours(1), epic.getId());
+        epic.addSubTask(subTask3);
+        taskManager.createSubTask(subTask3);
+
+        taskManager.addDependency(subTask2.getId(), subTask1.getId());
+        taskManager.addDependency(subTask3.getId(), subTask2.getId());
+        taskManager.removeSubTaskById(subTask3.getId());
+
+        File otherStorage = new File("./otherStorage.csv");
+        FileBackedTaskManager otherTaskManager = new FileBackedTaskManager(otherStorage);
+        FileBackedTaskManager.loadFromFile(otherTaskManager, this.storage);
+
+        Assertions.assertEquals(List.of(subTask1), otherTaskManager.getDependencies(subTask2.getId()));
+        Assertions.assertEquals(List.of(subTask1, subTask2), otherTaskManager.getCriticalPath(epic.getId()));
+        Assertions.assertEquals(Optional.of(startTime.plusHours(3)), otherTaskManager.getEarliestEndTime(epic.getId()));
+
+        Files.deleteIfExists(otherStorage.toPath());
+        Files.deleteIfExists(FileBackedTaskManager.getIdStorage(otherStorage));
+        Files.deleteIfExists(FileBackedTaskManager.getVersionStorage(otherStorage));
+    }
+
+    @Test
+    public void loadFromFileRestoresRecurringTasksTest() throws IOException {
+        LocalDateTime startTime = LocalDateTime.of(2024, 1, 1, 9, 0);
+
+        RecurringTask recurringTask = new RecurringTask("Планёрка", "Описание планёрки", startTime, Duration.ofMinutes(30), RecurrenceFrequency.WEEKLY, startTime.plusWeeks(10));
+        taskManager.createRecurringTask(recurringTask);
+        taskManager.overrideOccurrence(recurringTask.getId(), startTime.plusWeeks(1), new Task("Планёрка", "Перенесена", startTime.plusWeeks(1).plusHours(2), Duration.ofMinutes(45)));
+        taskManager.cancelOccurrence(recurringTask.getId(), startTime.plusWeeks(2));
+
+        File otherStorage = new File("./otherStorage.csv");
+        FileBackedTaskManager otherTaskManager = new FileBackedTaskManager(otherStorage);
+        FileBackedTaskManager.loadFromFile(otherTaskManager, this.storage);
+
+        RecurringTask loaded = otherTaskManager.getRecurringTaskById(recurringTask.getId()).orElseThrow();
+        Assertions.assertEquals(RecurrenceFrequency.WEEKLY, loaded.getFrequency());
+        Assertions.assertEquals(Optional.of(startTime.plusWeeks(10)), loaded.getUntil());
+        Assertions.assertEquals(recurringTask.getOverrides().keySet(), loaded.getOverrides().keySet());
+        Assertions.assertEquals(recurringTask.getCancelledOccurrences(), loaded.getCancelledOccurrences());
+        Assertions.assertEquals("Перенесена", loaded.getOverrides().get(startTime.plusWeeks(1)).getDescription());
+        Assertions.assertEquals(taskManager.getSchedule(startTime, startTime.plusWeeks(12)).size(), otherTaskManager.getSchedule(startTime, startTime.plusWeeks(12)).size());
+
+        Files.deleteIfExists(otherStorage.toPath());
+        Files.deleteIfExists(FileBackedTaskManager.getIdStorage(otherStorage));
+        Files.deleteIfExists(FileBackedTaskManager.getVersionStorage(otherStorage));
     }
 
     @Test
@@ -821,4 +931,17 @@ public final class FileBackedTaskManagerTest {
         Assertions.assertEquals(String.join(",", String.valueOf(subTask3.getId()), TaskType.SUBTASK.toString(), subTask3.getName(), subTask3.getStatus().toString(), subTask3.getDescription(), subTask3.getStartTime().toString(), subTask3.getDuration().toString(), String.valueOf(epic2.getId())), lines.get(1));
         Assertions.assertEquals(String.join(",", String.valueOf(task1.getId()), TaskType.TASK.toString(), task1.getName(), task1.getStatus().toString(), task1.getDescription(), task1.getStartTime().toString(), task1.getDuration().toString()), lines.get(2));
     }
+
+    @Test
+    public void applyBatchTest() throws IOException {
+        Epic epic = new Epic("Эпик", "Описание эпика");
+        SubTask subTask = new SubTask("Подзадача", "Описание подзадачи", LocalDateTime.now(), Duration.ofHours(1), epic.getId());
+        Task task = new Task("Задача", "Описание задачи", LocalDateTime.now().plusHours(1), Duration.ofHours(1));
+
+        this.taskManager.applyBatch(List.of(Operation.create(epic), Operation.create(subTask), Operation.create(task)));
+
+        List<String> lines = Files.readAllLines(this.storage.toPath(), StandardCharsets.UTF_8);
+
+        Assertions.assertEquals(List.of(epic.toCsvString(), subTask.toCsvString(), task.toCsvString()), lines);
+    }
 }
@@ -6,15 +6,24 @@ import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import ru.yandex.practicum.abstractions.TaskManager;
+import ru.yandex.practicum.constants.ChangeType;
+import ru.yandex.practicum.constants.RecurrenceFrequency;
 import ru.yandex.practicum.constants.TaskStatus;
+import ru.yandex.practicum.constants.TaskType;
+import ru.yandex.practicum.models.ChangeEvent;
+import ru.yandex.practicum.models.ChangeSet;
 import ru.yandex.practicum.models.Epic;
+import ru.yandex.practicum.models.Operation;
+import ru.yandex.practicum.models.RecurringTask;
 import ru.yandex.practicum.models.SubTask;
 import ru.yandex.practicum.models.Task;
 
 import java.time.Duration;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
+import java.util.Optional;
 
 // endregion
 
@@ -56,6 +65,76 @@ public final class InMemoryTaskManagerTest {
         Assertions.assertThrows(IllegalStateException.class, () -> this.taskManager.createTask(task4));
     }
 
+    @Test
+    public void createTaskInEarliestSlotTest() {
+        LocalDateTime startTime = LocalDateTime.of(2024, 1, 1, 9, 0);
+
+        this.taskManager.createTask(new Task("Задача 1", "Описание задачи 1", startTime, Duration.ofHours(2)));
+        this.taskManager.createTask(new Task("Задача 2", "Описание задачи 2", startTime.plusHours(3), Duration.ofHours(2)));
+
+        Task task3 = this.taskManager.createTaskInEarliestSlot(new Task("Задача 3", "Описание задачи 3", startTime.plusHours(1), Duration.ofHours(1)));
+        Assertions.assertEquals(startTime.plusHours(2), task3.getStartTime());
+
+        Task task4 = this.taskManager.createTaskInEarliestSlot(new Task("Задача 4", "Описание задачи 4", startTime, Duration.ofHours(1)));
+        Assertions.assertEquals(startTime.plusHours(5), task4.getStartTime());
+
+        Task task5 = this.taskManager.createTaskInEarliestSlot(new Task("Задача 5", "Описание задачи 5", startTime.minusHours(2), Duration.ofHours(1)));
+        Assertions.assertEquals(startTime.minusHours(2), task5.getStartTime());
+
+        Assertions.assertEquals(5, this.taskManager.getAllTasks().size());
+        Assertions.assertEquals(Optional.of(task4), this.taskManager.getTaskById(task4.getId()));
+    }
+
+    @Test
+    public void recurringTaskOccurrencesTakePartInScheduleTest() {
+        LocalDateTime startTime = LocalDateTime.of(2024, 1, 1, 9, 0);
+
+        RecurringTask recurringTask = new RecurringTask("Планёрка", "Описание планёрки", startTime, Duration.ofMinutes(30), RecurrenceFrequency.DAILY, null);
+        this.taskManager.createRecurringTask(recurringTask);
+
+        Task crossed = new Task("Задача 1", "Описание задачи 1", startTime.plusDays(200).minusMinutes(10), Duration.ofHours(1));
+        Assertions.assertThrows(IllegalStateException.class, () -> this.taskManager.createTask(crossed));
+
+        Task task = new Task("Задача 2", "Описание задачи 2", startTime.plusDays(1).plusHours(1), Duration.ofHours(1));
+        this.taskManager.createTask(task);
+
+        Assertions.assertThrows(IllegalStateException.class, () -> this.taskManager.createRecurringTask(new RecurringTask("Обзор", "Описание обзора", startTime.plusDays(1).plusHours(1), Duration.ofHours(1), RecurrenceFrequency.WEEKLY, null)));
+        Assertions.assertThrows(IllegalStateException.class, () -> this.taskManager.overrideOccurrence(recurringTask.getId(), startTime.plusDays(1), new Task("Планёрка", "Описание планёрки", startTime.plusDays(1).plusHours(1), Duration.ofMinutes(30))));
+
+        this.taskManager.overrideOccurrence(recurringTask.getId(), startTime.plusDays(1), new Task("Планёрка", "Описание планёрки", startTime.plusDays(1).plusHours(2), Duration.ofMinutes(30)));
+        this.taskManager.cancelOccurrence(recurringTask.getId(), startTime.plusDays(2));
+
+        List<Task> schedule = this.taskManager.getSchedule(startTime, startTime.plusDays(3));
+        Assertions.assertEquals(3, schedule.size());
+        Assertions.assertEquals(startTime, schedule.get(0).getStartTime());
+        Assertions.assertEquals(task, schedule.get(1));
+        Assertions.assertEquals(startTime.plusDays(1).plusHours(2), schedule.get(2).getStartTime());
+
+        // Повторения не попадают в задачи и упорядоченный список.
+        Assertions.assertEquals(List.of(task), this.taskManager.getAllTasks());
+        Assertions.assertEquals(1, this.taskManager.getPrioritizedTasks().size());
+
+        Assertions.assertEquals(startTime.plusDays(5).plusMinutes(30), this.taskManager.findEarliestSlot(startTime.plusDays(5), Duration.ofHours(1)));
+
+        this.taskManager.removeRecurringTaskById(recurringTask.getId());
+        Assertions.assertTrue(this.taskManager.getAllRecurringTasks().isEmpty());
+        Assertions.assertThrows(IllegalStateException.class, () -> this.taskManager.removeRecurringTaskById(recurringTask.getId()));
+    }
+
+    @Test
+    public void findEarliestSlotWithoutGapBetweenOccurrencesTest() {
+        LocalDateTime startTime = LocalDateTime.of(2024, 1, 1, 0, 0);
+
+        // Между повторениями остаётся час: двухчасовой промежуток не найдётся никогда.
+        this.taskManager.createRecurringTask(new RecurringTask("Смена", "Описание смены", startTime, Duration.ofHours(23), RecurrenceFrequency.DAILY, null));
+        this.taskManager.createTask(new Task("Задача", "Описание задачи", startTime.plusDays(30).plusHours(23), Duration.ofMinutes(30)));
+
+        Assertions.assertThrows(IllegalStateException.class, () -> this.taskManager.findEarliestSlot(startTime, Duration.ofHours(2)));
+        Assertions.assertThrows(IllegalStateException.class, () -> this.taskManager.createTaskInEarliestSlot(new Task("Задача", "Описание задачи", startTime, Duration.ofHours(2))));
+        Assertions.assertEquals(startTime.plusHours(23), this.taskManager.findEarliestSlot(startTime, Duration.ofHours(1)));
+        Assertions.assertEquals(startTime.plusDays(31).plusHours(23), this.taskManager.findEarliestSlot(startTime.plusDays(30).plusHours(23), Duration.ofHours(1)));
+    }
+
     @Test
     public void createTaskTwiceTest() {
         Task task = new Task("Задача", "Описание задачи", LocalDateTime.now(), Duration.ofHours(8));
@@ -684,4 +763,212 @@ public final class InMemoryTaskManagerTest {
         Assertions.assertEquals(2, this.taskManager.getHistory().size());
         Assertions.assertArrayEquals(Arrays.asList(task1, subTask3).toArray(), this.taskManager.getHistory().toArray());
     }
-}
\ No newline at end of file
+
+    @Test
+    public void versionIncreasesOnEachChangeTest() {
+        long initialVersion = this.taskManager.getVersion();
+
+        Task task = new Task("Задача", "Описание задачи", LocalDateTime.now(), Duration.ofHours(1));
+        this.taskManager.createTask(task);
+        long createdVersion = this.taskManager.getVersion();
+
+        Assertions.assertTrue(createdVersion > initialVersion);
+        Assertions.assertEquals(createdVersion, this.taskManager.getVersion(task.getId()));
+
+        this.taskManager.getTaskById(task.getId());
+        this.taskManager.getAllTasks();
+        Assertions.assertEquals(createdVersion, this.taskManager.getVersion());
+
+        Task taskClone = Task.clone(task);
+        taskClone.setStatus(TaskStatus.IN_PROGRESS);
+        this.taskManager.updateTask(taskClone);
+
+        Assertions.assertTrue(this.taskManager.getVersion() > createdVersion);
+        Assertions.assertEquals(this.taskManager.getVersion(), this.taskManager.getVersion(task.getId()));
+
+        long updatedVersion = this.taskManager.getVersion();
+        this.taskManager.removeTaskById(task.getId());
+
+        Assertions.assertTrue(this.taskManager.getVersion() > updatedVersion);
+        Assertions.assertEquals(0, this.taskManager.getVersion(task.getId()));
+    }
+
+    @Test
+    public void epicVersionChangesWithSubTasksTest() {
+        Epic epic = new Epic("Эпик", "Описание эпика");
+        this.taskManager.createEpic(epic);
+        long epicVersion = this.taskManager.getVersion(epic.getId());
+
+        SubTask subTask = new SubTask("Подзадача", "Описание подзадачи", LocalDateTime.now(), Duration.ofHours(1), epic.getId());
+        epic.addSubTask(subTask);
+        this.taskManager.createSubTask(subTask);
+
+        Assertions.assertTrue(this.taskManager.getVersion(epic.getId()) > epicVersion);
+        epicVersion = this.taskManager.getVersion(epic.getId());
+
+        SubTask subTaskClone = SubTask.clone(subTask);
+        subTaskClone.setStatus(TaskStatus.DONE);
+        this.taskManager.updateSubTask(subTaskClone);
+
+        Assertions.assertTrue(this.taskManager.getVersion(epic.getId()) > epicVersion);
+        epicVersion = this.taskManager.getVersion(epic.getId());
+
+        this.taskManager.removeSubTaskById(subTask.getId());
+
+        Assertions.assertTrue(this.taskManager.getVersion(epic.getId()) > epicVersion);
+        Assertions.assertEquals(0, this.taskManager.getVersion(subTask.getId()));
+
+        this.taskManager.removeAllEpics();
+
+        Assertions.assertEquals(0, this.taskManager.getVersion(epic.getId()));
+    }
+
+    @Test
+    public void applyBatchTest() {
+        LocalDateTime startTime = LocalDateTime.now();
+
+        Task task = new Task("Задача", "Описание задачи", startTime, Duration.ofHours(1));
+        this.taskManager.createTask(task);
+
+        Epic epic = new Epic("Эпик", "Описание эпика");
+        SubTask subTask1 = new SubTask("Подзадача 1", "Описание подзадачи 1", startTime.plusHours(1), Duration.ofHours(1), epic.getId());
+        SubTask subTask2 = new SubTask("Подзадача 2", "Описание подзадачи 2", startTime.plusHours(2), Duration.ofHours(1), epic.getId());
+
+        Task taskClone = Task.clone(task);
+        taskClone.setStatus(TaskStatus.DONE);
+
+        this.taskManager.applyBatch(List.of(
+                Operation.create(epic),
+                Operation.create(subTask1),
+                Operation.create(subTask2),
+                Operation.update(taskClone),
+                Operation.remove(TaskType.SUBTASK, subTask2.getId())
+        ));
+
+        Assertions.assertEquals(List.of(epic), this.taskManager.getAllEpics());
+        Assertions.assertEquals(List.of(subTask1), this.taskManager.getAllSubTasks());
+        Assertions.assertEquals(List.of(subTask1), epic.getAllSubTasks());
+        Assertions.assertEquals(TaskStatus.DONE, this.taskManager.getTaskById(task.getId()).get().getStatus());
+        Assertions.assertIterableEquals(List.of(task, subTask1), this.taskManager.getPrioritizedTasks());
+        Assertions.assertEquals(this.taskManager.getVersion(), this.taskManager.getVersion(epic.getId()));
+    }
+
+    @Test
+    public void applyBatchIsAtomicTest() {
+        LocalDateTime startTime = LocalDateTime.now();
+
+        Task task1 = new Task("Задача 1", "Описание задачи 1", startTime, Duration.ofHours(2));
+        this.taskManager.createTask(task1);
+        long version = this.taskManager.getVersion();
+
+        Task task2 = new Task("Задача 2", "Описание задачи 2", startTime.plusHours(4), Duration.ofHours(1));
+        Task task3 = new Task("Задача 3", "Описание задачи 3", startTime.plusHours(1), Duration.ofHours(1));
+
+        Assertions.assertThrows(IllegalStateException.class, () -> this.taskManager.applyBatch(List.of(
+                Operation.create(task2),
+                Operation.remove(TaskType.TASK, task1.getId()),
+                Operation.create(task3),
+                Operation.remove(TaskType.TASK, task1.getId())
+        )));
+
+        Assertions.assertThrows(IllegalStateException.class, () -> this.taskManager.applyBatch(List.of(
+                Operation.create(task2),
+                Operation.create(task3)
+        )));
+
+        Assertions.assertEquals(List.of(task1), this.taskManager.getAllTasks());
+        Assertions.assertIterableEquals(List.of(task1), this.taskManager.getPrioritizedTasks());
+        Assertions.assertEquals(version, this.taskManager.getVersion());
+
+        this.taskManager.applyBatch(List.of(
+                Operation.remove(TaskType.TASK, task1.getId()),
+                Operation.create(task3)
+        ));
+
+        Assertions.assertEquals(List.of(task3), this.taskManager.getAllTasks());
+    }
+
+    @Test
+    public void applyBatchRemovesEpicWithSubTasksTest() {
+        Epic epic = new Epic("Эпик", "Описание эпика");
+        SubTask subTask = new SubTask("Подзадача", "Описание подзадачи", LocalDateTime.now(), Duration.ofHours(1), epic.getId());
+
+        Assertions.assertThrows(IllegalStateException.class, () -> this.taskManager.applyBatch(List.of(
+                Operation.create(epic),
+                Operation.remove(TaskType.EPIC, epic.getId()),
+                Operation.create(subTask)
+        )));
+
+        this.taskManager.applyBatch(List.of(
+                Operation.create(epic),
+                Operation.create(subTask)
+        ));
+        this.taskManager.applyBatch(List.of(Operation.remove(TaskType.EPIC, epic.getId())));
+
+        Assertions.assertTrue(this.taskManager.getAllEpics().isEmpty());
+        Assertions.assertTrue(this.taskManager.getAllSubTasks().isEmpty());
+        Assertions.assertTrue(this.taskManager.getPrioritizedTasks().isEmpty());
+    }
+
+    @Test
+    public void changeListenerTest() {
+        List<ChangeEvent> events = new ArrayList<>();
+        this.taskManager.addChangeListener(events::add);
+
+        Epic epic = new Epic("Эпик", "Описание эпика");
+        this.taskManager.createEpic(epic);
+
+        SubTask subTask = new SubTask("Подзадача", "Описание подзадачи", LocalDateTime.now(), Duration.ofHours(1), epic.getId());
+        epic.addSubTask(subTask);
+        this.taskManager.createSubTask(subTask);
+
+        this.taskManager.removeEpicById(epic.getId());
+
+        Assertions.assertEquals(List.of(
+                ChangeType.CREATED + " " + TaskType.EPIC + " " + epic.getId(),
+                ChangeType.CREATED + " " + TaskType.SUBTASK + " " + subTask.getId(),
+                ChangeType.UPDATED + " " + TaskType.EPIC + " " + epic.getId(),
+                ChangeType.REMOVED + " " + TaskType.SUBTASK + " " + subTask.getId(),
+                ChangeType.REMOVED + " " + TaskType.EPIC + " " + epic.getId()
+        ), events.stream().map(e -> e.getType() + " " + e.getTaskType() + " " + e.getId()).toList());
+
+        for (int i = 0; i < events.size(); i++) {
+            Assertions.assertEquals(i + 1, events.get(i).getVersion());
+        }
+    }
+
+    @Test
+    public void getChangesSinceTest() {
+        Task task1 = new Task("Задача 1", "Описание задачи 1", LocalDateTime.now(), Duration.ofHours(1));
+        Task task2 = new Task("Задача 2", "Описание задачи 2", LocalDateTime.now().plusHours(1), Duration.ofHours(1));
+        this.taskManager.createTask(task1);
+        this.taskManager.createTask(task2);
+        long version = this.taskManager.getVersion();
+
+        Epic epic = new Epic("Эпик", "Описание эпика");
+        this.taskManager.createEpic(epic);
+        this.taskManager.removeTaskById(task1.getId());
+
+        ChangeSet changeSet = this.taskManager.getChangesSince(version);
+
+        Assertions.assertFalse(changeSet.isFullResyncRequired());
+        Assertions.assertEquals(this.taskManager.getVersion(), changeSet.getVersion());
+        Assertions.assertEquals(List.of(epic), changeSet.getEpics());
+        Assertions.assertTrue(changeSet.getTasks().isEmpty());
+        Assertions.assertEquals(1, changeSet.getRemoved().size());
+        Assertions.assertEquals(task1.getId(), changeSet.getRemoved().getFirst().getId());
+
+        Assertions.assertTrue(this.taskManager.getChangesSince(this.taskManager.getVersion() + 1).isFullResyncRequired());
+    }
+
+    @Test
+    public void getCompactedChangesTest() {
+        TaskManager taskManager = new InMemoryTaskManager(2);
+        for (int i = 0; i < 3; i++) {
+            taskManager.createEpic(new Epic("Эпик " + i, "Описание эпика"));
+        }
+
+        Assertions.assertTrue(taskManager.getChangesSince(0).isFullResyncRequired());
+        Assertions.assertEquals(2, taskManager.getChangesSince(1).getEpics().size());
+    }
+}
@@ -0,0 +1,32 @@
+package ru.yandex.practicum.managers.tasks;
+
+// region imports
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import ru.yandex.practicum.abstractions.TaskManager;
+import ru.yandex.practicum.models.Task;
+import ru.yandex.practicum.utils.metrics.MetricsRegistry;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+
+// endregion
+
+public final class InstrumentedTaskManagerTest {
+    @Test
+    public void measureOperationsTest() {
+        MetricsRegistry metricsRegistry = new MetricsRegistry();
+        TaskManager taskManager = new InstrumentedTaskManager(new InMemoryTaskManager(), metricsRegistry);
+
+        Task task = new Task("Задача", "Описание задачи", LocalDateTime.of(2024, 1, 1, 0, 0), Duration.ofMinutes(30));
+        taskManager.createTask(task);
+        Assertions.assertEquals(task, taskManager.getTaskById(task.getId()).orElseThrow());
+        Assertions.assertThrows(IllegalArgumentException.class, () -> taskManager.createTask(null));
+
+        Assertions.assertEquals(2, metricsRegistry.histogram("task_manager_operation_duration_seconds", "", "operation", "createTask").getCount());
+        Assertions.assertEquals(1, metricsRegistry.histogram("task_manager_operation_duration_seconds", "", "operation", "getTaskById").getCount());
+        Assertions.assertEquals(1, metricsRegistry.counter("task_manager_operation_errors_total", "", "operation", "createTask").sum());
+        Assertions.assertEquals(0, metricsRegistry.counter("task_manager_operation_errors_total", "", "operation", "getTaskById").sum());
+    }
+}
@@ -0,0 +1,107 @@
+package ru.yandex.practicum.managers.tasks;
+
+// region imports
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import ru.yandex.practicum.constants.TaskStatus;
+import ru.yandex.practicum.constants.TaskType;
+import ru.yandex.practicum.models.Epic;
+import ru.yandex.practicum.models.Operation;
+import ru.yandex.practicum.models.SubTask;
+import ru.yandex.practicum.models.Task;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicReference;
+
+// endregion
+
+public final class ReplicaTaskManagerTest {
+    private static final LocalDateTime START_TIME = LocalDateTime.of(2024, 1, 1, 0, 0);
+
+    @Test
+    public void replicaRejectsChangesTest() {
+        ReplicaTaskManager replica = new ReplicaTaskManager();
+
+        Assertions.assertThrows(IllegalStateException.class, () -> replica.createTask(new Task("Задача", "Описание задачи", START_TIME, Duration.ofMinutes(30))));
+        Assertions.assertThrows(IllegalStateException.class, () -> replica.removeAllEpics());
+        Assertions.assertThrows(IllegalStateException.class, () -> replica.applyBatch(List.of()));
+    }
+
+    @Test
+    public void replicateIsIdempotentTest() {
+        ReplicaTaskManager replica = new ReplicaTaskManager();
+
+        Epic epic = new Epic(100, "Эпик", "Описание эпика", new HashMap<>());
+        SubTask subTask = new SubTask("Подзадача", "Описание подзадачи", START_TIME, Duration.ofMinutes(30), epic.getId());
+        Task task = new Task("Задача", "Описание задачи", START_TIME.plusHours(1), Duration.ofMinutes(30));
+
+        replica.replicate(Operation.update(epic));
+        replica.replicate(Operation.create(subTask));
+        replica.replicate(Operation.create(subTask));
+        replica.replicate(Operation.update(task));
+        replica.replicate(Operation.remove(TaskType.TASK, 12345));
+
+        Assertions.assertEquals(List.of(task), replica.getAllTasks());
+        Assertions.assertEquals(List.of(subTask), replica.getAllSubTasks());
+        Assertions.assertEquals(List.of(subTask), replica.epics.get(epic.getId()).getAllSubTasks());
+
+        replica.replicate(Operation.remove(TaskType.EPIC, epic.getId()));
+        Assertions.assertTrue(replica.getAllSubTasks().isEmpty());
+
+        Assertions.assertThrows(IllegalStateException.class, () -> replica.replicate(Operation.create(subTask)));
+
+        replica.reset();
+        Assertions.assertTrue(replica.getAllTasks().isEmpty());
+    }
+
+    @Test
+    public void readWhileReplicatingTest() throws InterruptedException {
+        ReplicaTaskManager replica = new ReplicaTaskManager();
+
+        Epic epic = new Epic(1, "Эпик", "Описание эпика", new HashMap<>());
+        replica.replicate(Operation.update(epic));
+
+        AtomicReference<Throwable> failure = new AtomicReference<>();
+        Thread follower = new Thread(() -> {
+            try {
+                for (int i = 0; i < 20_000; i++) {
+                    int id = 2 + i % 50;
+                    LocalDateTime startTime = START_TIME.plusHours(i % 50);
+                    if (i % 3 == 0) {
+                        replica.replicate(Operation.remove(i % 2 == 0 ? TaskType.TASK : TaskType.SUBTASK, id));
+                    } else if (i % 2 == 0) {
+                        replica.replicate(Operation.update(new Task(id, "Задача", "Описание задачи", TaskStatus.NEW, startTime, Duration.ofMinutes(30))));
+                    } else {
+                        replica.replicate(Operation.update(new SubTask(id, "Подзадача", "Описание подзадачи", TaskStatus.DONE, startTime, Duration.ofMinutes(30), epic.getId())));
+                    }
+                }
+            } catch (Throwable ex) {
+                failure.set(ex);
+            }
+        });
+        follower.start();
+
+        long seen = 0;
+        while (follower.isAlive()) {
+            for (Task task : replica.getPrioritizedTasks()) {
+                seen += task.getId();
+            }
+
+            for (Epic replicaEpic : replica.getAllEpics()) {
+                seen += replicaEpic.getAllSubTasks().size();
+            }
+
+            replica.getEpicById(epic.getId()).orElseThrow().getStatus();
+            seen += replica.getHistory().size() + replica.getAllTasks().size() + replica.getChangesSince(0).getVersion();
+        }
+        follower.join();
+
+        Assertions.assertNull(failure.get());
+        Assertions.assertTrue(seen > 0);
+        Assertions.assertEquals(replica.getAllSubTasks().size(), replica.epics.get(epic.getId()).getAllSubTasks().size());
+    }
+}
@@ -0,0 +1,222 @@
+package ru.yandex.practicum.managers.tasks;
+
+// region imports
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import ru.yandex.practicum.constants.RecurrenceFrequency;
+import ru.yandex.practicum.constants.TaskType;
+import ru.yandex.practicum.models.AbstractTask;
+import ru.yandex.practicum.models.ChangeSet;
+import ru.yandex.practicum.models.Epic;
+import ru.yandex.practicum.models.Operation;
+import ru.yandex.practicum.models.RecurringTask;
+import ru.yandex.practicum.models.SubTask;
+import ru.yandex.practicum.models.Task;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.stream.Stream;
+
+// endregion
+
+public final class ShardedTaskManagerTest {
+    private static final LocalDateTime START_TIME = LocalDateTime.of(2024, 1, 1, 0, 0);
+
+    private File directory;
+    private ShardedTaskManager taskManager;
+
+    @BeforeEach
+    public void beforeEach() {
+        this.directory = new File("./sharded-storage");
+        this.taskManager = new ShardedTaskManager(4);
+    }
+
+    @AfterEach
+    public void afterEach() throws IOException {
+        if (this.directory.exists()) {
+            try (Stream<Path> files = Files.list(this.directory.toPath())) {
+                for (Path file : files.toList()) {
+                    Files.delete(file);
+                }
+            }
+            Files.delete(this.directory.toPath());
+        }
+    }
+
+    @Test
+    public void createShardedTaskManagerWithInvalidShardCountTest() {
+        Assertions.assertThrows(IllegalArgumentException.class, () -> new ShardedTaskManager(0));
+    }
+
+    @Test
+    public void createAndGetAcrossShardsTest() {
+        List<Task> tasks = new ArrayList<>();
+        for (int i = 0; i < 10; i++) {
+            Task task = new Task("Задача " + i, "Описание задачи " + i, START_TIME.plusHours(i), Duration.ofMinutes(30));
+            this.taskManager.createTask(task);
+            tasks.add(task);
+        }
+
+        Epic epic = new Epic("Эпик", "Описание эпика");
+        this.taskManager.createEpic(epic);
+
+        SubTask subTask = new SubTask("Подзадача", "Описание подзадачи", START_TIME.plusHours(20), Duration.ofMinutes(30), epic.getId());
+        epic.addSubTask(subTask);
+        this.taskManager.createSubTask(subTask);
+
+        Assertions.assertEquals(tasks, this.taskManager.getAllTasks());
+        Assertions.assertEquals(List.of(subTask), this.taskManager.getAllSubTasks());
+        Assertions.assertEquals(List.of(subTask), this.taskManager.getSubTasksByEpic(epic));
+        Assertions.assertEquals(subTask, this.taskManager.getSubTaskById(subTask.getId()).orElseThrow());
+        Assertions.assertEquals(tasks.get(3), this.taskManager.getTaskById(tasks.get(3).getId()).orElseThrow());
+        Assertions.assertEquals(List.<AbstractTask>of(subTask, tasks.get(3)), this.taskManager.getHistory());
+    }
+
+    @Test
+    public void createCrossedTaskInOtherShardTest() {
+        Task task1 = new Task("Задача 1", "Описание задачи 1", START_TIME, Duration.ofHours(8));
+        this.taskManager.createTask(task1);
+
+        for (int i = 0; i < 4; i++) {
+            Task task = new Task("Задача", "Описание задачи", START_TIME.plusHours(4), Duration.ofHours(8));
+            Assertions.assertThrows(IllegalStateException.class, () -> this.taskManager.createTask(task));
+        }
+
+        Assertions.assertEquals(1, this.taskManager.getAllTasks().size());
+    }
+
+    @Test
+    public void createTaskInEarliestSlotAcrossShardsTest() {
+        // Промежутки по 30 минут между задачами разных сегментов: час в них не помещается.
+        for (int i = 0; i < 8; i++) {
+            this.taskManager.createTask(new Task("Задача " + i, "Описание задачи " + i, START_TIME.plusMinutes(90L * i), Duration.ofHours(1)));
+        }
+
+        Task task = this.taskManager.createTaskInEarliestSlot(new Task("Задача", "Описание задачи", START_TIME, Duration.ofHours(1)));
+
+        Assertions.assertEquals(START_TIME.plusMinutes(90L * 7).plusHours(1), task.getStartTime());
+        Assertions.assertEquals(START_TIME.plusHours(1), this.taskManager.findEarliestSlot(START_TIME, Duration.ofMinutes(30)));
+        Assertions.assertEquals(9, this.taskManager.getAllTasks().size());
+    }
+
+    @Test
+    public void findEarliestSlotWithoutGapBetweenOccurrencesOfShardsTest() {
+        // Повторения двух сегментов сдвигают время друг за другом, оставляя промежутки по 30 минут.
+        this.taskManager.createRecurringTask(new RecurringTask("Смена 1", "Описание смены 1", START_TIME, Duration.ofHours(11), RecurrenceFrequency.DAILY, null));
+        this.taskManager.createRecurringTask(new RecurringTask("Смена 2", "Описание смены 2", START_TIME.plusMinutes(690), Duration.ofHours(12), RecurrenceFrequency.DAILY, null));
+
+        Assertions.assertThrows(IllegalStateException.class, () -> this.taskManager.findEarliestSlot(START_TIME, Duration.ofHours(1)));
+        Assertions.assertEquals(START_TIME.plusHours(11), this.taskManager.findEarliestSlot(START_TIME, Duration.ofMinutes(30)));
+    }
+
+    @Test
+    public void getPrioritizedTasksMergesShardsTest() {
+        for (int i = 9; i >= 0; i--) {
+            this.taskManager.createTask(new Task("Задача " + i, "Описание задачи " + i, START_TIME.plusHours(i), Duration.ofMinutes(30)));
+        }
+
+        List<Task> prioritized = new ArrayList<>(this.taskManager.getPrioritizedTasks());
+
+        Assertions.assertEquals(10, prioritized.size());
+        Assertions.assertEquals(prioritized.stream().sorted(Comparator.comparing(Task::getStartTime)).toList(), prioritized);
+    }
+
+    @Test
+    public void applyBatchIsAtomicAcrossShardsTest() {
+        Task existing = new Task("Задача", "Описание задачи", START_TIME, Duration.ofHours(1));
+        this.taskManager.createTask(existing);
+
+        List<Operation> operations = new ArrayList<>();
+        for (int i = 1; i <= 4; i++) {
+            operations.add(Operation.create(new Task("Задача " + i, "Описание задачи " + i, START_TIME.plusHours(i), Duration.ofMinutes(30))));
+        }
+        operations.add(Operation.create(new Task("Задача 5", "Описание задачи 5", START_TIME.plusMinutes(30), Duration.ofHours(1))));
+
+        Assertions.assertThrows(IllegalStateException.class, () -> this.taskManager.applyBatch(operations));
+        Assertions.assertEquals(List.of(existing), this.taskManager.getAllTasks());
+
+        operations.removeLast();
+        this.taskManager.applyBatch(operations);
+        Assertions.assertEquals(5, this.taskManager.getAllTasks().size());
+    }
+
+    @Test
+    public void versionsAreSharedAcrossShardsTest() {
+        long version = this.taskManager.getVersion();
+
+        Task task1 = new Task("Задача 1", "Описание задачи 1", START_TIME, Duration.ofHours(1));
+        this.taskManager.createTask(task1);
+
+        Task task2 = new Task("Задача 2", "Описание задачи 2", START_TIME.plusHours(1), Duration.ofHours(1));
+        this.taskManager.createTask(task2);
+
+        this.taskManager.removeTaskById(task1.getId());
+
+        ChangeSet changeSet = this.taskManager.getChangesSince(version);
+
+        Assertions.assertEquals(version + 3, changeSet.getVersion());
+        Assertions.assertEquals(List.of(task2), changeSet.getTasks());
+        Assertions.assertEquals(1, changeSet.getRemoved().size());
+        Assertions.assertEquals(TaskType.TASK, changeSet.getRemoved().getFirst().getTaskType());
+        Assertions.assertEquals(version + 2, this.taskManager.getVersion(task2.getId()));
+    }
+
+    @Test
+    public void concurrentWritesToDifferentEpicsTest() throws InterruptedException {
+        List<Thread> threads = new ArrayList<>();
+        for (int i = 0; i < 4; i++) {
+            int thread = i;
+            threads.add(new Thread(() -> {
+                Epic epic = new Epic("Эпик " + thread, "Описание эпика " + thread);
+                this.taskManager.createEpic(epic);
+
+                for (int j = 0; j < 50; j++) {
+                    SubTask subTask = new SubTask("Подзадача", "Описание подзадачи", START_TIME.plusHours(thread * 100L + j), Duration.ofMinutes(30), epic.getId());
+                    epic.addSubTask(subTask);
+                    this.taskManager.createSubTask(subTask);
+                }
+            }));
+        }
+
+        threads.forEach(Thread::start);
+        for (Thread thread : threads) {
+            thread.join();
+        }
+
+        Assertions.assertEquals(4, this.taskManager.getAllEpics().size());
+        Assertions.assertEquals(200, this.taskManager.getAllSubTasks().size());
+        Assertions.assertEquals(200, this.taskManager.getPrioritizedTasks().size());
+    }
+
+    @Test
+    public void loadShardsFromDirectoryTest() {
+        ShardedTaskManager storedTaskManager = new ShardedTaskManager(this.directory, 4);
+
+        Epic epic = new Epic("Эпик", "Описание эпика");
+        storedTaskManager.createEpic(epic);
+
+        SubTask subTask = new SubTask("Подзадача", "Описание подзадачи", START_TIME, Duration.ofMinutes(30), epic.getId());
+        epic.addSubTask(subTask);
+        storedTaskManager.createSubTask(subTask);
+
+        Task task = new Task("Задача", "Описание задачи", START_TIME.plusHours(1), Duration.ofMinutes(30));
+        storedTaskManager.createTask(task);
+
+        ShardedTaskManager loadedTaskManager = new ShardedTaskManager(this.directory, 4);
+
+        Assertions.assertEquals(List.of(task), loadedTaskManager.getAllTasks());
+        Assertions.assertEquals(List.of(epic), loadedTaskManager.getAllEpics());
+        Assertions.assertEquals(List.of(subTask), loadedTaskManager.getAllSubTasks());
+        Assertions.assertTrue(loadedTaskManager.getSubTaskById(subTask.getId()).isPresent());
+    }
+}
@@ -0,0 +1,98 @@
+package ru.yandex.practicum.models;
+
+// region imports
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import ru.yandex.practicum.constants.RecurrenceFrequency;
+import ru.yandex.practicum.constants.TaskStatus;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+// endregion
+
+public class RecurringTaskTest {
+    private static final LocalDateTime START_TIME = LocalDateTime.of(2024, 1, 1, 9, 0);
+
+    @Test
+    public void createRecurringTaskWithInvalidScheduleTest() {
+        Assertions.assertThrows(IllegalArgumentException.class, () -> new RecurringTask("Задача", "Описание", START_TIME, Duration.ofHours(1), null, null));
+        Assertions.assertThrows(IllegalArgumentException.class, () -> new RecurringTask("Задача", "Описание", START_TIME, Duration.ofHours(25), RecurrenceFrequency.DAILY, null));
+        Assertions.assertThrows(IllegalArgumentException.class, () -> new RecurringTask("Задача", "Описание", START_TIME, Duration.ofHours(1), RecurrenceFrequency.DAILY, START_TIME.minusDays(1)));
+    }
+
+    @Test
+    public void getOccurrencesTest() {
+        RecurringTask recurringTask = new RecurringTask(1, "Планёрка", "Описание", TaskStatus.NEW, START_TIME, Duration.ofMinutes(30), RecurrenceFrequency.DAILY, START_TIME.plusDays(9));
+
+        List<Task> occurrences = recurringTask.getOccurrences(START_TIME.plusDays(2).plusMinutes(15), START_TIME.plusDays(4).plusMinutes(1));
+        Assertions.assertEquals(3, occurrences.size());
+        Assertions.assertEquals(START_TIME.plusDays(2), occurrences.get(0).getStartTime());
+        Assertions.assertEquals(START_TIME.plusDays(4), occurrences.get(2).getStartTime());
+        Assertions.assertEquals(1, occurrences.get(0).getId());
+
+        Assertions.assertTrue(recurringTask.getOccurrences(START_TIME.minusDays(5), START_TIME.minusDays(1)).isEmpty());
+        Assertions.assertEquals(10, recurringTask.getOccurrences(START_TIME.minusYears(1), START_TIME.plusYears(1)).size());
+
+        Assertions.assertTrue(recurringTask.hasOccurrence(START_TIME.plusDays(9)));
+        Assertions.assertFalse(recurringTask.hasOccurrence(START_TIME.plusDays(10)));
+        Assertions.assertFalse(recurringTask.hasOccurrence(START_TIME.plusDays(1).plusHours(1)));
+    }
+
+    @Test
+    public void overrideAndCancelOccurrencesTest() {
+        RecurringTask recurringTask = new RecurringTask(1, "Планёрка", "Описание", TaskStatus.NEW, START_TIME, Duration.ofMinutes(30), RecurrenceFrequency.DAILY, null);
+
+        recurringTask.overrideOccurrence(START_TIME.plusDays(1), new Task(1, "Планёрка", "Описание", TaskStatus.DONE, START_TIME.plusDays(1).plusHours(3), Duration.ofMinutes(30)));
+        recurringTask.cancelOccurrence(START_TIME.plusDays(2));
+
+        List<Task> occurrences = recurringTask.getOccurrences(START_TIME, START_TIME.plusDays(3).plusHours(1));
+        Assertions.assertEquals(3, occurrences.size());
+        Assertions.assertEquals(START_TIME, occurrences.get(0).getStartTime());
+        Assertions.assertEquals(START_TIME.plusDays(1).plusHours(3), occurrences.get(1).getStartTime());
+        Assertions.assertEquals(TaskStatus.DONE, occurrences.get(1).getStatus());
+        Assertions.assertEquals(START_TIME.plusDays(3), occurrences.get(2).getStartTime());
+
+        Assertions.assertThrows(IllegalStateException.class, () -> recurringTask.cancelOccurrence(START_TIME.plusHours(1)));
+        Assertions.assertThrows(IllegalStateException.class, () -> recurringTask.overrideOccurrence(START_TIME.plusDays(4), new Task(1, "Планёрка", "Описание", TaskStatus.NEW, START_TIME.plusDays(5), Duration.ofMinutes(30))));
+        Assertions.assertThrows(IllegalArgumentException.class, () -> recurringTask.overrideOccurrence(START_TIME.plusDays(4), new Task(2, "Планёрка", "Описание", TaskStatus.NEW, START_TIME.plusDays(4), Duration.ofMinutes(30))));
+
+        // Повторение можно вернуть отменённому дню, изменив его.
+        recurringTask.overrideOccurrence(START_TIME.plusDays(2), new Task(1, "Планёрка", "Описание", TaskStatus.NEW, START_TIME.plusDays(2), Duration.ofMinutes(30)));
+        Assertions.assertTrue(recurringTask.getCancelledOccurrences().isEmpty());
+        Assertions.assertEquals(2, recurringTask.getOverrides().size());
+    }
+
+    @Test
+    public void isCrossedWithTaskTest() {
+        RecurringTask recurringTask = new RecurringTask(1, "Планёрка", "Описание", TaskStatus.NEW, START_TIME, Duration.ofHours(1), RecurrenceFrequency.WEEKLY, null);
+
+        Assertions.assertTrue(recurringTask.isCrossed(new Task(2, "Задача", "Описание", TaskStatus.NEW, START_TIME.plusWeeks(52).plusMinutes(30), Duration.ofHours(1))));
+        Assertions.assertFalse(recurringTask.isCrossed(new Task(2, "Задача", "Описание", TaskStatus.NEW, START_TIME.plusWeeks(52).plusHours(1), Duration.ofHours(1))));
+        Assertions.assertFalse(recurringTask.isCrossed(new Task(2, "Задача", "Описание", TaskStatus.NEW, START_TIME.plusDays(3), Duration.ofHours(1))));
+
+        Assertions.assertEquals(Optional.of(START_TIME.plusWeeks(2).plusHours(1)), recurringTask.findCrossingEndTime(START_TIME.plusWeeks(2).minusMinutes(30), Duration.ofHours(1)));
+
+        recurringTask.cancelOccurrence(START_TIME.plusWeeks(2));
+        Assertions.assertTrue(recurringTask.findCrossingEndTime(START_TIME.plusWeeks(2).minusMinutes(30), Duration.ofHours(1)).isEmpty());
+    }
+
+    @Test
+    public void isCrossedWithRecurringTaskTest() {
+        RecurringTask daily = new RecurringTask(1, "Планёрка", "Описание", TaskStatus.NEW, START_TIME, Duration.ofHours(1), RecurrenceFrequency.DAILY, null);
+        RecurringTask weekly = new RecurringTask(2, "Отчёт", "Описание", TaskStatus.NEW, START_TIME.plusDays(100).plusMinutes(30), Duration.ofHours(1), RecurrenceFrequency.WEEKLY, null);
+        RecurringTask shifted = new RecurringTask(3, "Обзор", "Описание", TaskStatus.NEW, START_TIME.plusDays(100).plusHours(1), Duration.ofHours(1), RecurrenceFrequency.WEEKLY, null);
+        RecurringTask finished = new RecurringTask(4, "Отчёт", "Описание", TaskStatus.NEW, START_TIME.minusDays(30).plusMinutes(30), Duration.ofHours(1), RecurrenceFrequency.WEEKLY, START_TIME.minusDays(1));
+
+        Assertions.assertTrue(daily.isCrossed(weekly));
+        Assertions.assertTrue(weekly.isCrossed(daily));
+        Assertions.assertFalse(daily.isCrossed(shifted));
+        Assertions.assertFalse(daily.isCrossed(finished));
+
+        shifted.overrideOccurrence(START_TIME.plusDays(107).plusHours(1), new Task(3, "Обзор", "Описание", TaskStatus.NEW, START_TIME.plusDays(108), Duration.ofHours(1)));
+        Assertions.assertTrue(daily.isCrossed(shifted));
+    }
+}
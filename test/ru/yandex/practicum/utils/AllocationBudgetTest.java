@@ -0,0 +1,92 @@
+package ru.yandex.practicum.utils;
+
+// region imports
+
+import com.google.gson.Gson;
+import org.junit.jupiter.api.Test;
+import ru.yandex.practicum.abstractions.HistoryManager;
+import ru.yandex.practicum.managers.history.InMemoryHistoryManager;
+import ru.yandex.practicum.managers.tasks.InMemoryTaskManager;
+import ru.yandex.practicum.models.Epic;
+import ru.yandex.practicum.models.SubTask;
+import ru.yandex.practicum.models.Task;
+import ru.yandex.practicum.utils.json.GsonFactory;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+
+// endregion
+
+/**
+ * Бюджеты выделения памяти для горячих операций. Бюджет - измеренное значение с небольшим запасом; если операция
+ * стала выделять больше, тест падает, и увеличение бюджета должно быть осознанным решением.
+ */
+public final class AllocationBudgetTest {
+    private static final LocalDateTime START_TIME = LocalDateTime.of(2024, 1, 1, 0, 0);
+
+    // Optional и узел истории просмотра.
+    private static final long GET_TASK_BY_ID_BUDGET = 64;
+
+    // Итератор значений HashMap подзадач, если анализ выхода не убрал его выделение.
+    private static final long EPIC_GET_STATUS_BUDGET = 32;
+
+    // Время завершения обеих задач вычисляется заново при каждой проверке.
+    private static final long IS_CROSSED_BUDGET = 64;
+
+    private static final long HISTORY_MANAGER_ADD_BUDGET = 32;
+
+    private static final long TASK_TO_JSON_BUDGET = 2048;
+
+    @Test
+    public void getTaskByIdTest() {
+        InMemoryTaskManager taskManager = new InMemoryTaskManager();
+        int[] ids = new int[64];
+        for (int i = 0; i < ids.length; i++) {
+            Task task = new Task("Задача", "Описание задачи", START_TIME.plusHours(i), Duration.ofMinutes(30));
+            taskManager.createTask(task);
+            ids[i] = task.getId();
+        }
+
+        AllocationMeter.assertWithinBudget("getTaskById", GET_TASK_BY_ID_BUDGET, i -> taskManager.getTaskById(ids[i & 63]));
+    }
+
+    @Test
+    public void epicGetStatusTest() {
+        Epic epic = new Epic("Эпик", "Описание эпика");
+        for (int i = 0; i < 10; i++) {
+            epic.addSubTask(new SubTask("Подзадача", "Описание подзадачи", START_TIME.plusHours(i), Duration.ofMinutes(30), epic.getId()));
+        }
+
+        AllocationMeter.assertWithinBudget("Epic.getStatus", EPIC_GET_STATUS_BUDGET, i -> epic.getStatus());
+    }
+
+    @Test
+    public void isCrossedTest() {
+        Task first = new Task("Задача", "Описание задачи", START_TIME, Duration.ofMinutes(30));
+        Task second = new Task("Задача", "Описание задачи", START_TIME.plusHours(1), Duration.ofMinutes(30));
+
+        AllocationMeter.assertWithinBudget("Task.isCrossed", IS_CROSSED_BUDGET, i -> first.isCrossed(second));
+    }
+
+    @Test
+    public void historyManagerAddTest() {
+        HistoryManager<Integer, Task> historyManager = new InMemoryHistoryManager<>();
+        Task[] tasks = new Task[64];
+        for (int i = 0; i < tasks.length; i++) {
+            tasks[i] = new Task("Задача", "Описание задачи", START_TIME.plusHours(i), Duration.ofMinutes(30));
+        }
+
+        AllocationMeter.assertWithinBudget("InMemoryHistoryManager.add", HISTORY_MANAGER_ADD_BUDGET, i -> {
+            historyManager.add(tasks[i & 63].getId(), tasks[i & 63]);
+            return historyManager;
+        });
+    }
+
+    @Test
+    public void taskToJsonTest() {
+        Gson gson = GsonFactory.getDefault();
+        Task task = new Task("Задача", "Описание задачи", START_TIME, Duration.ofMinutes(30));
+
+        AllocationMeter.assertWithinBudget("Gson.toJson(Task)", TASK_TO_JSON_BUDGET, i -> gson.toJson(task));
+    }
+}
@@ -0,0 +1,97 @@
+package ru.yandex.practicum.utils;
+
+// region imports
+
+import org.junit.jupiter.api.Assertions;
+
+import java.lang.management.ManagementFactory;
+import java.util.function.IntFunction;
+
+// endregion
+
+/**
+ * Замер объёма памяти, выделяемой текущим потоком на одну операцию.
+ * <p>
+ * Операция сначала многократно выполняется для прогрева, чтобы JIT успел скомпилировать её с анализом
+ * локальности (иначе объекты, которые в рабочем режиме не покидают метод, тоже попадают в замер). Затем объём
+ * выделенной памяти делится на количество вызовов.
+ */
+public final class AllocationMeter {
+    /**
+     * Количество вызовов для прогрева.
+     */
+    private static final int WARMUP_OPERATIONS = 50_000;
+
+    /**
+     * Количество измеряемых вызовов.
+     */
+    private static final int MEASURED_OPERATIONS = 20_000;
+
+    /**
+     * Количество попыток замера: берётся наименьший результат, чтобы исключить выделения, вызванные
+     * перекомпиляцией и служебными потоками JVM.
+     */
+    private static final int ATTEMPTS = 5;
+
+    /**
+     * Получатель результатов операций.
+     */
+    private static volatile int sink;
+
+    private AllocationMeter() {
+    }
+
+    /**
+     * Проверить, что операция укладывается в бюджет выделения памяти.
+     *
+     * @param name             название операции.
+     * @param budgetBytesPerOp бюджет в байтах на операцию.
+     * @param operation        операция; аргумент - порядковый номер вызова.
+     */
+    public static void assertWithinBudget(String name, long budgetBytesPerOp, IntFunction<?> operation) {
+        double bytesPerOp = measure(operation);
+
+        Assertions.assertTrue(bytesPerOp <= budgetBytesPerOp,
+                String.format("%s: выделяется %.1f байт на операцию при бюджете %d", name, bytesPerOp, budgetBytesPerOp));
+    }
+
+    /**
+     * Измерить объём памяти, выделяемой на операцию.
+     *
+     * @param operation операция; аргумент - порядковый номер вызова.
+     * @return объём памяти на операцию, байт.
+     */
+    public static double measure(IntFunction<?> operation) {
+        com.sun.management.ThreadMXBean threadMXBean = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        if (!threadMXBean.isThreadAllocatedMemorySupported()) {
+            return 0;
+        }
+        threadMXBean.setThreadAllocatedMemoryEnabled(true);
+
+        for (int i = 0; i < WARMUP_OPERATIONS; i++) {
+            consume(operation.apply(i));
+        }
+
+        double best = Double.MAX_VALUE;
+        for (int attempt = 0; attempt < ATTEMPTS; attempt++) {
+            long before = threadMXBean.getCurrentThreadAllocatedBytes();
+            for (int i = 0; i < MEASURED_OPERATIONS; i++) {
+                consume(operation.apply(i));
+            }
+            long allocated = threadMXBean.getCurrentThreadAllocatedBytes() - before;
+
+            best = Math.min(best, (double) allocated / MEASURED_OPERATIONS);
+        }
+
+        return best;
+    }
+
+    /**
+     * Передать результат операции получателю, чтобы JIT не мог выбросить вычисления.
+     *
+     * @param value результат операции.
+     */
+    private static void consume(Object value) {
+        sink += System.identityHashCode(value);
+    }
+}
@@ -0,0 +1,79 @@
+package ru.yandex.practicum.utils.ids;
+
+// region imports
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+// endregion
+
+public final class IdAllocatorTest {
+    @Test
+    public void createIdAllocatorWithInvalidBlockSizeTest() {
+        Assertions.assertThrows(IllegalArgumentException.class, () -> new IdAllocator(0));
+    }
+
+    @Test
+    public void nextIsSequentialWithinThreadTest() {
+        IdAllocator idAllocator = new IdAllocator(4);
+
+        for (int i = 1; i <= 10; i++) {
+            Assertions.assertEquals(i, idAllocator.next());
+        }
+        Assertions.assertEquals(12, idAllocator.getHighWaterMark());
+    }
+
+    @Test
+    public void nextIsUniqueAcrossThreadsTest() throws InterruptedException {
+        IdAllocator idAllocator = new IdAllocator(8);
+        Set<Integer> ids = ConcurrentHashMap.newKeySet();
+
+        List<Thread> threads = new ArrayList<>();
+        for (int i = 0; i < 8; i++) {
+            Thread thread = new Thread(() -> {
+                for (int j = 0; j < 10_000; j++) {
+                    ids.add(idAllocator.next());
+                }
+            });
+            threads.add(thread);
+            thread.start();
+        }
+
+        for (Thread thread : threads) {
+            thread.join();
+        }
+
+        Assertions.assertEquals(80_000, ids.size());
+        Assertions.assertTrue(ids.stream().allMatch(id -> id > 0 && id <= idAllocator.getHighWaterMark()));
+    }
+
+    @Test
+    public void advanceToRevokesLeasedBlocksTest() {
+        IdAllocator idAllocator = new IdAllocator(64);
+        Assertions.assertEquals(1, idAllocator.next());
+
+        idAllocator.advanceTo(10);
+        Assertions.assertEquals(65, idAllocator.next());
+
+        idAllocator.advanceTo(1_000);
+        Assertions.assertEquals(1_001, idAllocator.next());
+    }
+
+    @Test
+    public void restrictToSkipsRejectedIdsTest() {
+        IdAllocator idAllocator = new IdAllocator(4);
+        idAllocator.restrictTo(id -> id % 3 == 0);
+
+        Assertions.assertEquals(3, idAllocator.next());
+        Assertions.assertEquals(6, idAllocator.next());
+        Assertions.assertEquals(9, idAllocator.next());
+
+        idAllocator.restrictTo(null);
+        Assertions.assertEquals(10, idAllocator.next());
+    }
+}
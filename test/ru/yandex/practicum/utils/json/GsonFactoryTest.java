@@ -0,0 +1,106 @@
+package ru.yandex.practicum.utils.json;
+
+// region imports
+
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import ru.yandex.practicum.api.dto.EpicDto;
+import ru.yandex.practicum.api.dto.SubTaskDto;
+import ru.yandex.practicum.api.dto.TaskDto;
+import ru.yandex.practicum.constants.TaskStatus;
+import ru.yandex.practicum.models.AbstractTask;
+import ru.yandex.practicum.models.Epic;
+import ru.yandex.practicum.models.SubTask;
+import ru.yandex.practicum.models.Task;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.List;
+
+// endregion
+
+public final class GsonFactoryTest {
+    /**
+     * Сериализатор, использующий рефлексию, с которым сравнивается результат потоковых адаптеров.
+     */
+    private final Gson reflectiveGson = new GsonBuilder()
+            .registerTypeAdapter(Duration.class, new DurationTypeAdapter())
+            .registerTypeAdapter(LocalDateTime.class, new LocalDateTimeTypeAdapter())
+            .create();
+
+    private final Gson gson = GsonFactory.getDefault();
+
+    @Test
+    public void serializeLikeReflectionTest() {
+        Task task = new Task("Задача", "Описание \"задачи\"", LocalDateTime.of(2024, 1, 1, 10, 0), Duration.ofMinutes(90));
+        task.setStatus(TaskStatus.IN_PROGRESS);
+
+        Epic epic = new Epic("Эпик", "Описание эпика");
+        SubTask subTask1 = new SubTask("Подзадача №1", "Описание подзадачи №1", LocalDateTime.of(2024, 1, 2, 10, 0), Duration.ofHours(1), epic.getId());
+        SubTask subTask2 = new SubTask("Подзадача №2", "Описание подзадачи №2", LocalDateTime.of(2024, 1, 3, 10, 0), Duration.ofHours(1), epic.getId());
+        epic.addSubTask(subTask1);
+        epic.addSubTask(subTask2);
+
+        Assertions.assertEquals(this.reflectiveGson.toJson(task), this.gson.toJson(task));
+        Assertions.assertEquals(this.reflectiveGson.toJson(subTask1), this.gson.toJson(subTask1));
+        Assertions.assertEquals(this.reflectiveGson.toJson(epic), this.gson.toJson(epic));
+
+        Epic emptyEpic = new Epic("Эпик", "Без подзадач");
+        Assertions.assertEquals(this.reflectiveGson.toJson(emptyEpic), this.gson.toJson(emptyEpic));
+
+        List<AbstractTask> history = Arrays.asList(task, epic, subTask2);
+        Assertions.assertEquals(this.reflectiveGson.toJson(history), this.gson.toJson(history));
+    }
+
+    @Test
+    public void deserializeModelsTest() {
+        Epic epic = new Epic("Эпик", "Описание эпика");
+        SubTask subTask = new SubTask("Подзадача", "Описание подзадачи", LocalDateTime.of(2024, 1, 2, 10, 0), Duration.ofHours(1), epic.getId());
+        epic.addSubTask(subTask);
+
+        Epic epicCopy = this.gson.fromJson(this.gson.toJson(epic), Epic.class);
+
+        Assertions.assertEquals(epic.getId(), epicCopy.getId());
+        Assertions.assertEquals(epic.getName(), epicCopy.getName());
+        Assertions.assertEquals(1, epicCopy.getAllSubTasks().size());
+
+        SubTask subTaskCopy = epicCopy.getAllSubTasks().getFirst();
+        Assertions.assertEquals(subTask.getId(), subTaskCopy.getId());
+        Assertions.assertEquals(subTask.getEpicId(), subTaskCopy.getEpicId());
+        Assertions.assertEquals(subTask.getStartTime(), subTaskCopy.getStartTime());
+        Assertions.assertEquals(subTask.getDuration(), subTaskCopy.getDuration());
+        Assertions.assertEquals(subTask.getStatus(), subTaskCopy.getStatus());
+    }
+
+    @Test
+    public void deserializeDtoTest() {
+        String json = "{\"id\":5,\"name\":\"Задача\",\"description\":\"Описание\",\"startTime\":\"2024-01-01T10:00\",\"duration\":\"PT1H\",\"status\":\"DONE\",\"unknown\":[1,2]}";
+
+        TaskDto taskDto = this.gson.fromJson(json, TaskDto.class);
+
+        Assertions.assertEquals(5, taskDto.id);
+        Assertions.assertEquals("Задача", taskDto.name);
+        Assertions.assertEquals("Описание", taskDto.description);
+        Assertions.assertEquals(LocalDateTime.of(2024, 1, 1, 10, 0), taskDto.startTime);
+        Assertions.assertEquals(Duration.ofHours(1), taskDto.duration);
+        Assertions.assertEquals(TaskStatus.DONE, taskDto.status);
+
+        SubTaskDto subTaskDto = this.gson.fromJson("{\"name\":\"Подзадача\",\"epicId\":3,\"startTime\":null}", SubTaskDto.class);
+
+        Assertions.assertEquals(3, subTaskDto.epicId);
+        Assertions.assertEquals("Подзадача", subTaskDto.name);
+        Assertions.assertEquals(null, subTaskDto.id);
+        Assertions.assertEquals(null, subTaskDto.startTime);
+
+        EpicDto epicDto = this.gson.fromJson("{\"id\":7,\"name\":\"Эпик\",\"description\":\"Описание\"}", EpicDto.class);
+
+        Assertions.assertEquals(7, epicDto.id);
+        Assertions.assertEquals("Эпик", epicDto.name);
+        Assertions.assertEquals("Описание", epicDto.description);
+        Assertions.assertEquals(this.reflectiveGson.toJson(epicDto), this.gson.toJson(epicDto));
+        Assertions.assertEquals(this.reflectiveGson.toJson(taskDto), this.gson.toJson(taskDto));
+    }
+}
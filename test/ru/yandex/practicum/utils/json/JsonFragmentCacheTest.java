@@ -0,0 +1,86 @@
+package ru.yandex.practicum.utils.json;
+
+// region imports
+
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import ru.yandex.practicum.abstractions.TaskManager;
+import ru.yandex.practicum.constants.TaskStatus;
+import ru.yandex.practicum.managers.tasks.InMemoryTaskManager;
+import ru.yandex.practicum.models.Epic;
+import ru.yandex.practicum.models.SubTask;
+import ru.yandex.practicum.models.Task;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.LocalDateTime;
+
+// endregion
+
+public final class JsonFragmentCacheTest {
+    private TaskManager taskManager;
+    private Gson gson;
+    private JsonFragmentCache jsonCache;
+
+    @BeforeEach
+    public void beforeEach() {
+        this.taskManager = new InMemoryTaskManager();
+        this.gson = new GsonBuilder()
+                .registerTypeAdapter(Duration.class, new DurationTypeAdapter())
+                .registerTypeAdapter(LocalDateTime.class, new LocalDateTimeTypeAdapter())
+                .create();
+        this.jsonCache = new JsonFragmentCache(this.taskManager, this.gson);
+    }
+
+    @Test
+    public void getCachedTaskTest() {
+        Task task = new Task("Задача", "Описание задачи", LocalDateTime.now(), Duration.ofHours(1));
+        this.taskManager.createTask(task);
+
+        byte[] json = this.jsonCache.get(task);
+
+        Assertions.assertEquals(this.gson.toJson(task), new String(json, StandardCharsets.UTF_8));
+        Assertions.assertSame(json, this.jsonCache.get(task));
+        Assertions.assertEquals(1, this.jsonCache.size());
+    }
+
+    @Test
+    public void getUpdatedTaskTest() {
+        Task task = new Task("Задача", "Описание задачи", LocalDateTime.now(), Duration.ofHours(1));
+        this.taskManager.createTask(task);
+        this.jsonCache.get(task);
+
+        Task taskClone = Task.clone(task);
+        taskClone.setStatus(TaskStatus.DONE);
+        this.taskManager.updateTask(taskClone);
+
+        Assertions.assertEquals(this.gson.toJson(taskClone), new String(this.jsonCache.get(taskClone), StandardCharsets.UTF_8));
+    }
+
+    @Test
+    public void getEpicAfterSubTaskChangeTest() {
+        Epic epic = new Epic("Эпик", "Описание эпика");
+        this.taskManager.createEpic(epic);
+        byte[] emptyEpicJson = this.jsonCache.get(epic);
+
+        SubTask subTask = new SubTask("Подзадача", "Описание подзадачи", LocalDateTime.now(), Duration.ofHours(1), epic.getId());
+        epic.addSubTask(subTask);
+        this.taskManager.createSubTask(subTask);
+
+        byte[] epicJson = this.jsonCache.get(epic);
+
+        Assertions.assertNotSame(emptyEpicJson, epicJson);
+        Assertions.assertEquals(this.gson.toJson(epic), new String(epicJson, StandardCharsets.UTF_8));
+    }
+
+    @Test
+    public void getTaskNotOwnedByManagerTest() {
+        Task task = new Task("Задача", "Описание задачи", LocalDateTime.now(), Duration.ofHours(1));
+
+        Assertions.assertEquals(this.gson.toJson(task), new String(this.jsonCache.get(task), StandardCharsets.UTF_8));
+        Assertions.assertEquals(0, this.jsonCache.size());
+    }
+}
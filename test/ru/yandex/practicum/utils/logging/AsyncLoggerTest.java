@@ -0,0 +1,70 @@
+package ru.yandex.practicum.utils.logging;
+
+// region imports
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.stream.Stream;
+
+// endregion
+
+public final class AsyncLoggerTest {
+    private Path directory;
+
+    @BeforeEach
+    public void beforeEach() throws IOException {
+        this.directory = Files.createTempDirectory("logs");
+    }
+
+    @AfterEach
+    public void afterEach() throws IOException {
+        try (Stream<Path> files = Files.walk(this.directory)) {
+            for (Path file : files.sorted(Comparator.reverseOrder()).toList()) {
+                Files.delete(file);
+            }
+        }
+    }
+
+    @Test
+    public void writeStructuredLinesTest() throws IOException {
+        Path file = this.directory.resolve("access.log");
+        AsyncLogger logger = new AsyncLogger("access", new RollingFileWriter(file, 1024 * 1024, 1), 16, new LongAdder());
+
+        logger.info("request", "method", "GET", "path", "/tasks/\"1\"", "status", 200);
+        logger.error("Ошибка", new IllegalStateException("сбой"));
+        logger.close();
+
+        List<String> lines = Files.readAllLines(file, StandardCharsets.UTF_8);
+        Assertions.assertEquals(2, lines.size());
+        Assertions.assertTrue(lines.get(0).contains("\"level\":\"INFO\",\"logger\":\"access\",\"message\":\"request\",\"method\":\"GET\",\"path\":\"/tasks/\\\"1\\\"\",\"status\":200}"));
+        Assertions.assertTrue(lines.get(1).contains("\"error\":\"java.lang.IllegalStateException: сбой\""));
+        Assertions.assertTrue(lines.get(1).contains("\"stackTrace\":\"java.lang.IllegalStateException: сбой\\n\\tat "));
+        Assertions.assertEquals(0, logger.getDropped());
+    }
+
+    @Test
+    public void rollFilesTest() throws IOException {
+        Path file = this.directory.resolve("application.log");
+        RollingFileWriter writer = new RollingFileWriter(file, 100, 2);
+
+        for (int i = 0; i < 10; i++) {
+            writer.write("x".repeat(39));
+        }
+        writer.close();
+
+        Assertions.assertEquals(80, Files.size(file));
+        Assertions.assertEquals(80, Files.size(this.directory.resolve("application.log.1")));
+        Assertions.assertEquals(80, Files.size(this.directory.resolve("application.log.2")));
+        Assertions.assertFalse(Files.exists(this.directory.resolve("application.log.3")));
+    }
+}
@@ -0,0 +1,70 @@
+package ru.yandex.practicum.utils.logging;
+
+// region imports
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+// endregion
+
+public final class RingBufferTest {
+    @Test
+    public void offerAndPollTest() {
+        RingBuffer<Integer> buffer = new RingBuffer<>(3);
+        Assertions.assertEquals(4, buffer.getCapacity());
+        Assertions.assertTrue(buffer.isEmpty());
+        Assertions.assertNull(buffer.poll());
+
+        for (int i = 0; i < 4; i++) {
+            Assertions.assertTrue(buffer.offer(i));
+        }
+        Assertions.assertFalse(buffer.offer(4));
+
+        Assertions.assertEquals(0, buffer.poll());
+        Assertions.assertTrue(buffer.offer(4));
+
+        for (int i = 1; i <= 4; i++) {
+            Assertions.assertEquals(i, buffer.poll());
+        }
+        Assertions.assertTrue(buffer.isEmpty());
+    }
+
+    @Test
+    public void concurrentProducersTest() throws InterruptedException {
+        RingBuffer<Integer> buffer = new RingBuffer<>(1024);
+        int producers = 4;
+        int perProducer = 10_000;
+
+        List<Thread> threads = new ArrayList<>();
+        for (int p = 0; p < producers; p++) {
+            int base = p * perProducer;
+            Thread thread = new Thread(() -> {
+                for (int i = 0; i < perProducer; i++) {
+                    while (!buffer.offer(base + i)) {
+                        Thread.onSpinWait();
+                    }
+                }
+            });
+            threads.add(thread);
+            thread.start();
+        }
+
+        Set<Integer> received = new HashSet<>();
+        while (received.size() < producers * perProducer) {
+            Integer value = buffer.poll();
+            if (value != null) {
+                Assertions.assertTrue(received.add(value));
+            }
+        }
+
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        Assertions.assertTrue(buffer.isEmpty());
+    }
+}
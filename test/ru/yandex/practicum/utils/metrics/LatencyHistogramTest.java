@@ -0,0 +1,40 @@
+package ru.yandex.practicum.utils.metrics;
+
+// region imports
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+// endregion
+
+public final class LatencyHistogramTest {
+    @Test
+    public void bucketBoundsTest() {
+        for (long value : new long[]{0, 1, 63, 64, 65, 127, 128, 1_000, 1_000_000, 123_456_789_000L, Long.MAX_VALUE}) {
+            int index = LatencyHistogram.bucketIndex(value);
+            Assertions.assertTrue(LatencyHistogram.bucketUpperBound(index) >= value);
+            Assertions.assertTrue(index == 0 || LatencyHistogram.bucketUpperBound(index - 1) < value);
+        }
+    }
+
+    @Test
+    public void getValueAtQuantileTest() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        Assertions.assertEquals(0, histogram.getValueAtQuantile(0.99));
+
+        for (int i = 1; i <= 1_000; i++) {
+            histogram.record(i * 1_000L);
+        }
+
+        Assertions.assertEquals(1_000, histogram.getCount());
+        Assertions.assertEquals(500_500_000L, histogram.getSum());
+
+        assertWithinPrecision(500_000, histogram.getValueAtQuantile(0.5));
+        assertWithinPrecision(990_000, histogram.getValueAtQuantile(0.99));
+        assertWithinPrecision(1_000_000, histogram.getValueAtQuantile(1));
+    }
+
+    private static void assertWithinPrecision(long expected, long actual) {
+        Assertions.assertTrue(actual >= expected && actual <= expected + expected / 32, "expected ~" + expected + ", actual " + actual);
+    }
+}
@@ -0,0 +1,44 @@
+package ru.yandex.practicum.utils.metrics;
+
+// region imports
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.StringWriter;
+
+// endregion
+
+public final class MetricsRegistryTest {
+    @Test
+    public void writePrometheusTextTest() throws IOException {
+        MetricsRegistry metricsRegistry = new MetricsRegistry();
+        metricsRegistry.counter("requests_total", "Запросы", "route", "/tasks", "code", "200").add(3);
+        metricsRegistry.counter("requests_total", "Запросы", "route", "/tasks", "code", "200").increment();
+        metricsRegistry.histogram("duration_seconds", "Длительность", "route", "/tasks").record(2_000_000);
+        metricsRegistry.gauge("resident", "Загружено").set(5);
+        metricsRegistry.gauge("resident", "Загружено").decrementAndGet();
+
+        StringWriter writer = new StringWriter();
+        metricsRegistry.write(writer);
+        String text = writer.toString();
+
+        Assertions.assertTrue(text.contains("# TYPE requests_total counter\n"));
+        Assertions.assertTrue(text.contains("requests_total{route=\"/tasks\",code=\"200\"} 4\n"));
+        Assertions.assertTrue(text.contains("# TYPE duration_seconds summary\n"));
+        Assertions.assertTrue(text.contains("duration_seconds{route=\"/tasks\",quantile=\"0.99\"} 0.00"));
+        Assertions.assertTrue(text.contains("duration_seconds_count{route=\"/tasks\"} 1\n"));
+        Assertions.assertTrue(text.contains("# TYPE resident gauge\nresident 4\n"));
+    }
+
+    @Test
+    public void registerDifferentTypesTest() {
+        MetricsRegistry metricsRegistry = new MetricsRegistry();
+        metricsRegistry.counter("value", "Значение");
+
+        Assertions.assertThrows(IllegalStateException.class, () -> metricsRegistry.histogram("value", "Значение"));
+        Assertions.assertThrows(IllegalArgumentException.class, () -> metricsRegistry.counter("bad name", "Значение"));
+        Assertions.assertThrows(IllegalArgumentException.class, () -> metricsRegistry.counter("value", "Значение", "route"));
+    }
+}
@@ -0,0 +1,67 @@
+package ru.yandex.practicum.utils.routing;
+
+// region imports
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+// endregion
+
+public final class ConsistentHashRingTest {
+    private static final int KEYS = 100_000;
+
+    @Test
+    public void createRingWithInvalidParametersTest() {
+        Assertions.assertThrows(IllegalArgumentException.class, () -> new ConsistentHashRing(List.of()));
+        Assertions.assertThrows(IllegalArgumentException.class, () -> new ConsistentHashRing(List.of("8081", "8081")));
+        Assertions.assertThrows(IllegalArgumentException.class, () -> new ConsistentHashRing(List.of("8081"), 0));
+    }
+
+    @Test
+    public void locateIsDeterministicTest() {
+        ConsistentHashRing first = new ConsistentHashRing(List.of("8081", "8082", "8083"));
+        ConsistentHashRing second = new ConsistentHashRing(List.of("8081", "8082", "8083"));
+
+        for (int id = 1; id <= 1_000; id++) {
+            Assertions.assertEquals(first.locate(id), second.locate(id));
+            Assertions.assertEquals(first.locate("board:" + id), second.locate("board:" + id));
+        }
+    }
+
+    @Test
+    public void keysAreSpreadEvenlyTest() {
+        List<String> nodes = List.of("8081", "8082", "8083", "8084");
+        ConsistentHashRing ring = new ConsistentHashRing(nodes);
+
+        Map<String, Integer> counts = new HashMap<>();
+        for (int id = 1; id <= KEYS; id++) {
+            counts.merge(ring.locate(id), 1, Integer::sum);
+        }
+
+        for (String node : nodes) {
+            int count = counts.getOrDefault(node, 0);
+            Assertions.assertTrue(Math.abs(count - KEYS / nodes.size()) < KEYS / nodes.size() / 5, node + ": " + count);
+        }
+    }
+
+    @Test
+    public void addingNodeMovesOnlyItsShareTest() {
+        ConsistentHashRing before = new ConsistentHashRing(List.of("8081", "8082", "8083"));
+        ConsistentHashRing after = new ConsistentHashRing(List.of("8081", "8082", "8083", "8084"));
+
+        int moved = 0;
+        for (int id = 1; id <= KEYS; id++) {
+            String node = after.locate(id);
+            if (!node.equals(before.locate(id))) {
+                Assertions.assertEquals("8084", node);
+                moved++;
+            }
+        }
+
+        Assertions.assertTrue(moved > KEYS / 5 && moved < KEYS / 3, "moved: " + moved);
+    }
+}
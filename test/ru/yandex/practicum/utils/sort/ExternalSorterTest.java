@@ -0,0 +1,71 @@
+package ru.yandex.practicum.utils.sort;
+
+// region imports
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.util.*;
+
+// endregion
+
+public final class ExternalSorterTest {
+    private static final ExternalSorter.Codec<int[]> CODEC = new ExternalSorter.Codec<>() {
+        @Override
+        public void write(DataOutput output, int[] item) throws IOException {
+            output.writeInt(item[0]);
+            output.writeInt(item[1]);
+        }
+
+        @Override
+        public int[] read(DataInput input) throws IOException {
+            return new int[]{input.readInt(), input.readInt()};
+        }
+    };
+
+    @Test
+    public void sortInMemoryTest() throws IOException {
+        try (ExternalSorter<int[]> sorter = new ExternalSorter<>(Comparator.comparingInt(item -> item[0]), CODEC, 100)) {
+            for (int key : new int[]{5, 3, 9, 1}) {
+                sorter.add(new int[]{key, 0});
+            }
+
+            Assertions.assertEquals(0, sorter.getRunCount());
+            Assertions.assertEquals(List.of(1, 3, 5, 9), keys(sorter.sorted()));
+        }
+    }
+
+    @Test
+    public void sortWithSpillingIsStableTest() throws IOException {
+        Random random = new Random(42);
+        List<int[]> expected = new ArrayList<>();
+
+        try (ExternalSorter<int[]> sorter = new ExternalSorter<>(Comparator.comparingInt(item -> item[0]), CODEC, 7)) {
+            for (int i = 0; i < 100; i++) {
+                int[] item = new int[]{random.nextInt(10), i};
+                expected.add(item);
+                sorter.add(item);
+            }
+
+            Assertions.assertEquals(100, sorter.size());
+            Assertions.assertEquals(14, sorter.getRunCount());
+
+            expected.sort(Comparator.comparingInt(item -> item[0]));
+
+            Iterator<int[]> sorted = sorter.sorted();
+            for (int[] item : expected) {
+                Assertions.assertArrayEquals(item, sorted.next());
+            }
+            Assertions.assertFalse(sorted.hasNext());
+        }
+    }
+
+    private static List<Integer> keys(Iterator<int[]> iterator) {
+        List<Integer> keys = new ArrayList<>();
+        iterator.forEachRemaining(item -> keys.add(item[0]));
+        return keys;
+    }
+}